@@ -0,0 +1,32 @@
+package com.bench;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * Shared fixtures for the benchmarks.
+ */
+final class Payloads {
+
+    private Payloads() { }
+
+    /** A 100-item {@code /search/repositories} response with GitHub's full repository objects. */
+    static byte[] search100() {
+        return resource("search-100.json");
+    }
+
+    /** The same 100 repositories as {@link #search100()}, as a GraphQL search response with only the scored fields. */
+    static byte[] graphql100() {
+        return resource("graphql-100.json");
+    }
+
+    private static byte[] resource(String name) {
+        try (InputStream in = Payloads.class.getResourceAsStream("/" + name)) {
+            if (in == null) throw new IllegalStateException(name + " missing from classpath");
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.bench;
+
+import com.repo.GitHubRepo;
+import com.service.ScoreCalculator;
+import com.store.RepoIndex;
+import com.store.SnapshotStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Top-10 rankings over a catalog of N repositories in 200 languages, the most common of
+ * which holds about a fifth of them: {@link RepoIndex} for a common and a rare language,
+ * against a filter-and-sort over {@link GitHubRepo} records. Setup also prints the heap the
+ * index retains per repository.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+public class RepoIndexBenchmark {
+
+    private static final long NOW = Instant.parse("2025-06-01T00:00:00Z").getEpochSecond();
+    private static final long SINCE = NOW - 180 * 86_400L;
+
+    @Param({"100000", "1000000"})
+    public int n;
+
+    private final ScoreCalculator calculator = ScoreCalculator.from(Map.of("stars", 0.7, "forks", 0.2, "recency", 0.1), 60);
+    private RepoIndex index;
+    private List<GitHubRepo> records;
+    private Path dir;
+
+    @Setup
+    public void setup() throws IOException {
+        SplittableRandom rnd = new SplittableRandom(11);
+        records = new ArrayList<>(n);
+        for (int i = 1; i <= n; i++) {
+            double r = rnd.nextDouble();
+            String language = "Lang" + (int) (200 * r * r * r);
+            records.add(new GitHubRepo(i, "owner" + i % 5_000 + "/repo" + i, "https://github.com/owner" + i % 5_000 + "/repo" + i,
+                    language, (int) Math.pow(10, rnd.nextDouble() * 5), rnd.nextInt(1_000),
+                    Instant.ofEpochSecond(NOW - rnd.nextLong(3 * 365 * 86_400L)).toString(), rnd.nextInt(30) == 0));
+        }
+
+        Runtime rt = Runtime.getRuntime();
+        System.gc();
+        long before = rt.totalMemory() - rt.freeMemory();
+        dir = Files.createTempDirectory("repo-index-bench");
+        try (SnapshotStore store = SnapshotStore.open(dir)) {
+            store.upsert(records);
+        }
+        SnapshotStore store = SnapshotStore.openWithHeapIndex(dir);
+        index = store.heapIndex();
+        store.close();
+        System.gc();
+        System.out.printf("%nRepoIndex: %d bytes per repository%n", (rt.totalMemory() - rt.freeMemory() - before) / n);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        try (var files = Files.list(dir)) {
+            for (Path f : files.toList()) Files.delete(f);
+        }
+        Files.delete(dir);
+    }
+
+    @Benchmark
+    public List<RepoIndex.Scored> indexCommonLanguage() {
+        return index.top("Lang0", SINCE, 10, calculator, NOW);
+    }
+
+    @Benchmark
+    public List<RepoIndex.Scored> indexRareLanguage() {
+        return index.top("Lang150", SINCE, 10, calculator, NOW);
+    }
+
+    @Benchmark
+    public List<GitHubRepo> recordsCommonLanguage() {
+        return records.stream()
+                .filter(r -> "Lang0".equals(r.language()))
+                .filter(r -> Instant.parse(r.pushed_at()).getEpochSecond() >= SINCE)
+                .sorted(Comparator.comparingDouble((GitHubRepo r) -> calculator.score(r)).reversed())
+                .limit(10)
+                .toList();
+    }
+}
@@ -0,0 +1,114 @@
+package com.bench;
+
+import com.parser.SearchResponseParser;
+import com.repo.GitHubRepo;
+import com.service.ScoreCalculator;
+import com.service.ScoreOptions;
+import com.service.ScoringContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scores the 100 repositories of the recorded search page, per record, per map and per
+ * primitive batch, with and without the fast timestamp/decay-table paths.
+ * {@code batchVectorized} only runs SIMD when built and run with {@code -Pjmh,vector};
+ * the forked JVM inherits the {@code --add-modules} flag from the launcher.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ScoreCalculatorBenchmark {
+
+    private static final Map<String, Double> WEIGHTS = Map.of("stars", 0.7, "forks", 0.2, "recency", 0.1);
+
+    private ScoreCalculator plain;
+    private ScoreCalculator fast;
+    private ScoreCalculator vectorized;
+    private List<GitHubRepo> repos;
+    private List<Map<String, Object>> maps;
+    private int[] stars;
+    private int[] forks;
+    private long[] pushed;
+    private double[] out;
+    private long now;
+
+    @Setup
+    public void setup() throws Exception {
+        plain = ScoreCalculator.from(WEIGHTS, 60, new ScoreOptions(false, false, false));
+        fast = ScoreCalculator.from(WEIGHTS, 60, new ScoreOptions(false, true, true));
+        vectorized = ScoreCalculator.from(WEIGHTS, 60, new ScoreOptions(true, true, true));
+        repos = SearchResponseParser.parse(new ByteArrayInputStream(Payloads.search100())).items();
+
+        maps = repos.stream().map(r -> {
+            Map<String, Object> m = new LinkedHashMap<>();
+            m.put("id", r.id());
+            m.put("full_name", r.full_name());
+            m.put("html_url", r.html_url());
+            m.put("language", r.language());
+            m.put("stargazers_count", r.stargazers_count());
+            m.put("forks_count", r.forks_count());
+            m.put("pushed_at", r.pushed_at());
+            m.put("archived", r.archived());
+            return m;
+        }).toList();
+
+        int n = repos.size();
+        stars = new int[n];
+        forks = new int[n];
+        pushed = new long[n];
+        out = new double[n];
+        for (int i = 0; i < n; i++) {
+            stars[i] = repos.get(i).stargazers_count();
+            forks[i] = repos.get(i).forks_count();
+            pushed[i] = Instant.parse(repos.get(i).pushed_at()).getEpochSecond();
+        }
+        now = Instant.now().getEpochSecond();
+    }
+
+    @Benchmark
+    public void recordPlain(Blackhole bh) {
+        for (GitHubRepo r : repos) bh.consume(plain.score(r));
+    }
+
+    @Benchmark
+    public void recordFastWithBatchClock(Blackhole bh) {
+        ScoringContext ctx = ScoringContext.now();
+        for (GitHubRepo r : repos) bh.consume(fast.score(r, ctx));
+    }
+
+    @Benchmark
+    public void map(Blackhole bh) {
+        for (Map<String, Object> m : maps) bh.consume(plain.score(m));
+    }
+
+    @Benchmark
+    public double[] batchScalar() {
+        fast.scoreBatch(stars, forks, pushed, now, out);
+        return out;
+    }
+
+    @Benchmark
+    public double[] batchVectorized() {
+        vectorized.scoreBatch(stars, forks, pushed, now, out);
+        return out;
+    }
+}
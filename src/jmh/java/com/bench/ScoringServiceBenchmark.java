@@ -0,0 +1,85 @@
+package com.bench;
+
+import com.client.GitHubClient;
+import com.repo.ScoreRepo;
+import com.service.HotRankingCache;
+import com.service.PeerRouter;
+import com.service.RawMetricsCache;
+import com.service.ScoreCalculator;
+import com.service.ScoreOverrides;
+import com.service.ScoringService;
+import com.store.SnapshotMode;
+import com.store.SnapshotStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs {@link ScoringService#fetchAndScore} end to end against an in-memory transport that
+ * answers every search with the recorded 100-item payload: request building, streaming
+ * parse, scoring and top-K ranking, without network or response caching. The
+ * {@code rescore} benchmark parses per-request weight overrides and rescores the cached raw
+ * metrics of the same search instead.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ScoringServiceBenchmark {
+
+    private ScoringService service;
+    private ScoringService cached;
+
+    @Setup
+    public void setup() {
+        byte[] payload = Payloads.search100();
+        RestTemplate rt = new RestTemplate((uri, method) -> {
+            MockClientHttpRequest request = new MockClientHttpRequest(method, uri);
+            MockClientHttpResponse response = new MockClientHttpResponse(payload, HttpStatus.OK);
+            response.getHeaders().add("Content-Type", "application/json");
+            request.setResponse(response);
+            return request;
+        });
+        GitHubClient client = new GitHubClient(rt, "http://in-memory");
+        ScoreCalculator calculator = ScoreCalculator.from(Map.of("stars", 0.7, "forks", 0.2, "recency", 0.1), 60);
+        service = new ScoringService(client, calculator);
+        cached = new ScoringService(client, calculator, new SimpleMeterRegistry(), SnapshotStore.disabled(),
+                SnapshotMode.OFF, HotRankingCache.disabled(), new RawMetricsCache(Duration.ofDays(1), 8), null,
+                PeerRouter.disabled());
+        cached.fetchAndScore("2024-01-01", "Java", 100);
+    }
+
+    @Benchmark
+    public List<ScoreRepo> top10Of100() {
+        return service.fetchAndScore("2024-01-01", "Java", 10);
+    }
+
+    @Benchmark
+    public List<ScoreRepo> all100() {
+        return service.fetchAndScore("2024-01-01", "Java", 100);
+    }
+
+    @Benchmark
+    public List<ScoreRepo> rescoreTop10Of100() {
+        return cached.fetchAndScore("2024-01-01", "Java", 10, ScoreOverrides.parse("stars:1,forks:0.5", 14.0));
+    }
+}
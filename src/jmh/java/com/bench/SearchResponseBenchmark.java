@@ -0,0 +1,80 @@
+package com.bench;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.parser.GraphQlSearchResponseParser;
+import com.parser.SearchResponseParser;
+import com.repo.CursorPage;
+import com.repo.GitHubRepo;
+import com.repo.SearchPage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Turns the recorded 100-item search payload into scoring input: the streaming
+ * {@link SearchResponseParser} against the former full {@code Map} deserialization followed
+ * by {@code trimRepo} and {@link GitHubRepo#from}, plus the {@link GraphQlSearchResponseParser}
+ * on the GraphQL response for the same 100 repositories.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SearchResponseBenchmark {
+
+    private static final String[] TRIMMED_KEYS = {
+            "id", "full_name", "html_url", "language", "stargazers_count", "forks_count", "pushed_at", "archived"
+    };
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private byte[] payload;
+    private byte[] graphqlPayload;
+
+    @Setup
+    public void setup() {
+        payload = Payloads.search100();
+        graphqlPayload = Payloads.graphql100();
+    }
+
+    @Benchmark
+    public SearchPage streaming() throws Exception {
+        return SearchResponseParser.parse(new ByteArrayInputStream(payload));
+    }
+
+    @Benchmark
+    public CursorPage graphql() throws Exception {
+        return GraphQlSearchResponseParser.parse(new ByteArrayInputStream(graphqlPayload));
+    }
+
+    @Benchmark
+    @SuppressWarnings("unchecked")
+    public List<GitHubRepo> mapAndTrim() throws Exception {
+        Map<String, Object> response = mapper.readValue(payload, Map.class);
+        List<Map<String, Object>> items = (List<Map<String, Object>>) response.get("items");
+        List<GitHubRepo> out = new ArrayList<>(items.size());
+        for (Map<String, Object> item : items) {
+            Map<String, Object> trimmed = new LinkedHashMap<>();
+            for (String key : TRIMMED_KEYS) {
+                if (item.containsKey(key)) trimmed.put(key, item.get(key));
+            }
+            out.add(GitHubRepo.from(trimmed));
+        }
+        return out;
+    }
+}
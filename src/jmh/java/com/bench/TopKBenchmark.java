@@ -0,0 +1,67 @@
+package com.bench;
+
+import com.repo.ScoreRepo;
+import com.service.TopK;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Ranking cost as a function of N (items scored) and K (items kept): {@link TopK} against
+ * sort-then-limit. Run with the GC profiler to read allocation per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TopKBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int n;
+
+    @Param({"10", "100", "1000"})
+    public int k;
+
+    private List<ScoreRepo> repos;
+
+    @Setup
+    public void setup() {
+        SplittableRandom rnd = new SplittableRandom(7);
+        repos = IntStream.range(0, n)
+                .mapToObj(i -> new ScoreRepo("o/r" + i, "", "Java", 0, 0, "", rnd.nextDouble() * 20))
+                .toList();
+    }
+
+    @Benchmark
+    public List<ScoreRepo> sortAndLimit() {
+        return repos.stream()
+                .sorted(Comparator.comparingDouble(ScoreRepo::score).reversed())
+                .limit(k)
+                .toList();
+    }
+
+    @Benchmark
+    public List<ScoreRepo> topK() {
+        TopK<ScoreRepo> top = new TopK<>(k);
+        for (ScoreRepo r : repos) {
+            if (top.accepts(r.score())) top.offer(r.score(), r);
+        }
+        return top.drainSorted();
+    }
+}
@@ -0,0 +1,36 @@
+package com.bench;
+
+import com.parser.WeightParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parses the weight CSV as configured in {@code score.weights}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WeightParserBenchmark {
+
+    @Param({"stars:0.7,forks:0.2,recency:0.1", "stars: 0.5 , forks:0.2 ,recency:0.3"})
+    public String csv;
+
+    @Benchmark
+    public Map<String, Double> parse() {
+        return WeightParser.parse(csv);
+    }
+}
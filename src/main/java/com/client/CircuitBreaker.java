@@ -0,0 +1,279 @@
+package com.client;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.SocketException;
+import java.net.UnknownHostException;
+import java.net.http.HttpTimeoutException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Circuit breaker in front of every GitHub call, so that an outage fails requests fast
+ * instead of holding request threads for the full timeout of every call.
+ * <p>After {@code failureThreshold} consecutive failures the circuit opens and calls are
+ * rejected with a {@link GitHubUnavailableException} without reaching GitHub. Once
+ * {@code openDuration} has passed, the circuit is half-open: the next call goes through
+ * as a probe while concurrent calls are still rejected. A successful probe closes the
+ * circuit and notifies the {@link #onClose} listeners; a failed one opens it again.</p>
+ * <p>Failures are I/O errors, including timeouts, and 5xx responses received before the
+ * response body is read. Other responses, 4xx included, count as successes since GitHub
+ * answered. Calls cancelled by interrupting their thread count as neither.</p>
+ */
+@Component
+public class CircuitBreaker implements ClientHttpRequestInterceptor, MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(CircuitBreaker.class);
+
+    /** Circuit states, in the order of their {@code github.circuit.state} gauge value. */
+    public enum State { CLOSED, HALF_OPEN, OPEN }
+
+    private final int failureThreshold;
+    private final long openMillis;
+    private final Clock clock;
+    private final List<Runnable> closeListeners = new CopyOnWriteArrayList<>();
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+    private boolean probing;
+    private long opened;
+    private long rejected;
+
+    /**
+     * Creates the breaker from configuration.
+     *
+     * @param failureThreshold consecutive failures that open the circuit; 0 disables it
+     * @param openDuration     how long the circuit stays open before a probe is let through
+     */
+    @Autowired
+    public CircuitBreaker(
+            @Value("${github.circuit.failure-threshold:5}") final int failureThreshold,
+            @Value("${github.circuit.open-duration:30s}") final Duration openDuration
+    ) {
+        this(failureThreshold, openDuration, Clock.systemUTC());
+    }
+
+    /**
+     * Creates the breaker with an explicit clock.
+     *
+     * @param failureThreshold consecutive failures that open the circuit; 0 disables it
+     * @param openDuration     how long the circuit stays open before a probe is let through
+     * @param clock            time source for the open duration
+     */
+    public CircuitBreaker(final int failureThreshold, final Duration openDuration, final Clock clock) {
+        this.failureThreshold = failureThreshold;
+        this.openMillis = openDuration.toMillis();
+        this.clock = clock;
+    }
+
+    /**
+     * Creates a breaker that never opens.
+     *
+     * @return disabled breaker
+     */
+    public static CircuitBreaker disabled() {
+        return new CircuitBreaker(0, Duration.ZERO);
+    }
+
+    /**
+     * Registers a listener run when a successful probe closes the circuit. Listeners run on
+     * the probing thread and should hand longer work to their own executor.
+     *
+     * @param listener callback run on every close
+     */
+    public void onClose(final Runnable listener) {
+        closeListeners.add(listener);
+    }
+
+    /**
+     * Lets the call through if the circuit allows it and records its outcome.
+     *
+     * @param request   outgoing request
+     * @param body      request body
+     * @param execution remaining interceptor chain
+     * @return GitHub's response
+     * @throws IOException                 on I/O failure
+     * @throws GitHubUnavailableException if the circuit rejected the call
+     */
+    @Override
+    public ClientHttpResponse intercept(
+            final HttpRequest request,
+            final byte[] body,
+            final ClientHttpRequestExecution execution
+    ) throws IOException {
+        final boolean probe = acquire();
+        final ClientHttpResponse response;
+        try {
+            response = execution.execute(request, body);
+        } catch (final IOException | RuntimeException e) {
+            if (Thread.currentThread().isInterrupted()) {
+                abandon(probe);
+            } else if (e instanceof IOException) {
+                failed(probe);
+            } else {
+                abandon(probe);
+            }
+            throw e;
+        }
+        if (response.getStatusCode().is5xxServerError()) {
+            failed(probe);
+        } else {
+            succeeded(probe);
+        }
+        return response;
+    }
+
+    /**
+     * Whether a failed GitHub call means that GitHub itself is failing: a 5xx response, or a
+     * connection or timeout error. A body that could not be parsed does not, and neither do
+     * 4xx responses, which are specific to the query.
+     *
+     * @param ex exception raised by a {@code RestTemplate} call
+     * @return true if retrying another query against GitHub now would be pointless
+     */
+    static boolean isUpstreamFailure(final RuntimeException ex) {
+        if (ex instanceof HttpServerErrorException) return true;
+        if (!(ex instanceof ResourceAccessException)) return false;
+        final Throwable cause = ex.getCause();
+        return cause instanceof SocketException
+                || cause instanceof InterruptedIOException
+                || cause instanceof HttpTimeoutException
+                || cause instanceof UnknownHostException;
+    }
+
+    /**
+     * Admits a call or rejects it, moving an open circuit whose open duration has passed
+     * to half-open.
+     *
+     * @return whether the admitted call is the half-open probe
+     * @throws GitHubUnavailableException if the call is rejected
+     */
+    synchronized boolean acquire() {
+        if (state == State.CLOSED) return false;
+        final long waited = clock.millis() - openedAt;
+        if (state == State.OPEN && waited >= openMillis) {
+            state = State.HALF_OPEN;
+        }
+        if (state == State.HALF_OPEN && !probing) {
+            probing = true;
+            return true;
+        }
+        rejected++;
+        final long retryAfterSeconds = Math.max(1, (openMillis - waited + 999) / 1000);
+        throw new GitHubUnavailableException("GitHub circuit is open", retryAfterSeconds);
+    }
+
+    /**
+     * Records a call GitHub answered, closing the circuit if it was the probe.
+     *
+     * @param probe whether the call was the half-open probe
+     */
+    void succeeded(final boolean probe) {
+        synchronized (this) {
+            consecutiveFailures = 0;
+            if (!probe) return;
+            probing = false;
+            state = State.CLOSED;
+        }
+        log.info("GitHub circuit closed after a successful probe");
+        for (final Runnable listener : closeListeners) {
+            try {
+                listener.run();
+            } catch (final RuntimeException e) {
+                log.warn("Circuit close listener failed", e);
+            }
+        }
+    }
+
+    /**
+     * Records a failed call, opening the circuit at the threshold or when the probe failed.
+     *
+     * @param probe whether the call was the half-open probe
+     */
+    synchronized void failed(final boolean probe) {
+        consecutiveFailures++;
+        if (probe) probing = false;
+        if (failureThreshold <= 0) return;
+        if (probe || (state == State.CLOSED && consecutiveFailures >= failureThreshold)) {
+            if (state == State.CLOSED) {
+                log.warn("GitHub circuit opened after {} consecutive failures", consecutiveFailures);
+            }
+            state = State.OPEN;
+            openedAt = clock.millis();
+            opened++;
+        }
+    }
+
+    /**
+     * Forgets a call whose outcome says nothing about GitHub, freeing the probe slot.
+     *
+     * @param probe whether the call was the half-open probe
+     */
+    private synchronized void abandon(final boolean probe) {
+        if (probe) probing = false;
+    }
+
+    /**
+     * Current state of the circuit.
+     *
+     * @return the state; an open circuit due for a probe is still reported as open
+     */
+    public synchronized State state() {
+        return state;
+    }
+
+    /**
+     * Registers the circuit state and its counters with Micrometer.
+     *
+     * @param registry meter registry
+     */
+    @Override
+    public void bindTo(final MeterRegistry registry) {
+        Gauge.builder("github.circuit.state", this, b -> b.state().ordinal())
+                .description("0 closed, 1 half-open, 2 open")
+                .register(registry);
+        FunctionCounter.builder("github.circuit.opened", this, CircuitBreaker::opened)
+                .description("Times the circuit opened")
+                .register(registry);
+        FunctionCounter.builder("github.circuit.rejected", this, CircuitBreaker::rejected)
+                .description("GitHub calls rejected by the open circuit")
+                .register(registry);
+    }
+
+    /**
+     * Number of times the circuit opened.
+     *
+     * @return opened count
+     */
+    private synchronized long opened() {
+        return opened;
+    }
+
+    /**
+     * Number of calls rejected by the open circuit.
+     *
+     * @return rejected count
+     */
+    private synchronized long rejected() {
+        return rejected;
+    }
+}
@@ -0,0 +1,17 @@
+package com.client;
+
+/**
+ * Thrown when the deadline of a {@link TaskScope} passes before the work it was waiting
+ * for has finished. The scope's outstanding subtasks have been cancelled by then.
+ */
+public class DeadlineExceededException extends RuntimeException {
+
+    /**
+     * Creates the exception.
+     *
+     * @param message description of what did not finish in time
+     */
+    public DeadlineExceededException(final String message) {
+        super(message);
+    }
+}
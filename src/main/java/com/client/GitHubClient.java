@@ -1,38 +1,107 @@
 package com.client;
 
+import com.parser.SearchResponseParser;
+import com.client.SearchQueries.Candidate;
+import com.repo.GitHubRepo;
+import com.repo.SearchPage;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 
 import java.util.ArrayList;
-import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
 
 /**
  * Lightweight GitHub REST client.
- * <p>Builds a search query, calls GitHub’s repositories search API, and returns
- * a trimmed list of repo maps containing only the fields the scoring layer needs.</p>
+ * <p>Builds a search query, calls GitHub’s repositories search API, and streams the
+ * response into {@link GitHubRepo} records holding only the fields the scoring layer needs.</p>
+ * <p>Each query candidate is timed as {@code github.search} (tagged with the candidate and
+ * its outcome), answers from a fallback candidate are counted in
+ * {@code github.search.fallbacks}, and the number of repositories returned is recorded in
+ * {@code github.search.items}.</p>
+ * <p>Every page is fetched as a subtask of a {@link TaskScope}. Inside a scope opened by
+ * the caller, the search stops with a {@link DeadlineExceededException} once the caller's
+ * deadline passes, and all of its in-flight requests are cancelled when the caller gives up.</p>
+ * <p>A server error, an I/O error or a call rejected by the {@link CircuitBreaker} ends the
+ * search with a {@link GitHubUnavailableException} instead of trying the next query
+ * candidate against the same failing upstream. Only candidates that found nothing or
+ * were refused with a 4xx fall through to the next one.</p>
  */
 @Component
-public class GitHubClient {
+@ConditionalOnProperty(name = "github.api", havingValue = "rest", matchIfMissing = true)
+public class GitHubClient implements GitHubSearchClient {
+
+    private static final Logger log = LoggerFactory.getLogger(GitHubClient.class);
 
     private final RestTemplate restTemplate;
     private final String baseUrl;
+    private final SearchCache cache;
+    private final MeterRegistry meterRegistry;
+    private final DistributionSummary itemsReturned;
+
+    /**
+     * Creates the client with a {@link RestTemplate} and base URL, without response caching.
+     *
+     * @param restTemplate Spring HTTP client
+     * @param baseUrl      GitHub API base URL
+     */
+    public GitHubClient(final RestTemplate restTemplate, final String baseUrl) {
+        this(restTemplate, baseUrl, SearchCache.disabled());
+    }
 
     /**
-     * Creates the client with a {@link RestTemplate} and base URL.
+     * Creates the client with a {@link RestTemplate}, base URL and search response cache,
+     * recording metrics into a private registry.
      *
      * @param restTemplate Spring HTTP client
-     * @param baseUrl      GitHub API base URL (defaults to https://api.github.com)
+     * @param baseUrl      GitHub API base URL
+     * @param cache        cache of search pages revalidated by ETag
+     */
+    public GitHubClient(final RestTemplate restTemplate, final String baseUrl, final SearchCache cache) {
+        this(restTemplate, baseUrl, cache, new SimpleMeterRegistry());
+    }
+
+    /**
+     * Creates the client with a {@link RestTemplate}, base URL, search response cache and
+     * meter registry.
+     *
+     * @param restTemplate  Spring HTTP client
+     * @param baseUrl       GitHub API base URL (defaults to https://api.github.com)
+     * @param cache         cache of search pages revalidated by ETag
+     * @param meterRegistry registry receiving the search metrics
      */
+    @Autowired
     public GitHubClient(
             final RestTemplate restTemplate,
-            @Value("${github.base-url:https://api.github.com}") final String baseUrl
+            @Value("${github.base-url:https://api.github.com}") final String baseUrl,
+            final SearchCache cache,
+            final MeterRegistry meterRegistry
     ) {
         this.restTemplate = restTemplate;
         this.baseUrl = baseUrl;
+        this.cache = cache;
+        this.meterRegistry = meterRegistry;
+        this.itemsReturned = DistributionSummary.builder("github.search.items")
+                .description("Repositories returned per search")
+                .register(meterRegistry);
     }
 
     /**
@@ -41,151 +110,423 @@ public class GitHubClient {
      * @param createdFrom ISO date (YYYY-MM-DD)
      * @param language    GitHub language qualifier
      * @param limit       max number of repos to return
-     * @return trimmed repo maps
+     * @return matching repositories in rank order
      */
-    public List<Map<String, Object>> searchRepos(final String createdFrom, final String language, final int limit) {
+    @Override
+    public List<GitHubRepo> searchRepos(final String createdFrom, final String language, final int limit) {
         return searchRepos(createdFrom, language, null, limit);
     }
 
     /**
-     * Performs a single-page search with minimal encoding and simple fallbacks.
+     * Performs a search with minimal encoding and simple fallbacks.
+     * <p>Limits above one page are served by fetching the remaining pages concurrently as
+     * scoped subtasks once the first page has reported GitHub's {@code total_count}.
+     * Pages are merged in rank order and fetching stops at {@code limit}, at the last
+     * available page, or at GitHub's 1000-result search cap, whichever comes first.</p>
      *
      * @param createdFrom ISO date (YYYY-MM-DD)
      * @param language    GitHub language qualifier
      * @param freeText    optional free text added to the query
-     * @param limit       max number of repos to return
-     * @return trimmed repo maps containing only essential fields
+     * @param limit       max number of repos to return (capped at 1000)
+     * @return matching repositories in rank order
+     * @throws RateLimitExceededException if the rate-limit scheduler shed the call
+     * @throws DeadlineExceededException  if the enclosing {@link TaskScope}'s deadline passed
+     * @throws GitHubUnavailableException if GitHub failed or the circuit is open
      */
-    @SuppressWarnings("unchecked")
-    public List<Map<String, Object>> searchRepos(
+    @Override
+    public List<GitHubRepo> searchRepos(
             final String createdFrom,
             final String language,
             final String freeText,
             final int limit
     ) {
-        final int perPage = Math.max(1, Math.min(100, limit));
-        final String lang = isBlank(language) ? "" : ("language:" + language.trim());
-        final String date = isBlank(createdFrom) ? "" : ("pushed:>=" + createdFrom.trim());
-        final String free = isBlank(freeText) ? "" : freeText.trim();
-
-        final List<String> candidates = new ArrayList<>();
-        if (!isBlank(date) && !isBlank(lang)) {
-            candidates.add(join(free, date, lang));
-        }
-        if (!isBlank(lang)) {
-            candidates.add(join(free, lang));
-        }
-        if (candidates.isEmpty()) {
-            candidates.add("language:Java");
-        }
+        final List<GitHubRepo> merged = new ArrayList<>(SearchQueries.wanted(limit));
+        search(createdFrom, language, freeText, limit, merged::addAll);
+        return merged;
+    }
 
-        for (final String rawQ : candidates) {
-            final String q = encodeQ(rawQ);
-            final String uri = baseUrl + "/search/repositories"
-                    + "?q=" + q
-                    + "&sort=stars&order=desc"
-                    + "&per_page=" + perPage
-                    + "&page=1";
+    /**
+     * Streaming variant of {@link #searchRepos(String, String, int)}: hands each page to
+     * {@code onPage} in rank order as soon as it and all pages before it have arrived,
+     * without collecting the result.
+     * <p>Pages come from a single query candidate. An exception thrown by {@code onPage}
+     * stops the fetch and is rethrown.</p>
+     *
+     * @param createdFrom ISO date (YYYY-MM-DD)
+     * @param language    GitHub language qualifier
+     * @param limit       max number of repos to deliver (capped at 1000)
+     * @param onPage      receives the repositories of each page, truncated to {@code limit}
+     * @return number of repositories delivered
+     * @throws RateLimitExceededException if the rate-limit scheduler shed the call
+     * @throws DeadlineExceededException  if the enclosing {@link TaskScope}'s deadline passed
+     * @throws GitHubUnavailableException if GitHub failed or the circuit is open
+     */
+    @Override
+    public int streamRepos(
+            final String createdFrom,
+            final String language,
+            final int limit,
+            final Consumer<List<GitHubRepo>> onPage
+    ) {
+        return search(createdFrom, language, null, limit, onPage);
+    }
 
-            try {
-                System.out.println("Calling GitHub: " + uri + "   (raw q='" + rawQ + "')");
+    /**
+     * Runs the search for the first query candidate that yields results, in a scope nested
+     * in the caller's.
+     *
+     * @param createdFrom ISO date (YYYY-MM-DD)
+     * @param language    GitHub language qualifier
+     * @param freeText    optional free text added to the query
+     * @param limit       max number of repos to deliver (capped at 1000)
+     * @param onPage      receives the repositories of each page in rank order
+     * @return number of repositories delivered
+     */
+    private int search(
+            final String createdFrom,
+            final String language,
+            final String freeText,
+            final int limit,
+            final Consumer<List<GitHubRepo>> onPage
+    ) {
+        final int wanted = SearchQueries.wanted(limit);
+        final int perPage = Math.min(SearchQueries.MAX_PER_PAGE, wanted);
+        final List<Candidate> candidates = SearchQueries.candidates(createdFrom, language, freeText);
 
-                final Map<String, Object> response = restTemplate.getForObject(uri, Map.class);
-                if (response == null) continue;
+        try (TaskScope scope = TaskScope.open()) {
+            final int delivered = search(candidates, perPage, wanted, onPage, scope);
+            itemsReturned.record(delivered);
+            return delivered;
+        }
+    }
 
-                final Object itemsObj = response.get("items");
-                if (!(itemsObj instanceof List<?> rawItems) || rawItems.isEmpty()) {
-                    System.out.println("Received 0 items for q='" + rawQ + "'. Trying next candidate...");
+    /**
+     * Tries the candidates in order until one yields results.
+     *
+     * @param candidates queries to try
+     * @param perPage    page size
+     * @param wanted     max number of repos to deliver
+     * @param onPage     receives the repositories of each page in rank order
+     * @param scope      scope the pages are fetched in
+     * @return number of repositories delivered
+     */
+    private int search(
+            final List<Candidate> candidates,
+            final int perPage,
+            final int wanted,
+            final Consumer<List<GitHubRepo>> onPage,
+            final TaskScope scope
+    ) {
+        for (int i = 0; i < candidates.size(); i++) {
+            final Candidate candidate = candidates.get(i);
+            final String rawQ = candidate.query();
+            final Timer.Sample sample = Timer.start(meterRegistry);
+            String outcome = "error";
+            try {
+                final SearchPage first = scope.join(scope.fork(() -> fetchPage(rawQ, perPage, 1)));
+                if (first.items().isEmpty()) {
+                    outcome = "empty";
+                    log.debug("Received 0 items for q='{}'. Trying next candidate...", rawQ);
                     continue;
                 }
 
-                final List<Map<String, Object>> trimmed = new ArrayList<>();
-                for (final Object it : rawItems) {
-                    if (it instanceof Map<?, ?> m) {
-                        trimmed.add(trimRepo((Map<String, Object>) m));
-                        if (trimmed.size() == limit) break;
-                    }
+                final Delivery delivery = new Delivery(onPage, perPage, wanted);
+                final boolean complete = delivery.accept(first);
+                final int available = (int) Math.min(SearchQueries.MAX_RESULTS, Math.min(wanted, first.totalCount()));
+                final int pages = (available + perPage - 1) / perPage;
+                if (!complete && pages > 1) {
+                    fetchRemainingPages(rawQ, perPage, pages, delivery, scope);
                 }
-                System.out.println("Returning " + trimmed.size() + " repos.");
-                return trimmed;
+                delivery.rethrowFailure();
+                outcome = "hit";
+                if (i > 0) {
+                    Counter.builder("github.search.fallbacks")
+                            .description("Searches answered by a fallback query candidate")
+                            .tag("candidate", candidate.name())
+                            .register(meterRegistry)
+                            .increment();
+                }
+                log.debug("Returned {} repos for q='{}'", delivery.delivered(), rawQ);
+                return delivery.delivered();
 
-            } catch (final HttpStatusCodeException ex) {
-                System.err.println("GitHub search failed: " + ex.getStatusCode()
-                        + " - " + ex.getResponseBodyAsString());
+            } catch (final RateLimitExceededException ex) {
+                outcome = "rate_limited";
+                throw ex;
+            } catch (final DeadlineExceededException ex) {
+                outcome = "timeout";
+                throw ex;
+            } catch (final CancellationException ex) {
+                outcome = "cancelled";
+                throw ex;
+            } catch (final DeliveryFailure ex) {
+                outcome = "aborted";
+                throw ex.cause();
+            } catch (final GitHubUnavailableException ex) {
+                outcome = ex.getCause() == null ? "circuit_open" : "error";
+                throw ex;
+            } catch (final RestClientException ex) {
+                if (CircuitBreaker.isUpstreamFailure(ex)) {
+                    log.warn("GitHub search failed for q='{}': {}", rawQ, ex.getMessage());
+                    throw new GitHubUnavailableException("GitHub search failed for q='" + rawQ + "'", ex);
+                }
+                if (ex instanceof HttpStatusCodeException status) {
+                    log.warn("GitHub search failed for q='{}': {} - {}",
+                            rawQ, status.getStatusCode(), status.getResponseBodyAsString());
+                } else {
+                    log.error("Unexpected error during GitHub search for q='{}'", rawQ, ex);
+                }
             } catch (final Exception e) {
-                System.err.println("Unexpected error during GitHub search: " + e);
+                log.error("Unexpected error during GitHub search for q='{}'", rawQ, e);
+            } finally {
+                sample.stop(Timer.builder("github.search")
+                        .description("Upstream latency of one search query candidate, all pages included")
+                        .tag("candidate", candidate.name())
+                        .tag("outcome", outcome)
+                        .register(meterRegistry));
             }
         }
 
-        return List.of();
+        return 0;
     }
 
     /**
-     * Null/blank helper.
+     * Fetches pages {@code 2..pages} concurrently, one subtask per page, and delivers them in
+     * page order. Stops at the first short or empty page and cancels whatever is still in
+     * flight. A failed page fails the whole search rather than returning a truncated result,
+     * which callers would otherwise cache as complete.
      *
-     * @param string input string
-     * @return true if null or blank
+     * @param rawQ     unencoded query
+     * @param perPage  page size
+     * @param pages    total number of pages to fetch, including the first one
+     * @param delivery receiver that already got the first page
+     * @param scope    scope the pages are fetched in
+     * @throws DeadlineExceededException  if the scope's deadline passes first
+     * @throws RateLimitExceededException if a page was shed by the rate-limit scheduler
+     * @throws GitHubUnavailableException if a page failed
+     * @throws CancellationException      if the calling thread was interrupted
      */
-    private boolean isBlank(final String string) { return string == null || string.trim().isEmpty(); }
+    private void fetchRemainingPages(
+            final String rawQ,
+            final int perPage,
+            final int pages,
+            final Delivery delivery,
+            final TaskScope scope
+    ) {
+        final List<Future<SearchPage>> futures = new ArrayList<>(pages - 1);
+        for (int page = 2; page <= pages; page++) {
+            final int p = page;
+            futures.add(scope.fork(() -> fetchPage(rawQ, perPage, p)));
+        }
+
+        try {
+            for (int i = 0; i < futures.size(); i++) {
+                final SearchPage next;
+                try {
+                    next = scope.get(futures.get(i));
+                } catch (final ExecutionException e) {
+                    cancelFrom(futures, i + 1);
+                    if (e.getCause() instanceof RateLimitExceededException ex) throw ex;
+                    if (e.getCause() instanceof GitHubUnavailableException ex) throw ex;
+                    log.warn("GitHub page {} failed for q='{}': {}", i + 2, rawQ, e.getCause().toString());
+                    throw new GitHubUnavailableException(
+                            "GitHub page " + (i + 2) + " failed for q='" + rawQ + "'", e.getCause());
+                }
+                if (delivery.accept(next)) {
+                    cancelFrom(futures, i + 1);
+                    return;
+                }
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            scope.shutdown();
+            throw new CancellationException("interrupted while waiting for GitHub pages");
+        }
+    }
 
     /**
-     * Joins non-blank parts with single spaces.
+     * Cancels all futures from the given index onwards.
      *
-     * @param parts string parts
-     * @return joined string
-     */
-    private String join(final String... parts) {
-        final StringBuilder b = new StringBuilder();
-        for (final String p : parts) {
-            if (!isBlank(p)) {
-                if (!b.isEmpty()) b.append(' ');
-                b.append(p.trim());
+     * @param futures pending page futures
+     * @param from    first index to cancel
+     */
+    private void cancelFrom(final List<Future<SearchPage>> futures, final int from) {
+        for (int i = from; i < futures.size(); i++) {
+            futures.get(i).cancel(true);
+        }
+    }
+
+    /**
+     * Fetches and parses a single page of search results.
+     * <p>Fresh cached pages are returned without a request. Expired ones are revalidated
+     * with {@code If-None-Match}, and a 304 response reuses the cached page.</p>
+     *
+     * @param rawQ    unencoded query
+     * @param perPage page size (at most 100)
+     * @param page    1-based page number
+     * @return the parsed page, or {@link SearchPage#EMPTY} if GitHub returned no body
+     */
+    private SearchPage fetchPage(final String rawQ, final int perPage, final int page) {
+        final String key = SearchCache.key(rawQ, perPage, page);
+        final SearchPage cached = cache.getIfFresh(key);
+        if (cached != null) return cached;
+
+        final String uri = SearchQueries.uri(baseUrl, rawQ, perPage, page);
+
+        log.debug("Calling GitHub: {} (raw q='{}')", uri, rawQ);
+
+        final String etag = cache.etagOf(key);
+        if (etag != null) {
+            final Fetched conditional = get(uri, etag);
+            if (conditional == null) {
+                final SearchPage revalidated = cache.revalidated(key);
+                if (revalidated != null) return revalidated;
+            } else {
+                return store(key, conditional);
             }
         }
-        return b.toString();
+        return store(key, get(uri, null));
     }
 
     /**
-     * Minimal encoding for GitHub {@code q}: space→'+', '>'→'%3E'.
-     * '=' is intentionally left as-is so {@code '>='} becomes {@code '%3E='}.
+     * Fetches a single page without consulting or filling the search cache, for one-off
+     * pages such as those of a {@link ShardedCrawler} that would only evict reusable entries.
      *
-     * @param raw unencoded query
-     * @return minimally encoded query
+     * @param rawQ    unencoded query
+     * @param perPage page size (at most 100)
+     * @param page    1-based page number
+     * @return the parsed page, or {@link SearchPage#EMPTY} if GitHub returned no body
      */
-    private String encodeQ(final String raw) {
-        String s = raw.trim().replaceAll("\\s+", " ");
-        s = s.replace(" ", "+");
-        s = s.replace(">", "%3E");
-        return s;
+    SearchPage fetchUncached(final String rawQ, final int perPage, final int page) {
+        final String uri = SearchQueries.uri(baseUrl, rawQ, perPage, page);
+        log.debug("Calling GitHub: {} (raw q='{}')", uri, rawQ);
+        final Fetched fetched = get(uri, null);
+        return fetched == null ? SearchPage.EMPTY : fetched.page();
     }
 
     /**
-     * Copies only essential fields used downstream for scoring.
+     * Issues a search request, optionally conditional on an ETag, and streams the body
+     * through {@link SearchResponseParser}.
      *
-     * @param repo full GitHub repo map
-     * @return trimmed map with essential keys
+     * @param uri  fully built search URI
+     * @param etag ETag for {@code If-None-Match}, or null for an unconditional request
+     * @return the parsed page with its ETag, or null on 304 Not Modified
      */
-    private Map<String, Object> trimRepo(final Map<String, Object> repo) {
-        final Map<String, Object> out = new LinkedHashMap<>();
-        copy(repo, out, "id");
-        copy(repo, out, "full_name");
-        copy(repo, out, "html_url");
-        copy(repo, out, "language");
-        copy(repo, out, "stargazers_count");
-        copy(repo, out, "forks_count");
-        copy(repo, out, "pushed_at");
-        copy(repo, out, "archived");
-        return out;
+    private Fetched get(final String uri, final String etag) {
+        return restTemplate.execute(uri, HttpMethod.GET,
+                request -> {
+                    request.getHeaders().setAccept(List.of(MediaType.APPLICATION_JSON));
+                    if (etag != null) request.getHeaders().setIfNoneMatch(etag);
+                },
+                response -> {
+                    if (response.getStatusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED)) return null;
+                    return new Fetched(SearchResponseParser.parse(response.getBody()),
+                            response.getHeaders().getETag());
+                });
     }
 
     /**
-     * Safe put-if-present copy for a single key.
+     * Caches a freshly fetched page under its ETag.
      *
-     * @param src source map
-     * @param dst destination map
-     * @param key key to copy
+     * @param key     cache key
+     * @param fetched page and ETag returned by GitHub
+     * @return the page
      */
-    private void copy(final Map<String, Object> src, final Map<String, Object> dst, final String key) {
-        if (src.containsKey(key)) dst.put(key, src.get(key));
+    private SearchPage store(final String key, final Fetched fetched) {
+        if (fetched == null) return SearchPage.EMPTY;
+        cache.put(key, fetched.page(), fetched.etag());
+        return fetched.page();
     }
+
+    /**
+     * Hands pages to the caller's consumer, truncated to the wanted number of repositories.
+     * A failing consumer stops further delivery; its exception is kept for the caller.
+     */
+    private static final class Delivery {
+
+        private final Consumer<List<GitHubRepo>> onPage;
+        private final int perPage;
+        private final int wanted;
+        private int delivered;
+        private RuntimeException failure;
+
+        /**
+         * Creates the delivery.
+         *
+         * @param onPage  consumer of each page
+         * @param perPage requested page size
+         * @param wanted  max number of repos to deliver
+         */
+        Delivery(final Consumer<List<GitHubRepo>> onPage, final int perPage, final int wanted) {
+            this.onPage = onPage;
+            this.perPage = perPage;
+            this.wanted = wanted;
+        }
+
+        /**
+         * Delivers the items of a page without exceeding {@code wanted}.
+         *
+         * @param page page to deliver
+         * @return true if no further pages are needed (limit met, page short, or consumer failed)
+         */
+        boolean accept(final SearchPage page) {
+            final List<GitHubRepo> items = page.items();
+            final int take = Math.min(items.size(), wanted - delivered);
+            if (take > 0) {
+                try {
+                    onPage.accept(take == items.size() ? items : items.subList(0, take));
+                } catch (final RuntimeException e) {
+                    failure = e;
+                    return true;
+                }
+                delivered += take;
+            }
+            return delivered >= wanted || items.size() < perPage;
+        }
+
+        /**
+         * Number of repositories delivered so far.
+         *
+         * @return delivered count
+         */
+        int delivered() {
+            return delivered;
+        }
+
+        /**
+         * Rethrows the consumer's exception, if any, wrapped so that the candidate loop
+         * does not mistake it for a failed search.
+         */
+        void rethrowFailure() {
+            if (failure != null) throw new DeliveryFailure(failure);
+        }
+    }
+
+    /**
+     * Carries an exception thrown by the caller's page consumer out of the candidate loop.
+     */
+    private static final class DeliveryFailure extends RuntimeException {
+
+        /**
+         * Wraps the consumer's exception.
+         *
+         * @param cause exception thrown by the consumer
+         */
+        DeliveryFailure(final RuntimeException cause) {
+            super(cause);
+        }
+
+        /**
+         * The consumer's exception.
+         *
+         * @return original exception
+         */
+        RuntimeException cause() {
+            return (RuntimeException) getCause();
+        }
+    }
+
+    /**
+     * Page returned by a non-304 search response together with its ETag.
+     */
+    private record Fetched(SearchPage page, String etag) { }
 }
@@ -0,0 +1,334 @@
+package com.client;
+
+import com.client.SearchQueries.Candidate;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.StreamWriteFeature;
+import com.parser.GraphQlSearchResponseParser;
+import com.repo.CursorPage;
+import com.repo.GitHubRepo;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
+
+/**
+ * GitHub client using the GraphQL {@code search(type: REPOSITORY)} query instead of the REST
+ * search API, selected with {@code github.api=graphql}.
+ * <p>The query asks only for the fields the scoring layer reads, so a page is a small
+ * fraction of the REST payload. Pages follow each other by cursor and are therefore
+ * fetched one after another, each as a subtask of a {@link TaskScope}. Query candidates,
+ * fallbacks and metrics are the same as for {@link GitHubClient}. GraphQL always needs a
+ * token, and its responses are not cached because they carry no ETag.</p>
+ */
+@Component
+@ConditionalOnProperty(name = "github.api", havingValue = "graphql")
+public class GitHubGraphQlClient implements GitHubSearchClient {
+
+    /** Search query selecting only the scored fields; {@code databaseId} keys the snapshot. */
+    static final String QUERY = """
+            query($q: String!, $first: Int!, $after: String) {
+              search(query: $q, type: REPOSITORY, first: $first, after: $after) {
+                repositoryCount
+                pageInfo { hasNextPage endCursor }
+                nodes {
+                  ... on Repository {
+                    databaseId nameWithOwner url primaryLanguage { name }
+                    stargazerCount forkCount pushedAt isArchived
+                  }
+                }
+              }
+            }""";
+
+    /** GraphQL search has no sort argument; the order is part of the query string. */
+    private static final String SORT = " sort:stars-desc";
+
+    private static final JsonFactory FACTORY = JsonFactory.builder()
+            .disable(StreamWriteFeature.AUTO_CLOSE_TARGET)
+            .build();
+
+    private static final Logger log = LoggerFactory.getLogger(GitHubGraphQlClient.class);
+
+    private final RestTemplate restTemplate;
+    private final String graphqlUrl;
+    private final MeterRegistry meterRegistry;
+    private final DistributionSummary itemsReturned;
+
+    /**
+     * Creates the client, recording metrics into a private registry.
+     *
+     * @param restTemplate Spring HTTP client
+     * @param graphqlUrl   GitHub GraphQL endpoint
+     */
+    public GitHubGraphQlClient(final RestTemplate restTemplate, final String graphqlUrl) {
+        this(restTemplate, graphqlUrl, new SimpleMeterRegistry());
+    }
+
+    /**
+     * Creates the client.
+     *
+     * @param restTemplate  Spring HTTP client
+     * @param graphqlUrl    GitHub GraphQL endpoint (defaults to the base URL plus {@code /graphql})
+     * @param meterRegistry registry receiving the search metrics
+     */
+    @Autowired
+    public GitHubGraphQlClient(
+            final RestTemplate restTemplate,
+            @Value("${github.graphql-url:${github.base-url:https://api.github.com}/graphql}") final String graphqlUrl,
+            final MeterRegistry meterRegistry
+    ) {
+        this.restTemplate = restTemplate;
+        this.graphqlUrl = graphqlUrl;
+        this.meterRegistry = meterRegistry;
+        this.itemsReturned = DistributionSummary.builder("github.search.items")
+                .description("Repositories returned per search")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Searches by date, language and optional free text.
+     *
+     * @param createdFrom ISO date (YYYY-MM-DD)
+     * @param language    GitHub language qualifier
+     * @param freeText    optional free text added to the query
+     * @param limit       max number of repos to return (capped at 1000)
+     * @return matching repositories in rank order
+     */
+    @Override
+    public List<GitHubRepo> searchRepos(
+            final String createdFrom,
+            final String language,
+            final String freeText,
+            final int limit
+    ) {
+        final List<GitHubRepo> merged = new ArrayList<>(SearchQueries.wanted(limit));
+        search(createdFrom, language, freeText, limit, merged::addAll);
+        return merged;
+    }
+
+    /**
+     * Streams the repositories of each page as its response arrives.
+     *
+     * @param createdFrom ISO date (YYYY-MM-DD)
+     * @param language    GitHub language qualifier
+     * @param limit       max number of repos to deliver (capped at 1000)
+     * @param onPage      receives the repositories of each page, truncated to {@code limit}
+     * @return number of repositories delivered
+     */
+    @Override
+    public int streamRepos(
+            final String createdFrom,
+            final String language,
+            final int limit,
+            final Consumer<List<GitHubRepo>> onPage
+    ) {
+        return search(createdFrom, language, null, limit, onPage);
+    }
+
+    /**
+     * Runs the search for the first query candidate that yields results, in a scope nested
+     * in the caller's.
+     *
+     * @param createdFrom ISO date (YYYY-MM-DD)
+     * @param language    GitHub language qualifier
+     * @param freeText    optional free text added to the query
+     * @param limit       max number of repos to deliver (capped at 1000)
+     * @param onPage      receives the repositories of each page in rank order
+     * @return number of repositories delivered
+     */
+    private int search(
+            final String createdFrom,
+            final String language,
+            final String freeText,
+            final int limit,
+            final Consumer<List<GitHubRepo>> onPage
+    ) {
+        final int wanted = SearchQueries.wanted(limit);
+        final List<Candidate> candidates = SearchQueries.candidates(createdFrom, language, freeText);
+
+        try (TaskScope scope = TaskScope.open()) {
+            for (int i = 0; i < candidates.size(); i++) {
+                final Candidate candidate = candidates.get(i);
+                final String q = candidate.query() + SORT;
+                final Timer.Sample sample = Timer.start(meterRegistry);
+                String outcome = "error";
+                try {
+                    final CursorPage first;
+                    try {
+                        first = scope.join(scope.fork(
+                                () -> fetchPage(q, Math.min(SearchQueries.MAX_PER_PAGE, wanted), null)));
+                    } catch (final RateLimitExceededException ex) {
+                        outcome = "rate_limited";
+                        throw ex;
+                    } catch (final DeadlineExceededException ex) {
+                        outcome = "timeout";
+                        throw ex;
+                    } catch (final CancellationException ex) {
+                        outcome = "cancelled";
+                        throw ex;
+                    } catch (final GitHubUnavailableException ex) {
+                        outcome = "circuit_open";
+                        throw ex;
+                    } catch (final RestClientException ex) {
+                        if (CircuitBreaker.isUpstreamFailure(ex)) {
+                            log.warn("GitHub GraphQL search failed for q='{}': {}", q, ex.getMessage());
+                            throw new GitHubUnavailableException("GitHub GraphQL search failed for q='" + q + "'", ex);
+                        }
+                        if (ex instanceof HttpStatusCodeException status) {
+                            log.warn("GitHub GraphQL search failed for q='{}': {} - {}",
+                                    q, status.getStatusCode(), status.getResponseBodyAsString());
+                        } else {
+                            log.error("Unexpected error during GitHub GraphQL search for q='{}'", q, ex);
+                        }
+                        continue;
+                    } catch (final Exception e) {
+                        log.error("Unexpected error during GitHub GraphQL search for q='{}'", q, e);
+                        continue;
+                    }
+                    if (first.page().items().isEmpty()) {
+                        outcome = "empty";
+                        log.debug("Received 0 items for q='{}'. Trying next candidate...", q);
+                        continue;
+                    }
+
+                    outcome = "aborted";
+                    final int delivered;
+                    try {
+                        delivered = deliver(q, wanted, first, onPage, scope);
+                    } catch (final RateLimitExceededException ex) {
+                        outcome = "rate_limited";
+                        throw ex;
+                    } catch (final DeadlineExceededException ex) {
+                        outcome = "timeout";
+                        throw ex;
+                    } catch (final CancellationException ex) {
+                        outcome = "cancelled";
+                        throw ex;
+                    } catch (final GitHubUnavailableException ex) {
+                        outcome = ex.getCause() == null ? "circuit_open" : "error";
+                        throw ex;
+                    }
+                    outcome = "hit";
+                    if (i > 0) {
+                        Counter.builder("github.search.fallbacks")
+                                .description("Searches answered by a fallback query candidate")
+                                .tag("candidate", candidate.name())
+                                .register(meterRegistry)
+                                .increment();
+                    }
+                    itemsReturned.record(delivered);
+                    log.debug("Returned {} repos for q='{}'", delivered, q);
+                    return delivered;
+                } finally {
+                    sample.stop(Timer.builder("github.search")
+                            .description("Upstream latency of one search query candidate, all pages included")
+                            .tag("candidate", candidate.name())
+                            .tag("outcome", outcome)
+                            .register(meterRegistry));
+                }
+            }
+        }
+
+        itemsReturned.record(0);
+        return 0;
+    }
+
+    /**
+     * Delivers the first page and follows its cursor until {@code wanted} repositories were
+     * delivered or the results end. A failed later page fails the whole search rather than
+     * returning a truncated result, which callers would otherwise cache as complete; an
+     * exception thrown by {@code onPage} propagates.
+     *
+     * @param q      query including the sort qualifier
+     * @param wanted max number of repos to deliver
+     * @param first  already fetched first page
+     * @param onPage receives the repositories of each page
+     * @param scope  scope the pages are fetched in
+     * @return number of repositories delivered
+     * @throws DeadlineExceededException  if the scope's deadline passes first
+     * @throws RateLimitExceededException if a later page was shed by the rate limiter
+     * @throws GitHubUnavailableException if a later page failed
+     * @throws CancellationException      if the calling thread was interrupted
+     */
+    private int deliver(
+            final String q,
+            final int wanted,
+            final CursorPage first,
+            final Consumer<List<GitHubRepo>> onPage,
+            final TaskScope scope
+    ) {
+        int delivered = 0;
+        CursorPage page = first;
+        while (true) {
+            final List<GitHubRepo> items = page.page().items();
+            final int take = Math.min(items.size(), wanted - delivered);
+            if (take > 0) {
+                onPage.accept(take == items.size() ? items : items.subList(0, take));
+                delivered += take;
+            }
+            if (delivered >= wanted || items.isEmpty() || page.endCursor() == null) return delivered;
+
+            final String after = page.endCursor();
+            final int size = Math.min(SearchQueries.MAX_PER_PAGE, wanted - delivered);
+            try {
+                page = scope.get(scope.fork(() -> fetchPage(q, size, after)));
+            } catch (final ExecutionException e) {
+                if (e.getCause() instanceof RateLimitExceededException ex) throw ex;
+                if (e.getCause() instanceof GitHubUnavailableException ex) throw ex;
+                log.warn("GitHub GraphQL page after '{}' failed for q='{}': {}", after, q, e.getCause().toString());
+                throw new GitHubUnavailableException(
+                        "GitHub GraphQL page after '" + after + "' failed for q='" + q + "'", e.getCause());
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                scope.shutdown();
+                throw new CancellationException("interrupted while waiting for GitHub GraphQL pages");
+            }
+        }
+    }
+
+    /**
+     * Posts the search query for one page and streams the response through
+     * {@link GraphQlSearchResponseParser}.
+     *
+     * @param q     query including the sort qualifier
+     * @param first page size (at most 100)
+     * @param after cursor of the previous page, or null for the first page
+     * @return the parsed page
+     */
+    private CursorPage fetchPage(final String q, final int first, final String after) {
+        log.debug("Calling GitHub GraphQL: q='{}' first={} after={}", q, first, after);
+        return restTemplate.execute(graphqlUrl, HttpMethod.POST,
+                request -> {
+                    request.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+                    try (JsonGenerator g = FACTORY.createGenerator(request.getBody())) {
+                        g.writeStartObject();
+                        g.writeStringField("query", QUERY);
+                        g.writeObjectFieldStart("variables");
+                        g.writeStringField("q", q);
+                        g.writeNumberField("first", first);
+                        g.writeStringField("after", after);
+                        g.writeEndObject();
+                        g.writeEndObject();
+                    }
+                },
+                response -> GraphQlSearchResponseParser.parse(response.getBody()));
+    }
+}
@@ -0,0 +1,57 @@
+package com.client;
+
+import com.repo.GitHubRepo;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Blocking repository search against GitHub, implemented over the REST search API by
+ * {@link GitHubClient} and over GraphQL by {@link GitHubGraphQlClient}. The implementation
+ * is selected with {@code github.api}.
+ */
+public interface GitHubSearchClient {
+
+    /**
+     * Searches by date and language with a hard limit.
+     *
+     * @param createdFrom ISO date (YYYY-MM-DD)
+     * @param language    GitHub language qualifier
+     * @param limit       max number of repos to return
+     * @return matching repositories in rank order
+     * @throws RateLimitExceededException if the rate-limit scheduler shed the call
+     * @throws DeadlineExceededException  if the enclosing {@link TaskScope}'s deadline passed
+     */
+    default List<GitHubRepo> searchRepos(final String createdFrom, final String language, final int limit) {
+        return searchRepos(createdFrom, language, null, limit);
+    }
+
+    /**
+     * Searches by date, language and optional free text, falling back to broader queries
+     * when the most specific one yields nothing.
+     *
+     * @param createdFrom ISO date (YYYY-MM-DD)
+     * @param language    GitHub language qualifier
+     * @param freeText    optional free text added to the query
+     * @param limit       max number of repos to return (capped at 1000)
+     * @return matching repositories in rank order
+     * @throws RateLimitExceededException if the rate-limit scheduler shed the call
+     * @throws DeadlineExceededException  if the enclosing {@link TaskScope}'s deadline passed
+     */
+    List<GitHubRepo> searchRepos(String createdFrom, String language, String freeText, int limit);
+
+    /**
+     * Streaming variant of {@link #searchRepos(String, String, int)}: hands each page to
+     * {@code onPage} in rank order as soon as it and all pages before it have arrived.
+     * An exception thrown by {@code onPage} stops the fetch and is rethrown.
+     *
+     * @param createdFrom ISO date (YYYY-MM-DD)
+     * @param language    GitHub language qualifier
+     * @param limit       max number of repos to deliver (capped at 1000)
+     * @param onPage      receives the repositories of each page, truncated to {@code limit}
+     * @return number of repositories delivered
+     * @throws RateLimitExceededException if the rate-limit scheduler shed the call
+     * @throws DeadlineExceededException  if the enclosing {@link TaskScope}'s deadline passed
+     */
+    int streamRepos(String createdFrom, String language, int limit, Consumer<List<GitHubRepo>> onPage);
+}
@@ -0,0 +1,41 @@
+package com.client;
+
+/**
+ * Thrown when GitHub cannot answer a search: the call failed with a server error or an
+ * I/O error, or the {@link CircuitBreaker} rejected it without calling GitHub.
+ */
+public class GitHubUnavailableException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    /**
+     * Creates the exception for a call rejected without reaching GitHub.
+     *
+     * @param message           description of why the call was rejected
+     * @param retryAfterSeconds seconds until GitHub is probed again
+     */
+    public GitHubUnavailableException(final String message, final long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    /**
+     * Creates the exception for a failed call.
+     *
+     * @param message description of the failed call
+     * @param cause   the failure
+     */
+    public GitHubUnavailableException(final String message, final Throwable cause) {
+        super(message, cause);
+        this.retryAfterSeconds = 0;
+    }
+
+    /**
+     * Seconds until GitHub is probed again.
+     *
+     * @return retry delay in seconds, or 0 if unknown
+     */
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,30 @@
+package com.client;
+
+/**
+ * Thrown when the {@link RateLimitScheduler} sheds a GitHub call because the
+ * rate-limit budget is exhausted and will not reset soon enough.
+ */
+public class RateLimitExceededException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    /**
+     * Creates the exception.
+     *
+     * @param message           description of why the call was shed
+     * @param retryAfterSeconds seconds until the budget is expected to reset
+     */
+    public RateLimitExceededException(final String message, final long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    /**
+     * Seconds until the budget is expected to reset.
+     *
+     * @return retry delay in seconds
+     */
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
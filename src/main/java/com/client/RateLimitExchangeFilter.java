@@ -0,0 +1,76 @@
+package com.client;
+
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Reactive counterpart of the {@link RateLimitScheduler} interceptor for {@code WebClient}.
+ * <p>Shares the scheduler's token buckets with the blocking client, but never parks a
+ * thread: while the budget is exhausted the request is retried on a timer until the window
+ * resets or the scheduler's max wait is exceeded. Reactive calls are always
+ * {@link RequestPriority#INTERACTIVE}.</p>
+ */
+public final class RateLimitExchangeFilter implements ExchangeFilterFunction {
+
+    private final RateLimitScheduler scheduler;
+
+    /**
+     * Creates the filter.
+     *
+     * @param scheduler token bucket shared with the blocking client
+     */
+    public RateLimitExchangeFilter(final RateLimitScheduler scheduler) {
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Acquires a token, authorizes the exchange with the token's bucket, executes it and
+     * returns the token with GitHub's rate-limit headers once the response arrives, fails or
+     * is cancelled.
+     *
+     * @param request outgoing request
+     * @param next    remaining exchange chain
+     * @return GitHub's response, or an error with {@link RateLimitExceededException} if shed
+     */
+    @Override
+    public Mono<ClientResponse> filter(final ClientRequest request, final ExchangeFunction next) {
+        return Mono.defer(() -> acquire(scheduler.deadlineFromNow()))
+                .flatMap(budget -> {
+                    final AtomicBoolean released = new AtomicBoolean();
+                    final ClientRequest authorized = ClientRequest.from(request)
+                            .headers(budget::authorize)
+                            .build();
+                    return next.exchange(authorized)
+                            .doOnNext(response -> {
+                                if (released.compareAndSet(false, true)) {
+                                    scheduler.release(budget, response.statusCode(), response.headers().asHttpHeaders());
+                                }
+                            })
+                            .doFinally(signal -> {
+                                if (released.compareAndSet(false, true)) {
+                                    scheduler.release(budget, null, null);
+                                }
+                            });
+                });
+    }
+
+    /**
+     * Takes a token, retrying after the wait reported by the scheduler.
+     *
+     * @param deadlineMillis epoch millis after which the call is shed
+     * @return the bucket the token was taken from
+     */
+    private Mono<RateLimitScheduler.Budget> acquire(final long deadlineMillis) {
+        return Mono.defer(() -> {
+            final RateLimitScheduler.Attempt attempt = scheduler.tryAcquire(RequestPriority.INTERACTIVE, deadlineMillis);
+            if (attempt.budget() != null) return Mono.just(attempt.budget());
+            return Mono.delay(Duration.ofMillis(attempt.waitMillis())).then(acquire(deadlineMillis));
+        });
+    }
+}
@@ -0,0 +1,507 @@
+package com.client;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Token-bucket scheduler that sits between {@link GitHubClient} and the {@code RestTemplate}.
+ * <p>Every configured GitHub token has its own bucket, since GitHub grants the search quota
+ * per account. A bucket starts from the configured search quota and is corrected after every
+ * response sent with its token from GitHub's {@code X-RateLimit-Limit},
+ * {@code X-RateLimit-Remaining}, {@code X-RateLimit-Reset} and {@code Retry-After} headers.
+ * Before each call a token is taken from the bucket with the most budget left, and the call
+ * is authorized with that bucket's GitHub token, so the pool's throughput grows with the
+ * number of tokens. Without any GitHub token there is one unauthenticated bucket.</p>
+ * <p>An exhausted bucket is skipped until its window resets. A GitHub token answered with
+ * {@code 401} is treated as revoked and skipped for {@code revokedRetry}.</p>
+ * <p>{@link RequestPriority#BACKGROUND} calls may not dip into the last {@code reserve}
+ * tokens of a bucket and are shed immediately. {@link RequestPriority#INTERACTIVE} calls
+ * queue until the first bucket resets, as long as that happens within {@code maxWait}.</p>
+ */
+@Component
+public class RateLimitScheduler implements ClientHttpRequestInterceptor, MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(RateLimitScheduler.class);
+
+    private final int reserve;
+    private final long maxWaitMillis;
+    private final long windowMillis;
+    private final long revokedRetryMillis;
+    private final List<Budget> budgets;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition budgetAvailable = lock.newCondition();
+
+    private int queued;
+    private long waits;
+    private long shed;
+
+    /**
+     * Creates an unauthenticated scheduler with a single bucket.
+     *
+     * @param initialLimit requests per window assumed until GitHub reports its own limit
+     * @param window       length of the rate-limit window assumed until GitHub reports a reset time
+     * @param reserve      tokens kept back for interactive calls
+     * @param maxWait      longest an interactive call may queue for the next window
+     */
+    public RateLimitScheduler(
+            final int initialLimit,
+            final Duration window,
+            final int reserve,
+            final Duration maxWait
+    ) {
+        this(List.of(), initialLimit, window, reserve, maxWait, Duration.ofMinutes(15));
+    }
+
+    /**
+     * Creates the scheduler from configuration. {@code github.tokens} takes a comma-separated
+     * list and falls back to the single {@code github.token}.
+     *
+     * @param tokens       GitHub tokens to spread calls across; blank and repeated ones are ignored
+     * @param initialLimit requests per window assumed until GitHub reports its own limit
+     * @param window       length of the rate-limit window assumed until GitHub reports a reset time
+     * @param reserve      tokens kept back for interactive calls, per bucket
+     * @param maxWait      longest an interactive call may queue for the next window
+     * @param revokedRetry how long a GitHub token answered with {@code 401} is skipped
+     */
+    @Autowired
+    public RateLimitScheduler(
+            @Value("${github.tokens:${github.token:}}") final List<String> tokens,
+            @Value("${github.rate-limit.initial-limit:30}") final int initialLimit,
+            @Value("${github.rate-limit.window:60s}") final Duration window,
+            @Value("${github.rate-limit.reserve:5}") final int reserve,
+            @Value("${github.rate-limit.max-wait:10s}") final Duration maxWait,
+            @Value("${github.rate-limit.revoked-retry:15m}") final Duration revokedRetry
+    ) {
+        this.windowMillis = window.toMillis();
+        this.reserve = reserve;
+        this.maxWaitMillis = maxWait.toMillis();
+        this.revokedRetryMillis = revokedRetry.toMillis();
+
+        final LinkedHashSet<String> distinct = new LinkedHashSet<>();
+        for (final String token : tokens) {
+            if (token != null && !token.isBlank()) distinct.add(token.trim());
+        }
+        final long resetAtMillis = System.currentTimeMillis() + windowMillis;
+        final List<Budget> pool = new ArrayList<>();
+        if (distinct.isEmpty()) {
+            pool.add(new Budget("anonymous", null, initialLimit, resetAtMillis));
+        }
+        for (final String token : distinct) {
+            pool.add(new Budget(String.valueOf(pool.size() + 1), token, initialLimit, resetAtMillis));
+        }
+        this.budgets = List.copyOf(pool);
+    }
+
+    /**
+     * Acquires a token for the call, authorizes it with the token's bucket, executes it and
+     * updates that bucket from the response.
+     *
+     * @param request   outgoing request
+     * @param body      request body
+     * @param execution remaining interceptor chain
+     * @return GitHub's response
+     * @throws IOException on I/O failure
+     * @throws RateLimitExceededException if the call was shed
+     */
+    @Override
+    public ClientHttpResponse intercept(
+            final HttpRequest request,
+            final byte[] body,
+            final ClientHttpRequestExecution execution
+    ) throws IOException {
+        final Budget budget = acquire(RequestPriority.current());
+        budget.authorize(request.getHeaders());
+        ClientHttpResponse response = null;
+        try {
+            response = execution.execute(request, body);
+            return response;
+        } finally {
+            release(budget, response);
+        }
+    }
+
+    /**
+     * Takes a token, queueing or shedding according to the priority.
+     *
+     * @param priority priority of the calling thread
+     * @return the bucket the token was taken from
+     */
+    Budget acquire(final RequestPriority priority) {
+        final long deadline = deadlineFromNow();
+        lock.lock();
+        try {
+            while (true) {
+                final Attempt attempt = tryAcquireLocked(priority, deadline);
+                if (attempt.budget() != null) return attempt.budget();
+                queued++;
+                try {
+                    budgetAvailable.await(attempt.waitMillis(), TimeUnit.MILLISECONDS);
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new RateLimitExceededException("Interrupted while waiting for rate-limit budget", 0);
+                } finally {
+                    queued--;
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Non-blocking variant of {@link #acquire}: takes a token if one is available, or reports
+     * how long the caller should wait before trying again.
+     *
+     * @param priority       priority of the call
+     * @param deadlineMillis epoch millis after which an interactive call is shed, from
+     *                       {@link #deadlineFromNow()} at the first attempt
+     * @return the bucket a token was taken from, or the milliseconds until the first reset
+     * @throws RateLimitExceededException if the call is shed
+     */
+    Attempt tryAcquire(final RequestPriority priority, final long deadlineMillis) {
+        lock.lock();
+        try {
+            return tryAcquireLocked(priority, deadlineMillis);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Latest time a call starting now may wait for budget.
+     *
+     * @return epoch millis
+     */
+    long deadlineFromNow() {
+        return System.currentTimeMillis() + maxWaitMillis;
+    }
+
+    /**
+     * Refills the buckets whose window has reset and takes a token from the one with the
+     * most budget left. Called with the lock held.
+     *
+     * @param priority       priority of the call
+     * @param deadlineMillis epoch millis after which an interactive call is shed
+     * @return the bucket a token was taken from, or the milliseconds until the first reset
+     * @throws RateLimitExceededException if the call is shed
+     */
+    private Attempt tryAcquireLocked(final RequestPriority priority, final long deadlineMillis) {
+        final long now = System.currentTimeMillis();
+        final int floor = priority == RequestPriority.BACKGROUND ? reserve : 0;
+        Budget best = null;
+        long nextResetMillis = Long.MAX_VALUE;
+        for (final Budget b : budgets) {
+            if (now >= b.resetAtMillis) {
+                b.remaining = b.limit;
+                b.resetAtMillis = now + windowMillis;
+                b.revoked = false;
+            }
+            if (!b.revoked && b.remaining > floor) {
+                if (best == null || b.remaining > best.remaining) best = b;
+            } else {
+                nextResetMillis = Math.min(nextResetMillis, b.resetAtMillis);
+            }
+        }
+        if (best != null) {
+            best.remaining--;
+            best.inFlight++;
+            best.requests++;
+            return new Attempt(best, 0);
+        }
+        final long waitMillis = nextResetMillis - now;
+        if (priority == RequestPriority.BACKGROUND || now + waitMillis > deadlineMillis) {
+            shed++;
+            throw new RateLimitExceededException(
+                    "GitHub rate-limit budget exhausted (" + priority + ")",
+                    TimeUnit.MILLISECONDS.toSeconds(waitMillis + 999));
+        }
+        waits++;
+        return new Attempt(null, Math.max(1, waitMillis));
+    }
+
+    /**
+     * Returns the token of a finished call and applies the response's rate-limit headers.
+     *
+     * @param budget   bucket the token was taken from
+     * @param response GitHub's response, or null if the call failed without one
+     */
+    private void release(final Budget budget, final ClientHttpResponse response) {
+        HttpStatusCode status = null;
+        if (response != null) {
+            try {
+                status = response.getStatusCode();
+            } catch (final IOException ignored) {
+                // status unreadable: keep the local estimate
+            }
+        }
+        release(budget, status, status == null ? null : response.getHeaders());
+    }
+
+    /**
+     * Returns the token of a finished call and applies the response's rate-limit headers.
+     *
+     * @param budget  bucket the token was taken from
+     * @param status  response status, or null if the call failed without a response
+     * @param headers response headers, or null if the call failed without a response
+     */
+    void release(final Budget budget, final HttpStatusCode status, final HttpHeaders headers) {
+        lock.lock();
+        try {
+            budget.inFlight--;
+            if (status != null && headers != null) {
+                update(budget, status, headers);
+            }
+            if (budget.remaining > 0 && !budget.revoked) {
+                budgetAvailable.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Corrects a bucket from GitHub's headers, and skips its GitHub token if it was rejected.
+     * Called with the lock held.
+     *
+     * @param b          bucket the call was sent with
+     * @param statusCode response status
+     * @param h          response headers
+     */
+    private void update(final Budget b, final HttpStatusCode statusCode, final HttpHeaders h) {
+        final long now = System.currentTimeMillis();
+        final int status = statusCode.value();
+
+        if (status == 401 && b.token != null) {
+            if (!b.revoked) {
+                log.warn("GitHub rejected token {} (401); skipping it for {} s", b.name,
+                        TimeUnit.MILLISECONDS.toSeconds(revokedRetryMillis));
+            }
+            b.revoked = true;
+            b.remaining = 0;
+            b.resetAtMillis = now + revokedRetryMillis;
+            return;
+        }
+
+        final Long headerLimit = parseLong(h.getFirst("X-RateLimit-Limit"));
+        if (headerLimit != null) b.limit = headerLimit.intValue();
+
+        final Long reset = parseLong(h.getFirst("X-RateLimit-Reset"));
+        if (reset != null) b.resetAtMillis = TimeUnit.SECONDS.toMillis(reset);
+
+        final Long headerRemaining = parseLong(h.getFirst("X-RateLimit-Remaining"));
+        if (headerRemaining != null) {
+            // other calls still in flight already took their tokens locally
+            b.remaining = (int) Math.max(0, headerRemaining - b.inFlight);
+        }
+
+        final Long retryAfter = parseLong(h.getFirst(HttpHeaders.RETRY_AFTER));
+        if ((status == 403 || status == 429) && (retryAfter != null || b.remaining == 0)) {
+            b.remaining = 0;
+            b.throttled++;
+            if (retryAfter != null) {
+                b.resetAtMillis = Math.max(b.resetAtMillis, now + TimeUnit.SECONDS.toMillis(retryAfter));
+            }
+        }
+    }
+
+    /**
+     * Returns a snapshot of the scheduler state, summed over the buckets that are not revoked.
+     *
+     * @return current budget and counters
+     */
+    public Stats stats() {
+        lock.lock();
+        try {
+            int limit = 0;
+            int remaining = 0;
+            long resetAtMillis = Long.MAX_VALUE;
+            for (final Budget b : budgets) {
+                resetAtMillis = Math.min(resetAtMillis, b.resetAtMillis);
+                if (b.revoked) continue;
+                limit += b.limit;
+                remaining += b.remaining;
+            }
+            return new Stats(limit, remaining, resetAtMillis, queued, waits, shed);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns a snapshot of every bucket, in configuration order.
+     *
+     * @return per-token budget and counters
+     */
+    public List<TokenStats> tokenStats() {
+        lock.lock();
+        try {
+            return budgets.stream().map(Budget::stats).toList();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Registers the budget gauges and counters with Micrometer, for the pool and per token.
+     * Tokens are tagged by their position in {@code github.tokens}, never by value.
+     *
+     * @param registry meter registry
+     */
+    @Override
+    public void bindTo(final MeterRegistry registry) {
+        Gauge.builder("github.ratelimit.limit", this, s -> s.stats().limit()).register(registry);
+        Gauge.builder("github.ratelimit.remaining", this, s -> s.stats().remaining()).register(registry);
+        Gauge.builder("github.ratelimit.queued", this, s -> s.stats().queued()).register(registry);
+        FunctionCounter.builder("github.ratelimit.waits", this, s -> s.stats().waits()).register(registry);
+        FunctionCounter.builder("github.ratelimit.shed", this, s -> s.stats().shed()).register(registry);
+        for (final Budget b : budgets) {
+            Gauge.builder("github.ratelimit.token.remaining", b, x -> tokenStat(x).remaining())
+                    .tag("token", b.name).register(registry);
+            Gauge.builder("github.ratelimit.token.limit", b, x -> tokenStat(x).limit())
+                    .tag("token", b.name).register(registry);
+            Gauge.builder("github.ratelimit.token.revoked", b, x -> tokenStat(x).revoked() ? 1 : 0)
+                    .tag("token", b.name).register(registry);
+            FunctionCounter.builder("github.ratelimit.token.requests", b, x -> tokenStat(x).requests())
+                    .tag("token", b.name).register(registry);
+            FunctionCounter.builder("github.ratelimit.token.throttled", b, x -> tokenStat(x).throttled())
+                    .tag("token", b.name).register(registry);
+        }
+    }
+
+    /**
+     * Reads one bucket under the lock.
+     *
+     * @param budget bucket
+     * @return its current state
+     */
+    private TokenStats tokenStat(final Budget budget) {
+        lock.lock();
+        try {
+            return budget.stats();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Parses a numeric header value.
+     *
+     * @param value header value, may be null
+     * @return parsed value, or null if absent or not a number
+     */
+    private static Long parseLong(final String value) {
+        if (value == null) return null;
+        try {
+            return Long.parseLong(value.trim());
+        } catch (final NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Point-in-time scheduler state.
+     *
+     * @param limit         requests allowed per window
+     * @param remaining     tokens left in the current window
+     * @param resetAtMillis epoch millis at which the window resets
+     * @param queued        interactive calls currently waiting
+     * @param waits         interactive calls that had to wait
+     * @param shed          calls rejected without being sent
+     */
+    public record Stats(int limit, int remaining, long resetAtMillis, int queued, long waits, long shed) { }
+
+    /**
+     * Point-in-time state of one GitHub token's bucket.
+     *
+     * @param name          position of the token in {@code github.tokens}, or {@code anonymous}
+     * @param limit         requests allowed per window
+     * @param remaining     tokens left in the current window
+     * @param resetAtMillis epoch millis at which the window resets, or a revoked token is retried
+     * @param revoked       whether GitHub rejected the token and it is being skipped
+     * @param requests      calls sent with the token
+     * @param throttled     calls GitHub refused because the token's quota was used up
+     */
+    public record TokenStats(String name, int limit, int remaining, long resetAtMillis, boolean revoked,
+                             long requests, long throttled) { }
+
+    /**
+     * Outcome of {@link #tryAcquire}.
+     *
+     * @param budget     bucket a token was taken from, or null if none had budget
+     * @param waitMillis milliseconds until the first bucket resets, when none had budget
+     */
+    record Attempt(Budget budget, long waitMillis) { }
+
+    /**
+     * The rate-limit bucket of one GitHub token. Mutable state is guarded by the scheduler's lock.
+     */
+    static final class Budget {
+
+        private final String name;
+        private final String token;
+        private int limit;
+        private int remaining;
+        private long resetAtMillis;
+        private int inFlight;
+        private boolean revoked;
+        private long requests;
+        private long throttled;
+
+        /**
+         * Creates a full bucket.
+         *
+         * @param name          label used in metrics and logs
+         * @param token         GitHub token, or null for unauthenticated calls
+         * @param limit         requests per window
+         * @param resetAtMillis epoch millis at which the first window resets
+         */
+        private Budget(final String name, final String token, final int limit, final long resetAtMillis) {
+            this.name = name;
+            this.token = token;
+            this.limit = limit;
+            this.remaining = limit;
+            this.resetAtMillis = resetAtMillis;
+        }
+
+        /**
+         * Sets the {@code Authorization} header for this bucket's GitHub token, if any.
+         *
+         * @param headers headers of the outgoing request
+         */
+        void authorize(final HttpHeaders headers) {
+            if (token != null) headers.setBearerAuth(token);
+        }
+
+        /**
+         * Copies the bucket's state. Called with the scheduler's lock held.
+         *
+         * @return bucket state
+         */
+        private TokenStats stats() {
+            return new TokenStats(name, limit, remaining, resetAtMillis, revoked, requests, throttled);
+        }
+    }
+}
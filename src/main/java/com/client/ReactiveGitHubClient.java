@@ -0,0 +1,232 @@
+package com.client;
+
+import com.client.SearchQueries.Candidate;
+import com.parser.SearchResponseParser;
+import com.repo.GitHubRepo;
+import com.repo.SearchPage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.util.List;
+
+/**
+ * Non-blocking counterpart of {@link GitHubClient} built on {@link WebClient}.
+ * <p>Tries the same query candidates in the same order and shares the search page cache
+ * and the rate-limit budget with the blocking client. Instead of collecting a list it
+ * emits repositories in rank order as pages arrive; pages after the first are requested
+ * with bounded concurrency and only as fast as the subscriber consumes them.</p>
+ * <p>Only active in the reactive variant of the application
+ * ({@code spring.main.web-application-type=reactive}).</p>
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveGitHubClient {
+
+    private static final Logger log = LoggerFactory.getLogger(ReactiveGitHubClient.class);
+
+    private final WebClient webClient;
+    private final String baseUrl;
+    private final SearchCache cache;
+    private final int pageConcurrency;
+
+    /**
+     * Creates the client.
+     *
+     * @param webClient       GitHub {@link WebClient}
+     * @param baseUrl         GitHub API base URL (defaults to https://api.github.com)
+     * @param cache           cache of search pages revalidated by ETag
+     * @param pageConcurrency pages of one search requested at the same time
+     */
+    public ReactiveGitHubClient(
+            final WebClient webClient,
+            @Value("${github.base-url:https://api.github.com}") final String baseUrl,
+            final SearchCache cache,
+            @Value("${reactive.page-concurrency:4}") final int pageConcurrency
+    ) {
+        this.webClient = webClient;
+        this.baseUrl = baseUrl;
+        this.cache = cache;
+        this.pageConcurrency = Math.max(1, pageConcurrency);
+    }
+
+    /**
+     * Searches by date and language and emits at most {@code limit} repositories in rank order.
+     * <p>A candidate whose first page fails or is empty is skipped in favour of the next
+     * one. A failing later page ends the stream early with the repositories emitted so far.</p>
+     *
+     * @param createdFrom ISO date (YYYY-MM-DD)
+     * @param language    GitHub language qualifier
+     * @param limit       max number of repos to emit (capped at 1000)
+     * @return repositories in rank order; errors with {@link RateLimitExceededException} if
+     *         the rate-limit budget is exhausted
+     */
+    public Flux<GitHubRepo> searchRepos(final String createdFrom, final String language, final int limit) {
+        final int wanted = SearchQueries.wanted(limit);
+        final int perPage = Math.min(SearchQueries.MAX_PER_PAGE, wanted);
+        final List<Candidate> candidates = SearchQueries.candidates(createdFrom, language, null);
+        return search(candidates, 0, perPage, wanted);
+    }
+
+    /**
+     * Runs the candidate at {@code index}, falling back to the next one if it yields nothing.
+     *
+     * @param candidates queries to try in order
+     * @param index      candidate to run
+     * @param perPage    page size
+     * @param wanted     max number of repos to emit
+     * @return repositories of the first candidate with results
+     */
+    private Flux<GitHubRepo> search(
+            final List<Candidate> candidates,
+            final int index,
+            final int perPage,
+            final int wanted
+    ) {
+        if (index == candidates.size()) return Flux.empty();
+        final String rawQ = candidates.get(index).query();
+        return fetchPage(rawQ, perPage, 1)
+                .onErrorResume(e -> !(e instanceof RateLimitExceededException), e -> {
+                    log.warn("GitHub search failed for q='{}': {}", rawQ, e.toString());
+                    return Mono.just(SearchPage.EMPTY);
+                })
+                .flatMapMany(first -> {
+                    if (first.items().isEmpty()) {
+                        log.debug("Received 0 items for q='{}'. Trying next candidate...", rawQ);
+                        return search(candidates, index + 1, perPage, wanted);
+                    }
+                    return pages(rawQ, perPage, wanted, first);
+                });
+    }
+
+    /**
+     * Emits the repositories of the first page followed by those of the remaining pages, in
+     * page order. Stops at {@code wanted}, at the first short page, or at the first failed page.
+     *
+     * @param rawQ    unencoded query
+     * @param perPage page size
+     * @param wanted  max number of repos to emit
+     * @param first   already fetched first page
+     * @return repositories in rank order
+     */
+    private Flux<GitHubRepo> pages(final String rawQ, final int perPage, final int wanted, final SearchPage first) {
+        final int available = (int) Math.min(SearchQueries.MAX_RESULTS, Math.min(wanted, first.totalCount()));
+        final int pages = (available + perPage - 1) / perPage;
+        final Flux<SearchPage> rest = pages > 1 && first.items().size() >= perPage
+                ? Flux.range(2, pages - 1)
+                        .flatMapSequential(page -> fetchPage(rawQ, perPage, page), pageConcurrency, 1)
+                        .onErrorResume(e -> {
+                            log.warn("GitHub page failed for q='{}': {}", rawQ, e.toString());
+                            return Flux.empty();
+                        })
+                : Flux.empty();
+        return Flux.concat(Flux.just(first), rest)
+                .takeUntil(page -> page.items().size() < perPage)
+                .concatMapIterable(SearchPage::items)
+                .take(wanted, true);
+    }
+
+    /**
+     * Fetches and parses a single page of search results.
+     * <p>Fresh cached pages are returned without a request. Expired ones are revalidated
+     * with {@code If-None-Match}, and a 304 response reuses the cached page.</p>
+     *
+     * @param rawQ    unencoded query
+     * @param perPage page size (at most 100)
+     * @param page    1-based page number
+     * @return the parsed page, or {@link SearchPage#EMPTY} if GitHub returned no body
+     */
+    private Mono<SearchPage> fetchPage(final String rawQ, final int perPage, final int page) {
+        return Mono.defer(() -> {
+            final String key = SearchCache.key(rawQ, perPage, page);
+            final SearchPage cached = cache.getIfFresh(key);
+            if (cached != null) return Mono.just(cached);
+
+            final String uri = SearchQueries.uri(baseUrl, rawQ, perPage, page);
+            log.debug("Calling GitHub: {} (raw q='{}')", uri, rawQ);
+
+            final Mono<SearchPage> unconditional = Mono.defer(() -> get(uri, null))
+                    .map(fetched -> store(key, fetched))
+                    .defaultIfEmpty(SearchPage.EMPTY);
+            final String etag = cache.etagOf(key);
+            if (etag == null) return unconditional;
+            return get(uri, etag)
+                    .map(fetched -> store(key, fetched))
+                    .switchIfEmpty(Mono.defer(() -> {
+                        final SearchPage revalidated = cache.revalidated(key);
+                        return revalidated != null ? Mono.just(revalidated) : unconditional;
+                    }));
+        });
+    }
+
+    /**
+     * Issues a search request, optionally conditional on an ETag, and parses the body with
+     * {@link SearchResponseParser}.
+     * <p>The URI is passed pre-encoded so that the minimal {@code q} encoding reaches GitHub
+     * unchanged.</p>
+     *
+     * @param uri  fully built search URI
+     * @param etag ETag for {@code If-None-Match}, or null for an unconditional request
+     * @return the parsed page with its ETag, or empty on 304 Not Modified
+     */
+    private Mono<Fetched> get(final String uri, final String etag) {
+        return webClient.get()
+                .uri(URI.create(uri))
+                .headers(headers -> {
+                    if (etag != null) headers.setIfNoneMatch(etag);
+                })
+                .exchangeToMono(response -> {
+                    if (response.statusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED)) {
+                        return response.releaseBody().then(Mono.empty());
+                    }
+                    if (response.statusCode().isError()) {
+                        return response.createError();
+                    }
+                    final String tag = response.headers().asHttpHeaders().getETag();
+                    return response.bodyToMono(byte[].class)
+                            .defaultIfEmpty(new byte[0])
+                            .map(body -> new Fetched(parse(body), tag));
+                });
+    }
+
+    /**
+     * Parses a buffered search response body.
+     *
+     * @param body response body
+     * @return the parsed page
+     */
+    private static SearchPage parse(final byte[] body) {
+        try {
+            return SearchResponseParser.parse(new ByteArrayInputStream(body));
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Caches a freshly fetched page under its ETag.
+     *
+     * @param key     cache key
+     * @param fetched page and ETag returned by GitHub
+     * @return the page
+     */
+    private SearchPage store(final String key, final Fetched fetched) {
+        cache.put(key, fetched.page(), fetched.etag());
+        return fetched.page();
+    }
+
+    /**
+     * Page returned by a non-304 search response together with its ETag.
+     */
+    private record Fetched(SearchPage page, String etag) { }
+}
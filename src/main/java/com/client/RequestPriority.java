@@ -0,0 +1,53 @@
+package com.client;
+
+import java.util.function.Supplier;
+
+/**
+ * Priority of an outbound GitHub call as seen by the {@link RateLimitScheduler}.
+ * <p>The priority is carried in an inheritable thread-local so that the virtual threads
+ * fetching additional pages inherit it from the request thread. Calls default to
+ * {@link #INTERACTIVE}.</p>
+ */
+public enum RequestPriority {
+
+    /** A user is waiting on the result; may queue until the budget resets. */
+    INTERACTIVE,
+
+    /** Refreshes and other work nobody waits on; shed as soon as the budget runs low. */
+    BACKGROUND;
+
+    private static final InheritableThreadLocal<RequestPriority> CURRENT =
+            new InheritableThreadLocal<>() {
+                @Override
+                protected RequestPriority initialValue() {
+                    return INTERACTIVE;
+                }
+            };
+
+    /**
+     * Returns the priority of the calling thread.
+     *
+     * @return current priority
+     */
+    public static RequestPriority current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Runs a task with the given priority and restores the previous one afterwards.
+     *
+     * @param priority priority for calls made by the task
+     * @param task     work to run
+     * @param <T>      result type
+     * @return the task's result
+     */
+    public static <T> T callAs(final RequestPriority priority, final Supplier<T> task) {
+        final RequestPriority previous = CURRENT.get();
+        CURRENT.set(priority);
+        try {
+            return task.get();
+        } finally {
+            CURRENT.set(previous);
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.client;
+
+import com.repo.SearchPage;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Bounded in-process cache of GitHub search pages.
+ * <p>Entries are keyed by the normalized query, page size and page number. An entry is
+ * served directly while younger than the TTL; after that its ETag is used for a
+ * conditional request, so an unchanged page costs a 304 instead of search quota.
+ * The least recently used entry is evicted once {@code maxEntries} is exceeded.</p>
+ */
+@Component
+public class SearchCache implements MeterBinder {
+
+    private final long ttlMillis;
+    private final int maxEntries;
+    private final Clock clock;
+    private final LinkedHashMap<String, Entry> entries;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long revalidations;
+
+    /**
+     * Creates the cache from configuration.
+     *
+     * @param ttl        how long an entry is served without revalidation
+     * @param maxEntries max number of cached pages; 0 disables caching
+     */
+    @Autowired
+    public SearchCache(
+            @Value("${github.cache.ttl:60s}") final Duration ttl,
+            @Value("${github.cache.max-entries:256}") final int maxEntries
+    ) {
+        this(ttl, maxEntries, Clock.systemUTC());
+    }
+
+    /**
+     * Creates the cache with an explicit clock.
+     *
+     * @param ttl        how long an entry is served without revalidation
+     * @param maxEntries max number of cached pages; 0 disables caching
+     * @param clock      time source used for expiry
+     */
+    public SearchCache(final Duration ttl, final int maxEntries, final Clock clock) {
+        this.ttlMillis = ttl.toMillis();
+        this.maxEntries = maxEntries;
+        this.clock = clock;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * Creates a cache that never stores anything.
+     *
+     * @return disabled cache
+     */
+    public static SearchCache disabled() {
+        return new SearchCache(Duration.ZERO, 0);
+    }
+
+    /**
+     * Builds the cache key for a search page.
+     *
+     * @param rawQ    unencoded query
+     * @param perPage page size
+     * @param page    1-based page number
+     * @return normalized key
+     */
+    public static String key(final String rawQ, final int perPage, final int page) {
+        final String q = rawQ.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+        return q + '|' + perPage + '|' + page;
+    }
+
+    /**
+     * Returns the cached page if it is still within its TTL, counting a hit or a miss.
+     *
+     * @param key cache key
+     * @return fresh cached page, or null if absent or expired
+     */
+    public synchronized SearchPage getIfFresh(final String key) {
+        final Entry e = entries.get(key);
+        if (e != null && clock.millis() - e.storedAt() < ttlMillis) {
+            hits++;
+            return e.page();
+        }
+        misses++;
+        return null;
+    }
+
+    /**
+     * Returns the ETag of a cached (possibly expired) page.
+     *
+     * @param key cache key
+     * @return stored ETag, or null if absent
+     */
+    public synchronized String etagOf(final String key) {
+        final Entry e = entries.get(key);
+        return e == null ? null : e.etag();
+    }
+
+    /**
+     * Marks a cached page as revalidated after a 304 response and restarts its TTL.
+     *
+     * @param key cache key
+     * @return the cached page, or null if it was evicted in the meantime
+     */
+    public synchronized SearchPage revalidated(final String key) {
+        final Entry e = entries.get(key);
+        if (e == null) return null;
+        revalidations++;
+        entries.put(key, new Entry(e.page(), e.etag(), clock.millis()));
+        return e.page();
+    }
+
+    /**
+     * Stores a page, evicting the least recently used entry if the cache is full.
+     *
+     * @param key  cache key
+     * @param page page to cache
+     * @param etag ETag returned by GitHub, may be null
+     */
+    public synchronized void put(final String key, final SearchPage page, final String etag) {
+        if (maxEntries <= 0) return;
+        entries.put(key, new Entry(page, etag, clock.millis()));
+        while (entries.size() > maxEntries) {
+            final Map.Entry<String, Entry> eldest = entries.entrySet().iterator().next();
+            entries.remove(eldest.getKey());
+            evictions++;
+        }
+    }
+
+    /**
+     * Returns a snapshot of the cache counters.
+     *
+     * @return current statistics
+     */
+    public synchronized Stats stats() {
+        return new Stats(hits, misses, evictions, revalidations, entries.size());
+    }
+
+    /**
+     * Registers the cache counters with Micrometer.
+     *
+     * @param registry meter registry
+     */
+    @Override
+    public void bindTo(final MeterRegistry registry) {
+        FunctionCounter.builder("github.search.cache.requests", this, c -> c.stats().hits())
+                .tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("github.search.cache.requests", this, c -> c.stats().misses())
+                .tag("result", "miss")
+                .register(registry);
+        FunctionCounter.builder("github.search.cache.evictions", this, c -> c.stats().evictions())
+                .register(registry);
+        FunctionCounter.builder("github.search.cache.revalidations", this, c -> c.stats().revalidations())
+                .register(registry);
+        Gauge.builder("github.search.cache.size", this, c -> c.stats().size())
+                .register(registry);
+    }
+
+    /**
+     * Cached page together with its ETag and the time it was last validated.
+     */
+    private record Entry(SearchPage page, String etag, long storedAt) { }
+
+    /**
+     * Point-in-time cache counters.
+     *
+     * @param hits          lookups served from a fresh entry
+     * @param misses        lookups that had to go to GitHub
+     * @param evictions     entries dropped by the LRU policy
+     * @param revalidations expired entries confirmed unchanged by a 304
+     * @param size          current number of entries
+     */
+    public record Stats(long hits, long misses, long evictions, long revalidations, int size) { }
+}
@@ -0,0 +1,137 @@
+package com.client;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Query building shared by the blocking and the reactive GitHub client: the candidate
+ * queries tried in order, and the search URI for one page of a candidate.
+ */
+final class SearchQueries {
+
+    /** GitHub's maximum page size for the search API. */
+    static final int MAX_PER_PAGE = 100;
+
+    /** GitHub never returns more than this many results for a single search query. */
+    static final int MAX_RESULTS = 1000;
+
+    /**
+     * Not instantiable.
+     */
+    private SearchQueries() { }
+
+    /**
+     * Clamps a requested limit to what a single search can return.
+     *
+     * @param limit requested number of repositories
+     * @return limit between 1 and {@link #MAX_RESULTS}
+     */
+    static int wanted(final int limit) {
+        return Math.max(1, Math.min(MAX_RESULTS, limit));
+    }
+
+    /**
+     * Builds the queries to try, most specific first. Later candidates are only used when
+     * an earlier one fails or comes back empty.
+     *
+     * @param createdFrom ISO date (YYYY-MM-DD), may be blank
+     * @param language    GitHub language qualifier, may be blank
+     * @param freeText    optional free text added to the query
+     * @return at least one candidate
+     */
+    static List<Candidate> candidates(final String createdFrom, final String language, final String freeText) {
+        final String lang = isBlank(language) ? "" : ("language:" + language.trim());
+        final String date = isBlank(createdFrom) ? "" : ("pushed:>=" + createdFrom.trim());
+        final String free = isBlank(freeText) ? "" : freeText.trim();
+
+        final List<Candidate> candidates = new ArrayList<>();
+        if (!isBlank(date) && !isBlank(lang)) {
+            candidates.add(new Candidate("date_language", join(free, date, lang)));
+        }
+        if (!isBlank(lang)) {
+            candidates.add(new Candidate("language", join(free, lang)));
+        }
+        if (candidates.isEmpty()) {
+            candidates.add(new Candidate("default", "language:Java"));
+        }
+        return candidates;
+    }
+
+    /**
+     * Builds the query for one date window of a sharded crawl.
+     *
+     * @param language GitHub language qualifier, may be blank
+     * @param from     first day of the window
+     * @param to       last day of the window, inclusive
+     * @return unencoded query with a {@code pushed:A..B} qualifier
+     */
+    static String window(final String language, final LocalDate from, final LocalDate to) {
+        final String lang = isBlank(language) ? "" : ("language:" + language.trim());
+        return join("pushed:" + from + ".." + to, lang);
+    }
+
+    /**
+     * Builds the search URI for one page, sorted by stars.
+     *
+     * @param baseUrl GitHub API base URL
+     * @param rawQ    unencoded query
+     * @param perPage page size (at most 100)
+     * @param page    1-based page number
+     * @return search URI
+     */
+    static String uri(final String baseUrl, final String rawQ, final int perPage, final int page) {
+        return baseUrl + "/search/repositories"
+                + "?q=" + encodeQ(rawQ)
+                + "&sort=stars&order=desc"
+                + "&per_page=" + perPage
+                + "&page=" + page;
+    }
+
+    /**
+     * Null/blank helper.
+     *
+     * @param string input string
+     * @return true if null or blank
+     */
+    private static boolean isBlank(final String string) { return string == null || string.trim().isEmpty(); }
+
+    /**
+     * Joins non-blank parts with single spaces.
+     *
+     * @param parts string parts
+     * @return joined string
+     */
+    private static String join(final String... parts) {
+        final StringBuilder b = new StringBuilder();
+        for (final String p : parts) {
+            if (!isBlank(p)) {
+                if (!b.isEmpty()) b.append(' ');
+                b.append(p.trim());
+            }
+        }
+        return b.toString();
+    }
+
+    /**
+     * Minimal encoding for GitHub {@code q}: space→'+', '>'→'%3E'.
+     * '=' is intentionally left as-is so {@code '>='} becomes {@code '%3E='}.
+     *
+     * @param raw unencoded query
+     * @return minimally encoded query
+     */
+    private static String encodeQ(final String raw) {
+        String s = raw.trim().replaceAll("\\s+", " ");
+        s = s.replace(" ", "+");
+        s = s.replace(">", "%3E");
+        return s;
+    }
+
+    /**
+     * One query tried by a search.
+     *
+     * @param name  metric tag naming the candidate's shape
+     * @param query unencoded query
+     */
+    record Candidate(String name, String query) { }
+}
@@ -0,0 +1,291 @@
+package com.client;
+
+import com.repo.GitHubRepo;
+import com.repo.SearchPage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Crawls every repository of a language pushed within a date range, past the 1000-result
+ * cap of a single search.
+ * <p>The range is cut into {@code pushed:A..B} windows. A window whose first page reports
+ * more than 1000 results is split into as many equal sub-windows as its count needs (at
+ * least two), which are crawled instead. A single day that still exceeds the cap is
+ * crawled up to the cap and reported as truncated. Windows run as subtasks of a
+ * {@link TaskScope}, at most {@code crawl.concurrency} at a time, each fetching its pages
+ * in turn. Repositories are delivered one window at a time on the calling thread, without
+ * duplicates by GitHub id; a repository pushed during the crawl may otherwise show up in
+ * two windows.</p>
+ * <p>Pages bypass the search cache. A page shed by the {@link RateLimitScheduler} is
+ * retried after the scheduler's retry hint, so a crawl at
+ * {@link RequestPriority#BACKGROUND} only spends budget that interactive calls leave over.
+ * A page rejected by the open {@link CircuitBreaker} is retried when the circuit is next
+ * probed.</p>
+ */
+@Component
+@ConditionalOnProperty(name = "github.api", havingValue = "rest", matchIfMissing = true)
+public class ShardedCrawler {
+
+    private static final Logger log = LoggerFactory.getLogger(ShardedCrawler.class);
+
+    private final GitHubClient client;
+    private final int concurrency;
+
+    /**
+     * Creates the crawler.
+     *
+     * @param client      REST client fetching the window pages
+     * @param concurrency windows crawled at the same time
+     */
+    public ShardedCrawler(final GitHubClient client, @Value("${crawl.concurrency:4}") final int concurrency) {
+        this.client = client;
+        this.concurrency = Math.max(1, concurrency);
+    }
+
+    /**
+     * Crawls all repositories of {@code language} pushed between {@code from} and {@code to}.
+     *
+     * @param language GitHub language qualifier, or blank for any
+     * @param from     first push day, inclusive
+     * @param to       last push day, inclusive
+     * @param onWindow receives the not yet delivered repositories of each crawled window
+     * @return what the crawl did
+     * @throws IllegalArgumentException  if {@code to} is before {@code from}
+     * @throws DeadlineExceededException if the enclosing {@link TaskScope}'s deadline passed
+     * @throws CancellationException     if the calling thread was interrupted
+     */
+    public Result crawl(
+            final String language,
+            final LocalDate from,
+            final LocalDate to,
+            final Consumer<List<GitHubRepo>> onWindow
+    ) {
+        if (to.isBefore(from)) throw new IllegalArgumentException("crawl ends before it starts: " + from + ".." + to);
+
+        final Deque<Window> todo = new ArrayDeque<>(List.of(new Window(from, to)));
+        final BlockingQueue<Shard> done = new LinkedBlockingQueue<>();
+        final AtomicInteger pages = new AtomicInteger();
+        final Set<Long> seen = new HashSet<>();
+        int inFlight = 0;
+        int windows = 0;
+        int truncated = 0;
+        int failed = 0;
+        int repos = 0;
+
+        try (TaskScope scope = TaskScope.open()) {
+            while (!todo.isEmpty() || inFlight > 0) {
+                while (inFlight < concurrency && !todo.isEmpty()) {
+                    final Window window = todo.poll();
+                    scope.fork(() -> done.add(crawlWindow(language, window, pages)));
+                    inFlight++;
+                }
+
+                final Shard shard = next(done, scope);
+                inFlight--;
+                if (shard.failure() != null) {
+                    failed++;
+                    log.warn("Crawl window {} of language '{}' failed: {}", shard.window(), language, shard.failure().toString());
+                    continue;
+                }
+                if (!shard.splits().isEmpty()) {
+                    log.debug("Crawl window {} holds more than {} repos, split into {}",
+                            shard.window(), SearchQueries.MAX_RESULTS, shard.splits().size());
+                    todo.addAll(shard.splits());
+                    continue;
+                }
+
+                windows++;
+                if (shard.truncated()) {
+                    truncated++;
+                    log.warn("Crawl window {} of language '{}' exceeds {} repos on a single day; kept the top {}",
+                            shard.window(), language, SearchQueries.MAX_RESULTS, SearchQueries.MAX_RESULTS);
+                }
+                final List<GitHubRepo> fresh = new ArrayList<>(shard.repos().size());
+                for (final GitHubRepo repo : shard.repos()) {
+                    if (seen.add(repo.id())) fresh.add(repo);
+                }
+                if (!fresh.isEmpty()) onWindow.accept(fresh);
+                repos += fresh.size();
+            }
+        }
+        return new Result(windows, pages.get(), repos, truncated, failed);
+    }
+
+    /**
+     * Waits for the next finished window until the scope's deadline.
+     *
+     * @param done  finished windows
+     * @param scope scope the windows run in
+     * @return the next finished window
+     * @throws DeadlineExceededException if the deadline passed first
+     * @throws CancellationException     if the calling thread was interrupted
+     */
+    private static Shard next(final BlockingQueue<Shard> done, final TaskScope scope) {
+        try {
+            final Duration remaining = scope.remaining();
+            if (remaining == null) return done.take();
+            final Shard shard = done.poll(remaining.toNanos(), TimeUnit.NANOSECONDS);
+            if (shard == null) {
+                scope.shutdown();
+                throw new DeadlineExceededException("GitHub crawl exceeded its deadline");
+            }
+            return shard;
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            scope.shutdown();
+            throw new CancellationException("interrupted while crawling");
+        }
+    }
+
+    /**
+     * Crawls one window: its first page decides whether it is split, otherwise its pages
+     * are fetched until the last one or the search cap. Never throws, so that the
+     * coordinating thread always hears back.
+     *
+     * @param language GitHub language qualifier
+     * @param window   push days to crawl
+     * @param pages    counter of fetched pages
+     * @return the window's repositories, its sub-windows, or its failure
+     */
+    private Shard crawlWindow(final String language, final Window window, final AtomicInteger pages) {
+        try {
+            final String q = SearchQueries.window(language, window.from(), window.to());
+            final SearchPage first = fetch(q, 1, pages);
+            final boolean overCap = first.totalCount() > SearchQueries.MAX_RESULTS;
+            if (overCap && window.days() > 1) {
+                return new Shard(window, List.of(), window.split(first.totalCount()), false, null);
+            }
+
+            final List<GitHubRepo> repos = new ArrayList<>(first.items());
+            final int available = (int) Math.min(SearchQueries.MAX_RESULTS, first.totalCount());
+            final int last = (available + SearchQueries.MAX_PER_PAGE - 1) / SearchQueries.MAX_PER_PAGE;
+            int size = first.items().size();
+            for (int page = 2; page <= last && size == SearchQueries.MAX_PER_PAGE; page++) {
+                final SearchPage next = fetch(q, page, pages);
+                repos.addAll(next.items());
+                size = next.items().size();
+            }
+            return new Shard(window, repos, List.of(), overCap, null);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new Shard(window, List.of(), List.of(), false, e);
+        } catch (final RuntimeException e) {
+            return new Shard(window, List.of(), List.of(), false, e);
+        }
+    }
+
+    /**
+     * Fetches a full page, waiting out the retry hint whenever the rate-limit scheduler
+     * sheds the call or the open circuit rejects it.
+     *
+     * @param q     unencoded window query
+     * @param page  1-based page number
+     * @param pages counter of fetched pages
+     * @return the parsed page
+     * @throws InterruptedException if interrupted while waiting for budget
+     */
+    private SearchPage fetch(final String q, final int page, final AtomicInteger pages) throws InterruptedException {
+        while (true) {
+            try {
+                final SearchPage result = client.fetchUncached(q, SearchQueries.MAX_PER_PAGE, page);
+                pages.incrementAndGet();
+                return result;
+            } catch (final RateLimitExceededException ex) {
+                log.debug("Crawl page {} of q='{}' shed, retrying in {}s", page, q, ex.getRetryAfterSeconds());
+                TimeUnit.SECONDS.sleep(Math.max(1, ex.getRetryAfterSeconds()));
+            } catch (final GitHubUnavailableException ex) {
+                if (ex.getRetryAfterSeconds() == 0) throw ex;
+                log.debug("Crawl page {} of q='{}' rejected by the open circuit, retrying in {}s",
+                        page, q, ex.getRetryAfterSeconds());
+                TimeUnit.SECONDS.sleep(ex.getRetryAfterSeconds());
+            }
+        }
+    }
+
+    /**
+     * Push days crawled by one search query.
+     *
+     * @param from first day, inclusive
+     * @param to   last day, inclusive
+     */
+    private record Window(LocalDate from, LocalDate to) {
+
+        /**
+         * Number of days in the window.
+         *
+         * @return at least 1
+         */
+        long days() {
+            return ChronoUnit.DAYS.between(from, to) + 1;
+        }
+
+        /**
+         * Cuts the window into consecutive sub-windows of nearly equal length, enough for
+         * {@code total} results to fit under the search cap if they were spread evenly.
+         *
+         * @param total number of results the window reported
+         * @return between 2 and {@link #days()} sub-windows covering the window
+         */
+        List<Window> split(final long total) {
+            final long days = days();
+            final int parts = (int) Math.min(days,
+                    Math.max(2, (total + SearchQueries.MAX_RESULTS - 1) / SearchQueries.MAX_RESULTS));
+            final List<Window> out = new ArrayList<>(parts);
+            LocalDate start = from;
+            for (int i = 0; i < parts; i++) {
+                final long length = days / parts + (i < days % parts ? 1 : 0);
+                final LocalDate end = start.plusDays(length - 1);
+                out.add(new Window(start, end));
+                start = end.plusDays(1);
+            }
+            return out;
+        }
+
+        @Override
+        public String toString() {
+            return from + ".." + to;
+        }
+    }
+
+    /**
+     * Outcome of crawling one window.
+     *
+     * @param window    the crawled window
+     * @param repos     its repositories, if it was crawled
+     * @param splits    its sub-windows, if it was too large
+     * @param truncated whether a single-day window held more than the search cap
+     * @param failure   why the window could not be crawled, or null
+     */
+    private record Shard(Window window, List<GitHubRepo> repos, List<Window> splits, boolean truncated,
+                         Exception failure) { }
+
+    /**
+     * Summary of a crawl.
+     *
+     * @param windows   windows whose repositories were delivered
+     * @param pages     search pages fetched, including those of split windows
+     * @param repos     distinct repositories delivered
+     * @param truncated single-day windows cut off at the search cap
+     * @param failed    windows skipped after an error
+     */
+    public record Result(int windows, int pages, int repos, int truncated, int failed) { }
+}
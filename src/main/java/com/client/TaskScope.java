@@ -0,0 +1,237 @@
+package com.client;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.Phaser;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Structured scope for the subtasks of one request, modelled on Java 21's
+ * {@code StructuredTaskScope} (a preview API that this build does not enable).
+ * <p>A scope is opened by the thread doing the request and bound to it until closed.
+ * {@link #fork} runs a subtask on its own virtual thread, and subtasks see the scope as
+ * their current one, so scopes opened inside them are nested. A nested scope never
+ * outlives its parent's deadline. When the owner stops waiting because the deadline
+ * passed or it was interrupted, and at the latest on {@link #close()}, every outstanding
+ * subtask is cancelled by interrupting it; a subtask that only starts afterwards runs
+ * interrupted. {@code close()} returns only after every forked subtask has finished,
+ * which the scope tracks itself rather than through the subtasks' futures, since a
+ * cancelled future counts as done while its thread may still be running.</p>
+ */
+public final class TaskScope implements AutoCloseable {
+
+    private static final long NO_DEADLINE = Long.MAX_VALUE;
+
+    private static final ThreadLocal<TaskScope> CURRENT = new ThreadLocal<>();
+
+    private final TaskScope parent;
+    private final Thread owner;
+    private final long deadlineNanos;
+    /** One party for the owner plus one per subtask that has not finished yet. */
+    private final Phaser unfinished = new Phaser(1);
+    private final Set<Thread> running = ConcurrentHashMap.newKeySet();
+    private volatile boolean shutdown;
+
+    /**
+     * Creates a scope owned by the calling thread.
+     *
+     * @param parent        enclosing scope, or null
+     * @param deadlineNanos {@link System#nanoTime()} value of the deadline, or {@link #NO_DEADLINE}
+     */
+    private TaskScope(final TaskScope parent, final long deadlineNanos) {
+        this.parent = parent;
+        this.owner = Thread.currentThread();
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    /**
+     * Opens a scope that inherits the deadline of the current scope, if any.
+     *
+     * @return the new scope, bound to the calling thread until closed
+     */
+    public static TaskScope open() {
+        return open(null);
+    }
+
+    /**
+     * Opens a scope whose deadline is {@code timeout} from now, or the current scope's
+     * deadline if that is earlier.
+     *
+     * @param timeout time allowed for the scope's work, or null for no own deadline
+     * @return the new scope, bound to the calling thread until closed
+     */
+    public static TaskScope open(final Duration timeout) {
+        final TaskScope parent = CURRENT.get();
+        long deadline = parent == null ? NO_DEADLINE : parent.deadlineNanos;
+        if (timeout != null) {
+            deadline = Math.min(deadline, saturatedAdd(System.nanoTime(), timeout.toNanos()));
+        }
+        final TaskScope scope = new TaskScope(parent, deadline);
+        CURRENT.set(scope);
+        return scope;
+    }
+
+    /**
+     * Runs a task inside a scope with the given timeout and closes the scope afterwards.
+     *
+     * @param timeout time allowed for the task's subtasks, or null for no own deadline
+     * @param task    work to run on the calling thread
+     * @param <T>     result type
+     * @return the task's result
+     */
+    public static <T> T callWithin(final Duration timeout, final Supplier<T> task) {
+        final TaskScope scope = open(timeout);
+        try {
+            return task.get();
+        } finally {
+            scope.close();
+        }
+    }
+
+    /**
+     * Returns the scope the calling thread is working in.
+     *
+     * @return current scope, or null outside of any scope
+     */
+    public static TaskScope current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Starts a subtask on a new virtual thread.
+     *
+     * @param task subtask
+     * @param <T>  result type
+     * @return handle for {@link #get} or {@link #join}; cancelling it interrupts the subtask
+     * @throws IllegalStateException if the scope has been shut down
+     */
+    public <T> Future<T> fork(final Callable<T> task) {
+        unfinished.register();
+        if (shutdown) {
+            unfinished.arriveAndDeregister();
+            throw new IllegalStateException("scope is shut down");
+        }
+        final FutureTask<T> future = new FutureTask<>(() -> {
+            CURRENT.set(this);
+            try {
+                return task.call();
+            } finally {
+                CURRENT.remove();
+            }
+        });
+        Thread.ofVirtual().start(() -> {
+            final Thread self = Thread.currentThread();
+            running.add(self);
+            try {
+                if (shutdown) self.interrupt();
+                future.run();
+            } finally {
+                running.remove(self);
+                unfinished.arriveAndDeregister();
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Waits for a subtask until the scope's deadline. Missing the deadline shuts the scope down.
+     *
+     * @param subtask handle returned by {@link #fork}
+     * @param <T>     result type
+     * @return the subtask's result
+     * @throws ExecutionException        if the subtask failed
+     * @throws InterruptedException      if the waiting thread was interrupted
+     * @throws DeadlineExceededException if the deadline passed first
+     */
+    public <T> T get(final Future<T> subtask) throws ExecutionException, InterruptedException {
+        try {
+            if (deadlineNanos == NO_DEADLINE) return subtask.get();
+            return subtask.get(Math.max(0, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (final TimeoutException e) {
+            shutdown();
+            throw new DeadlineExceededException("GitHub search exceeded its deadline");
+        }
+    }
+
+    /**
+     * Like {@link #get}, but rethrows a subtask's unchecked exception as-is and turns an
+     * interrupt into a shutdown of the scope.
+     *
+     * @param subtask handle returned by {@link #fork}
+     * @param <T>     result type
+     * @return the subtask's result
+     * @throws DeadlineExceededException if the deadline passed first
+     * @throws CancellationException     if the waiting thread was interrupted
+     */
+    public <T> T join(final Future<T> subtask) {
+        try {
+            return get(subtask);
+        } catch (final ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            if (e.getCause() instanceof Error err) throw err;
+            throw new CompletionException(e.getCause());
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            shutdown();
+            throw new CancellationException("interrupted while waiting for a subtask");
+        }
+    }
+
+    /**
+     * Time left until the deadline.
+     *
+     * @return remaining time, or null if the scope has no deadline
+     */
+    public Duration remaining() {
+        if (deadlineNanos == NO_DEADLINE) return null;
+        return Duration.ofNanos(Math.max(0, deadlineNanos - System.nanoTime()));
+    }
+
+    /**
+     * Cancels all outstanding subtasks and refuses new ones.
+     */
+    public void shutdown() {
+        shutdown = true;
+        for (final Thread thread : running) {
+            thread.interrupt();
+        }
+    }
+
+    /**
+     * Shuts the scope down, waits for its subtasks to finish and makes the enclosing scope
+     * current again.
+     */
+    @Override
+    public void close() {
+        shutdown();
+        unfinished.arriveAndAwaitAdvance();
+        if (Thread.currentThread() == owner) {
+            if (parent == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(parent);
+            }
+        }
+    }
+
+    /**
+     * Adds a duration to a {@link System#nanoTime()} value without overflowing.
+     *
+     * @param now   {@link System#nanoTime()} value
+     * @param delta nanoseconds to add
+     * @return the sum, or {@link #NO_DEADLINE} on overflow
+     */
+    private static long saturatedAdd(final long now, final long delta) {
+        final long sum = now + delta;
+        return ((now ^ sum) & (delta ^ sum)) < 0 ? NO_DEADLINE : sum;
+    }
+}
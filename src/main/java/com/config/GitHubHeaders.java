@@ -0,0 +1,27 @@
+package com.config;
+
+import org.springframework.http.HttpHeaders;
+
+/**
+ * Default headers sent with every GitHub API request, shared by the blocking and the
+ * reactive HTTP client.
+ */
+final class GitHubHeaders {
+
+    /**
+     * Not instantiable.
+     */
+    private GitHubHeaders() { }
+
+    /**
+     * Adds User-Agent, Accept and API version. Authorization is set per call by
+     * {@link com.client.RateLimitScheduler}, which picks the GitHub token.
+     *
+     * @param headers headers of the outgoing request
+     */
+    static void apply(final HttpHeaders headers) {
+        headers.add(HttpHeaders.USER_AGENT, "github-scoring-app/1.0");
+        headers.add(HttpHeaders.ACCEPT, "application/vnd.github+json");
+        headers.add("X-GitHub-Api-Version", "2022-11-28");
+    }
+}
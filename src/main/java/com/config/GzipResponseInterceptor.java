@@ -0,0 +1,106 @@
+package com.config;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Requests gzip-compressed responses and transparently decompresses them.
+ * <p>Neither {@code java.net.http.HttpClient} nor {@code HttpURLConnection} decode
+ * {@code Content-Encoding} on their own, so the body is wrapped here before any
+ * message converter or extractor reads it.</p>
+ */
+class GzipResponseInterceptor implements ClientHttpRequestInterceptor {
+
+    /**
+     * Adds {@code Accept-Encoding: gzip} and unwraps gzip-encoded responses.
+     *
+     * @param request   outgoing request
+     * @param body      request body
+     * @param execution remaining interceptor chain
+     * @return response whose body is decompressed if it was gzip-encoded
+     * @throws IOException on I/O failure
+     */
+    @Override
+    public ClientHttpResponse intercept(
+            final HttpRequest request,
+            final byte[] body,
+            final ClientHttpRequestExecution execution
+    ) throws IOException {
+        request.getHeaders().set(HttpHeaders.ACCEPT_ENCODING, "gzip");
+        final ClientHttpResponse response = execution.execute(request, body);
+        final String encoding = response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING);
+        return "gzip".equalsIgnoreCase(encoding) ? new GzipResponse(response) : response;
+    }
+
+    /**
+     * Response view that inflates the delegate's body and hides the encoding headers.
+     */
+    private static final class GzipResponse implements ClientHttpResponse {
+
+        private final ClientHttpResponse delegate;
+        private final HttpHeaders headers;
+        private InputStream body;
+
+        /**
+         * Wraps a gzip-encoded response.
+         *
+         * @param delegate original response
+         */
+        GzipResponse(final ClientHttpResponse delegate) {
+            this.delegate = delegate;
+            final HttpHeaders copy = new HttpHeaders();
+            copy.putAll(delegate.getHeaders());
+            copy.remove(HttpHeaders.CONTENT_ENCODING);
+            copy.remove(HttpHeaders.CONTENT_LENGTH);
+            this.headers = HttpHeaders.readOnlyHttpHeaders(copy);
+        }
+
+        @Override
+        public HttpStatusCode getStatusCode() throws IOException {
+            return delegate.getStatusCode();
+        }
+
+        @Override
+        public String getStatusText() throws IOException {
+            return delegate.getStatusText();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+
+        @Override
+        public InputStream getBody() throws IOException {
+            if (body == null) {
+                final InputStream raw = delegate.getBody();
+                body = isEmptyStatus() ? raw : new GZIPInputStream(raw);
+            }
+            return body;
+        }
+
+        @Override
+        public void close() {
+            delegate.close();
+        }
+
+        /**
+         * Whether the status never carries a body (so there is nothing to inflate).
+         *
+         * @return true for 204 and 304 responses
+         * @throws IOException on I/O failure
+         */
+        private boolean isEmptyStatus() throws IOException {
+            final int code = delegate.getStatusCode().value();
+            return code == 204 || code == 304;
+        }
+    }
+}
@@ -1,45 +1,98 @@
 package com.config;
 
+import com.client.CircuitBreaker;
+import com.client.RateLimitScheduler;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.HttpHeaders;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
  * Provides configuration for the {@link RestTemplate} used in the application.
- * Adds default headers required for GitHub API requests.
+ * Adds default headers required for GitHub API requests and selects the HTTP transport.
  */
 @Configuration
 public class RestTemplateConfig {
 
-    @Value("${github.token:}")
-    private String githubToken;
+    @Value("${github.http.transport:jdk}")
+    private String transport;
+
+    @Value("${github.http.connect-timeout:5s}")
+    private Duration connectTimeout;
+
+    @Value("${github.http.read-timeout:10s}")
+    private Duration readTimeout;
+
+    @Value("${github.http.http2:true}")
+    private boolean http2;
+
+    @Value("${github.http.gzip:true}")
+    private boolean gzip;
 
     /**
      * Creates and configures a {@link RestTemplate} with GitHub-specific headers.
-     * Includes User-Agent, Accept, and optional Authorization headers.
+     * Includes User-Agent and Accept headers, and routes every call through the circuit
+     * breaker and then the rate-limit scheduler, so that calls rejected by an open circuit
+     * do not take rate-limit tokens. The scheduler authorizes each call with the GitHub
+     * token it drew budget from.
      *
+     * @param breaker   circuit breaker failing calls fast during GitHub outages
+     * @param scheduler rate-limit aware scheduler for outbound calls
      * @return configured {@link RestTemplate}
      */
     @Bean
-    public RestTemplate restTemplate() {
-        final RestTemplate rt = new RestTemplate();
+    public RestTemplate restTemplate(final CircuitBreaker breaker, final RateLimitScheduler scheduler) {
+        final RestTemplate rt = new RestTemplate(requestFactory());
 
         final ClientHttpRequestInterceptor ua = (req, body, ex) -> {
-            req.getHeaders().add(HttpHeaders.USER_AGENT, "github-scoring-app/1.0");
-            req.getHeaders().add(HttpHeaders.ACCEPT, "application/vnd.github+json");
-            req.getHeaders().add("X-GitHub-Api-Version", "2022-11-28");
-            if (githubToken != null && !githubToken.isBlank()) {
-                req.getHeaders().add(HttpHeaders.AUTHORIZATION, "Bearer " + githubToken.trim());
-            }
+            GitHubHeaders.apply(req.getHeaders());
             return ex.execute(req, body);
         };
 
-        rt.setInterceptors(List.of(ua));
+        final List<ClientHttpRequestInterceptor> interceptors = new ArrayList<>();
+        interceptors.add(breaker);
+        interceptors.add(scheduler);
+        interceptors.add(ua);
+        if (gzip) {
+            interceptors.add(new GzipResponseInterceptor());
+        }
+        rt.setInterceptors(interceptors);
         return rt;
     }
+
+    /**
+     * Builds the request factory for the configured transport.
+     * <p>{@code jdk} uses a single {@link HttpClient} whose keep-alive connection pool is
+     * shared by all requests and which negotiates HTTP/2 when enabled; {@code simple}
+     * keeps the JDK {@code HttpURLConnection} transport. Both apply the configured
+     * connect and read timeouts.</p>
+     *
+     * @return request factory for GitHub calls
+     */
+    private ClientHttpRequestFactory requestFactory() {
+        if ("simple".equalsIgnoreCase(transport)) {
+            final SimpleClientHttpRequestFactory simple = new SimpleClientHttpRequestFactory();
+            simple.setConnectTimeout(connectTimeout);
+            simple.setReadTimeout(readTimeout);
+            return simple;
+        }
+
+        final HttpClient client = HttpClient.newBuilder()
+                .version(http2 ? HttpClient.Version.HTTP_2 : HttpClient.Version.HTTP_1_1)
+                .connectTimeout(connectTimeout)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+        final JdkClientHttpRequestFactory jdk = new JdkClientHttpRequestFactory(client);
+        jdk.setReadTimeout(readTimeout);
+        return jdk;
+    }
 }
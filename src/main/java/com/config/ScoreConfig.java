@@ -2,6 +2,7 @@ package com.config;
 
 import com.parser.WeightParser;
 import com.service.ScoreCalculator;
+import com.service.ScoreOptions;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -10,7 +11,7 @@ import java.util.Map;
 
 /**
  * Configuration class for initializing the {@link ScoreCalculator} bean.
- * Parses scoring weights and decay factor from application properties.
+ * Parses scoring weights, decay factor and fast-path switches from application properties.
  */
 @Configuration
 public class ScoreConfig {
@@ -21,6 +22,15 @@ public class ScoreConfig {
     @Value("${score.tau-days}")
     private double tauDays;
 
+    @Value("${score.vectorized:false}")
+    private boolean vectorized;
+
+    @Value("${score.fast-timestamps:true}")
+    private boolean fastTimestamps;
+
+    @Value("${score.decay-table:true}")
+    private boolean decayTable;
+
     /**
      * Creates a {@link ScoreCalculator} using parsed weights and decay factor.
      *
@@ -29,6 +39,6 @@ public class ScoreConfig {
     @Bean
     public ScoreCalculator scoreCalculator() {
         final Map<String, Double> weights = WeightParser.parse(weightsCsv);
-        return ScoreCalculator.from(weights, tauDays);
+        return ScoreCalculator.from(weights, tauDays, new ScoreOptions(vectorized, fastTimestamps, decayTable));
     }
 }
@@ -0,0 +1,40 @@
+package com.config;
+
+import com.store.SnapshotMode;
+import com.store.SnapshotStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Configuration class for the {@link SnapshotStore} bean.
+ * The column files are only opened when {@code snapshot.mode} is not {@code off}, and are
+ * also loaded into a heap-resident index when {@code snapshot.heap-index} is set.
+ */
+@Configuration
+public class SnapshotConfig {
+
+    @Value("${snapshot.mode:off}")
+    private SnapshotMode mode;
+
+    @Value("${snapshot.dir:data/snapshot}")
+    private Path dir;
+
+    @Value("${snapshot.heap-index:false}")
+    private boolean heapIndex;
+
+    /**
+     * Opens the snapshot directory, or returns a disabled store.
+     *
+     * @return snapshot store, flushed and closed on shutdown
+     * @throws IOException if the snapshot cannot be opened
+     */
+    @Bean(destroyMethod = "close")
+    public SnapshotStore snapshotStore() throws IOException {
+        if (mode == SnapshotMode.OFF) return SnapshotStore.disabled();
+        return heapIndex ? SnapshotStore.openWithHeapIndex(dir) : SnapshotStore.open(dir);
+    }
+}
@@ -0,0 +1,58 @@
+package com.config;
+
+import com.client.RateLimitExchangeFilter;
+import com.client.RateLimitScheduler;
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+
+import java.time.Duration;
+
+/**
+ * Provides the non-blocking {@link WebClient} used by the reactive variant of the
+ * application ({@code spring.main.web-application-type=reactive}).
+ * Sends the same GitHub headers as {@link RestTemplateConfig} and shares its token bucket.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class WebClientConfig {
+
+    /** Largest search page buffered in memory; 100 full items are roughly 550 KB. */
+    private static final int MAX_PAGE_BYTES = 8 * 1024 * 1024;
+
+    @Value("${github.http.connect-timeout:5s}")
+    private Duration connectTimeout;
+
+    @Value("${github.http.read-timeout:10s}")
+    private Duration readTimeout;
+
+    @Value("${github.http.gzip:true}")
+    private boolean gzip;
+
+    /**
+     * Creates the GitHub {@link WebClient} on Reactor Netty, built from Boot's
+     * {@link WebClient.Builder} so that outbound calls are instrumented like the blocking ones.
+     *
+     * @param builder   Boot-configured builder
+     * @param scheduler rate-limit aware scheduler shared with the blocking client
+     * @return configured {@link WebClient}
+     */
+    @Bean
+    public WebClient gitHubWebClient(final WebClient.Builder builder, final RateLimitScheduler scheduler) {
+        final HttpClient http = HttpClient.create()
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis())
+                .responseTimeout(readTimeout)
+                .compress(gzip);
+        return builder
+                .clientConnector(new ReactorClientHttpConnector(http))
+                .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(MAX_PAGE_BYTES))
+                .defaultHeaders(headers -> GitHubHeaders.apply(headers))
+                .filter(new RateLimitExchangeFilter(scheduler))
+                .build();
+    }
+}
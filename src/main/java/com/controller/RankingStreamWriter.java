@@ -0,0 +1,98 @@
+package com.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.repo.ScoreRepo;
+import com.repo.StreamFrame;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Writes {@link StreamFrame}s either as newline-delimited JSON or as server-sent events.
+ * <p>In NDJSON mode every frame is one JSON line. In SSE mode the frame type becomes the
+ * event name and its payload the data. The output is flushed once per page, not per
+ * repository.</p>
+ */
+final class RankingStreamWriter {
+
+    private static final byte[] NEWLINE = {'\n'};
+
+    private final ObjectMapper mapper;
+    private final OutputStream out;
+    private final boolean sse;
+
+    /**
+     * Creates a writer over a response body.
+     *
+     * @param mapper JSON mapper
+     * @param out    response body
+     * @param sse    true for {@code text/event-stream}, false for {@code application/x-ndjson}
+     */
+    RankingStreamWriter(final ObjectMapper mapper, final OutputStream out, final boolean sse) {
+        this.mapper = mapper;
+        this.out = out;
+        this.sse = sse;
+    }
+
+    /**
+     * Writes one {@code repo} frame per repository and flushes.
+     *
+     * @param page scored repositories of one page
+     * @throws UncheckedIOException if the client went away
+     */
+    void page(final List<ScoreRepo> page) {
+        try {
+            for (final ScoreRepo repo : page) {
+                write(StreamFrame.repo(repo), repo);
+            }
+            out.flush();
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Writes the final {@code ranked} frame and flushes.
+     *
+     * @param ranked repositories, best first
+     * @throws IOException if the client went away
+     */
+    void ranked(final List<ScoreRepo> ranked) throws IOException {
+        write(StreamFrame.ranked(ranked), ranked);
+        out.flush();
+    }
+
+    /**
+     * Writes an {@code error} frame and flushes.
+     *
+     * @param error failure description
+     * @throws IOException if the client went away
+     */
+    void error(final String error) throws IOException {
+        final StreamFrame frame = StreamFrame.error(error);
+        write(frame, frame);
+        out.flush();
+    }
+
+    /**
+     * Writes a frame in the selected format.
+     *
+     * @param frame   the frame, written as-is in NDJSON mode
+     * @param payload what an SSE event carries as data
+     * @throws IOException on write failure
+     */
+    private void write(final StreamFrame frame, final Object payload) throws IOException {
+        if (sse) {
+            out.write(("event: " + frame.type() + "\ndata: ").getBytes(StandardCharsets.UTF_8));
+            out.write(mapper.writeValueAsBytes(payload));
+            out.write(NEWLINE);
+            out.write(NEWLINE);
+        } else {
+            out.write(mapper.writeValueAsBytes(frame));
+            out.write(NEWLINE);
+        }
+    }
+}
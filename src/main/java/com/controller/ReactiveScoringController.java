@@ -0,0 +1,162 @@
+package com.controller;
+
+import com.client.RateLimitExceededException;
+import com.repo.ScoreRepo;
+import com.repo.StreamFrame;
+import com.service.ReactiveScoringService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * WebFlux counterpart of {@link ScoringController}, active when the application runs with
+ * {@code spring.main.web-application-type=reactive}. Serves the same {@code /popular}
+ * representations on Netty's event loop without a thread per request; the batch endpoint
+ * is only offered by the servlet variant.
+ */
+@RestController
+@RequestMapping("/api/repos")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveScoringController {
+
+    private final ReactiveScoringService scoringService;
+
+    /**
+     * Constructs the controller.
+     *
+     * @param scoringService non-blocking service used to fetch and score repositories
+     */
+    public ReactiveScoringController(final ReactiveScoringService scoringService) {
+        this.scoringService = scoringService;
+    }
+
+    /**
+     * Endpoint to retrieve the most popular repositories for a given language and date.
+     *
+     * @param createdFrom ISO date string indicating the minimum repository creation date
+     * @param language    programming language to filter repositories
+     * @param limit       maximum number of repositories to return (default 5)
+     * @return list of {@link ScoreRepo} objects with computed scores
+     */
+    @GetMapping("/popular")
+    public Mono<List<ScoreRepo>> popular(
+            @RequestParam("created_from") final String createdFrom,
+            @RequestParam("language") final String language,
+            @RequestParam(name = "limit", defaultValue = "5") final int limit
+    ) {
+        return scoringService.fetchAndScore(createdFrom, language, limit);
+    }
+
+    /**
+     * Streaming variant of {@link #popular} for {@code Accept: application/x-ndjson}: one
+     * {@code repo} line per scored repository, then an optional {@code ranked} line.
+     * Lines are produced only as fast as the client reads them.
+     *
+     * @param createdFrom ISO date string indicating the minimum repository creation date
+     * @param language    programming language to filter repositories
+     * @param limit       maximum number of repositories to return (default 5)
+     * @param ranked      whether to end the stream with the ranked result
+     * @return stream of frames
+     */
+    @GetMapping(value = "/popular", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<StreamFrame> popularNdjson(
+            @RequestParam("created_from") final String createdFrom,
+            @RequestParam("language") final String language,
+            @RequestParam(name = "limit", defaultValue = "5") final int limit,
+            @RequestParam(name = "ranked", defaultValue = "false") final boolean ranked
+    ) {
+        return stream(createdFrom, language, limit, ranked);
+    }
+
+    /**
+     * Streaming variant of {@link #popular} for {@code Accept: text/event-stream}: one
+     * {@code repo} event per scored repository, then an optional {@code ranked} event.
+     *
+     * @param createdFrom ISO date string indicating the minimum repository creation date
+     * @param language    programming language to filter repositories
+     * @param limit       maximum number of repositories to return (default 5)
+     * @param ranked      whether to end the stream with the ranked result
+     * @return stream of events
+     */
+    @GetMapping(value = "/popular", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<Object>> popularSse(
+            @RequestParam("created_from") final String createdFrom,
+            @RequestParam("language") final String language,
+            @RequestParam(name = "limit", defaultValue = "5") final int limit,
+            @RequestParam(name = "ranked", defaultValue = "false") final boolean ranked
+    ) {
+        return stream(createdFrom, language, limit, ranked)
+                .map(frame -> ServerSentEvent.builder(payload(frame)).event(frame.type()).build());
+    }
+
+    /**
+     * Streams the frames of a ranking. A rate-limit or timeout failure is reported as a final
+     * {@code error} frame, since the response status has already been sent.
+     *
+     * @param createdFrom ISO date string indicating the minimum repository creation date
+     * @param language    programming language to filter repositories
+     * @param limit       maximum number of repositories to return
+     * @param ranked      whether to end the stream with the ranked result
+     * @return stream of frames
+     */
+    private Flux<StreamFrame> stream(
+            final String createdFrom,
+            final String language,
+            final int limit,
+            final boolean ranked
+    ) {
+        return scoringService.streamAndScore(createdFrom, language, limit, ranked)
+                .onErrorResume(RateLimitExceededException.class, ex -> Mono.just(StreamFrame.error(
+                        "GitHub rate limit exhausted, retry after " + ex.getRetryAfterSeconds() + "s")))
+                .onErrorResume(TimeoutException.class, ex -> Mono.just(StreamFrame.error("ranking timed out")));
+    }
+
+    /**
+     * What an SSE event carries as data, matching the servlet variant.
+     *
+     * @param frame stream frame
+     * @return the repository, the ranking, or the whole frame for errors
+     */
+    private static Object payload(final StreamFrame frame) {
+        if (frame.repo() != null) return frame.repo();
+        if (frame.ranked() != null) return frame.ranked();
+        return frame;
+    }
+
+    /**
+     * Maps a shed GitHub call to {@code 429 Too Many Requests} with a {@code Retry-After} hint.
+     *
+     * @param ex exception raised by the rate-limit scheduler
+     * @return empty 429 response
+     */
+    @ExceptionHandler(RateLimitExceededException.class)
+    public ResponseEntity<Void> rateLimited(final RateLimitExceededException ex) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .build();
+    }
+
+    /**
+     * Maps a ranking that exceeded {@code reactive.request-timeout} to {@code 504 Gateway Timeout}.
+     *
+     * @param ex timeout raised by the service
+     * @return empty 504 response
+     */
+    @ExceptionHandler(TimeoutException.class)
+    public ResponseEntity<Void> timedOut(final TimeoutException ex) {
+        return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT).build();
+    }
+}
@@ -1,47 +1,289 @@
 package com.controller;
 
+import com.client.DeadlineExceededException;
+import com.client.GitHubUnavailableException;
+import com.client.RateLimitExceededException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.repo.RankingResult;
+import com.repo.RankingSpec;
 import com.repo.ScoreRepo;
+import com.service.BatchRankingService;
+import com.service.PeerRouter;
+import com.service.Ranking;
+import com.service.ScoreOverrides;
 import com.service.ScoringService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.Instant;
 import java.util.List;
 
 /**
  * REST controller that exposes endpoints for fetching and scoring GitHub repositories.
  * Uses {@link ScoringService} to retrieve and compute repository scores.
+ * Active in the default servlet variant; see {@link ReactiveScoringController} for WebFlux.
  */
 @RestController
 @RequestMapping("/api/repos")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class ScoringController {
 
     private final ScoringService scoringService;
+    private final BatchRankingService batchRankingService;
+    private final int maxBatchSize;
+    private final ObjectMapper objectMapper;
 
     /**
-     * Constructs the controller with a {@link ScoringService} dependency.
+     * Constructs the controller with its service dependencies.
      *
-     * @param scoringService service used to fetch and score repositories
+     * @param scoringService      service used to fetch and score repositories
+     * @param batchRankingService service running the specs of a batch concurrently
+     * @param maxBatchSize        most specs accepted in one batch request
+     * @param objectMapper        JSON mapper for streamed responses
      */
-    public ScoringController(final ScoringService scoringService) {
+    public ScoringController(
+            final ScoringService scoringService,
+            final BatchRankingService batchRankingService,
+            @Value("${batch.max-specs:50}") final int maxBatchSize,
+            final ObjectMapper objectMapper
+    ) {
         this.scoringService = scoringService;
+        this.batchRankingService = batchRankingService;
+        this.maxBatchSize = maxBatchSize;
+        this.objectMapper = objectMapper;
     }
 
     /**
      * Endpoint to retrieve the most popular repositories for a given language and date.
+     * With {@code weights} or {@code tau_days} the repositories are rescored with those
+     * instead of the configured values, from cached metrics when the search was recently run.
      *
      * @param createdFrom ISO date string indicating the minimum repository creation date
      * @param language    programming language to filter repositories
      * @param limit       maximum number of repositories to return (default 5)
-     * @return list of {@link ScoreRepo} objects with computed scores
+     * @param weights     optional weight overrides, e.g. {@code stars:1,forks:0}
+     * @param tauDays     optional recency decay constant in days
+     * @param forwardedBy peer that forwarded the request to this instance as the key's owner,
+     *                    or null; such requests are answered locally
+     * @return list of {@link ScoreRepo} objects with computed scores, with a
+     *         {@code Warning: 110} and an {@code Age} header if GitHub was unavailable and
+     *         the last good results were ranked instead
      */
     @GetMapping("/popular")
-    public List<ScoreRepo> popular(
+    public ResponseEntity<List<ScoreRepo>> popular(
+            @RequestParam("created_from") final String createdFrom,
+            @RequestParam("language") final String language,
+            @RequestParam(name = "limit", defaultValue = "5") final int limit,
+            @RequestParam(name = "weights", required = false) final String weights,
+            @RequestParam(name = "tau_days", required = false) final Double tauDays,
+            @RequestHeader(name = PeerRouter.FORWARDED_HEADER, required = false) final String forwardedBy
+    ) {
+        final ScoreOverrides overrides = overrides(weights, tauDays);
+        final Ranking ranking = forwardedBy == null
+                ? scoringService.ranking(createdFrom, language, limit, overrides)
+                : scoringService.localRanking(createdFrom, language, limit, overrides);
+        if (!ranking.isStale()) return ResponseEntity.ok(ranking.repos());
+        return ResponseEntity.ok()
+                .header(HttpHeaders.WARNING, "110 - \"Response is Stale\"")
+                .header(HttpHeaders.AGE, String.valueOf(ranking.ageSeconds(Instant.now())))
+                .body(ranking.repos());
+    }
+
+    /**
+     * Streaming variant of {@link #popular} for {@code Accept: application/x-ndjson}.
+     * Scored repositories are written as soon as each page of GitHub results arrives, one
+     * {@code {"type":"repo",...}} line per repository, followed by an optional
+     * {@code {"type":"ranked",...}} line with the final ranking.
+     *
+     * @param createdFrom ISO date string indicating the minimum repository creation date
+     * @param language    programming language to filter repositories
+     * @param limit       maximum number of repositories to return (default 5)
+     * @param ranked      whether to end the stream with the ranked result
+     * @param weights     optional weight overrides
+     * @param tauDays     optional recency decay constant in days
+     * @return streamed response body
+     */
+    @GetMapping(value = "/popular", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> popularNdjson(
             @RequestParam("created_from") final String createdFrom,
             @RequestParam("language") final String language,
-            @RequestParam(name = "limit", defaultValue = "5") final int limit
+            @RequestParam(name = "limit", defaultValue = "5") final int limit,
+            @RequestParam(name = "ranked", defaultValue = "false") final boolean ranked,
+            @RequestParam(name = "weights", required = false) final String weights,
+            @RequestParam(name = "tau_days", required = false) final Double tauDays
+    ) {
+        return stream(createdFrom, language, limit, ranked, overrides(weights, tauDays), false);
+    }
+
+    /**
+     * Streaming variant of {@link #popular} for {@code Accept: text/event-stream}: one
+     * {@code repo} event per scored repository as pages arrive, then an optional
+     * {@code ranked} event.
+     *
+     * @param createdFrom ISO date string indicating the minimum repository creation date
+     * @param language    programming language to filter repositories
+     * @param limit       maximum number of repositories to return (default 5)
+     * @param ranked      whether to end the stream with the ranked result
+     * @param weights     optional weight overrides
+     * @param tauDays     optional recency decay constant in days
+     * @return streamed response body
+     */
+    @GetMapping(value = "/popular", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<StreamingResponseBody> popularSse(
+            @RequestParam("created_from") final String createdFrom,
+            @RequestParam("language") final String language,
+            @RequestParam(name = "limit", defaultValue = "5") final int limit,
+            @RequestParam(name = "ranked", defaultValue = "false") final boolean ranked,
+            @RequestParam(name = "weights", required = false) final String weights,
+            @RequestParam(name = "tau_days", required = false) final Double tauDays
+    ) {
+        return stream(createdFrom, language, limit, ranked, overrides(weights, tauDays), true);
+    }
+
+    /**
+     * Builds a streamed ranking response. A failure after the response has started is
+     * reported as a final {@code error} frame.
+     *
+     * @param createdFrom ISO date string indicating the minimum repository creation date
+     * @param language    programming language to filter repositories
+     * @param limit       maximum number of repositories to return
+     * @param ranked      whether to end the stream with the ranked result
+     * @param overrides   per-request scoring overrides
+     * @param sse         true for server-sent events, false for NDJSON
+     * @return streamed response body
+     */
+    private ResponseEntity<StreamingResponseBody> stream(
+            final String createdFrom,
+            final String language,
+            final int limit,
+            final boolean ranked,
+            final ScoreOverrides overrides,
+            final boolean sse
     ) {
-        return scoringService.fetchAndScore(createdFrom, language, limit);
+        final StreamingResponseBody body = out -> {
+            final RankingStreamWriter writer = new RankingStreamWriter(objectMapper, out, sse);
+            try {
+                final List<ScoreRepo> ranking = scoringService.streamAndScore(
+                        createdFrom, language, limit, ranked, overrides, writer::page);
+                if (ranked) writer.ranked(ranking);
+            } catch (final RateLimitExceededException ex) {
+                writer.error("GitHub rate limit exhausted, retry after " + ex.getRetryAfterSeconds() + "s");
+            } catch (final DeadlineExceededException ex) {
+                writer.error("ranking timed out");
+            } catch (final GitHubUnavailableException ex) {
+                writer.error("GitHub unavailable");
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(sse ? MediaType.TEXT_EVENT_STREAM : MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CACHE_CONTROL, "no-cache")
+                .body(body);
+    }
+
+    /**
+     * Parses the scoring override parameters.
+     *
+     * @param weights weight overrides in {@code key:value} CSV form, or null
+     * @param tauDays recency decay constant in days, or null
+     * @return parsed overrides
+     * @throws ResponseStatusException with {@code 400 Bad Request} if they are invalid
+     */
+    private static ScoreOverrides overrides(final String weights, final Double tauDays) {
+        try {
+            return ScoreOverrides.parse(weights, tauDays);
+        } catch (final IllegalArgumentException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, ex.getMessage());
+        }
+    }
+
+    /**
+     * Endpoint to retrieve several rankings in one call. Specs run concurrently, identical
+     * specs are computed once, and each spec gets its own result or error. A ranking computed
+     * from stale results while GitHub was unavailable is marked {@code "stale": true} with its
+     * {@code age} in seconds.
+     *
+     * @param specs requested rankings, each with {@code language}, {@code created_from} and
+     *              an optional {@code limit}
+     * @return one {@link RankingResult} per spec, in request order
+     */
+    @PostMapping("/popular/batch")
+    public List<RankingResult> popularBatch(@RequestBody final List<RankingSpec> specs) {
+        if (specs.size() > maxBatchSize) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "at most " + maxBatchSize + " specs per batch");
+        }
+        return batchRankingService.fetchAndScoreAll(specs);
+    }
+
+    /**
+     * Maps a shed GitHub call to {@code 429 Too Many Requests} with a {@code Retry-After} hint.
+     *
+     * @param ex exception raised by the rate-limit scheduler
+     * @return empty 429 response
+     */
+    @ExceptionHandler(RateLimitExceededException.class)
+    public ResponseEntity<Void> rateLimited(final RateLimitExceededException ex) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .build();
+    }
+
+    /**
+     * Maps a ranking GitHub could not answer, with no earlier result to fall back on, to
+     * {@code 503 Service Unavailable}, with a {@code Retry-After} hint while the circuit is open.
+     *
+     * @param ex exception raised by the failed or rejected call
+     * @return empty 503 response
+     */
+    @ExceptionHandler(GitHubUnavailableException.class)
+    public ResponseEntity<Void> unavailable(final GitHubUnavailableException ex) {
+        final ResponseEntity.BodyBuilder response = ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE);
+        if (ex.getRetryAfterSeconds() > 0) {
+            response.header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()));
+        }
+        return response.build();
+    }
+
+    /**
+     * Answers a request that the owning peer rejected with the peer's own 4xx status, content
+     * type and body.
+     *
+     * @param ex rejection raised by {@link PeerRouter#forward}
+     * @return the peer's response
+     */
+    @ExceptionHandler(HttpClientErrorException.class)
+    public ResponseEntity<byte[]> peerRejected(final HttpClientErrorException ex) {
+        final ResponseEntity.BodyBuilder response = ResponseEntity.status(ex.getStatusCode());
+        final HttpHeaders headers = ex.getResponseHeaders();
+        if (headers != null && headers.getContentType() != null) {
+            response.contentType(headers.getContentType());
+        }
+        return response.body(ex.getResponseBodyAsByteArray());
+    }
+
+    /**
+     * Maps a ranking that exceeded {@code scoring.request-timeout} to {@code 504 Gateway Timeout}.
+     *
+     * @param ex exception raised when the search's deadline passed
+     * @return empty 504 response
+     */
+    @ExceptionHandler(DeadlineExceededException.class)
+    public ResponseEntity<Void> timedOut(final DeadlineExceededException ex) {
+        return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT).build();
     }
 }
@@ -0,0 +1,220 @@
+package com.parser;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.repo.CursorPage;
+import com.repo.GitHubRepo;
+import com.repo.SearchPage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streaming parser for the response of GitHub's GraphQL {@code search(type: REPOSITORY)} query.
+ * <p>Reads {@code data.search.repositoryCount}, {@code pageInfo} and {@code nodes[]} token
+ * by token and builds {@link GitHubRepo} records directly. Nodes that are not repositories
+ * come back as empty objects and are dropped.</p>
+ */
+public class GraphQlSearchResponseParser {
+
+    private static final JsonFactory FACTORY = new JsonFactory();
+
+    /**
+     * Parses a GraphQL search response body.
+     *
+     * @param body response body stream; closed once parsing completes
+     * @return the parsed page, or {@link CursorPage#EMPTY} if the body is not a JSON object
+     * @throws IOException if the body cannot be read, is malformed, or carries GraphQL
+     *                     errors without any search data
+     */
+    public static CursorPage parse(final InputStream body) throws IOException {
+        try (JsonParser p = FACTORY.createParser(body)) {
+            if (p.nextToken() != JsonToken.START_OBJECT) return CursorPage.EMPTY;
+
+            CursorPage page = null;
+            String error = null;
+            while (p.nextToken() == JsonToken.FIELD_NAME) {
+                final String field = p.currentName();
+                final JsonToken value = p.nextToken();
+                if ("data".equals(field) && value == JsonToken.START_OBJECT) {
+                    page = readData(p);
+                } else if ("errors".equals(field) && value == JsonToken.START_ARRAY) {
+                    error = readFirstError(p);
+                } else {
+                    p.skipChildren();
+                }
+            }
+            if (page != null) return page;
+            if (error != null) throw new IOException("GraphQL error: " + error);
+            return CursorPage.EMPTY;
+        }
+    }
+
+    /**
+     * Reads the {@code data} object; the parser is positioned on its start token.
+     *
+     * @param p JSON parser
+     * @return the search page, or null if {@code data.search} is missing or null
+     * @throws IOException on malformed input
+     */
+    private static CursorPage readData(final JsonParser p) throws IOException {
+        CursorPage page = null;
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            final String field = p.currentName();
+            final JsonToken value = p.nextToken();
+            if ("search".equals(field) && value == JsonToken.START_OBJECT) {
+                page = readSearch(p);
+            } else {
+                p.skipChildren();
+            }
+        }
+        return page;
+    }
+
+    /**
+     * Reads the {@code search} object; the parser is positioned on its start token.
+     *
+     * @param p JSON parser
+     * @return the search page
+     * @throws IOException on malformed input
+     */
+    private static CursorPage readSearch(final JsonParser p) throws IOException {
+        long total = -1L;
+        List<GitHubRepo> items = List.of();
+        boolean hasNextPage = false;
+        String endCursor = null;
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            final String field = p.currentName();
+            final JsonToken value = p.nextToken();
+            if ("repositoryCount".equals(field)) {
+                total = p.getValueAsLong();
+            } else if ("nodes".equals(field) && value == JsonToken.START_ARRAY) {
+                items = readNodes(p);
+            } else if ("pageInfo".equals(field) && value == JsonToken.START_OBJECT) {
+                while (p.nextToken() == JsonToken.FIELD_NAME) {
+                    final String info = p.currentName();
+                    p.nextToken();
+                    switch (info) {
+                        case "hasNextPage" -> hasNextPage = p.getValueAsBoolean();
+                        case "endCursor" -> endCursor = p.getValueAsString();
+                        default -> p.skipChildren();
+                    }
+                }
+            } else {
+                p.skipChildren();
+            }
+        }
+        return new CursorPage(new SearchPage(total < 0 ? items.size() : total, items),
+                hasNextPage ? endCursor : null);
+    }
+
+    /**
+     * Reads the {@code nodes} array; the parser is positioned on its start token.
+     *
+     * @param p JSON parser
+     * @return parsed repositories in response order
+     * @throws IOException on malformed input
+     */
+    private static List<GitHubRepo> readNodes(final JsonParser p) throws IOException {
+        final List<GitHubRepo> items = new ArrayList<>(100);
+        JsonToken t;
+        while ((t = p.nextToken()) != JsonToken.END_ARRAY) {
+            if (t == JsonToken.START_OBJECT) {
+                final GitHubRepo repo = readNode(p);
+                if (repo.full_name() != null) items.add(repo);
+            } else {
+                p.skipChildren();
+            }
+        }
+        return items;
+    }
+
+    /**
+     * Reads one repository node.
+     *
+     * @param p JSON parser positioned on the object's start token
+     * @return parsed repository; its name is null if the node was not a repository
+     * @throws IOException on malformed input
+     */
+    private static GitHubRepo readNode(final JsonParser p) throws IOException {
+        long id = 0L;
+        String fullName = null;
+        String htmlUrl = null;
+        String language = null;
+        int stars = 0;
+        int forks = 0;
+        String pushedAt = null;
+        boolean archived = false;
+
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            final String field = p.currentName();
+            final JsonToken value = p.nextToken();
+            switch (field) {
+                case "databaseId" -> id = p.getValueAsLong();
+                case "nameWithOwner" -> fullName = p.getValueAsString();
+                case "url" -> htmlUrl = p.getValueAsString();
+                case "primaryLanguage" -> {
+                    if (value == JsonToken.START_OBJECT) language = readName(p);
+                }
+                case "stargazerCount" -> stars = p.getValueAsInt();
+                case "forkCount" -> forks = p.getValueAsInt();
+                case "pushedAt" -> pushedAt = p.getValueAsString();
+                case "isArchived" -> archived = p.getValueAsBoolean();
+                default -> p.skipChildren();
+            }
+        }
+        return new GitHubRepo(id, fullName, htmlUrl, language, stars, forks, pushedAt, archived);
+    }
+
+    /**
+     * Reads the {@code name} of a {@code primaryLanguage} object.
+     *
+     * @param p JSON parser positioned on the object's start token
+     * @return language name, or null if absent
+     * @throws IOException on malformed input
+     */
+    private static String readName(final JsonParser p) throws IOException {
+        String name = null;
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            final String field = p.currentName();
+            p.nextToken();
+            if ("name".equals(field)) {
+                name = p.getValueAsString();
+            } else {
+                p.skipChildren();
+            }
+        }
+        return name;
+    }
+
+    /**
+     * Reads the {@code errors} array and keeps the first message.
+     *
+     * @param p JSON parser positioned on the array's start token
+     * @return first error message, or null if none has one
+     * @throws IOException on malformed input
+     */
+    private static String readFirstError(final JsonParser p) throws IOException {
+        String message = null;
+        JsonToken t;
+        while ((t = p.nextToken()) != JsonToken.END_ARRAY) {
+            if (t != JsonToken.START_OBJECT) {
+                p.skipChildren();
+                continue;
+            }
+            while (p.nextToken() == JsonToken.FIELD_NAME) {
+                final String field = p.currentName();
+                p.nextToken();
+                if ("message".equals(field) && message == null) {
+                    message = p.getValueAsString();
+                } else {
+                    p.skipChildren();
+                }
+            }
+        }
+        return message;
+    }
+}
@@ -0,0 +1,107 @@
+package com.parser;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.repo.GitHubRepo;
+import com.repo.SearchPage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streaming parser for GitHub's repository search response.
+ * <p>Reads {@code total_count} and {@code items[]} token by token and builds
+ * {@link GitHubRepo} records directly. Every other field, including the nested
+ * {@code owner}, {@code license} and {@code topics} subtrees, is skipped without
+ * being materialized.</p>
+ */
+public class SearchResponseParser {
+
+    private static final JsonFactory FACTORY = new JsonFactory();
+
+    /**
+     * Parses a search response body.
+     *
+     * @param body response body stream; closed once parsing completes
+     * @return the parsed page, or {@link SearchPage#EMPTY} if the body is not a JSON object
+     * @throws IOException if the body cannot be read or is malformed
+     */
+    public static SearchPage parse(final InputStream body) throws IOException {
+        try (JsonParser p = FACTORY.createParser(body)) {
+            if (p.nextToken() != JsonToken.START_OBJECT) return SearchPage.EMPTY;
+
+            long total = -1L;
+            List<GitHubRepo> items = List.of();
+            while (p.nextToken() == JsonToken.FIELD_NAME) {
+                final String field = p.currentName();
+                final JsonToken value = p.nextToken();
+                if ("total_count".equals(field)) {
+                    total = p.getValueAsLong();
+                } else if ("items".equals(field) && value == JsonToken.START_ARRAY) {
+                    items = readItems(p);
+                } else {
+                    p.skipChildren();
+                }
+            }
+            return new SearchPage(total < 0 ? items.size() : total, items);
+        }
+    }
+
+    /**
+     * Reads the {@code items} array; the parser is positioned on its start token.
+     *
+     * @param p JSON parser
+     * @return parsed repositories in response order
+     * @throws IOException on malformed input
+     */
+    private static List<GitHubRepo> readItems(final JsonParser p) throws IOException {
+        final List<GitHubRepo> items = new ArrayList<>(100);
+        JsonToken t;
+        while ((t = p.nextToken()) != JsonToken.END_ARRAY) {
+            if (t == JsonToken.START_OBJECT) {
+                items.add(readItem(p));
+            } else {
+                p.skipChildren();
+            }
+        }
+        return items;
+    }
+
+    /**
+     * Reads one repository object, keeping only the fields used for scoring.
+     *
+     * @param p JSON parser positioned on the object's start token
+     * @return parsed repository
+     * @throws IOException on malformed input
+     */
+    private static GitHubRepo readItem(final JsonParser p) throws IOException {
+        long id = 0L;
+        String fullName = null;
+        String htmlUrl = null;
+        String language = null;
+        int stars = 0;
+        int forks = 0;
+        String pushedAt = null;
+        boolean archived = false;
+
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            final String field = p.currentName();
+            p.nextToken();
+            switch (field) {
+                case "id" -> id = p.getValueAsLong();
+                case "full_name" -> fullName = p.getValueAsString();
+                case "html_url" -> htmlUrl = p.getValueAsString();
+                case "language" -> language = p.getValueAsString();
+                case "stargazers_count" -> stars = p.getValueAsInt();
+                case "forks_count" -> forks = p.getValueAsInt();
+                case "pushed_at" -> pushedAt = p.getValueAsString();
+                case "archived" -> archived = p.getValueAsBoolean();
+                default -> p.skipChildren();
+            }
+        }
+        return new GitHubRepo(id, fullName, htmlUrl, language, stars, forks, pushedAt, archived);
+    }
+}
@@ -0,0 +1,110 @@
+package com.parser;
+
+import java.time.Instant;
+
+/**
+ * Allocation-free parser for the timestamps GitHub returns, e.g. {@code 2025-01-31T12:00:00Z}.
+ * <p>Strings in exactly that 20-character UTC form are decoded digit by digit into epoch
+ * seconds. Anything else, such as fractional seconds or offsets, is left to
+ * {@link Instant#parse}, which also reports malformed input as before.</p>
+ */
+public class TimestampParser {
+
+    private static final int COMPACT_LENGTH = 20;
+    private static final long SECONDS_PER_DAY = 86_400L;
+    private static final int[] DIGIT_POSITIONS = {0, 1, 2, 3, 5, 6, 8, 9, 11, 12, 14, 15, 17, 18};
+
+    /**
+     * Whether the string is a valid {@code yyyy-MM-ddTHH:mm:ssZ} timestamp.
+     *
+     * @param s candidate timestamp
+     * @return true if {@link #compactUtcEpochSeconds} can decode it
+     */
+    public static boolean isCompactUtc(final String s) {
+        if (s == null || s.length() != COMPACT_LENGTH) return false;
+        if (s.charAt(4) != '-' || s.charAt(7) != '-' || s.charAt(10) != 'T'
+                || s.charAt(13) != ':' || s.charAt(16) != ':' || s.charAt(19) != 'Z') {
+            return false;
+        }
+        for (final int i : DIGIT_POSITIONS) {
+            final char c = s.charAt(i);
+            if (c < '0' || c > '9') return false;
+        }
+        final int year = num(s, 0, 4);
+        final int month = num(s, 5, 2);
+        final int day = num(s, 8, 2);
+        return month >= 1 && month <= 12
+                && day >= 1 && day <= lengthOfMonth(year, month)
+                && num(s, 11, 2) < 24 && num(s, 14, 2) < 60 && num(s, 17, 2) < 60;
+    }
+
+    /**
+     * Decodes a timestamp already validated by {@link #isCompactUtc}.
+     *
+     * @param s timestamp in {@code yyyy-MM-ddTHH:mm:ssZ} form
+     * @return epoch seconds
+     */
+    public static long compactUtcEpochSeconds(final String s) {
+        final long days = daysFromCivil(num(s, 0, 4), num(s, 5, 2), num(s, 8, 2));
+        return days * SECONDS_PER_DAY + num(s, 11, 2) * 3_600L + num(s, 14, 2) * 60L + num(s, 17, 2);
+    }
+
+    /**
+     * Parses an ISO-8601 instant into epoch seconds, using the fast path when possible.
+     *
+     * @param s ISO-8601 instant
+     * @return epoch seconds (fractional seconds are truncated)
+     * @throws java.time.format.DateTimeParseException if the string is not a valid instant
+     */
+    public static long epochSeconds(final String s) {
+        return isCompactUtc(s) ? compactUtcEpochSeconds(s) : Instant.parse(s).getEpochSecond();
+    }
+
+    /**
+     * Reads a fixed-width decimal number.
+     *
+     * @param s     source string
+     * @param from  index of the first digit
+     * @param width number of digits
+     * @return decoded value
+     */
+    private static int num(final String s, final int from, final int width) {
+        int v = 0;
+        for (int i = from; i < from + width; i++) {
+            v = v * 10 + (s.charAt(i) - '0');
+        }
+        return v;
+    }
+
+    /**
+     * Days in a month of the proleptic Gregorian calendar.
+     *
+     * @param year  year
+     * @param month month, 1-12
+     * @return number of days
+     */
+    private static int lengthOfMonth(final int year, final int month) {
+        return switch (month) {
+            case 2 -> (year % 4 == 0 && (year % 100 != 0 || year % 400 == 0)) ? 29 : 28;
+            case 4, 6, 9, 11 -> 30;
+            default -> 31;
+        };
+    }
+
+    /**
+     * Days since 1970-01-01 for a civil date (H. Hinnant's {@code days_from_civil}).
+     *
+     * @param year  year
+     * @param month month, 1-12
+     * @param day   day of month
+     * @return epoch day
+     */
+    private static long daysFromCivil(final int year, final int month, final int day) {
+        final int y = month <= 2 ? year - 1 : year;
+        final long era = Math.floorDiv(y, 400);
+        final long yoe = y - era * 400;
+        final long doy = (153L * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+        final long doe = yoe * 365 + yoe / 4 - yoe / 100 + doy;
+        return era * 146_097 + doe - 719_468;
+    }
+}
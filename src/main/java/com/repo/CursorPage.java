@@ -0,0 +1,13 @@
+package com.repo;
+
+/**
+ * One page of a cursor-paginated search.
+ *
+ * @param page      repositories of the page and the total match count
+ * @param endCursor cursor to pass as {@code after} for the next page, or null if this is the last page
+ */
+public record CursorPage(SearchPage page, String endCursor) {
+
+    /** A page without results and without a successor. */
+    public static final CursorPage EMPTY = new CursorPage(SearchPage.EMPTY, null);
+}
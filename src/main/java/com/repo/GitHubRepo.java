@@ -10,6 +10,7 @@ import java.util.Map;
  */
 @JsonIgnoreProperties(ignoreUnknown = true)
 public record GitHubRepo(
+        long id,
         String full_name,
         String html_url,
         String language,
@@ -18,6 +19,29 @@ public record GitHubRepo(
         String pushed_at,
         boolean archived
 ) {
+    /**
+     * Creates a {@link GitHubRepo} without a GitHub id.
+     *
+     * @param full_name        owner/name
+     * @param html_url         repository URL
+     * @param language         primary language
+     * @param stargazers_count number of stars
+     * @param forks_count      number of forks
+     * @param pushed_at        ISO 8601 timestamp of the last push
+     * @param archived         whether the repository is archived
+     */
+    public GitHubRepo(
+            final String full_name,
+            final String html_url,
+            final String language,
+            final int stargazers_count,
+            final int forks_count,
+            final String pushed_at,
+            final boolean archived
+    ) {
+        this(0L, full_name, html_url, language, stargazers_count, forks_count, pushed_at, archived);
+    }
+
     /**
      * Creates a {@link GitHubRepo} instance from a generic map of repository data.
      *
@@ -30,6 +54,7 @@ public record GitHubRepo(
         }
 
         return new GitHubRepo(
+                ((Number) map.getOrDefault("id", 0L)).longValue(),
                 (String) map.getOrDefault("full_name", ""),
                 (String) map.getOrDefault("html_url", ""),
                 (String) map.getOrDefault("language", ""),
@@ -0,0 +1,54 @@
+package com.repo;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+/**
+ * Outcome of one {@link RankingSpec} in a batch: either its ranking or the reason it failed.
+ * A ranking computed from the last good results while GitHub was unavailable carries their
+ * age, as {@code GET /api/repos/popular} does with its {@code Warning} and {@code Age} headers.
+ *
+ * @param spec  the requested ranking, as submitted
+ * @param repos scored repositories, best first; null if the spec failed
+ * @param stale true if the ranking was computed from stale results; null otherwise
+ * @param age   seconds since the stale results were fetched; null unless {@code stale}
+ * @param error failure description; null on success
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record RankingResult(RankingSpec spec, List<ScoreRepo> repos, Boolean stale, Long age, String error) {
+
+    /**
+     * Successful result.
+     *
+     * @param spec  the requested ranking
+     * @param repos scored repositories
+     * @return result carrying the ranking
+     */
+    public static RankingResult ok(final RankingSpec spec, final List<ScoreRepo> repos) {
+        return new RankingResult(spec, repos, null, null, null);
+    }
+
+    /**
+     * Result ranked from the last good results while GitHub was unavailable.
+     *
+     * @param spec       the requested ranking
+     * @param repos      scored repositories
+     * @param ageSeconds seconds since the stale results were fetched
+     * @return result carrying the ranking and its age
+     */
+    public static RankingResult stale(final RankingSpec spec, final List<ScoreRepo> repos, final long ageSeconds) {
+        return new RankingResult(spec, repos, true, ageSeconds, null);
+    }
+
+    /**
+     * Failed result.
+     *
+     * @param spec  the requested ranking
+     * @param error failure description
+     * @return result carrying the error
+     */
+    public static RankingResult failed(final RankingSpec spec, final String error) {
+        return new RankingResult(spec, null, null, null, error);
+    }
+}
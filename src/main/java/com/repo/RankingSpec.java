@@ -0,0 +1,30 @@
+package com.repo;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * One ranking requested through the batch endpoint; mirrors the query parameters of
+ * {@code GET /api/repos/popular}.
+ *
+ * @param language    programming language to filter repositories
+ * @param createdFrom ISO date string indicating the minimum repository push date
+ * @param limit       maximum number of repositories to return, or null for the default of 5
+ */
+public record RankingSpec(
+        String language,
+        @JsonProperty("created_from") String createdFrom,
+        Integer limit
+) {
+
+    /** Limit applied when a spec does not set one, as for the single-ranking endpoint. */
+    public static final int DEFAULT_LIMIT = 5;
+
+    /**
+     * Effective limit of the spec.
+     *
+     * @return requested limit, or {@link #DEFAULT_LIMIT}
+     */
+    public int effectiveLimit() {
+        return limit == null ? DEFAULT_LIMIT : limit;
+    }
+}
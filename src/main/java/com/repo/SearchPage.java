@@ -0,0 +1,17 @@
+package com.repo;
+
+import java.util.List;
+
+/**
+ * Immutable representation of a single page of GitHub search results.
+ * Carries the repositories of the page and the total hit count reported by GitHub.
+ */
+public record SearchPage(
+        long totalCount,
+        List<GitHubRepo> items
+) {
+    /**
+     * Empty page used when GitHub returns no body.
+     */
+    public static final SearchPage EMPTY = new SearchPage(0L, List.of());
+}
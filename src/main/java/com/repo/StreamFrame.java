@@ -0,0 +1,47 @@
+package com.repo;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+/**
+ * One line of a streamed {@code /api/repos/popular} response in NDJSON mode.
+ *
+ * @param type   {@code repo}, {@code ranked} or {@code error}
+ * @param repo   a scored repository, for {@code repo} frames
+ * @param ranked the final ranking, best first, for {@code ranked} frames
+ * @param error  failure description, for {@code error} frames
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record StreamFrame(String type, ScoreRepo repo, List<ScoreRepo> ranked, String error) {
+
+    /**
+     * Frame carrying a scored repository.
+     *
+     * @param repo scored repository
+     * @return repo frame
+     */
+    public static StreamFrame repo(final ScoreRepo repo) {
+        return new StreamFrame("repo", repo, null, null);
+    }
+
+    /**
+     * Frame carrying the final ranking.
+     *
+     * @param ranked repositories, best first
+     * @return ranked frame
+     */
+    public static StreamFrame ranked(final List<ScoreRepo> ranked) {
+        return new StreamFrame("ranked", null, ranked, null);
+    }
+
+    /**
+     * Frame reporting that the stream ended early.
+     *
+     * @param error failure description
+     * @return error frame
+     */
+    public static StreamFrame error(final String error) {
+        return new StreamFrame("error", null, null, error);
+    }
+}
@@ -0,0 +1,125 @@
+package com.service;
+
+import com.client.RateLimitExceededException;
+import com.client.TaskScope;
+import com.repo.RankingResult;
+import com.repo.RankingSpec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Runs many rankings of one batch request concurrently through {@link ScoringService}.
+ * <p>Specs that normalize to the same {@link RankingKey} are computed once. Distinct specs
+ * run as subtasks of one {@link TaskScope}, at most {@code maxConcurrency} at a time, so the batch takes
+ * about as long as its slowest ranking instead of the sum of all of them while a single
+ * batch cannot monopolize the GitHub budget. A failing spec yields an error result and
+ * does not affect the others; a spec ranked from stale results is marked as such.</p>
+ */
+@Service
+public class BatchRankingService {
+
+    private final ScoringService scoringService;
+    private final int maxConcurrency;
+
+    /**
+     * Constructs the service.
+     *
+     * @param scoringService service computing each ranking
+     * @param maxConcurrency rankings of one batch computed at the same time
+     */
+    public BatchRankingService(
+            final ScoringService scoringService,
+            @Value("${batch.max-concurrency:8}") final int maxConcurrency
+    ) {
+        this.scoringService = scoringService;
+        this.maxConcurrency = Math.max(1, maxConcurrency);
+    }
+
+    /**
+     * Computes every spec of a batch.
+     *
+     * @param specs requested rankings
+     * @return one result per spec, in request order
+     */
+    public List<RankingResult> fetchAndScoreAll(final List<RankingSpec> specs) {
+        final Semaphore permits = new Semaphore(maxConcurrency);
+        final Map<RankingKey, Future<Ranking>> flights = new HashMap<>();
+        final List<RankingResult> results = new ArrayList<>(specs.size());
+
+        try (TaskScope scope = TaskScope.open()) {
+            for (final RankingSpec spec : specs) {
+                if (validate(spec) != null) continue;
+                final RankingKey key = RankingKey.of(spec.createdFrom(), spec.language(), spec.effectiveLimit());
+                flights.computeIfAbsent(key, k -> scope.fork(() -> {
+                    permits.acquire();
+                    try {
+                        return scoringService.ranking(spec.createdFrom(), spec.language(), spec.effectiveLimit(),
+                                ScoreOverrides.NONE);
+                    } finally {
+                        permits.release();
+                    }
+                }));
+            }
+
+            for (final RankingSpec spec : specs) {
+                final String invalid = validate(spec);
+                if (invalid != null) {
+                    results.add(RankingResult.failed(spec, invalid));
+                    continue;
+                }
+                final RankingKey key = RankingKey.of(spec.createdFrom(), spec.language(), spec.effectiveLimit());
+                results.add(await(spec, flights.get(key)));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Waits for the ranking of a spec and converts a failure into an error result.
+     *
+     * @param spec   requested ranking
+     * @param flight computation shared by all specs with the same key
+     * @return the spec's result
+     */
+    private RankingResult await(final RankingSpec spec, final Future<Ranking> flight) {
+        try {
+            final Ranking ranking = flight.get();
+            if (!ranking.isStale()) return RankingResult.ok(spec, ranking.repos());
+            return RankingResult.stale(spec, ranking.repos(), ranking.ageSeconds(Instant.now()));
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            flight.cancel(true);
+            return RankingResult.failed(spec, "interrupted");
+        } catch (final ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof RateLimitExceededException rl) {
+                return RankingResult.failed(spec,
+                        "GitHub rate limit exhausted, retry after " + rl.getRetryAfterSeconds() + "s");
+            }
+            return RankingResult.failed(spec, cause.getMessage() == null ? cause.toString() : cause.getMessage());
+        }
+    }
+
+    /**
+     * Checks a spec for the parameters the single-ranking endpoint requires.
+     *
+     * @param spec requested ranking
+     * @return error description, or null if the spec is valid
+     */
+    private String validate(final RankingSpec spec) {
+        if (spec == null) return "spec is null";
+        if (spec.language() == null || spec.language().isBlank()) return "language is required";
+        if (spec.createdFrom() == null || spec.createdFrom().isBlank()) return "created_from is required";
+        if (spec.effectiveLimit() < 1) return "limit must be positive";
+        return null;
+    }
+}
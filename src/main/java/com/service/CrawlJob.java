@@ -0,0 +1,163 @@
+package com.service;
+
+import com.client.RequestPriority;
+import com.client.ShardedCrawler;
+import com.store.SnapshotStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically crawls every repository of the configured languages pushed within the
+ * crawl window into the {@link SnapshotStore}, so that {@code snapshot.mode=serve} ranks
+ * over the whole population instead of the top 1000 a single search can return.
+ * <p>Crawls run one language at a time on a dedicated daemon thread, as
+ * {@link RequestPriority#BACKGROUND}, and each crawled window is upserted as soon as it
+ * arrives. A failed language is logged and retried on the next run.</p>
+ */
+@Component
+@ConditionalOnProperty(name = "crawl.enabled", havingValue = "true")
+public class CrawlJob {
+
+    private static final Logger log = LoggerFactory.getLogger(CrawlJob.class);
+
+    private final ShardedCrawler crawler;
+    private final SnapshotStore snapshot;
+    private final MeterRegistry registry;
+    private final List<String> languages;
+    private final Duration window;
+    private final Duration interval;
+    private final Clock clock;
+
+    private ScheduledExecutorService executor;
+
+    /**
+     * Creates the job from configuration.
+     *
+     * @param crawler   crawler fetching the repositories
+     * @param snapshot  store the repositories are upserted into
+     * @param registry  registry for the crawl metrics
+     * @param languages languages to crawl
+     * @param window    how far back from today pushes are crawled
+     * @param interval  delay between the end of one run and the start of the next
+     */
+    public CrawlJob(
+            final ShardedCrawler crawler,
+            final SnapshotStore snapshot,
+            final MeterRegistry registry,
+            @Value("${crawl.languages:Java}") final List<String> languages,
+            @Value("${crawl.window:365d}") final Duration window,
+            @Value("${crawl.interval:24h}") final Duration interval
+    ) {
+        this(crawler, snapshot, registry, languages, window, interval, Clock.systemUTC());
+    }
+
+    /**
+     * Creates the job with an explicit clock.
+     *
+     * @param crawler   crawler fetching the repositories
+     * @param snapshot  store the repositories are upserted into
+     * @param registry  registry for the crawl metrics
+     * @param languages languages to crawl
+     * @param window    how far back from today pushes are crawled
+     * @param interval  delay between the end of one run and the start of the next
+     * @param clock     time source deciding today's date
+     */
+    CrawlJob(
+            final ShardedCrawler crawler,
+            final SnapshotStore snapshot,
+            final MeterRegistry registry,
+            final List<String> languages,
+            final Duration window,
+            final Duration interval,
+            final Clock clock
+    ) {
+        this.crawler = crawler;
+        this.snapshot = snapshot;
+        this.registry = registry;
+        this.languages = languages.stream().map(String::trim).filter(l -> !l.isEmpty()).toList();
+        this.window = window;
+        this.interval = interval;
+        this.clock = clock;
+    }
+
+    /**
+     * Starts crawling on a dedicated daemon thread, unless there is no snapshot to fill.
+     */
+    @PostConstruct
+    public void start() {
+        if (!snapshot.isEnabled()) {
+            log.warn("crawl.enabled is set but snapshot.mode is off; nothing to crawl into");
+            return;
+        }
+        executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            final Thread t = new Thread(r, "github-crawler");
+            t.setDaemon(true);
+            return t;
+        });
+        executor.scheduleWithFixedDelay(this::runOnce, 0, interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops crawling, interrupting a crawl in progress.
+     */
+    @PreDestroy
+    public void stop() {
+        if (executor != null) executor.shutdownNow();
+    }
+
+    /**
+     * Crawls each language once over the window ending today. Never throws, so that a
+     * failed run does not cancel the schedule.
+     */
+    void runOnce() {
+        final LocalDate to = LocalDate.now(clock);
+        final LocalDate from = to.minusDays(Math.max(0, window.toDays() - 1));
+        for (final String language : languages) {
+            try {
+                final long started = System.nanoTime();
+                final ShardedCrawler.Result result = RequestPriority.callAs(RequestPriority.BACKGROUND,
+                        () -> crawler.crawl(language, from, to, snapshot::upsert));
+                record(language, result);
+                log.info("Crawled {} repos of language '{}' pushed {}..{} in {} windows, {} pages, {} ms "
+                                + "({} truncated, {} failed)",
+                        result.repos(), language, from, to, result.windows(), result.pages(),
+                        (System.nanoTime() - started) / 1_000_000, result.truncated(), result.failed());
+            } catch (final RuntimeException e) {
+                log.warn("Crawl of language '{}' failed", language, e);
+            }
+            if (Thread.currentThread().isInterrupted()) return;
+        }
+    }
+
+    /**
+     * Adds a crawl's counts to the {@code github.crawl.*} counters.
+     *
+     * @param language crawled language
+     * @param result   what the crawl did
+     */
+    private void record(final String language, final ShardedCrawler.Result result) {
+        Counter.builder("github.crawl.repos").tag("language", language).register(registry).increment(result.repos());
+        Counter.builder("github.crawl.pages").tag("language", language).register(registry).increment(result.pages());
+        Counter.builder("github.crawl.windows").tag("language", language).tag("outcome", "truncated")
+                .register(registry).increment(result.truncated());
+        Counter.builder("github.crawl.windows").tag("language", language).tag("outcome", "failed")
+                .register(registry).increment(result.failed());
+        Counter.builder("github.crawl.windows").tag("language", language).tag("outcome", "complete")
+                .register(registry).increment(result.windows() - result.truncated());
+    }
+}
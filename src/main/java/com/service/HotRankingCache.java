@@ -0,0 +1,214 @@
+package com.service;
+
+import com.repo.ScoreRepo;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Precomputed rankings for the most frequently requested {@link RankingKey}s.
+ * <p>Every lookup counts as demand for its key. The {@code hotSize} keys with the highest
+ * demand (and at least {@code minRequests} requests) form the hot set, which
+ * {@link HotRankingRefresher} keeps recomputed in the background. A lookup of a hot key
+ * with a ranking younger than three refresh intervals is answered from here. Results are
+ * immutable lists swapped in atomically, so readers never see a partial ranking. Demand is
+ * halved every interval, so the hot set follows changing traffic.</p>
+ */
+@Component
+public class HotRankingCache implements MeterBinder {
+
+    /** Refreshes that may fail in a row before a precomputed ranking is no longer served. */
+    private static final int STALE_AFTER_INTERVALS = 3;
+
+    private final int hotSize;
+    private final int minRequests;
+    private final long intervalMillis;
+    private final Clock clock;
+    private final ConcurrentHashMap<RankingKey, LongAdder> demand = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<RankingKey, Entry> rankings = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<RankingKey, Long> attempts = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    private volatile List<RankingKey> hotKeys = List.of();
+
+    /**
+     * Creates the cache from configuration.
+     *
+     * @param hotSize     number of keys kept precomputed; 0 disables precomputation
+     * @param minRequests requests per interval a key needs to become hot
+     * @param interval    how often each hot key is recomputed
+     */
+    @Autowired
+    public HotRankingCache(
+            @Value("${hot.size:20}") final int hotSize,
+            @Value("${hot.min-requests:2}") final int minRequests,
+            @Value("${hot.refresh-interval:60s}") final Duration interval
+    ) {
+        this(hotSize, minRequests, interval, Clock.systemUTC());
+    }
+
+    /**
+     * Creates the cache with an explicit clock.
+     *
+     * @param hotSize     number of keys kept precomputed; 0 disables precomputation
+     * @param minRequests requests per interval a key needs to become hot
+     * @param interval    how often each hot key is recomputed
+     * @param clock       time source for ranking ages
+     */
+    public HotRankingCache(final int hotSize, final int minRequests, final Duration interval, final Clock clock) {
+        this.hotSize = hotSize;
+        this.minRequests = Math.max(1, minRequests);
+        this.intervalMillis = interval.toMillis();
+        this.clock = clock;
+    }
+
+    /**
+     * Creates a cache that tracks nothing and never answers.
+     *
+     * @return disabled cache
+     */
+    public static HotRankingCache disabled() {
+        return new HotRankingCache(0, 1, Duration.ofMinutes(1));
+    }
+
+    /**
+     * Number of keys kept precomputed.
+     *
+     * @return hot-set size; 0 if disabled
+     */
+    public int hotSize() {
+        return hotSize;
+    }
+
+    /**
+     * Records demand for a key and returns its precomputed ranking if it has a recent one.
+     *
+     * @param key ranking request
+     * @return precomputed ranking, or null if the request must be computed
+     */
+    public List<ScoreRepo> get(final RankingKey key) {
+        if (hotSize == 0) return null;
+        demand.computeIfAbsent(key, k -> new LongAdder()).increment();
+        final Entry e = rankings.get(key);
+        if (e != null && clock.millis() - e.computedAt() < STALE_AFTER_INTERVALS * intervalMillis) {
+            hits.increment();
+            return e.ranking();
+        }
+        misses.increment();
+        return null;
+    }
+
+    /**
+     * Swaps in a freshly computed ranking for a hot key.
+     *
+     * @param key     ranking request
+     * @param ranking immutable ranking
+     */
+    public void put(final RankingKey key, final List<ScoreRepo> ranking) {
+        if (hotSize == 0) return;
+        rankings.put(key, new Entry(List.copyOf(ranking), clock.millis()));
+    }
+
+    /**
+     * Records that a hot key is about to be recomputed. A key whose recomputation fails or
+     * comes back empty never gets a ranking, and is then not due again for one interval.
+     *
+     * @param key ranking request
+     */
+    public void attempted(final RankingKey key) {
+        if (hotSize == 0) return;
+        attempts.put(key, clock.millis());
+    }
+
+    /**
+     * Returns the hot key that is most overdue for recomputation.
+     *
+     * @return a hot key never attempted, or one whose last ranking and last attempt are both
+     *         older than the refresh interval, or null if every hot key is up to date
+     */
+    public RankingKey nextDue() {
+        final long now = clock.millis();
+        RankingKey due = null;
+        long oldest = Long.MAX_VALUE;
+        for (final RankingKey key : hotKeys) {
+            final Entry e = rankings.get(key);
+            final Long attempt = attempts.get(key);
+            if (e == null && attempt == null) return key;
+            final long last = Math.max(e == null ? Long.MIN_VALUE : e.computedAt(),
+                    attempt == null ? Long.MIN_VALUE : attempt);
+            if (now - last >= intervalMillis && last < oldest) {
+                due = key;
+                oldest = last;
+            }
+        }
+        return due;
+    }
+
+    /**
+     * Recomputes the hot set from the demand of the past interval, then halves all demand
+     * and forgets keys that dropped out of the hot set.
+     */
+    public void rotate() {
+        if (hotSize == 0) return;
+        final List<RankingKey> hot = demand.entrySet().stream()
+                .filter(e -> e.getValue().sum() >= minRequests)
+                .sorted(Comparator.comparingLong((Map.Entry<RankingKey, LongAdder> e) -> e.getValue().sum()).reversed())
+                .limit(hotSize)
+                .map(Map.Entry::getKey)
+                .toList();
+        hotKeys = hot;
+
+        demand.forEach((key, count) -> {
+            final long halved = count.sumThenReset() / 2;
+            if (halved == 0) {
+                demand.remove(key, count);
+            } else {
+                count.add(halved);
+            }
+        });
+        rankings.keySet().retainAll(hot);
+        attempts.keySet().retainAll(hot);
+    }
+
+    /**
+     * Returns the current hot set, most requested first.
+     *
+     * @return hot keys
+     */
+    public List<RankingKey> hotKeys() {
+        return hotKeys;
+    }
+
+    /**
+     * Registers the hot-set gauges and hit/miss counters with Micrometer.
+     *
+     * @param registry meter registry
+     */
+    @Override
+    public void bindTo(final MeterRegistry registry) {
+        Gauge.builder("hot.rankings.keys", this, c -> c.hotKeys().size()).register(registry);
+        FunctionCounter.builder("hot.rankings.requests", hits, LongAdder::sum).tag("result", "hit").register(registry);
+        FunctionCounter.builder("hot.rankings.requests", misses, LongAdder::sum).tag("result", "miss").register(registry);
+    }
+
+    /**
+     * A precomputed ranking and when it was computed.
+     *
+     * @param ranking    immutable ranking
+     * @param computedAt epoch millis of the computation
+     */
+    private record Entry(List<ScoreRepo> ranking, long computedAt) { }
+}
@@ -0,0 +1,109 @@
+package com.service;
+
+import com.client.GitHubUnavailableException;
+import com.client.RateLimitExceededException;
+import com.client.RequestPriority;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the rankings in {@link HotRankingCache} recomputed in the background.
+ * <p>Instead of refreshing the whole hot set at once, the refresher ticks
+ * {@code hotSize} times per refresh interval and recomputes the single most overdue key
+ * on each tick. GitHub calls are thus spread evenly across the interval rather than
+ * bursting against the rate budget. They run as {@link RequestPriority#BACKGROUND}, so
+ * the rate-limit scheduler sheds them before it delays a user request, and user requests
+ * for the same key never join a refresh that may be shed. The hot set itself
+ * is re-evaluated once per interval.</p>
+ */
+@Component
+public class HotRankingRefresher {
+
+    private static final Logger log = LoggerFactory.getLogger(HotRankingRefresher.class);
+
+    /** Shortest gap between two refreshes, however large the hot set. */
+    private static final long MIN_TICK_MILLIS = 100;
+
+    private final ScoringService scoringService;
+    private final HotRankingCache cache;
+    private final long tickMillis;
+    private final int ticksPerInterval;
+    private final boolean enabled;
+
+    private ScheduledExecutorService executor;
+    private int ticks;
+
+    /**
+     * Creates the refresher from configuration.
+     *
+     * @param scoringService service computing the rankings
+     * @param cache          cache holding the hot set and its rankings
+     * @param interval       how often each hot key is recomputed
+     * @param enabled        whether to run the background refresh at all
+     */
+    public HotRankingRefresher(
+            final ScoringService scoringService,
+            final HotRankingCache cache,
+            @Value("${hot.refresh-interval:60s}") final Duration interval,
+            @Value("${hot.enabled:true}") final boolean enabled
+    ) {
+        this.scoringService = scoringService;
+        this.cache = cache;
+        this.ticksPerInterval = Math.max(1, cache.hotSize());
+        this.tickMillis = Math.max(MIN_TICK_MILLIS, interval.toMillis() / ticksPerInterval);
+        this.enabled = enabled && cache.hotSize() > 0;
+    }
+
+    /**
+     * Starts ticking on a dedicated daemon thread.
+     */
+    @PostConstruct
+    public void start() {
+        if (!enabled) return;
+        executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            final Thread t = new Thread(r, "hot-ranking-refresher");
+            t.setDaemon(true);
+            return t;
+        });
+        executor.scheduleWithFixedDelay(this::tick, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops ticking, interrupting a refresh in progress.
+     */
+    @PreDestroy
+    public void stop() {
+        if (executor != null) executor.shutdownNow();
+    }
+
+    /**
+     * Re-evaluates the hot set once per interval and recomputes the most overdue hot key.
+     * Never throws, so that a failed refresh does not cancel the schedule.
+     */
+    void tick() {
+        try {
+            if (ticks++ % ticksPerInterval == 0) {
+                cache.rotate();
+            }
+            final RankingKey key = cache.nextDue();
+            if (key != null) {
+                RequestPriority.callAs(RequestPriority.BACKGROUND, () -> scoringService.refresh(key));
+            }
+        } catch (final RateLimitExceededException e) {
+            log.debug("Hot ranking refresh shed by the rate limiter: {}", e.getMessage());
+        } catch (final GitHubUnavailableException e) {
+            log.debug("Hot ranking refresh skipped, GitHub unavailable: {}", e.getMessage());
+        } catch (final RuntimeException e) {
+            log.warn("Hot ranking refresh failed", e);
+        }
+    }
+}
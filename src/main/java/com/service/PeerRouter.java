@@ -0,0 +1,376 @@
+package com.service;
+
+import com.client.RateLimitExceededException;
+import com.repo.ScoreRepo;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Routes rankings to the instance that owns their search, so that replicas behind a load
+ * balancer fetch and cache every search once for the whole cluster instead of once each.
+ * <p>The normalized {@link RankingKey} is hashed onto a consistent-hash ring of the static
+ * {@code cluster.peers}, each placed at {@code cluster.virtual-nodes} points, so adding or
+ * removing a peer only moves the keys next to its points. Per-request overrides are not part
+ * of the key: they rescore the owner's cached search.</p>
+ * <p>A ranking owned by another peer is requested from that peer's
+ * {@code /api/repos/popular} with the {@value #FORWARDED_HEADER} header, which makes the
+ * owner answer from its own {@link ScoringService} without forwarding again. The owner's
+ * 4xx answers are passed on, a 429 as a {@link RateLimitExceededException} so the caller
+ * does not spend the same GitHub budget again. If the owner cannot be reached or answers
+ * 502, 503 or 504, the caller computes the ranking itself and the owner is skipped for
+ * {@code cluster.retry-after}. Any other failure only makes that one ranking local, so a
+ * single bad request cannot drain traffic from a healthy peer.</p>
+ * <p>With no peers configured every key is owned locally.</p>
+ */
+@Component
+public class PeerRouter implements MeterBinder {
+
+    /** Request header marking a ranking forwarded by a peer; its value is the sender. */
+    public static final String FORWARDED_HEADER = "X-Scoring-Forwarded";
+
+    private static final Logger log = LoggerFactory.getLogger(PeerRouter.class);
+
+    private static final ParameterizedTypeReference<List<ScoreRepo>> REPOS = new ParameterizedTypeReference<>() { };
+
+    private final String self;
+    private final long[] points;
+    private final String[] owners;
+    private final RestTemplate http;
+    private final long retryAfterMillis;
+    private final ConcurrentHashMap<String, Long> downUntil = new ConcurrentHashMap<>();
+    private final LongAdder forwarded = new LongAdder();
+    private final LongAdder fallbacks = new LongAdder();
+
+    /**
+     * Creates the router from configuration.
+     *
+     * @param peers          base URLs of every instance, this one included; empty disables routing
+     * @param self           base URL of this instance, as it appears in {@code peers}
+     * @param virtualNodes   ring points per peer
+     * @param connectTimeout longest a connection to a peer may take before it counts as down
+     * @param readTimeout    longest a forwarded ranking may take, GitHub calls of the owner included
+     * @param retryAfter     how long a peer that failed is skipped
+     */
+    @Autowired
+    public PeerRouter(
+            @Value("${cluster.peers:}") final List<String> peers,
+            @Value("${cluster.self:}") final String self,
+            @Value("${cluster.virtual-nodes:128}") final int virtualNodes,
+            @Value("${cluster.connect-timeout:1s}") final Duration connectTimeout,
+            @Value("${cluster.read-timeout:35s}") final Duration readTimeout,
+            @Value("${cluster.retry-after:5s}") final Duration retryAfter
+    ) {
+        this(peers, self, virtualNodes, restTemplate(connectTimeout, readTimeout), retryAfter);
+    }
+
+    /**
+     * Creates a router forwarding through the given template.
+     *
+     * @param peers        base URLs of every instance, this one included; empty disables routing
+     * @param self         base URL of this instance, as it appears in {@code peers}
+     * @param virtualNodes ring points per peer
+     * @param http         template for forwarded rankings
+     * @param retryAfter   how long a peer that failed is skipped
+     * @throws IllegalArgumentException if peers are configured but {@code self} is not one of them
+     */
+    PeerRouter(
+            final List<String> peers,
+            final String self,
+            final int virtualNodes,
+            final RestTemplate http,
+            final Duration retryAfter
+    ) {
+        final LinkedHashSet<String> distinct = peers.stream()
+                .filter(peer -> peer != null && !peer.isBlank())
+                .map(PeerRouter::normalize)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        this.self = self == null || self.isBlank() ? "" : normalize(self);
+        if (!distinct.isEmpty() && !distinct.contains(this.self)) {
+            throw new IllegalArgumentException("cluster.self '" + self + "' is not one of cluster.peers " + distinct);
+        }
+        this.http = http;
+        this.retryAfterMillis = retryAfter.toMillis();
+
+        final int nodes = distinct.isEmpty() ? 0 : Math.max(1, virtualNodes);
+        final long[] hashes = new long[distinct.size() * nodes];
+        final String[] peerOf = new String[hashes.length];
+        int n = 0;
+        for (final String peer : distinct) {
+            for (int i = 0; i < nodes; i++) {
+                hashes[n] = hash(peer + "#" + i);
+                peerOf[n++] = peer;
+            }
+        }
+        final Integer[] order = new Integer[n];
+        for (int i = 0; i < n; i++) order[i] = i;
+        Arrays.sort(order, (a, b) -> Long.compare(hashes[a], hashes[b]));
+        this.points = new long[n];
+        this.owners = new String[n];
+        for (int i = 0; i < n; i++) {
+            points[i] = hashes[order[i]];
+            owners[i] = peerOf[order[i]];
+        }
+    }
+
+    /**
+     * Returns a router that owns every key locally.
+     *
+     * @return router that never forwards
+     */
+    public static PeerRouter disabled() {
+        return new PeerRouter(List.of(), "", 0, null, Duration.ZERO);
+    }
+
+    /**
+     * Whether peers are configured.
+     *
+     * @return true if rankings may be forwarded
+     */
+    public boolean isEnabled() {
+        return points.length > 0;
+    }
+
+    /**
+     * Looks up the peer owning a ranking: the first ring point at or after the key's hash.
+     *
+     * @param key normalized ranking request
+     * @return base URL of the owning peer, or null if this instance owns it
+     */
+    public String owner(final RankingKey key) {
+        if (points.length == 0) return null;
+        int i = Arrays.binarySearch(points, hash(key.createdFrom() + '\n' + key.language() + '\n' + key.limit()));
+        if (i < 0) i = -i - 1;
+        final String owner = owners[i == points.length ? 0 : i];
+        return owner.equals(self) ? null : owner;
+    }
+
+    /**
+     * Requests a ranking from its owner. An answer with {@code Warning} and {@code Age} headers
+     * is a stale ranking; an {@code Age} that cannot be parsed is read as 0.
+     *
+     * @param createdFrom earliest creation date
+     * @param language    programming language filter
+     * @param limit       maximum number of repositories to return
+     * @param overrides   weights and decay constant replacing the configured ones
+     * @return the owner's ranking, or null if this instance owns the key or should compute it
+     *         because the owner is down or failed
+     * @throws RateLimitExceededException if the owner shed the ranking
+     * @throws HttpClientErrorException   if the owner rejected the request, to be answered unchanged
+     */
+    public Ranking forward(
+            final String createdFrom,
+            final String language,
+            final int limit,
+            final ScoreOverrides overrides
+    ) {
+        final String owner = owner(RankingKey.of(createdFrom, language, limit));
+        if (owner == null) return null;
+        final Long down = downUntil.get(owner);
+        if (down != null && System.currentTimeMillis() < down) {
+            fallbacks.increment();
+            return null;
+        }
+
+        final HttpHeaders headers = new HttpHeaders();
+        headers.set(FORWARDED_HEADER, self);
+        try {
+            final ResponseEntity<List<ScoreRepo>> response = http.exchange(
+                    uri(owner, createdFrom, language, limit, overrides), HttpMethod.GET, new HttpEntity<>(headers), REPOS);
+            downUntil.remove(owner);
+            forwarded.increment();
+            final List<ScoreRepo> repos = response.getBody() == null ? List.of() : List.copyOf(response.getBody());
+            final HttpHeaders answered = response.getHeaders();
+            if (answered.getFirst(HttpHeaders.WARNING) == null || answered.getFirst(HttpHeaders.AGE) == null) {
+                return Ranking.live(repos);
+            }
+            return new Ranking(repos, Instant.now().minusSeconds(seconds(answered, HttpHeaders.AGE)));
+        } catch (final HttpStatusCodeException ex) {
+            final int status = ex.getStatusCode().value();
+            if (status == 429) {
+                throw new RateLimitExceededException("GitHub rate limit exhausted at " + owner,
+                        retryAfterSeconds(ex.getResponseHeaders()));
+            }
+            if (ex instanceof HttpClientErrorException rejected) throw rejected;
+            if (status == 502 || status == 503 || status == 504) return markDown(owner, ex);
+            log.warn("Peer {} answered {}; ranking this request locally", owner, status);
+            fallbacks.increment();
+            return null;
+        } catch (final ResourceAccessException ex) {
+            return markDown(owner, ex);
+        } catch (final RestClientException ex) {
+            log.warn("Peer {} sent an unreadable ranking ({}); ranking this request locally", owner, ex.getMessage());
+            fallbacks.increment();
+            return null;
+        }
+    }
+
+    /**
+     * Skips an owner that is down for {@code cluster.retry-after} and lets the caller rank locally.
+     *
+     * @param owner base URL of the failed peer
+     * @param ex    failure of the forwarded request
+     * @return null, so the ranking is computed locally
+     */
+    private Ranking markDown(final String owner, final RestClientException ex) {
+        if (downUntil.put(owner, System.currentTimeMillis() + retryAfterMillis) == null) {
+            log.warn("Peer {} is down ({}); ranking its keys locally for {} ms", owner, ex.getMessage(), retryAfterMillis);
+        }
+        fallbacks.increment();
+        return null;
+    }
+
+    /**
+     * Registers the {@code cluster.forwards} counter, tagged with whether the owner answered
+     * or the ranking fell back to this instance.
+     *
+     * @param registry meter registry
+     */
+    @Override
+    public void bindTo(final MeterRegistry registry) {
+        FunctionCounter.builder("cluster.forwards", forwarded, LongAdder::sum)
+                .tag("outcome", "owner").register(registry);
+        FunctionCounter.builder("cluster.forwards", fallbacks, LongAdder::sum)
+                .tag("outcome", "fallback").register(registry);
+    }
+
+    /**
+     * Builds the owner's {@code /popular} URI with the original request parameters.
+     *
+     * @param owner       base URL of the owning peer
+     * @param createdFrom earliest creation date
+     * @param language    programming language filter
+     * @param limit       maximum number of repositories to return
+     * @param overrides   weights and decay constant replacing the configured ones
+     * @return encoded URI
+     */
+    private static URI uri(
+            final String owner,
+            final String createdFrom,
+            final String language,
+            final int limit,
+            final ScoreOverrides overrides
+    ) {
+        final UriComponentsBuilder uri = UriComponentsBuilder.fromHttpUrl(owner)
+                .path("/api/repos/popular")
+                .queryParam("created_from", createdFrom)
+                .queryParam("language", language)
+                .queryParam("limit", limit);
+        if (!overrides.weights().isEmpty()) {
+            uri.queryParam("weights", overrides.weights().entrySet().stream()
+                    .map(e -> e.getKey() + ":" + e.getValue())
+                    .collect(Collectors.joining(",")));
+        }
+        if (overrides.tauDays() != null) {
+            uri.queryParam("tau_days", overrides.tauDays());
+        }
+        return uri.encode().build().toUri();
+    }
+
+    /**
+     * Reads a {@code Retry-After} header in seconds.
+     *
+     * @param headers response headers, may be null
+     * @return seconds to wait, or 0 if absent or malformed
+     */
+    private static long retryAfterSeconds(final HttpHeaders headers) {
+        return seconds(headers, HttpHeaders.RETRY_AFTER);
+    }
+
+    /**
+     * Reads a header holding a number of seconds, such as {@code Retry-After} or {@code Age}.
+     *
+     * @param headers response headers, may be null
+     * @param name    header name
+     * @return the seconds, or 0 if absent, negative or malformed
+     */
+    private static long seconds(final HttpHeaders headers, final String name) {
+        final String value = headers == null ? null : headers.getFirst(name);
+        if (value == null) return 0;
+        try {
+            return Math.max(0, Long.parseLong(value.trim()));
+        } catch (final NumberFormatException ex) {
+            return 0;
+        }
+    }
+
+    /**
+     * Strips whitespace and trailing slashes from a peer's base URL.
+     *
+     * @param peer base URL
+     * @return normalized base URL
+     */
+    private static String normalize(final String peer) {
+        String url = peer.trim();
+        while (url.endsWith("/")) url = url.substring(0, url.length() - 1);
+        return url;
+    }
+
+    /**
+     * Position on the ring: the first eight bytes of the MD5 digest, which spreads similar
+     * strings such as {@code peer#1} and {@code peer#2} evenly and is the same on every JVM.
+     *
+     * @param value ring point or ranking key
+     * @return 64-bit hash
+     */
+    private static long hash(final String value) {
+        final byte[] digest;
+        try {
+            digest = MessageDigest.getInstance("MD5").digest(value.getBytes(StandardCharsets.UTF_8));
+        } catch (final NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        long h = 0;
+        for (int i = 0; i < 8; i++) h = (h << 8) | (digest[i] & 0xff);
+        return h;
+    }
+
+    /**
+     * Builds the template for forwarded rankings. It is separate from the GitHub template,
+     * so forwarding takes no GitHub rate-limit budget and sends no GitHub token.
+     *
+     * @param connectTimeout longest a connection to a peer may take
+     * @param readTimeout    longest a forwarded ranking may take
+     * @return template with pooled HTTP/1.1 connections
+     */
+    private static RestTemplate restTemplate(final Duration connectTimeout, final Duration readTimeout) {
+        final HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(connectTimeout)
+                .build();
+        final JdkClientHttpRequestFactory factory = new JdkClientHttpRequestFactory(client);
+        factory.setReadTimeout(readTimeout);
+        return new RestTemplate(factory);
+    }
+}
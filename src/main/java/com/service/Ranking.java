@@ -0,0 +1,46 @@
+package com.service;
+
+import com.repo.ScoreRepo;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * A ranking together with whether it was computed from fresh GitHub results or from the
+ * last good results kept while GitHub is unavailable.
+ *
+ * @param repos      scored repositories, best first
+ * @param staleSince when the stale results were fetched, or null for a live ranking
+ */
+public record Ranking(List<ScoreRepo> repos, Instant staleSince) {
+
+    /**
+     * Wraps a ranking computed from fresh results.
+     *
+     * @param repos scored repositories, best first
+     * @return live ranking
+     */
+    public static Ranking live(final List<ScoreRepo> repos) {
+        return new Ranking(repos, null);
+    }
+
+    /**
+     * Whether the ranking was computed from stale results.
+     *
+     * @return true if GitHub was unavailable and older results were used
+     */
+    public boolean isStale() {
+        return staleSince != null;
+    }
+
+    /**
+     * Age of the results the ranking was computed from, as sent in an {@code Age} header.
+     *
+     * @param now reference time
+     * @return whole seconds since the stale results were fetched, or 0 for a live ranking
+     */
+    public long ageSeconds(final Instant now) {
+        return staleSince == null ? 0 : Math.max(0, Duration.between(staleSince, now).toSeconds());
+    }
+}
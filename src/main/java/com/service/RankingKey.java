@@ -0,0 +1,27 @@
+package com.service;
+
+import java.util.Locale;
+
+/**
+ * Normalized arguments of a ranking request, used to coalesce and precompute rankings.
+ *
+ * @param createdFrom earliest push date (YYYY-MM-DD), trimmed; empty if absent
+ * @param language    language filter, trimmed and lower-cased; empty if absent
+ * @param limit       maximum number of repositories
+ */
+public record RankingKey(String createdFrom, String language, int limit) {
+
+    /**
+     * Normalizes request arguments into a key.
+     *
+     * @param createdFrom earliest push date
+     * @param language    programming language filter
+     * @param limit       maximum number of repositories to return
+     * @return normalized key
+     */
+    public static RankingKey of(final String createdFrom, final String language, final int limit) {
+        final String date = createdFrom == null ? "" : createdFrom.trim();
+        final String lang = language == null ? "" : language.trim().toLowerCase(Locale.ROOT);
+        return new RankingKey(date, lang, limit);
+    }
+}
@@ -0,0 +1,210 @@
+package com.service;
+
+import com.repo.GitHubRepo;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+/**
+ * Bounded in-process cache of the unscored repositories a search returned, kept apart from
+ * any ranking so that they can be rescored with other weights without calling GitHub.
+ * <p>Entries are keyed by the normalized date and language. An entry fetched for a limit
+ * of {@code n} answers every limit up to {@code n}, since a smaller search returns a prefix
+ * of the same rank order. Entries expire after the TTL, and the least recently used
+ * entry is evicted once {@code maxEntries} is exceeded.</p>
+ * <p>Expired entries stay until they are replaced or evicted, as the last good result of
+ * their search to fall back on while GitHub is unavailable.</p>
+ */
+@Component
+public class RawMetricsCache implements MeterBinder {
+
+    private final long ttlMillis;
+    private final int maxEntries;
+    private final Clock clock;
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long hits;
+    private long misses;
+
+    /**
+     * Creates the cache from configuration.
+     *
+     * @param ttl        how long fetched metrics may be rescored
+     * @param maxEntries max number of cached searches; 0 disables caching
+     */
+    @Autowired
+    public RawMetricsCache(
+            @Value("${raw-metrics.ttl:10m}") final Duration ttl,
+            @Value("${raw-metrics.max-entries:64}") final int maxEntries
+    ) {
+        this(ttl, maxEntries, Clock.systemUTC());
+    }
+
+    /**
+     * Creates the cache with an explicit clock.
+     *
+     * @param ttl        how long fetched metrics may be rescored
+     * @param maxEntries max number of cached searches; 0 disables caching
+     * @param clock      time source used for expiry
+     */
+    public RawMetricsCache(final Duration ttl, final int maxEntries, final Clock clock) {
+        this.ttlMillis = ttl.toMillis();
+        this.maxEntries = maxEntries;
+        this.clock = clock;
+    }
+
+    /**
+     * Creates a cache that never stores anything.
+     *
+     * @return disabled cache
+     */
+    public static RawMetricsCache disabled() {
+        return new RawMetricsCache(Duration.ZERO, 0);
+    }
+
+    /**
+     * Returns the cached repositories of a search if a fresh entry covers {@code limit},
+     * counting a hit or a miss.
+     *
+     * @param createdFrom earliest push date
+     * @param language    programming language filter
+     * @param limit       maximum number of repositories wanted
+     * @return at most {@code limit} repositories in GitHub's rank order, or null on a miss
+     */
+    public synchronized List<GitHubRepo> get(final String createdFrom, final String language, final int limit) {
+        final Entry e = entries.get(Key.of(createdFrom, language));
+        if (e != null && clock.millis() - e.storedAt() < ttlMillis && e.limit() >= limit) {
+            hits++;
+            return e.repos().size() <= limit ? e.repos() : e.repos().subList(0, limit);
+        }
+        misses++;
+        return null;
+    }
+
+    /**
+     * Returns the last repositories stored for a search covering {@code limit}, however old,
+     * without counting a hit or a miss.
+     *
+     * @param createdFrom earliest push date
+     * @param language    programming language filter
+     * @param limit       maximum number of repositories wanted
+     * @return the stored repositories and when they were fetched, or null if none cover {@code limit}
+     */
+    public synchronized Stale getStale(final String createdFrom, final String language, final int limit) {
+        final Entry e = entries.get(Key.of(createdFrom, language));
+        if (e == null || e.limit() < limit) return null;
+        final List<GitHubRepo> repos = e.repos().size() <= limit ? e.repos() : e.repos().subList(0, limit);
+        return new Stale(repos, e.limit(), Instant.ofEpochMilli(e.storedAt()));
+    }
+
+    /**
+     * Stores the repositories a search returned. An entry for a larger limit that is still
+     * fresh is kept, so a smaller search does not shrink what can be rescored.
+     *
+     * @param createdFrom earliest push date
+     * @param language    programming language filter
+     * @param limit       limit the search was run with
+     * @param repos       repositories in GitHub's rank order
+     */
+    public synchronized void put(
+            final String createdFrom,
+            final String language,
+            final int limit,
+            final List<GitHubRepo> repos
+    ) {
+        if (maxEntries <= 0) return;
+        final Key key = Key.of(createdFrom, language);
+        final long now = clock.millis();
+        final Entry previous = entries.get(key);
+        if (previous != null && now - previous.storedAt() < ttlMillis && previous.limit() > limit) return;
+
+        entries.put(key, new Entry(List.copyOf(repos), limit, now));
+        while (entries.size() > maxEntries) {
+            entries.remove(entries.keySet().iterator().next());
+        }
+    }
+
+    /**
+     * Returns a snapshot of the cache counters.
+     *
+     * @return current statistics
+     */
+    public synchronized Stats stats() {
+        return new Stats(hits, misses, entries.size());
+    }
+
+    /**
+     * Registers the cache counters with Micrometer.
+     *
+     * @param registry meter registry
+     */
+    @Override
+    public void bindTo(final MeterRegistry registry) {
+        FunctionCounter.builder("raw.metrics.cache.requests", this, c -> c.stats().hits())
+                .tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("raw.metrics.cache.requests", this, c -> c.stats().misses())
+                .tag("result", "miss")
+                .register(registry);
+        Gauge.builder("raw.metrics.cache.size", this, c -> c.stats().size())
+                .register(registry);
+    }
+
+    /**
+     * Normalized search arguments an entry is stored under.
+     *
+     * @param createdFrom trimmed earliest push date
+     * @param language    trimmed, lower-cased language filter
+     */
+    private record Key(String createdFrom, String language) {
+
+        /**
+         * Normalizes search arguments the same way as {@link RankingKey}.
+         *
+         * @param createdFrom earliest push date
+         * @param language    programming language filter
+         * @return normalized key
+         */
+        static Key of(final String createdFrom, final String language) {
+            final RankingKey k = RankingKey.of(createdFrom, language, 0);
+            return new Key(k.createdFrom(), k.language());
+        }
+    }
+
+    /**
+     * Repositories of one search, the limit it ran with and when it was stored.
+     *
+     * @param repos    repositories in rank order
+     * @param limit    limit of the search
+     * @param storedAt epoch millis of the fetch
+     */
+    private record Entry(List<GitHubRepo> repos, int limit, long storedAt) { }
+
+    /**
+     * Repositories of a search returned regardless of their age.
+     *
+     * @param repos     at most the wanted number of repositories in rank order
+     * @param limit     limit the search was run with
+     * @param fetchedAt when the search was fetched
+     */
+    public record Stale(List<GitHubRepo> repos, int limit, Instant fetchedAt) { }
+
+    /**
+     * Point-in-time cache counters.
+     *
+     * @param hits   lookups answered from a fresh entry
+     * @param misses lookups that had to fetch
+     * @param size   current number of entries
+     */
+    public record Stats(long hits, long misses, int size) { }
+}
@@ -0,0 +1,115 @@
+package com.service;
+
+import com.client.ReactiveGitHubClient;
+import com.repo.ScoreRepo;
+import com.repo.StreamFrame;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Non-blocking counterpart of {@link ScoringService} for the reactive variant of the
+ * application ({@code spring.main.web-application-type=reactive}).
+ * <p>Scores repositories as {@link ReactiveGitHubClient} emits them and answers hot keys
+ * from the {@link HotRankingCache}. Snapshot modes and single-flight coalescing are
+ * features of the blocking service only.</p>
+ */
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveScoringService {
+
+    private final ReactiveGitHubClient gitHubClient;
+    private final ScoreCalculator scoreCalculator;
+    private final HotRankingCache hotRankings;
+    private final Duration requestTimeout;
+
+    /**
+     * Creates the service.
+     *
+     * @param gitHubClient    non-blocking GitHub client
+     * @param scoreCalculator scoring engine
+     * @param hotRankings     precomputed rankings of the most requested keys
+     * @param requestTimeout  longest a ranking may take, and longest a stream may go without
+     *                        emitting
+     */
+    public ReactiveScoringService(
+            final ReactiveGitHubClient gitHubClient,
+            final ScoreCalculator scoreCalculator,
+            final HotRankingCache hotRankings,
+            @Value("${reactive.request-timeout:30s}") final Duration requestTimeout
+    ) {
+        this.gitHubClient = gitHubClient;
+        this.scoreCalculator = scoreCalculator;
+        this.hotRankings = hotRankings;
+        this.requestTimeout = requestTimeout;
+    }
+
+    /**
+     * Fetches repositories, scores them as they arrive and keeps the best {@code limit}.
+     *
+     * @param createdFrom earliest creation date
+     * @param language    programming language filter
+     * @param limit       maximum number of repositories to return
+     * @return the repositories ranked best first; errors with a
+     *         {@link java.util.concurrent.TimeoutException} after the request timeout
+     */
+    public Mono<List<ScoreRepo>> fetchAndScore(final String createdFrom, final String language, final int limit) {
+        return Mono.defer(() -> {
+            final List<ScoreRepo> precomputed = hotRankings.get(RankingKey.of(createdFrom, language, limit));
+            if (precomputed != null) return Mono.just(precomputed);
+
+            final ScoringContext ctx = ScoringContext.now();
+            return gitHubClient.searchRepos(createdFrom, language, limit)
+                    .collect(() -> new TopK<ScoreRepo>(limit), (top, gh) -> {
+                        final double score = scoreCalculator.score(gh, ctx);
+                        if (top.accepts(score)) top.offer(score, ScoringService.toScoreRepo(gh, score));
+                    })
+                    .map(top -> List.copyOf(top.drainSorted()));
+        }).timeout(requestTimeout);
+    }
+
+    /**
+     * Streams one {@code repo} frame per scored repository in GitHub's rank order and, if
+     * {@code ranked}, a final {@code ranked} frame with the best {@code limit} by score.
+     * Repositories are only fetched as fast as the subscriber requests them.
+     *
+     * @param createdFrom earliest creation date
+     * @param language    programming language filter
+     * @param limit       maximum number of repositories to stream
+     * @param ranked      whether to end with the final ranking
+     * @return stream frames; errors with a {@link java.util.concurrent.TimeoutException} if
+     *         no frame is produced within the request timeout
+     */
+    public Flux<StreamFrame> streamAndScore(
+            final String createdFrom,
+            final String language,
+            final int limit,
+            final boolean ranked
+    ) {
+        return Flux.defer(() -> {
+            final List<ScoreRepo> precomputed = hotRankings.get(RankingKey.of(createdFrom, language, limit));
+            if (precomputed != null) {
+                final Flux<StreamFrame> repos = Flux.fromIterable(precomputed).map(StreamFrame::repo);
+                return ranked ? repos.concatWithValues(StreamFrame.ranked(precomputed)) : repos;
+            }
+
+            final ScoringContext ctx = ScoringContext.now();
+            final TopK<ScoreRepo> top = ranked ? new TopK<>(limit) : null;
+            final Flux<StreamFrame> repos = gitHubClient.searchRepos(createdFrom, language, limit)
+                    .map(gh -> {
+                        final double score = scoreCalculator.score(gh, ctx);
+                        final ScoreRepo repo = ScoringService.toScoreRepo(gh, score);
+                        if (top != null && top.accepts(score)) top.offer(score, repo);
+                        return StreamFrame.repo(repo);
+                    });
+            return top == null
+                    ? repos
+                    : repos.concatWith(Mono.fromSupplier(() -> StreamFrame.ranked(List.copyOf(top.drainSorted()))));
+        }).timeout(requestTimeout);
+    }
+}
@@ -4,6 +4,7 @@ import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.Map;
 
+import com.parser.TimestampParser;
 import com.repo.GitHubRepo;
 
 /**
@@ -12,8 +13,25 @@ import com.repo.GitHubRepo;
  */
 public class ScoreCalculator {
 
+    /** Marker in a pushed-at column for repositories without a known last push. */
+    public static final long NO_PUSH = Long.MIN_VALUE;
+
+    private static final long SECONDS_PER_DAY = 86_400L;
+
+    /** Upper bound on the precomputed decay table (ten years of daily entries). */
+    private static final int MAX_DECAY_TABLE_DAYS = 3_650;
+
+    /**
+     * SIMD batch kernel, or null unless the build used the {@code vector} profile and the JVM
+     * was started with {@code --add-modules jdk.incubator.vector}.
+     */
+    private static final ScoreKernel VECTOR_KERNEL = loadVectorKernel();
+
     private final double wStars, wForks, wRecency;
     private final double tauDays;
+    private final ScoreKernel kernel;
+    private final boolean fastTimestamps;
+    private final double[] decayTable;
 
     /**
      * Constructs a score calculator with specific weights and decay factor.
@@ -24,10 +42,56 @@ public class ScoreCalculator {
      * @param tauDays  time decay constant (in days)
      */
     public ScoreCalculator(final double wStars, final double wForks, final double wRecency, final double tauDays) {
+        this(wStars, wForks, wRecency, tauDays, ScoreOptions.DEFAULT);
+    }
+
+    /**
+     * Constructs a score calculator with explicit fast-path options.
+     *
+     * @param wStars   weight for stars
+     * @param wForks   weight for forks
+     * @param wRecency weight for recency
+     * @param tauDays  time decay constant (in days)
+     * @param options  fast-path switches
+     */
+    public ScoreCalculator(
+            final double wStars,
+            final double wForks,
+            final double wRecency,
+            final double tauDays,
+            final ScoreOptions options
+    ) {
+        this(wStars, wForks, wRecency, tauDays, options.vectorized() ? VECTOR_KERNEL : null,
+                options.fastTimestamps(), options.decayTable() ? buildDecayTable(tauDays) : null);
+    }
+
+    /**
+     * Constructs a score calculator from resolved fast-path settings.
+     *
+     * @param wStars         weight for stars
+     * @param wForks         weight for forks
+     * @param wRecency       weight for recency
+     * @param tauDays        time decay constant (in days)
+     * @param kernel         batch kernel replacing the scalar loop, or null
+     * @param fastTimestamps whether compact UTC timestamps skip {@link Instant#parse}
+     * @param decayTable     precomputed decay per whole day for {@code tauDays}, or null
+     */
+    private ScoreCalculator(
+            final double wStars,
+            final double wForks,
+            final double wRecency,
+            final double tauDays,
+            final ScoreKernel kernel,
+            final boolean fastTimestamps,
+            final double[] decayTable
+    ) {
         this.wStars = wStars;
         this.wForks = wForks;
         this.wRecency = wRecency;
         this.tauDays = tauDays;
+        this.kernel = kernel;
+        this.fastTimestamps = fastTimestamps;
+        this.decayTable = decayTable;
     }
 
     /**
@@ -38,22 +102,78 @@ public class ScoreCalculator {
      * @return configured {@link ScoreCalculator} instance
      */
     public static ScoreCalculator from(final Map<String, Double> weights, final double tauDays) {
+        return from(weights, tauDays, ScoreOptions.DEFAULT);
+    }
+
+    /**
+     * Factory method that additionally selects the fast-path options.
+     *
+     * @param weights  map containing weight keys ("stars", "forks", "recency")
+     * @param tauDays  time decay constant
+     * @param options  fast-path switches
+     * @return configured {@link ScoreCalculator} instance
+     */
+    public static ScoreCalculator from(final Map<String, Double> weights, final double tauDays, final ScoreOptions options) {
         final double ws = weights.getOrDefault("stars", 0.5);
         final double wf = weights.getOrDefault("forks", 0.3);
         final double wr = weights.getOrDefault("recency", 0.2);
-        return new ScoreCalculator(ws, wf, wr, tauDays);
+        return new ScoreCalculator(ws, wf, wr, tauDays, options);
+    }
+
+    /**
+     * Returns a calculator with some weights or the decay constant replaced and everything
+     * else kept. A changed decay constant is computed with {@link Math#exp} directly: a
+     * rescored ranking has at most 1000 repositories, fewer than a decay table has entries.
+     *
+     * @param overrides per-request weights and decay constant
+     * @return this calculator if nothing is overridden, otherwise a new one
+     */
+    public ScoreCalculator withOverrides(final ScoreOverrides overrides) {
+        if (overrides.isEmpty()) return this;
+        final Map<String, Double> w = overrides.weights();
+        final double tau = overrides.tauDays() != null ? overrides.tauDays() : tauDays;
+        return new ScoreCalculator(
+                w.getOrDefault("stars", wStars),
+                w.getOrDefault("forks", wForks),
+                w.getOrDefault("recency", wRecency),
+                tau,
+                kernel,
+                fastTimestamps,
+                tau == tauDays ? decayTable : null
+        );
+    }
+
+    /**
+     * Whether batches are scored by the SIMD kernel rather than the scalar loop.
+     *
+     * @return true if vectorization was requested and the kernel is available
+     */
+    boolean isVectorized() {
+        return kernel != null;
     }
 
     /**
-     * Computes the popularity score for a given {@link GitHubRepo}.
+     * Computes the popularity score for a given {@link GitHubRepo} against the current time.
      *
      * @param r the GitHub repository
      * @return calculated score
      */
     public double score(final GitHubRepo r) {
+        return score(r, ScoringContext.now());
+    }
+
+    /**
+     * Computes the popularity score for a given {@link GitHubRepo} within a batch.
+     * All repositories scored with the same context are aged against the same clock.
+     *
+     * @param r   the GitHub repository
+     * @param ctx reference time of the batch
+     * @return calculated score
+     */
+    public double score(final GitHubRepo r, final ScoringContext ctx) {
         final double starsN = Math.log1p(r.stargazers_count());
         final double forksN = Math.log1p(r.forks_count());
-        final double recency = recencyDecay(r.pushed_at());
+        final double recency = recencyDecay(r.pushed_at(), ctx);
         return wStars * starsN + wForks * forksN + wRecency * recency;
     }
 
@@ -68,16 +188,147 @@ public class ScoreCalculator {
         return score(gRepo);
     }
 
+    /**
+     * Scores a batch of repositories given as primitive columns, against the current time.
+     *
+     * @param stars                star counts
+     * @param forks                fork counts
+     * @param pushedAtEpochSeconds last push as epoch seconds, or {@link #NO_PUSH}
+     * @param out                  receives one score per repository; its length is the batch size
+     */
+    public void scoreBatch(final int[] stars, final int[] forks, final long[] pushedAtEpochSeconds, final double[] out) {
+        scoreBatch(stars, forks, pushedAtEpochSeconds, Instant.now().getEpochSecond(), out);
+    }
+
+    /**
+     * Scores a batch of repositories given as primitive columns.
+     * <p>The scalar path produces exactly the values of {@link #score(GitHubRepo)} for the
+     * same inputs and clock. The vectorized path, when enabled, built with the {@code vector}
+     * profile and run with {@code --add-modules jdk.incubator.vector}, uses SIMD {@code log1p}/{@code exp}
+     * which may differ from {@link Math} by one ulp.</p>
+     *
+     * @param stars                star counts
+     * @param forks                fork counts
+     * @param pushedAtEpochSeconds last push as epoch seconds, or {@link #NO_PUSH}
+     * @param nowEpochSeconds      reference time the ages are measured against
+     * @param out                  receives one score per repository; its length is the batch size
+     */
+    public void scoreBatch(
+            final int[] stars,
+            final int[] forks,
+            final long[] pushedAtEpochSeconds,
+            final long nowEpochSeconds,
+            final double[] out
+    ) {
+        scoreBatch(stars, forks, pushedAtEpochSeconds, nowEpochSeconds, out, out.length);
+    }
+
+    /**
+     * Scores the first {@code n} entries of reusable column buffers.
+     *
+     * @param stars                star counts
+     * @param forks                fork counts
+     * @param pushedAtEpochSeconds last push as epoch seconds, or {@link #NO_PUSH}
+     * @param nowEpochSeconds      reference time the ages are measured against
+     * @param out                  receives one score per repository
+     * @param n                    batch size
+     * @see #scoreBatch(int[], int[], long[], long, double[])
+     */
+    public void scoreBatch(
+            final int[] stars,
+            final int[] forks,
+            final long[] pushedAtEpochSeconds,
+            final long nowEpochSeconds,
+            final double[] out,
+            final int n
+    ) {
+        if (n < 0 || out.length < n || stars.length < n || forks.length < n || pushedAtEpochSeconds.length < n) {
+            throw new IllegalArgumentException("input columns are shorter than the batch size");
+        }
+
+        if (kernel != null) {
+            for (int i = 0; i < n; i++) {
+                final long pushed = pushedAtEpochSeconds[i];
+                out[i] = pushed == NO_PUSH
+                        ? Double.POSITIVE_INFINITY
+                        : (nowEpochSeconds - pushed) / SECONDS_PER_DAY;
+            }
+            kernel.score(stars, forks, out, n, wStars, wForks, wRecency, tauDays);
+            return;
+        }
+
+        for (int i = 0; i < n; i++) {
+            final long pushed = pushedAtEpochSeconds[i];
+            final double recency = pushed == NO_PUSH ? 0.0 : decay((nowEpochSeconds - pushed) / SECONDS_PER_DAY);
+            out[i] = wStars * Math.log1p(stars[i]) + wForks * Math.log1p(forks[i]) + wRecency * recency;
+        }
+    }
+
     /**
      * Calculates a time-decay factor based on last push date.
+     * GitHub's {@code yyyy-MM-ddTHH:mm:ssZ} timestamps are decoded without allocation when
+     * fast timestamps are enabled; other formats go through {@link Instant#parse}.
      *
      * @param pushedAtIso ISO 8601 date string of last push
+     * @param ctx         reference time of the batch
      * @return exponential decay value between 0 and 1
      */
-    private double recencyDecay(final String pushedAtIso) {
+    private double recencyDecay(final String pushedAtIso, final ScoringContext ctx) {
         if (pushedAtIso == null) return 0.0;
-        final Instant pushed = Instant.parse(pushedAtIso);
-        final long days = ChronoUnit.DAYS.between(pushed, Instant.now());
+        final long days;
+        if (fastTimestamps && TimestampParser.isCompactUtc(pushedAtIso)) {
+            days = ctx.daysSince(TimestampParser.compactUtcEpochSeconds(pushedAtIso));
+        } else {
+            days = ChronoUnit.DAYS.between(Instant.parse(pushedAtIso), ctx.instant());
+        }
+        return decay(days);
+    }
+
+    /**
+     * Exponential decay for an age in whole days, served from the decay table when the
+     * age falls inside it.
+     *
+     * @param days days since last push
+     * @return decay value between 0 and 1 for non-negative ages
+     */
+    private double decay(final long days) {
+        if (decayTable != null && days >= 0 && days < decayTable.length) {
+            return decayTable[(int) days];
+        }
         return Math.exp(-days / tauDays);
     }
+
+    /**
+     * Precomputes {@code exp(-days / tauDays)} for every whole day up to the point where the
+     * decay is negligible, capped at {@link #MAX_DECAY_TABLE_DAYS}.
+     *
+     * @param tauDays time decay constant (in days)
+     * @return decay table indexed by age in days
+     */
+    private static double[] buildDecayTable(final double tauDays) {
+        final int size = tauDays > 0
+                ? (int) Math.min(MAX_DECAY_TABLE_DAYS, Math.ceil(tauDays * 40))
+                : 0;
+        final double[] table = new double[size];
+        for (int d = 0; d < size; d++) {
+            table[d] = Math.exp(-((long) d) / tauDays);
+        }
+        return table;
+    }
+
+    /**
+     * Loads the SIMD kernel if both it and the {@code jdk.incubator.vector} module are present.
+     *
+     * @return the kernel, or null to score batches with the scalar loop
+     */
+    private static ScoreKernel loadVectorKernel() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) return null;
+        try {
+            return (ScoreKernel) Class.forName("com.service.VectorScoreKernel")
+                    .getDeclaredConstructor()
+                    .newInstance();
+        } catch (final ReflectiveOperationException e) {
+            return null;
+        }
+    }
 }
@@ -0,0 +1,33 @@
+package com.service;
+
+/**
+ * Batch scoring loop that {@link ScoreCalculator} can swap in for its scalar one.
+ * <p>The only implementation, {@code VectorScoreKernel}, lives in {@code src/vector/java}
+ * and is compiled only by the {@code vector} Maven profile.</p>
+ */
+interface ScoreKernel {
+
+    /**
+     * Scores {@code n} repositories. {@code daysInOut} holds the age in days of each last
+     * push on entry ({@code +Infinity} when unknown) and the score on return.
+     *
+     * @param stars     star counts
+     * @param forks     fork counts
+     * @param daysInOut ages in days on entry, scores on return
+     * @param n         number of repositories
+     * @param wStars    weight for stars
+     * @param wForks    weight for forks
+     * @param wRecency  weight for recency
+     * @param tauDays   time decay constant (in days)
+     */
+    void score(
+            int[] stars,
+            int[] forks,
+            double[] daysInOut,
+            int n,
+            double wStars,
+            double wForks,
+            double wRecency,
+            double tauDays
+    );
+}
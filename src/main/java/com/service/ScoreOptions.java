@@ -0,0 +1,16 @@
+package com.service;
+
+/**
+ * Switches for the optional fast paths of {@link ScoreCalculator}.
+ * Every option yields the same scores as the plain implementation, except that
+ * {@code vectorized} may differ by one ulp in {@code log1p}/{@code exp}.
+ *
+ * @param vectorized     use the Vector API in {@code scoreBatch} when the JVM provides it
+ * @param fastTimestamps decode {@code yyyy-MM-ddTHH:mm:ssZ} without {@code Instant.parse}
+ * @param decayTable     look up recency decay in a table indexed by age in days
+ */
+public record ScoreOptions(boolean vectorized, boolean fastTimestamps, boolean decayTable) {
+
+    /** Allocation-free timestamp parsing and decay table on, SIMD off. */
+    public static final ScoreOptions DEFAULT = new ScoreOptions(false, true, true);
+}
@@ -0,0 +1,68 @@
+package com.service;
+
+import com.parser.WeightParser;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Per-request replacements for the configured {@code score.weights} and
+ * {@code score.tau-days}. Weights that are not overridden keep their configured values.
+ *
+ * @param weights weights to replace, keyed {@code stars}, {@code forks} or {@code recency}
+ * @param tauDays recency decay constant in days, or null to keep the configured one
+ */
+public record ScoreOverrides(Map<String, Double> weights, Double tauDays) {
+
+    /** No overrides: the configured scoring applies. */
+    public static final ScoreOverrides NONE = new ScoreOverrides(Map.of(), null);
+
+    private static final Set<String> KEYS = Set.of("stars", "forks", "recency");
+
+    /**
+     * Parses request parameters through {@link WeightParser} and validates them.
+     *
+     * @param weightsCsv weights in {@code key:value} CSV form, or null/blank for none
+     * @param tauDays    recency decay constant in days, or null for none
+     * @return the overrides, or {@link #NONE} if neither parameter is given
+     * @throws IllegalArgumentException if a weight is malformed, duplicated, unknown or not
+     *                                  finite, or {@code tauDays} is not positive
+     */
+    public static ScoreOverrides parse(final String weightsCsv, final Double tauDays) {
+        final boolean noWeights = weightsCsv == null || weightsCsv.isBlank();
+        if (noWeights && tauDays == null) return NONE;
+
+        final Map<String, Double> weights;
+        try {
+            weights = noWeights ? Map.of() : WeightParser.parse(weightsCsv);
+        } catch (final NumberFormatException ex) {
+            throw new IllegalArgumentException("invalid weights '" + weightsCsv + "'");
+        } catch (final IllegalStateException ex) {
+            throw new IllegalArgumentException("duplicate weight in '" + weightsCsv + "'");
+        }
+        if (!noWeights && weights.isEmpty()) {
+            throw new IllegalArgumentException("no key:value weights in '" + weightsCsv + "'");
+        }
+        weights.forEach((key, value) -> {
+            if (!KEYS.contains(key)) {
+                throw new IllegalArgumentException("unknown weight '" + key + "', expected stars, forks or recency");
+            }
+            if (!Double.isFinite(value)) {
+                throw new IllegalArgumentException("weight '" + key + "' must be finite");
+            }
+        });
+        if (tauDays != null && !(tauDays > 0 && Double.isFinite(tauDays))) {
+            throw new IllegalArgumentException("tau_days must be positive");
+        }
+        return new ScoreOverrides(Map.copyOf(weights), tauDays);
+    }
+
+    /**
+     * Whether nothing is overridden.
+     *
+     * @return true if the configured scoring applies unchanged
+     */
+    public boolean isEmpty() {
+        return weights.isEmpty() && tauDays == null;
+    }
+}
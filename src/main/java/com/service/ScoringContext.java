@@ -0,0 +1,57 @@
+package com.service;
+
+import java.time.Instant;
+
+/**
+ * Reference time for scoring one batch of repositories.
+ * <p>Captured once per batch so that every repository in a response is aged against the
+ * same clock, instead of calling {@link Instant#now()} per item.</p>
+ *
+ * @param epochSecond seconds part of the reference instant
+ * @param nano        nanosecond adjustment of the reference instant
+ */
+public record ScoringContext(long epochSecond, int nano) {
+
+    private static final long SECONDS_PER_DAY = 86_400L;
+
+    /**
+     * Captures the current time.
+     *
+     * @return context for the current instant
+     */
+    public static ScoringContext now() {
+        return at(Instant.now());
+    }
+
+    /**
+     * Creates a context for a fixed instant.
+     *
+     * @param now reference instant
+     * @return context for {@code now}
+     */
+    public static ScoringContext at(final Instant now) {
+        return new ScoringContext(now.getEpochSecond(), now.getNano());
+    }
+
+    /**
+     * The reference time as an {@link Instant}.
+     *
+     * @return reference instant
+     */
+    public Instant instant() {
+        return Instant.ofEpochSecond(epochSecond, nano);
+    }
+
+    /**
+     * Whole days between a whole-second timestamp and the reference time, truncated
+     * toward zero exactly like {@code ChronoUnit.DAYS.between(pushed, now)}.
+     *
+     * @param pushedEpochSecond timestamp in epoch seconds
+     * @return elapsed whole days (negative for timestamps after the reference time)
+     */
+    public long daysSince(final long pushedEpochSecond) {
+        long seconds = epochSecond - pushedEpochSecond;
+        if (seconds < 0 && nano > 0) seconds++;
+        return seconds / SECONDS_PER_DAY;
+    }
+}
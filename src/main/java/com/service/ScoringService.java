@@ -1,77 +1,574 @@
 package com.service;
 
-import com.client.GitHubClient;
+import com.client.GitHubSearchClient;
+import com.client.GitHubUnavailableException;
+import com.client.RequestPriority;
+import com.client.TaskScope;
 import com.repo.GitHubRepo;
 import com.repo.ScoreRepo;
+import com.store.RepoIndex;
+import com.store.SnapshotMode;
+import com.store.SnapshotStore;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.util.Comparator;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 
 /**
  * Service responsible for fetching repositories from GitHub
  * and calculating their popularity scores.
+ * <p>Depending on the {@link SnapshotMode}, fetched repositories are also recorded into the
+ * {@link SnapshotStore}, or rankings are served from the snapshot without calling GitHub.
+ * Frequently requested rankings are answered from the {@link HotRankingCache}.</p>
+ * <p>The unscored repositories of every search are kept in the {@link RawMetricsCache}, so
+ * a ranking with per-request {@link ScoreOverrides} rescores them in memory and only
+ * calls GitHub when the search is not cached.</p>
+ * <p>GitHub is queried inside a {@link TaskScope} bounded by {@code scoring.request-timeout}:
+ * the query candidates and pages run as scoped subtasks that are cancelled together when
+ * the deadline passes or the request thread is interrupted.</p>
+ * <p>While GitHub is unavailable, a ranking is computed from the last good result of its
+ * search in the {@link RawMetricsCache} and marked stale. The searches answered this way
+ * are fetched again by {@link #refreshStale()} once GitHub is back.</p>
+ * <p>When {@code cluster.peers} are configured, {@link #ranking} asks the {@link PeerRouter}
+ * for the ranking first, so that each search is fetched and cached only by the instance
+ * owning it, and computes it here only for keys this instance owns or whose owner is down.</p>
  */
 @Service
 public class ScoringService {
 
-    private final GitHubClient gitHubClient;
+    /** Rows gathered per {@link ScoreCalculator#scoreBatch} call when ranking from the snapshot. */
+    private static final int SNAPSHOT_CHUNK = 4096;
+
+    private final GitHubSearchClient gitHubClient;
     private final ScoreCalculator scoreCalculator;
+    private final SingleFlight<Flight, List<ScoreRepo>> singleFlight = new SingleFlight<>();
+    private final SingleFlight<Flight, List<GitHubRepo>> rawFlight = new SingleFlight<>();
+    private final Timer scoringTimer;
+    private final SnapshotStore snapshot;
+    private final SnapshotMode snapshotMode;
+    private final HotRankingCache hotRankings;
+    private final RawMetricsCache rawMetrics;
+    private final Duration requestTimeout;
+    private final PeerRouter peers;
+    private final Set<RankingKey> staleSearches = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Constructs a ScoringService with the required dependencies, recording metrics into a
+     * private registry.
+     *
+     * @param gitHubClient     client for querying GitHub repositories
+     * @param scoreCalculator  calculator used to compute repository scores
+     */
+    public ScoringService(final GitHubSearchClient gitHubClient, final ScoreCalculator scoreCalculator) {
+        this(gitHubClient, scoreCalculator, new SimpleMeterRegistry(),
+                SnapshotStore.disabled(), SnapshotMode.OFF, HotRankingCache.disabled(), RawMetricsCache.disabled(), null,
+                PeerRouter.disabled());
+    }
 
     /**
      * Constructs a ScoringService with the required dependencies.
      *
      * @param gitHubClient     client for querying GitHub repositories
      * @param scoreCalculator  calculator used to compute repository scores
+     * @param meterRegistry    registry receiving the {@code scoring.rank} timer
+     * @param snapshot         local snapshot of repository metrics
+     * @param snapshotMode     whether to record into or serve from the snapshot
+     * @param hotRankings      precomputed rankings of frequently requested keys
+     * @param rawMetrics       unscored repositories of recent searches, for rescoring
+     * @param requestTimeout   longest a ranking may wait on GitHub, or null for no deadline
+     * @param peers            owners of the rankings of other instances in the cluster
      */
-    public ScoringService(final GitHubClient gitHubClient, final ScoreCalculator scoreCalculator) {
+    @Autowired
+    public ScoringService(
+            final GitHubSearchClient gitHubClient,
+            final ScoreCalculator scoreCalculator,
+            final MeterRegistry meterRegistry,
+            final SnapshotStore snapshot,
+            @Value("${snapshot.mode:off}") final SnapshotMode snapshotMode,
+            final HotRankingCache hotRankings,
+            final RawMetricsCache rawMetrics,
+            @Value("${scoring.request-timeout:30s}") final Duration requestTimeout,
+            final PeerRouter peers
+    ) {
         this.gitHubClient = gitHubClient;
         this.scoreCalculator = scoreCalculator;
+        this.snapshot = snapshot;
+        this.snapshotMode = snapshotMode;
+        this.hotRankings = hotRankings;
+        this.rawMetrics = rawMetrics;
+        this.requestTimeout = requestTimeout;
+        this.peers = peers;
+        this.scoringTimer = Timer.builder("scoring.rank")
+                .description("Time spent scoring and ranking fetched repositories")
+                .register(meterRegistry);
     }
 
     /**
      * Fetches repositories from GitHub and computes their scores.
-     * The results are sorted by score in descending order and limited by count.
+     * The results are ranked by score in descending order and limited by count,
+     * using a bounded top-K heap rather than sorting every fetched repository.
+     * Concurrent calls with the same normalized arguments share a single upstream fetch,
+     * and hot keys are answered from their precomputed ranking without any fetch.
+     * While GitHub is unavailable, the last good result is ranked instead.
      *
      * @param createdFrom earliest creation date
      * @param language    programming language filter
      * @param limit       maximum number of repositories to return
      * @return a list of scored repositories
+     * @throws GitHubUnavailableException if GitHub is unavailable and no earlier result exists
      */
     public List<ScoreRepo> fetchAndScore(final String createdFrom, final String language, final int limit) {
-        final List<Map<String, Object>> raw = gitHubClient.searchRepos(createdFrom, language, limit);
+        return ranking(createdFrom, language, limit, ScoreOverrides.NONE).repos();
+    }
 
-        return raw.stream()
-                .map(repo -> {
-                    final String fullName = String.valueOf(repo.getOrDefault("full_name", ""));
-                    final String url = String.valueOf(repo.getOrDefault("html_url", ""));
-                    final String lang = String.valueOf(repo.getOrDefault("language", ""));
-                    final int stars = (int) asLong(repo.get("stargazers_count"));
-                    final int forks = (int) asLong(repo.get("forks_count"));
-                    final String pushedAt = String.valueOf(repo.getOrDefault("pushed_at", ""));
-                    final GitHubRepo gh = GitHubRepo.from(repo);
-                    final double score = scoreCalculator.score(gh);
+    /**
+     * Ranks with per-request weights or decay constant. The repositories of a cached search
+     * are rescored in memory without calling GitHub; otherwise the search is fetched once,
+     * cached, and concurrent requests for it share the fetch. Hot rankings are computed with
+     * the configured weights and are not used.
+     *
+     * @param createdFrom earliest creation date
+     * @param language    programming language filter
+     * @param limit       maximum number of repositories to return
+     * @param overrides   weights and decay constant replacing the configured ones
+     * @return a list of scored repositories
+     * @throws GitHubUnavailableException if GitHub is unavailable and no earlier result exists
+     */
+    public List<ScoreRepo> fetchAndScore(
+            final String createdFrom,
+            final String language,
+            final int limit,
+            final ScoreOverrides overrides
+    ) {
+        return ranking(createdFrom, language, limit, overrides).repos();
+    }
 
-                    return new ScoreRepo(fullName, url, lang, stars, forks, pushedAt, score);
-                })
-                .sorted(Comparator.comparingDouble(ScoreRepo::score).reversed())
-                .limit(limit)
-                .toList();
+    /**
+     * Like {@link #fetchAndScore(String, String, int, ScoreOverrides)}, but tells whether the
+     * ranking is stale. When GitHub fails or its circuit is open, the last good result of the
+     * search is ranked with the same weights, however old it is, and the search is remembered
+     * for {@link #refreshStale()}.
+     * <p>A ranking owned by another peer is forwarded to it, and only computed here if the
+     * owner cannot be reached.</p>
+     *
+     * @param createdFrom earliest creation date
+     * @param language    programming language filter
+     * @param limit       maximum number of repositories to return
+     * @param overrides   weights and decay constant replacing the configured ones
+     * @return the ranking and whether it is stale
+     * @throws GitHubUnavailableException if GitHub is unavailable and no earlier result exists
+     */
+    public Ranking ranking(
+            final String createdFrom,
+            final String language,
+            final int limit,
+            final ScoreOverrides overrides
+    ) {
+        final Ranking owned = peers.forward(createdFrom, language, limit, overrides);
+        if (owned != null) return owned;
+        return localRanking(createdFrom, language, limit, overrides);
     }
 
     /**
-     * Safely converts an object to a long, defaulting to 0 if invalid.
+     * Like {@link #ranking}, but always computed by this instance. Answers rankings forwarded
+     * by peers, which must not be forwarded again.
      *
-     * @param v object value to convert
-     * @return parsed long value or 0 on error
+     * @param createdFrom earliest creation date
+     * @param language    programming language filter
+     * @param limit       maximum number of repositories to return
+     * @param overrides   weights and decay constant replacing the configured ones
+     * @return the ranking and whether it is stale
+     * @throws GitHubUnavailableException if GitHub is unavailable and no earlier result exists
      */
-    private long asLong(final Object v) {
-        if (v instanceof Number n) return n.longValue();
+    public Ranking localRanking(
+            final String createdFrom,
+            final String language,
+            final int limit,
+            final ScoreOverrides overrides
+    ) {
         try {
-            return v == null ? 0L : Long.parseLong(v.toString());
-        } catch (final Exception e) {
-            return 0L;
+            return Ranking.live(liveRanking(createdFrom, language, limit, overrides));
+        } catch (final GitHubUnavailableException ex) {
+            final RawMetricsCache.Stale stale = rawMetrics.getStale(createdFrom, language, limit);
+            if (stale == null) throw ex;
+            staleSearches.add(RankingKey.of(createdFrom, language, stale.limit()));
+            final ScoreCalculator calculator = overrides.isEmpty()
+                    ? scoreCalculator
+                    : scoreCalculator.withOverrides(overrides);
+            return new Ranking(scoringTimer.record(() -> rank(stale.repos(), limit, calculator)), stale.fetchedAt());
+        }
+    }
+
+    /**
+     * Fetches again every search that was answered with a stale ranking, replacing its last
+     * good result. A search that fails stays pending for the next refresh.
+     *
+     * @return number of searches refreshed
+     * @throws RuntimeException the first failure, after which the remaining searches stay pending
+     */
+    public int refreshStale() {
+        int refreshed = 0;
+        for (final RankingKey key : List.copyOf(staleSearches)) {
+            if (!staleSearches.remove(key)) continue;
+            try {
+                rawFlight.execute(Flight.of(key), () -> fetchRaw(key.createdFrom(), key.language(), key.limit()));
+            } catch (final RuntimeException e) {
+                staleSearches.add(key);
+                throw e;
+            }
+            refreshed++;
         }
+        return refreshed;
     }
+
+    /**
+     * Computes a ranking from GitHub or the snapshot, never from stale results.
+     *
+     * @param createdFrom earliest creation date
+     * @param language    programming language filter
+     * @param limit       maximum number of repositories to return
+     * @param overrides   weights and decay constant replacing the configured ones
+     * @return a list of scored repositories
+     */
+    private List<ScoreRepo> liveRanking(
+            final String createdFrom,
+            final String language,
+            final int limit,
+            final ScoreOverrides overrides
+    ) {
+        if (overrides.isEmpty()) {
+            final RankingKey key = RankingKey.of(createdFrom, language, limit);
+            final List<ScoreRepo> precomputed = hotRankings.get(key);
+            if (precomputed != null) return precomputed;
+            return singleFlight.execute(Flight.of(key), () -> fetchAndScoreNow(createdFrom, language, limit));
+        }
+        final ScoreCalculator calculator = scoreCalculator.withOverrides(overrides);
+        if (snapshotMode == SnapshotMode.SERVE) {
+            return scoringTimer.record(() -> rankSnapshot(createdFrom, language, limit, calculator));
+        }
+        List<GitHubRepo> raw = rawMetrics.get(createdFrom, language, limit);
+        if (raw == null) {
+            raw = rawFlight.execute(Flight.of(RankingKey.of(createdFrom, language, limit)),
+                    () -> fetchRaw(createdFrom, language, limit));
+        }
+        final List<GitHubRepo> metrics = raw;
+        return scoringTimer.record(() -> rank(metrics, limit, calculator));
+    }
+
+    /**
+     * Recomputes the ranking of a hot key and swaps it into the {@link HotRankingCache}.
+     * An empty result does not replace the previous ranking, and neither does a failed
+     * search, which throws instead. Stale results are never used: the previous ranking keeps
+     * being served until a refresh succeeds. Either way the key is not due again for one
+     * refresh interval.
+     *
+     * @param key ranking request to recompute
+     * @return the recomputed ranking
+     * @throws GitHubUnavailableException if GitHub is unavailable
+     */
+    public List<ScoreRepo> refresh(final RankingKey key) {
+        hotRankings.attempted(key);
+        final List<ScoreRepo> ranking = singleFlight.execute(Flight.of(key),
+                () -> fetchAndScoreNow(key.createdFrom(), key.language(), key.limit()));
+        if (!ranking.isEmpty()) {
+            hotRankings.put(key, ranking);
+        }
+        return ranking;
+    }
+
+    /**
+     * Fetches and scores repositories without coalescing.
+     * Only the scoring and ranking step is timed; upstream latency is recorded by the client.
+     *
+     * @param createdFrom earliest creation date
+     * @param language    programming language filter
+     * @param limit       maximum number of repositories to return
+     * @return a list of scored repositories
+     */
+    private List<ScoreRepo> fetchAndScoreNow(final String createdFrom, final String language, final int limit) {
+        if (snapshotMode == SnapshotMode.SERVE) {
+            return scoringTimer.record(() -> rankSnapshot(createdFrom, language, limit, scoreCalculator));
+        }
+        final List<GitHubRepo> raw = fetchRaw(createdFrom, language, limit);
+        return scoringTimer.record(() -> rank(raw, limit, scoreCalculator));
+    }
+
+    /**
+     * Searches GitHub within the request deadline and keeps the unscored result in the
+     * {@link RawMetricsCache}, and in the snapshot when recording.
+     *
+     * @param createdFrom earliest creation date
+     * @param language    programming language filter
+     * @param limit       maximum number of repositories to fetch
+     * @return repositories in GitHub's rank order
+     */
+    private List<GitHubRepo> fetchRaw(final String createdFrom, final String language, final int limit) {
+        final List<GitHubRepo> raw = TaskScope.callWithin(requestTimeout,
+                () -> gitHubClient.searchRepos(createdFrom, language, limit));
+        if (snapshotMode == SnapshotMode.RECORD) {
+            snapshot.upsert(raw);
+        }
+        rawMetrics.put(createdFrom, language, limit, raw);
+        return raw;
+    }
+
+    /**
+     * Scores repositories against one clock and keeps the best {@code limit}.
+     *
+     * @param raw        repositories to score
+     * @param limit      maximum number of repositories to return
+     * @param calculator scoring weights to apply
+     * @return scored repositories, best first
+     */
+    private static List<ScoreRepo> rank(final List<GitHubRepo> raw, final int limit, final ScoreCalculator calculator) {
+        final ScoringContext ctx = ScoringContext.now();
+        final TopK<ScoreRepo> top = new TopK<>(limit);
+        for (final GitHubRepo gh : raw) {
+            final double score = calculator.score(gh, ctx);
+            if (top.accepts(score)) {
+                top.offer(score, toScoreRepo(gh, score));
+            }
+        }
+        return List.copyOf(top.drainSorted());
+    }
+
+    /**
+     * Streaming variant of {@link #fetchAndScore}: scores each page of GitHub results as it
+     * arrives and hands it to {@code onPage} in fetch order, so the first repositories can be
+     * sent before later pages are fetched. Only the best {@code limit} repositories are kept,
+     * and only when a final ranking is requested.
+     * <p>Precomputed hot rankings and snapshot rankings are already complete and are
+     * delivered as a single page.</p>
+     * <p>Unlike {@link #localRanking}, a failed search does not fall back to stale results:
+     * earlier pages may already have been sent, and a stale ranking cannot replace them.</p>
+     *
+     * @param createdFrom earliest creation date
+     * @param language    programming language filter
+     * @param limit       maximum number of repositories to return
+     * @param ranked      whether to also compute the final ranking
+     * @param onPage      receives the scored repositories of each page
+     * @return the repositories ranked best first if {@code ranked}, otherwise an empty list
+     * @throws GitHubUnavailableException if GitHub is unavailable, even if stale results exist
+     */
+    public List<ScoreRepo> streamAndScore(
+            final String createdFrom,
+            final String language,
+            final int limit,
+            final boolean ranked,
+            final Consumer<List<ScoreRepo>> onPage
+    ) {
+        return streamAndScore(createdFrom, language, limit, ranked, ScoreOverrides.NONE, onPage);
+    }
+
+    /**
+     * Streaming variant of {@link #fetchAndScore(String, String, int, ScoreOverrides)}.
+     * Rankings with overrides are computed as a whole and delivered as a single page.
+     *
+     * @param createdFrom earliest creation date
+     * @param language    programming language filter
+     * @param limit       maximum number of repositories to return
+     * @param ranked      whether to also compute the final ranking
+     * @param overrides   weights and decay constant replacing the configured ones
+     * @param onPage      receives the scored repositories of each page
+     * @return the repositories ranked best first if {@code ranked}, otherwise an empty list
+     * @throws GitHubUnavailableException if GitHub is unavailable, even if stale results exist
+     */
+    public List<ScoreRepo> streamAndScore(
+            final String createdFrom,
+            final String language,
+            final int limit,
+            final boolean ranked,
+            final ScoreOverrides overrides,
+            final Consumer<List<ScoreRepo>> onPage
+    ) {
+        List<ScoreRepo> complete = overrides.isEmpty()
+                ? hotRankings.get(RankingKey.of(createdFrom, language, limit))
+                : liveRanking(createdFrom, language, limit, overrides);
+        if (complete == null && snapshotMode == SnapshotMode.SERVE) {
+            complete = scoringTimer.record(() -> rankSnapshot(createdFrom, language, limit, scoreCalculator));
+        }
+        if (complete != null) {
+            if (!complete.isEmpty()) onPage.accept(complete);
+            return ranked ? complete : List.of();
+        }
+
+        final ScoringContext ctx = ScoringContext.now();
+        final TopK<ScoreRepo> top = ranked ? new TopK<>(limit) : null;
+        final List<GitHubRepo> fetched = new ArrayList<>();
+        final Consumer<List<GitHubRepo>> scorePage = page -> {
+            if (snapshotMode == SnapshotMode.RECORD) {
+                snapshot.upsert(page);
+            }
+            fetched.addAll(page);
+            final List<ScoreRepo> scored = new ArrayList<>(page.size());
+            for (final GitHubRepo gh : page) {
+                final double score = scoreCalculator.score(gh, ctx);
+                final ScoreRepo repo = toScoreRepo(gh, score);
+                scored.add(repo);
+                if (top != null && top.accepts(score)) top.offer(score, repo);
+            }
+            onPage.accept(scored);
+        };
+        TaskScope.callWithin(requestTimeout, () -> gitHubClient.streamRepos(createdFrom, language, limit, scorePage));
+        rawMetrics.put(createdFrom, language, limit, fetched);
+        return top == null ? List.of() : List.copyOf(top.drainSorted());
+    }
+
+    /**
+     * Builds the API representation of a scored repository.
+     *
+     * @param gh    repository
+     * @param score its score
+     * @return scored repository
+     */
+    static ScoreRepo toScoreRepo(final GitHubRepo gh, final double score) {
+        return new ScoreRepo(
+                gh.full_name(),
+                gh.html_url(),
+                gh.language(),
+                gh.stargazers_count(),
+                gh.forks_count(),
+                gh.pushed_at(),
+                score
+        );
+    }
+
+    /**
+     * Ranks the snapshot with the same filters as the live search ({@code language:} and
+     * {@code pushed:>=}). When the snapshot is mirrored in a {@link RepoIndex}, only the
+     * requested language's rows on the heap are visited. Otherwise matching rows of the mapped
+     * columns are gathered into primitive chunks, scored with
+     * {@link ScoreCalculator#scoreBatch} and offered to a top-K heap by row; only the winning
+     * rows are materialized.
+     *
+     * @param createdFrom earliest push date (YYYY-MM-DD), or blank for any
+     * @param language    programming language filter, or blank for any
+     * @param limit       maximum number of repositories to return
+     * @param calculator  scoring weights to apply
+     * @return scored repositories, best first
+     */
+    private List<ScoreRepo> rankSnapshot(
+            final String createdFrom,
+            final String language,
+            final int limit,
+            final ScoreCalculator calculator
+    ) {
+        final long minPushed = createdFrom == null || createdFrom.isBlank()
+                ? Long.MIN_VALUE
+                : LocalDate.parse(createdFrom.trim()).atStartOfDay(ZoneOffset.UTC).toEpochSecond();
+        final long now = ScoringContext.now().epochSecond();
+
+        final RepoIndex heapIndex = snapshot.heapIndex();
+        if (heapIndex != null) {
+            return heapIndex.top(language, minPushed, limit, calculator, now).stream()
+                    .map(hit -> toScoreRepo(hit.repo(), hit.score()))
+                    .toList();
+        }
+
+        final boolean anyLanguage = language == null || language.isBlank();
+        final int languageId = anyLanguage ? SnapshotStore.NO_LANGUAGE : snapshot.languageId(language);
+        if (!anyLanguage && languageId == SnapshotStore.NO_LANGUAGE) return List.of();
+
+        return snapshot.read(view -> {
+            final int[] rows = new int[SNAPSHOT_CHUNK];
+            final int[] stars = new int[SNAPSHOT_CHUNK];
+            final int[] forks = new int[SNAPSHOT_CHUNK];
+            final long[] pushed = new long[SNAPSHOT_CHUNK];
+            final double[] scores = new double[SNAPSHOT_CHUNK];
+            final TopK<Hit> top = new TopK<>(limit);
+
+            int n = 0;
+            for (int row = 0; row < view.rows(); row++) {
+                if (!anyLanguage && view.languageId(row) != languageId) continue;
+                final long pushedAt = view.pushedAt(row);
+                if (minPushed != Long.MIN_VALUE && (pushedAt == ScoreCalculator.NO_PUSH || pushedAt < minPushed)) {
+                    continue;
+                }
+                rows[n] = row;
+                stars[n] = view.stars(row);
+                forks[n] = view.forks(row);
+                pushed[n] = pushedAt;
+                if (++n == SNAPSHOT_CHUNK) {
+                    offerChunk(calculator, top, rows, stars, forks, pushed, scores, n, now);
+                    n = 0;
+                }
+            }
+            offerChunk(calculator, top, rows, stars, forks, pushed, scores, n, now);
+
+            return top.drainSorted().stream()
+                    .map(hit -> toScoreRepo(view.repo(hit.row()), hit.score()))
+                    .toList();
+        });
+    }
+
+    /**
+     * Scores a gathered chunk of snapshot rows and offers them to the heap.
+     *
+     * @param calculator scoring weights to apply
+     * @param top        heap of the best rows so far
+     * @param rows       row indexes of the chunk
+     * @param stars      star counts of the chunk
+     * @param forks      fork counts of the chunk
+     * @param pushed     last pushes of the chunk
+     * @param scores     scratch buffer for the scores
+     * @param n          chunk size
+     * @param now        reference time in epoch seconds
+     */
+    private static void offerChunk(
+            final ScoreCalculator calculator,
+            final TopK<Hit> top,
+            final int[] rows,
+            final int[] stars,
+            final int[] forks,
+            final long[] pushed,
+            final double[] scores,
+            final int n,
+            final long now
+    ) {
+        if (n == 0) return;
+        calculator.scoreBatch(stars, forks, pushed, now, scores, n);
+        for (int i = 0; i < n; i++) {
+            if (top.accepts(scores[i])) top.offer(scores[i], new Hit(rows[i], scores[i]));
+        }
+    }
+
+    /**
+     * Key of a coalesced fetch. Background refreshes and interactive requests never share a
+     * flight, since a background call is shed where an interactive one would queue for
+     * rate-limit budget, and a request joining a shed flight would fail with it.
+     *
+     * @param key      normalized ranking request
+     * @param priority priority of the thread that starts or joins the flight
+     */
+    private record Flight(RankingKey key, RequestPriority priority) {
+
+        /**
+         * Keys a fetch by the calling thread's priority.
+         *
+         * @param key normalized ranking request
+         * @return flight key
+         */
+        static Flight of(final RankingKey key) {
+            return new Flight(key, RequestPriority.current());
+        }
+    }
+
+    /**
+     * A snapshot row retained by the top-K heap.
+     *
+     * @param row   snapshot row
+     * @param score its score
+     */
+    private record Hit(int row, double score) { }
 }
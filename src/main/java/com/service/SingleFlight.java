@@ -0,0 +1,71 @@
+package com.service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent calls for the same key into a single execution.
+ * <p>The first caller for a key runs the loader; callers arriving while it is in flight
+ * wait on the same future and receive the same result or the same exception. The entry
+ * is removed as soon as the call completes, so nothing is cached beyond the flight.</p>
+ *
+ * @param <K> key type
+ * @param <V> result type
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Runs the loader for the key, or joins the execution already in flight for it.
+     *
+     * @param key    normalized request key
+     * @param loader computes the result when no call for the key is in flight
+     * @return the shared result
+     */
+    public V execute(final K key, final Supplier<V> loader) {
+        final CompletableFuture<V> mine = new CompletableFuture<>();
+        final CompletableFuture<V> existing = inFlight.putIfAbsent(key, mine);
+        if (existing != null) {
+            return join(existing);
+        }
+
+        try {
+            final V value = loader.get();
+            mine.complete(value);
+            return value;
+        } catch (final RuntimeException | Error e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    /**
+     * Number of keys currently being loaded.
+     *
+     * @return in-flight key count
+     */
+    public int inFlight() {
+        return inFlight.size();
+    }
+
+    /**
+     * Waits for a shared execution and rethrows its failure unwrapped.
+     *
+     * @param future the leader's future
+     * @return the leader's result
+     */
+    private V join(final CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (final CompletionException e) {
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            if (e.getCause() instanceof Error err) throw err;
+            throw e;
+        }
+    }
+}
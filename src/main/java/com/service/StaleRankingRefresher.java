@@ -0,0 +1,73 @@
+package com.service;
+
+import com.client.CircuitBreaker;
+import com.client.RequestPriority;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Refetches the searches that were answered with stale rankings as soon as the
+ * {@link CircuitBreaker} closes again, so that the results kept for the next outage are
+ * current. Refreshes run on a dedicated daemon thread as {@link RequestPriority#BACKGROUND}
+ * and never delay the request whose probe closed the circuit.
+ */
+@Component
+public class StaleRankingRefresher {
+
+    private static final Logger log = LoggerFactory.getLogger(StaleRankingRefresher.class);
+
+    private final ScoringService scoringService;
+    private final CircuitBreaker breaker;
+
+    private ExecutorService executor;
+
+    /**
+     * Creates the refresher.
+     *
+     * @param scoringService service holding the stale searches
+     * @param breaker        circuit breaker whose closing triggers the refresh
+     */
+    public StaleRankingRefresher(final ScoringService scoringService, final CircuitBreaker breaker) {
+        this.scoringService = scoringService;
+        this.breaker = breaker;
+    }
+
+    /**
+     * Starts the refresh thread and subscribes to the circuit closing.
+     */
+    @PostConstruct
+    public void start() {
+        executor = Executors.newSingleThreadExecutor(r -> {
+            final Thread t = new Thread(r, "stale-ranking-refresher");
+            t.setDaemon(true);
+            return t;
+        });
+        breaker.onClose(() -> executor.execute(this::refresh));
+    }
+
+    /**
+     * Stops the refresh thread, interrupting a refresh in progress.
+     */
+    @PreDestroy
+    public void stop() {
+        if (executor != null) executor.shutdownNow();
+    }
+
+    /**
+     * Refetches the stale searches. Never throws, so that the executor stays usable.
+     */
+    void refresh() {
+        try {
+            final int refreshed = RequestPriority.callAs(RequestPriority.BACKGROUND, scoringService::refreshStale);
+            if (refreshed > 0) log.info("Refreshed {} stale searches after the GitHub circuit closed", refreshed);
+        } catch (final RuntimeException e) {
+            log.warn("Refreshing stale searches failed; they stay pending: {}", e.toString());
+        }
+    }
+}
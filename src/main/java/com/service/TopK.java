@@ -0,0 +1,164 @@
+package com.service;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Bounded collector of the {@code k} highest-scoring items.
+ * <p>Backed by a binary min-heap over parallel primitive arrays, so the worst retained
+ * item sits at the root and each offer costs {@code O(log k)} with no boxing. Items can
+ * be offered incrementally, for example page by page as results arrive. Memory stays at
+ * {@code O(k)} regardless of how many items are offered.</p>
+ * <p>Ties are broken deterministically by arrival order: of two equal scores the earlier
+ * item ranks higher, which matches a stable descending sort of the input.</p>
+ *
+ * @param <T> item type
+ */
+public class TopK<T> {
+
+    private final int k;
+    private final double[] scores;
+    private final long[] seqs;
+    private final Object[] items;
+    private int size;
+    private long nextSeq;
+
+    /**
+     * Creates an empty collector.
+     *
+     * @param k maximum number of items retained; values below 1 retain nothing
+     */
+    public TopK(final int k) {
+        this.k = Math.max(0, k);
+        this.scores = new double[this.k];
+        this.seqs = new long[this.k];
+        this.items = new Object[this.k];
+    }
+
+    /**
+     * Whether an item with the given score would currently be retained.
+     * Lets callers skip building items that would be rejected anyway.
+     *
+     * @param score candidate score
+     * @return true if {@link #offer} would keep an item with this score
+     */
+    public boolean accepts(final double score) {
+        return size < k || (k > 0 && Double.compare(score, scores[0]) > 0);
+    }
+
+    /**
+     * Offers an item, evicting the current worst one if the collector is full.
+     *
+     * @param score item score
+     * @param item  item to retain
+     * @return true if the item was retained
+     */
+    public boolean offer(final double score, final T item) {
+        final long seq = nextSeq++;
+        if (size < k) {
+            scores[size] = score;
+            seqs[size] = seq;
+            items[size] = item;
+            siftUp(size++);
+            return true;
+        }
+        if (k == 0 || Double.compare(score, scores[0]) <= 0) {
+            return false;
+        }
+        scores[0] = score;
+        seqs[0] = seq;
+        items[0] = item;
+        siftDown(0);
+        return true;
+    }
+
+    /**
+     * Number of retained items.
+     *
+     * @return retained count, at most {@code k}
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Removes all retained items and returns them ordered best first.
+     *
+     * @return items by descending score, ties in arrival order
+     */
+    @SuppressWarnings("unchecked")
+    public List<T> drainSorted() {
+        final Object[] out = new Object[size];
+        while (size > 0) {
+            out[size - 1] = items[0];
+            size--;
+            scores[0] = scores[size];
+            seqs[0] = seqs[size];
+            items[0] = items[size];
+            items[size] = null;
+            siftDown(0);
+        }
+        return (List<T>) Arrays.asList(out);
+    }
+
+    /**
+     * Whether slot {@code a} ranks below slot {@code b}.
+     *
+     * @param a heap slot
+     * @param b heap slot
+     * @return true if {@code a} is the worse item
+     */
+    private boolean worse(final int a, final int b) {
+        final int c = Double.compare(scores[a], scores[b]);
+        return c < 0 || (c == 0 && seqs[a] > seqs[b]);
+    }
+
+    /**
+     * Restores the heap property upwards from a slot.
+     *
+     * @param i slot index
+     */
+    private void siftUp(int i) {
+        while (i > 0) {
+            final int parent = (i - 1) >>> 1;
+            if (!worse(i, parent)) break;
+            swap(i, parent);
+            i = parent;
+        }
+    }
+
+    /**
+     * Restores the heap property downwards from a slot.
+     *
+     * @param i slot index
+     */
+    private void siftDown(int i) {
+        while (true) {
+            final int left = 2 * i + 1;
+            if (left >= size) break;
+            final int right = left + 1;
+            final int child = right < size && worse(right, left) ? right : left;
+            if (!worse(child, i)) break;
+            swap(i, child);
+            i = child;
+        }
+    }
+
+    /**
+     * Swaps two heap slots across all parallel arrays.
+     *
+     * @param a slot index
+     * @param b slot index
+     */
+    private void swap(final int a, final int b) {
+        final double s = scores[a];
+        scores[a] = scores[b];
+        scores[b] = s;
+        final long q = seqs[a];
+        seqs[a] = seqs[b];
+        seqs[b] = q;
+        final Object o = items[a];
+        items[a] = items[b];
+        items[b] = o;
+    }
+}
@@ -0,0 +1,112 @@
+package com.store;
+
+/**
+ * Open-addressing hash map from repository id to snapshot row, backed by two primitive
+ * arrays so that millions of entries cost a few bytes each and no boxing.
+ * <p>Ids must be positive; 0 marks an empty slot. Not thread-safe.</p>
+ */
+final class IdIndex {
+
+    private static final int MISSING = -1;
+
+    private long[] keys;
+    private int[] rows;
+    private int size;
+
+    /**
+     * Creates an index sized for the expected number of ids.
+     *
+     * @param expected expected number of entries
+     */
+    IdIndex(final int expected) {
+        final int capacity = Integer.highestOneBit(Math.max(16, expected * 2 - 1)) << 1;
+        this.keys = new long[capacity];
+        this.rows = new int[capacity];
+    }
+
+    /**
+     * Looks up the row of an id.
+     *
+     * @param id repository id
+     * @return row, or -1 if the id is not indexed
+     */
+    int get(final long id) {
+        final int mask = keys.length - 1;
+        for (int slot = mix(id) & mask; ; slot = (slot + 1) & mask) {
+            final long key = keys[slot];
+            if (key == id) return rows[slot];
+            if (key == 0) return MISSING;
+        }
+    }
+
+    /**
+     * Maps an id to a row, replacing any previous mapping.
+     *
+     * @param id  repository id, positive
+     * @param row snapshot row
+     */
+    void put(final long id, final int row) {
+        if ((size + 1) * 2 > keys.length) grow();
+        if (insert(keys, rows, id, row)) size++;
+    }
+
+    /**
+     * Number of indexed ids.
+     *
+     * @return entry count
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Doubles the table and rehashes every entry.
+     */
+    private void grow() {
+        final long[] oldKeys = keys;
+        final int[] oldRows = rows;
+        keys = new long[oldKeys.length * 2];
+        rows = new int[oldRows.length * 2];
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != 0) insert(keys, rows, oldKeys[i], oldRows[i]);
+        }
+    }
+
+    /**
+     * Inserts or replaces an entry in the given table.
+     *
+     * @param keys table keys
+     * @param rows table values
+     * @param id   key
+     * @param row  value
+     * @return true if a new key was added
+     */
+    private static boolean insert(final long[] keys, final int[] rows, final long id, final int row) {
+        final int mask = keys.length - 1;
+        for (int slot = mix(id) & mask; ; slot = (slot + 1) & mask) {
+            if (keys[slot] == id) {
+                rows[slot] = row;
+                return false;
+            }
+            if (keys[slot] == 0) {
+                keys[slot] = id;
+                rows[slot] = row;
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Spreads sequential ids across the table (Murmur3 finalizer).
+     *
+     * @param id repository id
+     * @return hash
+     */
+    private static int mix(final long id) {
+        long h = id;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        return (int) h;
+    }
+}
@@ -0,0 +1,461 @@
+package com.store;
+
+import com.parser.TimestampParser;
+import com.repo.GitHubRepo;
+import com.service.ScoreCalculator;
+import com.service.TopK;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Heap-resident columnar index of repository metrics, for ranking a full catalog in memory.
+ * <p>One row per repository id. Stars and forks are {@code int[]} columns, the last push an
+ * {@code long[]} of epoch seconds, the archived flags a {@link BitSet}, and the language a
+ * {@code short} id into a case-insensitive dictionary, so each language name is held once.
+ * {@code full_name} is kept as UTF-8 in a shared byte array, and {@code html_url} only when
+ * it is not the usual {@code https://github.com/<full_name>}. A row costs around a hundred
+ * bytes including its name and id lookup, a fraction of a {@link GitHubRepo} record.</p>
+ * <p>Every language has a posting list of its rows in row order, so a ranking for one
+ * language only visits that language's rows. Rankings score the matching rows in chunks with
+ * {@link ScoreCalculator#scoreBatch}, keep the best in a {@link TopK} heap and materialize
+ * only the winners. They visit rows in row order, so ties rank as in a full scan of the
+ * {@link SnapshotStore}.</p>
+ * <p>Writes are upserts by id. Readers share a lock that writers take exclusively.</p>
+ */
+public final class RepoIndex {
+
+    private static final int INITIAL_ROWS = 1024;
+    private static final int INITIAL_NAME_BYTES = 16 * 1024;
+    private static final int NO_NAME = -1;
+    private static final int CHUNK = 4096;
+    private static final String GITHUB = "https://github.com/";
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final IdIndex index;
+    private final BitSet archived = new BitSet();
+    private final Map<Integer, String> urls = new HashMap<>();
+    private final List<String> languageNames = new ArrayList<>();
+    private final Map<String, Integer> languageIds = new HashMap<>();
+    private final List<Postings> postings = new ArrayList<>();
+
+    private long[] ids;
+    private int[] stars;
+    private int[] forks;
+    private long[] pushed;
+    private short[] languages;
+    private int[] names;
+    private byte[] nameBytes;
+    private int nameEnd;
+    private int rows;
+
+    /**
+     * Creates an empty index.
+     */
+    public RepoIndex() {
+        this(INITIAL_ROWS);
+    }
+
+    /**
+     * Creates an empty index sized for the expected number of repositories.
+     *
+     * @param expected expected row count
+     */
+    public RepoIndex(final int expected) {
+        final int capacity = Math.max(INITIAL_ROWS, expected);
+        this.index = new IdIndex(capacity);
+        this.ids = new long[capacity];
+        this.stars = new int[capacity];
+        this.forks = new int[capacity];
+        this.pushed = new long[capacity];
+        this.languages = new short[capacity];
+        this.names = new int[capacity];
+        this.nameBytes = new byte[INITIAL_NAME_BYTES];
+    }
+
+    /**
+     * Inserts new repositories and overwrites the metrics of known ones.
+     * Repositories without an id (id 0) cannot be matched across fetches and are skipped.
+     *
+     * @param repos fetched repositories
+     * @return number of rows inserted or updated
+     */
+    public int upsert(final List<GitHubRepo> repos) {
+        lock.writeLock().lock();
+        try {
+            int written = 0;
+            for (final GitHubRepo r : repos) {
+                if (r.id() <= 0) continue;
+                put(r.id(), r.full_name(), r.html_url(), r.language(), r.stargazers_count(), r.forks_count(),
+                        r.pushed_at() == null ? ScoreCalculator.NO_PUSH : TimestampParser.epochSeconds(r.pushed_at()),
+                        r.archived());
+                written++;
+            }
+            return written;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Inserts or overwrites one row. Callers hold the write lock or own the index exclusively.
+     *
+     * @param id        repository id, positive
+     * @param fullName  {@code owner/name}, may be null
+     * @param htmlUrl   repository page, may be null
+     * @param language  language name, may be null
+     * @param stars     stargazers
+     * @param forks     forks
+     * @param pushedAt  last push in epoch seconds, or {@link ScoreCalculator#NO_PUSH}
+     * @param archived  whether the repository is archived
+     */
+    void put(
+            final long id,
+            final String fullName,
+            final String htmlUrl,
+            final String language,
+            final int stars,
+            final int forks,
+            final long pushedAt,
+            final boolean archived
+    ) {
+        int row = index.get(id);
+        final int languageId = internLanguage(language);
+        if (row < 0) {
+            row = rows;
+            reserveRows(row + 1);
+            ids[row] = id;
+            names[row] = appendName(fullName);
+            rows++;
+            index.put(id, row);
+            if (languageId != SnapshotStore.NO_LANGUAGE) postings.get(languageId).add(row);
+        } else {
+            if (!bytesEqual(names[row], fullName)) names[row] = appendName(fullName);
+            final int previous = languages[row];
+            if (previous != languageId) {
+                if (previous != SnapshotStore.NO_LANGUAGE) postings.get(previous).remove(row);
+                if (languageId != SnapshotStore.NO_LANGUAGE) postings.get(languageId).insert(row);
+            }
+        }
+        this.stars[row] = stars;
+        this.forks[row] = forks;
+        this.pushed[row] = pushedAt;
+        this.languages[row] = (short) languageId;
+        this.archived.set(row, archived);
+        if (fullName != null && (GITHUB + fullName).equals(htmlUrl)) {
+            urls.remove(row);
+        } else {
+            urls.put(row, htmlUrl);
+        }
+    }
+
+    /**
+     * Looks up the id of a language name, ignoring case.
+     *
+     * @param language language name
+     * @return language id, or {@link SnapshotStore#NO_LANGUAGE} if no indexed repository uses it
+     */
+    public int languageId(final String language) {
+        if (language == null) return SnapshotStore.NO_LANGUAGE;
+        lock.readLock().lock();
+        try {
+            return languageIds.getOrDefault(language.trim().toLowerCase(Locale.ROOT), SnapshotStore.NO_LANGUAGE);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Number of indexed repositories.
+     *
+     * @return row count
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return rows;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Ranks the repositories of a language pushed since a point in time.
+     *
+     * @param language   language name, ignoring case, or blank for any
+     * @param minPushed  earliest last push in epoch seconds, or {@link Long#MIN_VALUE} for any;
+     *                   repositories without a known push only match the latter
+     * @param limit      maximum number of repositories to return
+     * @param calculator scoring weights to apply
+     * @param now        reference time in epoch seconds
+     * @return the best repositories with their scores, best first
+     */
+    public List<Scored> top(
+            final String language,
+            final long minPushed,
+            final int limit,
+            final ScoreCalculator calculator,
+            final long now
+    ) {
+        final boolean anyLanguage = language == null || language.isBlank();
+        lock.readLock().lock();
+        try {
+            final Postings candidates;
+            if (anyLanguage) {
+                candidates = null;
+            } else {
+                final Integer languageId = languageIds.get(language.trim().toLowerCase(Locale.ROOT));
+                if (languageId == null) return List.of();
+                candidates = postings.get(languageId);
+            }
+            final int count = candidates == null ? rows : candidates.size;
+            final int chunk = Math.max(1, Math.min(CHUNK, count));
+            final int[] rowBuf = new int[chunk];
+            final int[] starBuf = new int[chunk];
+            final int[] forkBuf = new int[chunk];
+            final long[] pushedBuf = new long[chunk];
+            final double[] scores = new double[chunk];
+            final TopK<Hit> top = new TopK<>(limit);
+
+            int n = 0;
+            for (int i = 0; i < count; i++) {
+                final int row = candidates == null ? i : candidates.rows[i];
+                final long pushedAt = pushed[row];
+                if (minPushed != Long.MIN_VALUE && (pushedAt == ScoreCalculator.NO_PUSH || pushedAt < minPushed)) {
+                    continue;
+                }
+                rowBuf[n] = row;
+                starBuf[n] = stars[row];
+                forkBuf[n] = forks[row];
+                pushedBuf[n] = pushedAt;
+                if (++n == chunk) {
+                    offerChunk(calculator, top, rowBuf, starBuf, forkBuf, pushedBuf, scores, n, now);
+                    n = 0;
+                }
+            }
+            offerChunk(calculator, top, rowBuf, starBuf, forkBuf, pushedBuf, scores, n, now);
+
+            final List<Scored> ranked = new ArrayList<>(top.size());
+            for (final Hit hit : top.drainSorted()) {
+                ranked.add(new Scored(repo(hit.row()), hit.score()));
+            }
+            return ranked;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Scores a gathered chunk of rows and offers them to the heap.
+     *
+     * @param calculator scoring weights to apply
+     * @param top        heap of the best rows so far
+     * @param rows       row indexes of the chunk
+     * @param stars      star counts of the chunk
+     * @param forks      fork counts of the chunk
+     * @param pushed     last pushes of the chunk
+     * @param scores     scratch buffer for the scores
+     * @param n          chunk size
+     * @param now        reference time in epoch seconds
+     */
+    private static void offerChunk(
+            final ScoreCalculator calculator,
+            final TopK<Hit> top,
+            final int[] rows,
+            final int[] stars,
+            final int[] forks,
+            final long[] pushed,
+            final double[] scores,
+            final int n,
+            final long now
+    ) {
+        if (n == 0) return;
+        calculator.scoreBatch(stars, forks, pushed, now, scores, n);
+        for (int i = 0; i < n; i++) {
+            if (top.accepts(scores[i])) top.offer(scores[i], new Hit(rows[i], scores[i]));
+        }
+    }
+
+    /**
+     * Materializes a row as a {@link GitHubRepo}.
+     *
+     * @param row row index
+     * @return repository record
+     */
+    private GitHubRepo repo(final int row) {
+        final String fullName = name(names[row]);
+        final int language = languages[row];
+        return new GitHubRepo(
+                ids[row],
+                fullName,
+                urls.containsKey(row) ? urls.get(row) : GITHUB + fullName,
+                language == SnapshotStore.NO_LANGUAGE ? null : languageNames.get(language),
+                stars[row],
+                forks[row],
+                pushed[row] == ScoreCalculator.NO_PUSH ? null : Instant.ofEpochSecond(pushed[row]).toString(),
+                archived.get(row)
+        );
+    }
+
+    /**
+     * Grows every row column so that it can hold the given number of rows.
+     *
+     * @param needed required row capacity
+     */
+    private void reserveRows(final int needed) {
+        if (needed <= ids.length) return;
+        final int capacity = Math.max(needed, ids.length * 2);
+        ids = Arrays.copyOf(ids, capacity);
+        stars = Arrays.copyOf(stars, capacity);
+        forks = Arrays.copyOf(forks, capacity);
+        pushed = Arrays.copyOf(pushed, capacity);
+        languages = Arrays.copyOf(languages, capacity);
+        names = Arrays.copyOf(names, capacity);
+    }
+
+    /**
+     * Appends a length-prefixed UTF-8 name to the name bytes.
+     *
+     * @param value name, may be null
+     * @return offset of the entry, or {@code NO_NAME} for null
+     */
+    private int appendName(final String value) {
+        if (value == null) return NO_NAME;
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        final long end = (long) nameEnd + Short.BYTES + bytes.length;
+        if (bytes.length > 0xFFFF || end > Integer.MAX_VALUE - 8) {
+            throw new IllegalStateException("Repository name does not fit the index: " + value);
+        }
+        if (end > nameBytes.length) {
+            nameBytes = Arrays.copyOf(nameBytes, (int) Math.min(Integer.MAX_VALUE - 8, Math.max(end, nameBytes.length * 2L)));
+        }
+        final int offset = nameEnd;
+        nameBytes[offset] = (byte) (bytes.length >>> 8);
+        nameBytes[offset + 1] = (byte) bytes.length;
+        System.arraycopy(bytes, 0, nameBytes, offset + Short.BYTES, bytes.length);
+        nameEnd = (int) end;
+        return offset;
+    }
+
+    /**
+     * Reads a name from the name bytes.
+     *
+     * @param offset entry offset, or {@code NO_NAME}
+     * @return the name, or null
+     */
+    private String name(final int offset) {
+        if (offset == NO_NAME) return null;
+        return new String(nameBytes, offset + Short.BYTES, nameLength(offset), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Whether the stored name at an offset equals a value, without decoding it.
+     *
+     * @param offset entry offset, or {@code NO_NAME}
+     * @param value  name to compare, may be null
+     * @return true if both are null or hold the same characters
+     */
+    private boolean bytesEqual(final int offset, final String value) {
+        if (offset == NO_NAME || value == null) return offset == NO_NAME && value == null;
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        return Arrays.equals(nameBytes, offset + Short.BYTES, offset + Short.BYTES + nameLength(offset),
+                bytes, 0, bytes.length);
+    }
+
+    /**
+     * Length of the name entry at an offset.
+     *
+     * @param offset entry offset
+     * @return UTF-8 byte length
+     */
+    private int nameLength(final int offset) {
+        return ((nameBytes[offset] & 0xFF) << 8) | (nameBytes[offset + 1] & 0xFF);
+    }
+
+    /**
+     * Returns the id of a language, adding it to the dictionary if it is new.
+     *
+     * @param language language name, may be null
+     * @return language id, or {@link SnapshotStore#NO_LANGUAGE} for null
+     */
+    private int internLanguage(final String language) {
+        if (language == null) return SnapshotStore.NO_LANGUAGE;
+        final String key = language.toLowerCase(Locale.ROOT);
+        final Integer known = languageIds.get(key);
+        if (known != null) return known;
+        if (languageNames.size() == Short.MAX_VALUE) {
+            throw new IllegalStateException("Language dictionary is full");
+        }
+        final int id = languageNames.size();
+        languageNames.add(language);
+        languageIds.put(key, id);
+        postings.add(new Postings());
+        return id;
+    }
+
+    /**
+     * A repository of a ranking with its score.
+     *
+     * @param repo  repository
+     * @param score its score
+     */
+    public record Scored(GitHubRepo repo, double score) { }
+
+    /**
+     * A row retained by the top-K heap.
+     *
+     * @param row   row index
+     * @param score its score
+     */
+    private record Hit(int row, double score) { }
+
+    /**
+     * Rows of one language in ascending row order.
+     */
+    private static final class Postings {
+
+        private int[] rows = new int[8];
+        private int size;
+
+        /**
+         * Appends a row greater than every row present.
+         *
+         * @param row row index
+         */
+        void add(final int row) {
+            if (size == rows.length) rows = Arrays.copyOf(rows, size * 2);
+            rows[size++] = row;
+        }
+
+        /**
+         * Inserts a row at its position in row order.
+         *
+         * @param row row index, not present
+         */
+        void insert(final int row) {
+            final int at = -Arrays.binarySearch(rows, 0, size, row) - 1;
+            add(row);
+            System.arraycopy(rows, at, rows, at + 1, size - 1 - at);
+            rows[at] = row;
+        }
+
+        /**
+         * Removes a row.
+         *
+         * @param row row index, present
+         */
+        void remove(final int row) {
+            final int at = Arrays.binarySearch(rows, 0, size, row);
+            System.arraycopy(rows, at + 1, rows, at, size - at - 1);
+            size--;
+        }
+    }
+}
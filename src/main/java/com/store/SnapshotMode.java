@@ -0,0 +1,16 @@
+package com.store;
+
+/**
+ * How {@code ScoringService} uses the {@link SnapshotStore}.
+ */
+public enum SnapshotMode {
+
+    /** Rank live GitHub results; the snapshot is not opened. */
+    OFF,
+
+    /** Rank live GitHub results and upsert every fetched repository into the snapshot. */
+    RECORD,
+
+    /** Rank from the snapshot only, without calling GitHub. */
+    SERVE
+}
@@ -0,0 +1,573 @@
+package com.store;
+
+import com.parser.TimestampParser;
+import com.repo.GitHubRepo;
+import com.service.ScoreCalculator;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+/**
+ * Local snapshot of repository metrics kept in memory-mapped, fixed-width column files.
+ * <p>One row per repository id. The id, stars, forks, pushed-at epoch seconds, archived flag
+ * and language id each live in their own column file. {@code full_name} and
+ * {@code html_url} are stored as offsets into an append-only string table, and language
+ * names in a small dictionary file. The heap holds only the id→row index and that dictionary,
+ * so rankings can be served over millions of rows. The page cache keeps the data warm
+ * across restarts.</p>
+ * <p>Writes are upserts by id: a known id has its metrics overwritten in place. The row
+ * count is published in {@code meta.bin} after each batch, so a crash mid-batch leaves at
+ * most unpublished rows behind. Readers run under a shared lock, and writers take it
+ * exclusively because growing a column re-maps its file.</p>
+ * <p>Optionally the rows are also loaded into a {@link RepoIndex} on the heap when the store
+ * is opened, and every upsert is applied to both, so rankings can skip the mapped files.</p>
+ */
+public final class SnapshotStore implements Closeable {
+
+    /** Language id of repositories without a language, and lookup result for unknown names. */
+    public static final int NO_LANGUAGE = -1;
+
+    private static final int MAGIC = 0x47485353; // "GHSS"
+    private static final int VERSION = 1;
+    private static final int META_ROWS = 8;
+    private static final int META_STRINGS_END = 12;
+    private static final int META_BYTES = 16;
+    private static final int NO_STRING = -1;
+    private static final int INITIAL_ROWS = 1024;
+    private static final int INITIAL_STRING_BYTES = 64 * 1024;
+
+    private final boolean enabled;
+    private final Path dir;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Column meta;
+    private final Column ids;
+    private final Column stars;
+    private final Column forks;
+    private final Column pushed;
+    private final Column archived;
+    private final Column languages;
+    private final Column names;
+    private final Column urls;
+    private final Column strings;
+
+    private final IdIndex index;
+    private final RepoIndex heapIndex;
+    private final List<String> languageNames = new ArrayList<>();
+    private final Map<String, Integer> languageIds = new HashMap<>();
+
+    private int rows;
+    private int stringsEnd;
+
+    /**
+     * Creates a store that holds nothing and ignores writes.
+     */
+    private SnapshotStore() {
+        this.enabled = false;
+        this.dir = null;
+        this.meta = null;
+        this.ids = null;
+        this.stars = null;
+        this.forks = null;
+        this.pushed = null;
+        this.archived = null;
+        this.languages = null;
+        this.names = null;
+        this.urls = null;
+        this.strings = null;
+        this.index = new IdIndex(0);
+        this.heapIndex = null;
+    }
+
+    /**
+     * Opens the column files in a directory, creating them if needed.
+     *
+     * @param dir       snapshot directory
+     * @param heapIndex whether to also keep the rows in a {@link RepoIndex}
+     * @throws IOException if the files cannot be opened or mapped
+     */
+    private SnapshotStore(final Path dir, final boolean heapIndex) throws IOException {
+        Files.createDirectories(dir);
+        this.enabled = true;
+        this.dir = dir;
+        this.meta = new Column(dir.resolve("meta.bin"), META_BYTES);
+        if (meta.buffer.getInt(0) == 0) {
+            meta.buffer.putInt(0, MAGIC);
+            meta.buffer.putInt(4, VERSION);
+        } else if (meta.buffer.getInt(0) != MAGIC || meta.buffer.getInt(4) != VERSION) {
+            throw new IOException("Not a version " + VERSION + " snapshot: " + dir);
+        }
+        this.rows = meta.buffer.getInt(META_ROWS);
+        this.stringsEnd = meta.buffer.getInt(META_STRINGS_END);
+
+        final long capacity = Math.max(INITIAL_ROWS, rows);
+        this.ids = new Column(dir.resolve("id.col"), capacity * Long.BYTES);
+        this.stars = new Column(dir.resolve("stars.col"), capacity * Integer.BYTES);
+        this.forks = new Column(dir.resolve("forks.col"), capacity * Integer.BYTES);
+        this.pushed = new Column(dir.resolve("pushed.col"), capacity * Long.BYTES);
+        this.archived = new Column(dir.resolve("archived.col"), capacity);
+        this.languages = new Column(dir.resolve("language.col"), capacity * Short.BYTES);
+        this.names = new Column(dir.resolve("name.col"), capacity * Integer.BYTES);
+        this.urls = new Column(dir.resolve("url.col"), capacity * Integer.BYTES);
+        this.strings = new Column(dir.resolve("strings.bin"), Math.max(INITIAL_STRING_BYTES, stringsEnd));
+
+        final Path dictionary = dir.resolve("languages.txt");
+        if (Files.exists(dictionary)) {
+            for (final String name : Files.readAllLines(dictionary, StandardCharsets.UTF_8)) {
+                registerLanguage(name);
+            }
+        }
+
+        this.index = new IdIndex(rows);
+        for (int row = 0; row < rows; row++) {
+            index.put(ids.buffer.getLong(row * Long.BYTES), row);
+        }
+
+        this.heapIndex = heapIndex ? new RepoIndex(rows) : null;
+        if (heapIndex) {
+            final View view = new View(rows);
+            for (int row = 0; row < rows; row++) {
+                final int language = view.languageId(row);
+                this.heapIndex.put(
+                        view.id(row),
+                        string(names.buffer.getInt(row * Integer.BYTES)),
+                        string(urls.buffer.getInt(row * Integer.BYTES)),
+                        language == NO_LANGUAGE ? null : languageNames.get(language),
+                        view.stars(row),
+                        view.forks(row),
+                        view.pushedAt(row),
+                        view.archived(row));
+            }
+        }
+    }
+
+    /**
+     * Opens or creates the snapshot in a directory.
+     *
+     * @param dir snapshot directory
+     * @return open store
+     * @throws IOException if the files cannot be opened or are not a snapshot
+     */
+    public static SnapshotStore open(final Path dir) throws IOException {
+        return new SnapshotStore(dir, false);
+    }
+
+    /**
+     * Opens or creates the snapshot in a directory and loads it into a {@link RepoIndex}.
+     *
+     * @param dir snapshot directory
+     * @return open store whose {@link #heapIndex()} mirrors it
+     * @throws IOException if the files cannot be opened or are not a snapshot
+     */
+    public static SnapshotStore openWithHeapIndex(final Path dir) throws IOException {
+        return new SnapshotStore(dir, true);
+    }
+
+    /**
+     * Returns a store that holds nothing and ignores writes.
+     *
+     * @return disabled store
+     */
+    public static SnapshotStore disabled() {
+        return new SnapshotStore();
+    }
+
+    /**
+     * Whether the store is backed by files.
+     *
+     * @return true unless created by {@link #disabled()}
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * The heap-resident copy of the rows, kept current by {@link #upsert}.
+     *
+     * @return the index, or null unless opened with {@link #openWithHeapIndex}
+     */
+    public RepoIndex heapIndex() {
+        return heapIndex;
+    }
+
+    /**
+     * Inserts new repositories and overwrites the metrics of known ones.
+     * Repositories without an id (id 0) cannot be matched across fetches and are skipped.
+     *
+     * @param repos fetched repositories
+     * @return number of rows inserted or updated
+     */
+    public int upsert(final List<GitHubRepo> repos) {
+        if (!enabled) return 0;
+        lock.writeLock().lock();
+        try {
+            int written = 0;
+            for (final GitHubRepo r : repos) {
+                if (r.id() <= 0) continue;
+                int row = index.get(r.id());
+                if (row < 0) {
+                    row = rows;
+                    reserveRows(row + 1);
+                    ids.buffer.putLong(row * Long.BYTES, r.id());
+                    names.buffer.putInt(row * Integer.BYTES, appendString(r.full_name()));
+                    urls.buffer.putInt(row * Integer.BYTES, appendString(r.html_url()));
+                    rows++;
+                    index.put(r.id(), row);
+                } else {
+                    if (!Objects.equals(string(names.buffer.getInt(row * Integer.BYTES)), r.full_name())) {
+                        names.buffer.putInt(row * Integer.BYTES, appendString(r.full_name()));
+                    }
+                    if (!Objects.equals(string(urls.buffer.getInt(row * Integer.BYTES)), r.html_url())) {
+                        urls.buffer.putInt(row * Integer.BYTES, appendString(r.html_url()));
+                    }
+                }
+                stars.buffer.putInt(row * Integer.BYTES, r.stargazers_count());
+                forks.buffer.putInt(row * Integer.BYTES, r.forks_count());
+                pushed.buffer.putLong(row * Long.BYTES, r.pushed_at() == null
+                        ? ScoreCalculator.NO_PUSH
+                        : TimestampParser.epochSeconds(r.pushed_at()));
+                archived.buffer.put(row, (byte) (r.archived() ? 1 : 0));
+                languages.buffer.putShort(row * Short.BYTES, (short) internLanguage(r.language()));
+                written++;
+            }
+            meta.buffer.putInt(META_ROWS, rows);
+            meta.buffer.putInt(META_STRINGS_END, stringsEnd);
+            if (heapIndex != null) heapIndex.upsert(repos);
+            return written;
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Looks up the id of a language name, ignoring case.
+     *
+     * @param language language name
+     * @return language id, or {@link #NO_LANGUAGE} if no stored repository uses it
+     */
+    public int languageId(final String language) {
+        if (language == null) return NO_LANGUAGE;
+        lock.readLock().lock();
+        try {
+            return languageIds.getOrDefault(language.trim().toLowerCase(Locale.ROOT), NO_LANGUAGE);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Number of stored repositories.
+     *
+     * @return row count
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return rows;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Runs a reader against a consistent view of the snapshot. Writers wait until it returns.
+     *
+     * @param reader function reading rows through the view; must not retain the view
+     * @param <T>    result type
+     * @return the reader's result
+     */
+    public <T> T read(final Function<View, T> reader) {
+        lock.readLock().lock();
+        try {
+            return reader.apply(new View(rows));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Flushes the mapped columns to disk and closes the files.
+     *
+     * @throws IOException if a file cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        if (!enabled) return;
+        lock.writeLock().lock();
+        try {
+            for (final Column column : List.of(ids, stars, forks, pushed, archived, languages, names, urls, strings, meta)) {
+                column.close();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Grows every row column so that it can hold the given number of rows.
+     *
+     * @param needed required row capacity
+     * @throws IOException if a column cannot be re-mapped
+     */
+    private void reserveRows(final int needed) throws IOException {
+        ids.reserve((long) needed * Long.BYTES);
+        stars.reserve((long) needed * Integer.BYTES);
+        forks.reserve((long) needed * Integer.BYTES);
+        pushed.reserve((long) needed * Long.BYTES);
+        archived.reserve(needed);
+        languages.reserve((long) needed * Short.BYTES);
+        names.reserve((long) needed * Integer.BYTES);
+        urls.reserve((long) needed * Integer.BYTES);
+    }
+
+    /**
+     * Appends a length-prefixed UTF-8 string to the string table.
+     *
+     * @param value string, may be null
+     * @return offset of the entry, or {@code NO_STRING} for null
+     * @throws IOException if the table cannot be re-mapped
+     */
+    private int appendString(final String value) throws IOException {
+        if (value == null) return NO_STRING;
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        final int offset = stringsEnd;
+        final long end = (long) offset + Integer.BYTES + bytes.length;
+        if (end > Integer.MAX_VALUE) {
+            throw new IOException("Snapshot string table is full: " + dir);
+        }
+        strings.reserve(end);
+        strings.buffer.putInt(offset, bytes.length);
+        strings.buffer.put(offset + Integer.BYTES, bytes);
+        stringsEnd = (int) end;
+        return offset;
+    }
+
+    /**
+     * Reads a string from the string table.
+     *
+     * @param offset entry offset, or {@code NO_STRING}
+     * @return the string, or null
+     */
+    private String string(final int offset) {
+        if (offset == NO_STRING) return null;
+        final byte[] bytes = new byte[strings.buffer.getInt(offset)];
+        strings.buffer.get(offset + Integer.BYTES, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Returns the id of a language, adding it to the dictionary file if it is new.
+     *
+     * @param language language name, may be null
+     * @return language id, or {@link #NO_LANGUAGE} for null
+     * @throws IOException if the dictionary cannot be written
+     */
+    private int internLanguage(final String language) throws IOException {
+        if (language == null) return NO_LANGUAGE;
+        final Integer known = languageIds.get(language.toLowerCase(Locale.ROOT));
+        if (known != null) return known;
+        if (languageNames.size() == Short.MAX_VALUE) {
+            throw new IOException("Snapshot language dictionary is full: " + dir);
+        }
+        Files.writeString(dir.resolve("languages.txt"), language + "\n", StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        return registerLanguage(language);
+    }
+
+    /**
+     * Adds a language to the in-memory dictionary.
+     *
+     * @param language language name
+     * @return its id
+     */
+    private int registerLanguage(final String language) {
+        final int id = languageNames.size();
+        languageNames.add(language);
+        languageIds.putIfAbsent(language.toLowerCase(Locale.ROOT), id);
+        return id;
+    }
+
+    /**
+     * Read access to the rows present when {@link #read(Function)} was called.
+     */
+    public final class View {
+
+        private final int rows;
+
+        /**
+         * Creates a view over the first {@code rows} rows.
+         *
+         * @param rows visible row count
+         */
+        private View(final int rows) {
+            this.rows = rows;
+        }
+
+        /**
+         * Number of visible rows.
+         *
+         * @return row count
+         */
+        public int rows() {
+            return rows;
+        }
+
+        /**
+         * Repository id of a row.
+         *
+         * @param row row index
+         * @return GitHub repository id
+         */
+        public long id(final int row) {
+            return ids.buffer.getLong(row * Long.BYTES);
+        }
+
+        /**
+         * Star count of a row.
+         *
+         * @param row row index
+         * @return stargazers
+         */
+        public int stars(final int row) {
+            return stars.buffer.getInt(row * Integer.BYTES);
+        }
+
+        /**
+         * Fork count of a row.
+         *
+         * @param row row index
+         * @return forks
+         */
+        public int forks(final int row) {
+            return forks.buffer.getInt(row * Integer.BYTES);
+        }
+
+        /**
+         * Last push of a row.
+         *
+         * @param row row index
+         * @return epoch seconds, or {@link ScoreCalculator#NO_PUSH}
+         */
+        public long pushedAt(final int row) {
+            return pushed.buffer.getLong(row * Long.BYTES);
+        }
+
+        /**
+         * Archived flag of a row.
+         *
+         * @param row row index
+         * @return true if the repository is archived
+         */
+        public boolean archived(final int row) {
+            return archived.buffer.get(row) != 0;
+        }
+
+        /**
+         * Language id of a row.
+         *
+         * @param row row index
+         * @return language id, or {@link #NO_LANGUAGE}
+         */
+        public int languageId(final int row) {
+            return languages.buffer.getShort(row * Short.BYTES);
+        }
+
+        /**
+         * Materializes a row as a {@link GitHubRepo}.
+         *
+         * @param row row index
+         * @return repository record
+         */
+        public GitHubRepo repo(final int row) {
+            final long pushedAt = pushedAt(row);
+            final int language = languageId(row);
+            return new GitHubRepo(
+                    id(row),
+                    string(names.buffer.getInt(row * Integer.BYTES)),
+                    string(urls.buffer.getInt(row * Integer.BYTES)),
+                    language == NO_LANGUAGE ? null : languageNames.get(language),
+                    stars(row),
+                    forks(row),
+                    pushedAt == ScoreCalculator.NO_PUSH ? null : Instant.ofEpochSecond(pushedAt).toString(),
+                    archived(row)
+            );
+        }
+    }
+
+    /**
+     * A file mapped read-write in full, re-mapped at twice the size when it runs out of room.
+     */
+    private static final class Column implements Closeable {
+
+        private final FileChannel channel;
+        private MappedByteBuffer buffer;
+
+        /**
+         * Opens and maps a column file.
+         *
+         * @param file     column file
+         * @param minBytes size to map if the file is smaller
+         * @throws IOException if the file cannot be opened or mapped
+         */
+        Column(final Path file, final long minBytes) throws IOException {
+            this.channel = FileChannel.open(file,
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            this.buffer = map(Math.max(channel.size(), minBytes));
+        }
+
+        /**
+         * Ensures the mapping covers at least {@code bytes}.
+         *
+         * @param bytes required size
+         * @throws IOException if the file cannot be re-mapped
+         */
+        void reserve(final long bytes) throws IOException {
+            if (bytes <= buffer.capacity()) return;
+            buffer.force();
+            buffer = map(Math.min(Integer.MAX_VALUE, Math.max(bytes, buffer.capacity() * 2L)));
+        }
+
+        /**
+         * Maps the first {@code bytes} of the file, extending it if needed.
+         *
+         * @param bytes mapping size
+         * @return mapped buffer
+         * @throws IOException if the mapping fails
+         */
+        private MappedByteBuffer map(final long bytes) throws IOException {
+            if (bytes > Integer.MAX_VALUE) {
+                throw new IOException("Snapshot column exceeds 2 GiB");
+            }
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, bytes);
+        }
+
+        /**
+         * Flushes the mapping and closes the file.
+         *
+         * @throws IOException if the file cannot be closed
+         */
+        @Override
+        public void close() throws IOException {
+            buffer.force();
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.client;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.client.ExpectedCount.once;
+import static org.springframework.test.web.client.ExpectedCount.twice;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+class CircuitBreakerTest {
+
+    @Test
+    void opensAfterConsecutiveFailuresAndClosesOnASuccessfulProbe() {
+        MutableClock clock = new MutableClock();
+        CircuitBreaker breaker = new CircuitBreaker(2, Duration.ofSeconds(30), clock);
+        AtomicInteger closed = new AtomicInteger();
+        breaker.onClose(closed::incrementAndGet);
+        RestTemplate rt = new RestTemplate();
+        rt.setInterceptors(List.of(breaker));
+        MockRestServiceServer server = MockRestServiceServer.bindTo(rt).build();
+
+        server.expect(twice(), requestTo("http://example/search"))
+                .andRespond(withStatus(HttpStatus.BAD_GATEWAY));
+        server.expect(once(), requestTo("http://example/search"))
+                .andRespond(withSuccess("{}", MediaType.APPLICATION_JSON));
+
+        assertThrows(HttpServerErrorException.class, () -> rt.getForObject("http://example/search", String.class));
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+        assertThrows(HttpServerErrorException.class, () -> rt.getForObject("http://example/search", String.class));
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+
+        clock.advance(Duration.ofSeconds(10));
+        GitHubUnavailableException rejected = assertThrows(GitHubUnavailableException.class,
+                () -> rt.getForObject("http://example/search", String.class));
+        assertEquals(20, rejected.getRetryAfterSeconds());
+
+        clock.advance(Duration.ofSeconds(20));
+        assertEquals("{}", rt.getForObject("http://example/search", String.class));
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+        assertEquals(1, closed.get());
+        server.verify();
+    }
+
+    @Test
+    void halfOpenLetsOneProbeThroughAndReopensWhenItFails() {
+        MutableClock clock = new MutableClock();
+        CircuitBreaker breaker = new CircuitBreaker(1, Duration.ofSeconds(30), clock);
+
+        breaker.failed(breaker.acquire());
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+
+        clock.advance(Duration.ofSeconds(30));
+        assertTrue(breaker.acquire());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.state());
+        assertThrows(GitHubUnavailableException.class, breaker::acquire);
+
+        breaker.failed(true);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+        assertThrows(GitHubUnavailableException.class, breaker::acquire);
+    }
+
+    @Test
+    void clientErrorsAndDisabledBreakerNeverOpen() {
+        CircuitBreaker breaker = new CircuitBreaker(1, Duration.ofSeconds(30), new MutableClock());
+        RestTemplate rt = new RestTemplate();
+        rt.setInterceptors(List.of(breaker));
+        MockRestServiceServer server = MockRestServiceServer.bindTo(rt).build();
+        server.expect(once(), requestTo("http://example/search")).andRespond(withStatus(HttpStatus.UNPROCESSABLE_ENTITY));
+
+        assertThrows(Exception.class, () -> rt.getForObject("http://example/search", String.class));
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+
+        CircuitBreaker disabled = CircuitBreaker.disabled();
+        for (int i = 0; i < 10; i++) disabled.failed(disabled.acquire());
+        assertEquals(CircuitBreaker.State.CLOSED, disabled.state());
+        server.verify();
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now = Instant.parse("2025-01-01T00:00:00Z");
+
+        void advance(Duration d) { now = now.plus(d); }
+
+        @Override public ZoneOffset getZone() { return ZoneOffset.UTC; }
+        @Override public Clock withZone(java.time.ZoneId zone) { return this; }
+        @Override public Instant instant() { return now; }
+    }
+}
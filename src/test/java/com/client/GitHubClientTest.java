@@ -1,23 +1,32 @@
 package com.client;
 
+import com.repo.GitHubRepo;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.client.MockRestServiceServer;
 import org.springframework.web.client.RestTemplate;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 
+import static org.hamcrest.Matchers.allOf;
 import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.springframework.test.web.client.ExpectedCount.once;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
 import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
 import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
 
 class GitHubClientTest {
 
     @Test
-    void searchRepos_parsesResponseIntoMapList() {
+    void searchRepos_parsesResponseIntoRepoList() {
         RestTemplate rt = new RestTemplate();
         MockRestServiceServer server = MockRestServiceServer.createServer(rt);
 
@@ -51,13 +60,213 @@ class GitHubClientTest {
 
         GitHubClient client = new GitHubClient(rt, "http://example");
 
-        List<Map<String, Object>> repos = client.searchRepos("2024-01-01", "Java", 5);
+        List<GitHubRepo> repos = client.searchRepos("2024-01-01", "Java", 5);
 
         assertEquals(2, repos.size());
-        assertEquals("o/r1", repos.get(0).get("full_name"));
-        assertEquals("https://gh/r1", repos.get(0).get("html_url"));
-        assertEquals(false, repos.get(0).get("archived"));
+        assertEquals("o/r1", repos.get(0).full_name());
+        assertEquals("https://gh/r1", repos.get(0).html_url());
+        assertFalse(repos.get(0).archived());
 
         server.verify();
     }
+
+    @Test
+    void searchRepos_fetchesPagesConcurrentlyAndMergesInRankOrder() {
+        RestTemplate rt = new RestTemplate();
+        MockRestServiceServer server = MockRestServiceServer.bindTo(rt).ignoreExpectOrder(true).build();
+
+        for (int page = 1; page <= 3; page++) {
+            int size = page == 3 ? 50 : 100;
+            server.expect(once(), requestTo(allOf(containsString("per_page=100"), containsString("&page=" + page))))
+                    .andRespond(withSuccess(pageBody(250, (page - 1) * 100, size), MediaType.APPLICATION_JSON));
+        }
+
+        GitHubClient client = new GitHubClient(rt, "http://example");
+
+        List<GitHubRepo> repos = client.searchRepos("2024-01-01", "Java", 500);
+
+        assertEquals(250, repos.size());
+        for (int i = 0; i < repos.size(); i++) {
+            assertEquals("o/r" + i, repos.get(i).full_name());
+        }
+        server.verify();
+    }
+
+    @Test
+    void searchRepos_stopsAtTotalCountAndTruncatesToLimit() {
+        RestTemplate rt = new RestTemplate();
+        MockRestServiceServer server = MockRestServiceServer.bindTo(rt).ignoreExpectOrder(true).build();
+
+        server.expect(once(), requestTo(containsString("&page=1")))
+                .andRespond(withSuccess(pageBody(180, 0, 100), MediaType.APPLICATION_JSON));
+        server.expect(once(), requestTo(containsString("&page=2")))
+                .andRespond(withSuccess(pageBody(180, 100, 80), MediaType.APPLICATION_JSON));
+
+        GitHubClient client = new GitHubClient(rt, "http://example");
+
+        List<GitHubRepo> repos = client.searchRepos("2024-01-01", "Java", 150);
+
+        assertEquals(150, repos.size());
+        assertEquals("o/r149", repos.get(149).full_name());
+        server.verify();
+    }
+
+    @Test
+    void searchRepos_failsInsteadOfReturningATruncatedResultWhenALaterPageFails() {
+        RestTemplate rt = new RestTemplate();
+        MockRestServiceServer server = MockRestServiceServer.bindTo(rt).ignoreExpectOrder(true).build();
+
+        server.expect(once(), requestTo(containsString("&page=1")))
+                .andRespond(withSuccess(pageBody(200, 0, 100), MediaType.APPLICATION_JSON));
+        server.expect(once(), requestTo(containsString("&page=2")))
+                .andRespond(withStatus(HttpStatus.BAD_GATEWAY));
+
+        GitHubClient client = new GitHubClient(rt, "http://example");
+
+        assertThrows(GitHubUnavailableException.class, () -> client.searchRepos("2024-01-01", "Java", 200));
+        server.verify();
+    }
+
+    @Test
+    void searchRepos_revalidatesExpiredPageWithETag() {
+        RestTemplate rt = new RestTemplate();
+        MockRestServiceServer server = MockRestServiceServer.createServer(rt);
+
+        HttpHeaders etag = new HttpHeaders();
+        etag.setETag("\"v1\"");
+        server.expect(once(), requestTo(containsString("/search/repositories")))
+                .andRespond(withSuccess(pageBody(2, 0, 2), MediaType.APPLICATION_JSON).headers(etag));
+        server.expect(once(), requestTo(containsString("/search/repositories")))
+                .andExpect(header(HttpHeaders.IF_NONE_MATCH, "\"v1\""))
+                .andRespond(withStatus(HttpStatus.NOT_MODIFIED));
+
+        SearchCache cache = new SearchCache(Duration.ZERO, 16);
+        GitHubClient client = new GitHubClient(rt, "http://example", cache);
+
+        List<GitHubRepo> first = client.searchRepos("2024-01-01", "Java", 5);
+        List<GitHubRepo> second = client.searchRepos("2024-01-01", "Java", 5);
+
+        assertEquals(2, second.size());
+        assertEquals(first, second);
+        assertEquals(1, cache.stats().revalidations());
+        server.verify();
+    }
+
+    @Test
+    void searchRepos_servesFreshPageFromCacheWithoutRequest() {
+        RestTemplate rt = new RestTemplate();
+        MockRestServiceServer server = MockRestServiceServer.createServer(rt);
+
+        server.expect(once(), requestTo(containsString("/search/repositories")))
+                .andRespond(withSuccess(pageBody(2, 0, 2), MediaType.APPLICATION_JSON));
+
+        SearchCache cache = new SearchCache(Duration.ofMinutes(1), 16);
+        GitHubClient client = new GitHubClient(rt, "http://example", cache);
+
+        client.searchRepos("2024-01-01", "Java", 5);
+        List<GitHubRepo> again = client.searchRepos("2024-01-01", "java", 5);
+
+        assertEquals(2, again.size());
+        assertEquals(1, cache.stats().hits());
+        server.verify();
+    }
+
+    @Test
+    void searchRepos_recordsFallbackCandidateAndItemCount() {
+        RestTemplate rt = new RestTemplate();
+        MockRestServiceServer server = MockRestServiceServer.createServer(rt);
+
+        server.expect(once(), requestTo(containsString("pushed")))
+                .andRespond(withSuccess(pageBody(0, 0, 0), MediaType.APPLICATION_JSON));
+        server.expect(once(), requestTo(not(containsString("pushed"))))
+                .andRespond(withSuccess(pageBody(3, 0, 3), MediaType.APPLICATION_JSON));
+
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        GitHubClient client = new GitHubClient(rt, "http://example", SearchCache.disabled(), registry);
+
+        assertEquals(3, client.searchRepos("2024-01-01", "Java", 5).size());
+
+        assertEquals(1, registry.get("github.search").tags("candidate", "date_language", "outcome", "empty").timer().count());
+        assertEquals(1, registry.get("github.search").tags("candidate", "language", "outcome", "hit").timer().count());
+        assertEquals(1.0, registry.get("github.search.fallbacks").tag("candidate", "language").counter().count());
+        assertEquals(3.0, registry.get("github.search.items").summary().totalAmount());
+        server.verify();
+    }
+
+    @Test
+    void streamRepos_deliversFirstPageBeforeSlowPagesArrive() {
+        RestTemplate rt = new RestTemplate();
+        MockRestServiceServer server = MockRestServiceServer.bindTo(rt).ignoreExpectOrder(true).build();
+
+        server.expect(once(), requestTo(containsString("&page=1")))
+                .andRespond(withSuccess(pageBody(300, 0, 100), MediaType.APPLICATION_JSON));
+        for (int page = 2; page <= 3; page++) {
+            String body = pageBody(300, (page - 1) * 100, 100);
+            server.expect(once(), requestTo(containsString("&page=" + page))).andRespond(request -> {
+                try {
+                    Thread.sleep(500);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return withSuccess(body, MediaType.APPLICATION_JSON).createResponse(request);
+            });
+        }
+
+        GitHubClient client = new GitHubClient(rt, "http://example");
+        long start = System.nanoTime();
+        List<Long> arrivalsMillis = new ArrayList<>();
+        List<String> firstOfPage = new ArrayList<>();
+
+        int delivered = client.streamRepos("2024-01-01", "Java", 250, page -> {
+            arrivalsMillis.add((System.nanoTime() - start) / 1_000_000);
+            firstOfPage.add(page.get(0).full_name() + "+" + page.size());
+        });
+
+        assertEquals(250, delivered);
+        assertEquals(List.of("o/r0+100", "o/r100+100", "o/r200+50"), firstOfPage);
+        assertTrue(arrivalsMillis.get(0) < 400, "first page must not wait for slow pages: " + arrivalsMillis);
+        assertTrue(arrivalsMillis.get(1) >= 450, "later pages arrive after their latency: " + arrivalsMillis);
+        server.verify();
+    }
+
+    @Test
+    void streamRepos_propagatesConsumerFailureWithoutTryingFallbacks() {
+        RestTemplate rt = new RestTemplate();
+        MockRestServiceServer server = MockRestServiceServer.createServer(rt);
+        server.expect(once(), requestTo(containsString("/search/repositories")))
+                .andRespond(withSuccess(pageBody(2, 0, 2), MediaType.APPLICATION_JSON));
+
+        GitHubClient client = new GitHubClient(rt, "http://example");
+
+        assertThrows(IllegalStateException.class, () -> client.streamRepos("2024-01-01", "Java", 5, page -> {
+            throw new IllegalStateException("client went away");
+        }));
+        server.verify();
+    }
+
+    @Test
+    void searchRepos_failsFastInsteadOfRetryingCandidatesAgainstAFailingUpstream() {
+        RestTemplate rt = new RestTemplate();
+        MockRestServiceServer server = MockRestServiceServer.createServer(rt);
+        server.expect(once(), requestTo(containsString("/search/repositories")))
+                .andRespond(withStatus(HttpStatus.BAD_GATEWAY));
+
+        GitHubClient client = new GitHubClient(rt, "http://example");
+
+        assertThrows(GitHubUnavailableException.class, () -> client.searchRepos("2024-01-01", "Java", 5));
+        server.verify();
+    }
+
+    private static String pageBody(int totalCount, int offset, int size) {
+        StringBuilder items = new StringBuilder();
+        for (int i = 0; i < size; i++) {
+            if (i > 0) items.append(',');
+            int rank = offset + i;
+            items.append("""
+                {"id": %d, "full_name": "o/r%d", "html_url": "https://gh/r%d", "language": "Java",
+                 "stargazers_count": %d, "forks_count": 1, "pushed_at": "2025-01-01T00:00:00Z", "archived": false}
+                """.formatted(rank, rank, rank, 10_000 - rank));
+        }
+        return "{\"total_count\": " + totalCount + ", \"items\": [" + items + "]}";
+    }
 }
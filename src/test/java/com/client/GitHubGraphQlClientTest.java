@@ -0,0 +1,130 @@
+package com.client;
+
+import com.repo.GitHubRepo;
+import com.stub.GitHubStubServer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.client.ExpectedCount.once;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.content;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+class GitHubGraphQlClientTest {
+
+    @Test
+    void searchRepos_followsCursorsInRankOrderUpToLimit() throws Exception {
+        try (GitHubStubServer stub = new GitHubStubServer()) {
+            GitHubGraphQlClient client = new GitHubGraphQlClient(new RestTemplate(), stub.baseUrl() + "/graphql");
+
+            List<GitHubRepo> repos = client.searchRepos("2024-01-01", "Java", 250);
+
+            assertEquals(250, repos.size());
+            for (int i = 0; i < repos.size(); i++) {
+                assertEquals("o/r" + i, repos.get(i).full_name());
+                assertEquals(i, repos.get(i).id());
+            }
+            assertEquals(3, stub.requests());
+        }
+    }
+
+    @Test
+    void streamRepos_deliversEachPageAsItArrives() throws Exception {
+        try (GitHubStubServer stub = new GitHubStubServer()) {
+            GitHubGraphQlClient client = new GitHubGraphQlClient(new RestTemplate(), stub.baseUrl() + "/graphql");
+            List<Integer> pageSizes = new ArrayList<>();
+
+            int delivered = client.streamRepos("2024-01-01", "Java", 150, page -> pageSizes.add(page.size()));
+
+            assertEquals(150, delivered);
+            assertEquals(List.of(100, 50), pageSizes);
+        }
+    }
+
+    @Test
+    void searchRepos_postsOnlyScoredFieldsAndFallsBackOnGraphQlErrors() {
+        RestTemplate rt = new RestTemplate();
+        MockRestServiceServer server = MockRestServiceServer.createServer(rt);
+
+        server.expect(once(), requestTo("http://example/graphql"))
+                .andExpect(method(HttpMethod.POST))
+                .andExpect(content().string(allOf(
+                        containsString("nameWithOwner"),
+                        containsString("pushed:>=2024-01-01"),
+                        containsString("sort:stars-desc"),
+                        not(containsString("description")))))
+                .andRespond(withSuccess("{\"errors\": [{\"message\": \"Something went wrong\"}]}",
+                        MediaType.APPLICATION_JSON));
+        server.expect(once(), requestTo("http://example/graphql"))
+                .andExpect(content().string(containsString("\"language:Java sort:stars-desc\"")))
+                .andRespond(withSuccess("""
+                        {"data": {"search": {"repositoryCount": 1,
+                          "pageInfo": {"hasNextPage": false, "endCursor": "x"},
+                          "nodes": [{"nameWithOwner": "o/r1", "stargazerCount": 3}]}}}
+                        """, MediaType.APPLICATION_JSON));
+
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        GitHubGraphQlClient client = new GitHubGraphQlClient(rt, "http://example/graphql", registry);
+
+        List<GitHubRepo> repos = client.searchRepos("2024-01-01", "Java", 5);
+
+        assertEquals(1, repos.size());
+        assertEquals("o/r1", repos.get(0).full_name());
+        assertEquals(1, registry.get("github.search").tags("candidate", "date_language", "outcome", "error").timer().count());
+        assertEquals(1.0, registry.get("github.search.fallbacks").tag("candidate", "language").counter().count());
+        server.verify();
+    }
+
+    @Test
+    void searchRepos_failsInsteadOfReturningATruncatedResultWhenALaterPageFails() {
+        RestTemplate rt = new RestTemplate();
+        MockRestServiceServer server = MockRestServiceServer.createServer(rt);
+
+        server.expect(once(), requestTo("http://example/graphql"))
+                .andExpect(content().string(containsString("\"after\":null")))
+                .andRespond(withSuccess("""
+                        {"data": {"search": {"repositoryCount": 200,
+                          "pageInfo": {"hasNextPage": true, "endCursor": "cursor:1"},
+                          "nodes": [{"nameWithOwner": "o/r0", "stargazerCount": 3}]}}}
+                        """, MediaType.APPLICATION_JSON));
+        server.expect(once(), requestTo("http://example/graphql"))
+                .andExpect(content().string(containsString("cursor:1")))
+                .andRespond(withStatus(HttpStatus.BAD_GATEWAY));
+
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        GitHubGraphQlClient client = new GitHubGraphQlClient(rt, "http://example/graphql", registry);
+
+        assertThrows(GitHubUnavailableException.class, () -> client.searchRepos("2024-01-01", "Java", 200));
+        assertEquals(1, registry.get("github.search").tags("candidate", "date_language", "outcome", "error").timer().count());
+        server.verify();
+    }
+
+    @Test
+    void githubApiPropertySelectsTheClient() {
+        ApplicationContextRunner runner = new ApplicationContextRunner()
+                .withBean(RestTemplate.class, RestTemplate::new)
+                .withBean(SearchCache.class, SearchCache::disabled)
+                .withBean(MeterRegistry.class, SimpleMeterRegistry::new)
+                .withUserConfiguration(GitHubClient.class, GitHubGraphQlClient.class);
+
+        runner.run(ctx -> assertInstanceOf(GitHubClient.class, ctx.getBean(GitHubSearchClient.class)));
+        runner.withPropertyValues("github.api=graphql")
+                .run(ctx -> assertInstanceOf(GitHubGraphQlClient.class, ctx.getBean(GitHubSearchClient.class)));
+    }
+}
@@ -0,0 +1,132 @@
+package com.client;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.client.ExpectedCount.once;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+class RateLimitSchedulerTest {
+
+    @Test
+    void backgroundCallsAreShedWhenOnlyTheReserveIsLeft() {
+        RateLimitScheduler scheduler = new RateLimitScheduler(30, Duration.ofMinutes(1), 2, Duration.ofSeconds(5));
+        RestTemplate rt = restTemplate(scheduler);
+        MockRestServiceServer server = MockRestServiceServer.bindTo(rt).build();
+
+        server.expect(once(), requestTo("http://example/search"))
+                .andRespond(withSuccess("{}", MediaType.APPLICATION_JSON).headers(rateLimit(30, 2, 60)));
+        server.expect(once(), requestTo("http://example/search"))
+                .andRespond(withSuccess("{}", MediaType.APPLICATION_JSON).headers(rateLimit(30, 1, 60)));
+
+        rt.getForObject("http://example/search", String.class);
+        assertEquals(2, scheduler.stats().remaining());
+
+        assertThrows(RateLimitExceededException.class, () -> RequestPriority.callAs(RequestPriority.BACKGROUND,
+                () -> rt.getForObject("http://example/search", String.class)));
+        assertEquals(1, scheduler.stats().shed());
+
+        rt.getForObject("http://example/search", String.class);
+        assertEquals(1, scheduler.stats().remaining());
+        server.verify();
+    }
+
+    @Test
+    void interactiveCallsQueueUntilReset() {
+        RateLimitScheduler scheduler = new RateLimitScheduler(30, Duration.ofMinutes(1), 0, Duration.ofSeconds(5));
+        RestTemplate rt = restTemplate(scheduler);
+        MockRestServiceServer server = MockRestServiceServer.bindTo(rt).build();
+
+        server.expect(once(), requestTo("http://example/search"))
+                .andRespond(withSuccess("{}", MediaType.APPLICATION_JSON).headers(rateLimit(30, 0, 1)));
+        server.expect(once(), requestTo("http://example/search"))
+                .andRespond(withSuccess("{}", MediaType.APPLICATION_JSON).headers(rateLimit(30, 29, 60)));
+
+        rt.getForObject("http://example/search", String.class);
+        assertEquals(0, scheduler.stats().remaining());
+
+        rt.getForObject("http://example/search", String.class);
+
+        assertEquals(1, scheduler.stats().waits());
+        assertEquals(0, scheduler.stats().shed());
+        server.verify();
+    }
+
+    @Test
+    void interactiveCallsAreShedWhenResetIsBeyondMaxWait() {
+        RateLimitScheduler scheduler = new RateLimitScheduler(30, Duration.ofMinutes(1), 0, Duration.ofMillis(100));
+        RestTemplate rt = restTemplate(scheduler);
+        MockRestServiceServer server = MockRestServiceServer.bindTo(rt).build();
+
+        server.expect(once(), requestTo("http://example/search"))
+                .andRespond(withSuccess("{}", MediaType.APPLICATION_JSON).headers(rateLimit(30, 0, 60)));
+
+        rt.getForObject("http://example/search", String.class);
+
+        RateLimitExceededException ex = assertThrows(RateLimitExceededException.class,
+                () -> rt.getForObject("http://example/search", String.class));
+        assertTrue(ex.getRetryAfterSeconds() > 50);
+        server.verify();
+    }
+
+    @Test
+    void callsGoToTheTokenWithMostBudgetAndSkipRevokedOrExhaustedTokens() {
+        RateLimitScheduler scheduler = new RateLimitScheduler(List.of("a", " b ", "", "a"), 30,
+                Duration.ofMinutes(1), 0, Duration.ofMillis(100), Duration.ofMinutes(15));
+        RestTemplate rt = restTemplate(scheduler);
+        MockRestServiceServer server = MockRestServiceServer.bindTo(rt).build();
+
+        server.expect(once(), requestTo("http://example/search"))
+                .andExpect(header(HttpHeaders.AUTHORIZATION, "Bearer a"))
+                .andRespond(withSuccess("{}", MediaType.APPLICATION_JSON).headers(rateLimit(30, 10, 60)));
+        server.expect(once(), requestTo("http://example/search"))
+                .andExpect(header(HttpHeaders.AUTHORIZATION, "Bearer b"))
+                .andRespond(withStatus(HttpStatus.UNAUTHORIZED));
+        server.expect(once(), requestTo("http://example/search"))
+                .andExpect(header(HttpHeaders.AUTHORIZATION, "Bearer a"))
+                .andRespond(withSuccess("{}", MediaType.APPLICATION_JSON).headers(rateLimit(30, 0, 60)));
+
+        rt.getForObject("http://example/search", String.class);
+        assertThrows(HttpClientErrorException.Unauthorized.class,
+                () -> rt.getForObject("http://example/search", String.class));
+        rt.getForObject("http://example/search", String.class);
+        assertThrows(RateLimitExceededException.class, () -> rt.getForObject("http://example/search", String.class));
+        server.verify();
+
+        List<RateLimitScheduler.TokenStats> tokens = scheduler.tokenStats();
+        assertEquals(2, tokens.size());
+        assertEquals("1", tokens.get(0).name());
+        assertEquals(2, tokens.get(0).requests());
+        assertEquals(0, tokens.get(0).remaining());
+        assertFalse(tokens.get(0).revoked());
+        assertEquals(1, tokens.get(1).requests());
+        assertTrue(tokens.get(1).revoked());
+        assertEquals(30, scheduler.stats().limit(), "a revoked token adds no budget");
+    }
+
+    private static RestTemplate restTemplate(RateLimitScheduler scheduler) {
+        RestTemplate rt = new RestTemplate();
+        rt.setInterceptors(List.of(scheduler));
+        return rt;
+    }
+
+    private static HttpHeaders rateLimit(int limit, int remaining, int resetInSeconds) {
+        HttpHeaders h = new HttpHeaders();
+        h.set("X-RateLimit-Limit", String.valueOf(limit));
+        h.set("X-RateLimit-Remaining", String.valueOf(remaining));
+        h.set("X-RateLimit-Reset", String.valueOf(System.currentTimeMillis() / 1000 + resetInSeconds));
+        return h;
+    }
+}
@@ -0,0 +1,69 @@
+package com.client;
+
+import com.repo.GitHubRepo;
+import com.stub.GitHubStubServer;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReactiveGitHubClientTest {
+
+    @Test
+    void searchRepos_emitsPagesInRankOrderUpToLimit() throws Exception {
+        try (GitHubStubServer stub = new GitHubStubServer()) {
+            ReactiveGitHubClient client = client(stub, scheduler(10_000), 4);
+
+            List<GitHubRepo> repos = client.searchRepos("2024-01-01", "Java", 250)
+                    .collectList().block(Duration.ofSeconds(10));
+
+            assertEquals(250, repos.size());
+            for (int i = 0; i < repos.size(); i++) {
+                assertEquals("o/r" + i, repos.get(i).full_name());
+            }
+            assertEquals(3, stub.requests());
+        }
+    }
+
+    @Test
+    void searchRepos_cancellationStopsRequestingPages() throws Exception {
+        try (GitHubStubServer stub = new GitHubStubServer().latencyMillis(20)) {
+            ReactiveGitHubClient client = client(stub, scheduler(10_000), 2);
+
+            List<GitHubRepo> repos = client.searchRepos("2024-01-01", "Java", 1000)
+                    .take(10)
+                    .collectList().block(Duration.ofSeconds(10));
+            Thread.sleep(200);
+
+            assertEquals(10, repos.size());
+            assertTrue(stub.requests() <= 3,
+                    "only the first page and at most page-concurrency prefetched pages should be requested, got "
+                            + stub.requests());
+        }
+    }
+
+    @Test
+    void searchRepos_failsWithRateLimitWhenBudgetIsExhausted() throws Exception {
+        try (GitHubStubServer stub = new GitHubStubServer()) {
+            ReactiveGitHubClient client = client(stub, scheduler(0), 4);
+
+            assertThrows(RateLimitExceededException.class,
+                    () -> client.searchRepos("2024-01-01", "Java", 5).collectList().block(Duration.ofSeconds(10)));
+            assertEquals(0, stub.requests());
+        }
+    }
+
+    private static RateLimitScheduler scheduler(int limit) {
+        return new RateLimitScheduler(limit, Duration.ofMinutes(1), 0, Duration.ZERO);
+    }
+
+    private static ReactiveGitHubClient client(GitHubStubServer stub, RateLimitScheduler scheduler, int concurrency) {
+        WebClient webClient = WebClient.builder()
+                .filter(new RateLimitExchangeFilter(scheduler))
+                .build();
+        return new ReactiveGitHubClient(webClient, stub.baseUrl(), SearchCache.disabled(), concurrency);
+    }
+}
@@ -0,0 +1,72 @@
+package com.client;
+
+import com.repo.GitHubRepo;
+import com.repo.SearchPage;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SearchCacheTest {
+
+    private static final SearchPage PAGE = new SearchPage(1, List.of(new GitHubRepo("o/r", "", "Java", 1, 0, null, false)));
+
+    @Test
+    void servesFreshEntriesAndExpiresAfterTtl() {
+        MutableClock clock = new MutableClock();
+        SearchCache cache = new SearchCache(Duration.ofSeconds(10), 8, clock);
+        String key = SearchCache.key("language:Java", 100, 1);
+
+        cache.put(key, PAGE, "\"v1\"");
+        assertSame(PAGE, cache.getIfFresh(key));
+
+        clock.advance(Duration.ofSeconds(11));
+        assertNull(cache.getIfFresh(key));
+        assertEquals("\"v1\"", cache.etagOf(key));
+
+        assertSame(PAGE, cache.revalidated(key));
+        assertSame(PAGE, cache.getIfFresh(key));
+
+        SearchCache.Stats stats = cache.stats();
+        assertEquals(2, stats.hits());
+        assertEquals(1, stats.misses());
+        assertEquals(1, stats.revalidations());
+    }
+
+    @Test
+    void evictsLeastRecentlyUsed() {
+        SearchCache cache = new SearchCache(Duration.ofMinutes(1), 2, new MutableClock());
+
+        cache.put("a", PAGE, null);
+        cache.put("b", PAGE, null);
+        cache.getIfFresh("a");
+        cache.put("c", PAGE, null);
+
+        assertNotNull(cache.getIfFresh("a"));
+        assertNull(cache.getIfFresh("b"));
+        assertNotNull(cache.getIfFresh("c"));
+        assertEquals(1, cache.stats().evictions());
+        assertEquals(2, cache.stats().size());
+    }
+
+    @Test
+    void keyIsNormalized() {
+        assertEquals(SearchCache.key(" pushed:>=2024-01-01   language:Java", 100, 2),
+                SearchCache.key("pushed:>=2024-01-01 language:java", 100, 2));
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now = Instant.parse("2025-01-01T00:00:00Z");
+
+        void advance(Duration d) { now = now.plus(d); }
+
+        @Override public ZoneOffset getZone() { return ZoneOffset.UTC; }
+        @Override public Clock withZone(java.time.ZoneId zone) { return this; }
+        @Override public Instant instant() { return now; }
+    }
+}
@@ -0,0 +1,128 @@
+package com.client;
+
+import com.repo.GitHubRepo;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShardedCrawlerTest {
+
+    private static final LocalDate FROM = LocalDate.parse("2024-01-01");
+    private static final Pattern WINDOW = Pattern.compile("pushed:(\\S+)\\.\\.(\\S+)");
+
+    @Test
+    void splitsLargeWindowsAndDeliversEveryRepoOnce() {
+        Map<LocalDate, List<GitHubRepo>> data = new TreeMap<>();
+        for (int day = 0; day < 60; day++) {
+            data.put(FROM.plusDays(day), repos(FROM.plusDays(day), day * 10_000L, day % 10 == 0 ? 400 : 30));
+        }
+        // A repo pushed mid-crawl can match two windows; it must be delivered once.
+        data.get(FROM.plusDays(59)).add(data.get(FROM).get(0));
+        AtomicInteger calls = new AtomicInteger();
+        ShardedCrawler crawler = new ShardedCrawler(new GitHubClient(search(data, calls), "http://example"), 3);
+        List<GitHubRepo> delivered = new ArrayList<>();
+
+        ShardedCrawler.Result result = crawler.crawl("Java", FROM, FROM.plusDays(59), delivered::addAll);
+
+        int distinct = 6 * 400 + 54 * 30;
+        assertEquals(distinct, delivered.size());
+        assertEquals(distinct, delivered.stream().map(GitHubRepo::id).collect(Collectors.toSet()).size());
+        assertEquals(distinct, result.repos());
+        assertEquals(0, result.truncated());
+        assertEquals(0, result.failed());
+        assertTrue(result.windows() > 1, "the range is over the cap and must have been split");
+        assertEquals(calls.get(), result.pages());
+    }
+
+    @Test
+    void truncatesASingleDayOverTheCapAndWaitsOutShedPages() {
+        Map<LocalDate, List<GitHubRepo>> data = new TreeMap<>();
+        data.put(FROM, repos(FROM, 0, 1200));
+        data.put(FROM.plusDays(1), repos(FROM.plusDays(1), 10_000, 5));
+        AtomicInteger calls = new AtomicInteger(-1);
+        ShardedCrawler crawler = new ShardedCrawler(new GitHubClient(search(data, calls), "http://example"), 2);
+        Set<Long> ids = new HashSet<>();
+
+        ShardedCrawler.Result result = crawler.crawl("Java", FROM, FROM.plusDays(1), page -> {
+            for (GitHubRepo repo : page) assertTrue(ids.add(repo.id()));
+        });
+
+        assertEquals(1005, ids.size());
+        assertEquals(1, result.truncated());
+        assertEquals(2, result.windows());
+        assertEquals(0, result.failed());
+        // 1 split probe, 10 pages of the capped day, 1 page of the small one
+        assertEquals(12, result.pages());
+    }
+
+    @Test
+    void rejectsAnInvertedRange() {
+        ShardedCrawler crawler = new ShardedCrawler(new GitHubClient(new RestTemplate(), "http://example"), 1);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> crawler.crawl("Java", FROM.plusDays(1), FROM, page -> { }));
+    }
+
+    /**
+     * In-memory search endpoint over {@code data} that honours the {@code pushed:A..B}
+     * qualifier, the 1000-result cap and per_page/page. Starting {@code calls} at -1 makes
+     * the first call shed by the rate-limit scheduler.
+     */
+    private static RestTemplate search(Map<LocalDate, List<GitHubRepo>> data, AtomicInteger calls) {
+        return new RestTemplate((uri, method) -> {
+            if (calls.getAndIncrement() < 0) throw new RateLimitExceededException("shed", 0);
+            Map<String, String> params = UriComponentsBuilder.fromUri(uri).build().getQueryParams().toSingleValueMap();
+            Matcher m = WINDOW.matcher(URLDecoder.decode(params.get("q"), StandardCharsets.UTF_8));
+            assertTrue(m.find(), uri.toString());
+            LocalDate from = LocalDate.parse(m.group(1));
+            LocalDate to = LocalDate.parse(m.group(2));
+            List<GitHubRepo> matching = data.entrySet().stream()
+                    .filter(e -> !e.getKey().isBefore(from) && !e.getKey().isAfter(to))
+                    .flatMap(e -> e.getValue().stream())
+                    .toList();
+            int perPage = Integer.parseInt(params.get("per_page"));
+            int start = (Integer.parseInt(params.get("page")) - 1) * perPage;
+            List<GitHubRepo> page = start >= Math.min(1000, matching.size())
+                    ? List.of()
+                    : matching.subList(start, Math.min(Math.min(1000, matching.size()), start + perPage));
+
+            String items = page.stream()
+                    .map(r -> "{\"id\":" + r.id() + ",\"full_name\":\"" + r.full_name()
+                            + "\",\"stargazers_count\":1,\"pushed_at\":\"" + r.pushed_at() + "\"}")
+                    .collect(Collectors.joining(","));
+            String body = "{\"total_count\":" + matching.size() + ",\"items\":[" + items + "]}";
+            MockClientHttpRequest request = new MockClientHttpRequest(method, uri);
+            MockClientHttpResponse response = new MockClientHttpResponse(body.getBytes(StandardCharsets.UTF_8), HttpStatus.OK);
+            response.getHeaders().add("Content-Type", "application/json");
+            request.setResponse(response);
+            return request;
+        });
+    }
+
+    private static List<GitHubRepo> repos(LocalDate day, long firstId, int count) {
+        List<GitHubRepo> repos = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            repos.add(new GitHubRepo(firstId + i, "o/r" + (firstId + i), "", "Java", 1, 0, day + "T12:00:00Z", false));
+        }
+        return repos;
+    }
+}
@@ -0,0 +1,91 @@
+package com.client;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskScopeTest {
+
+    @Test
+    void deadlineCancelsOutstandingSubtasks() {
+        AtomicBoolean interrupted = new AtomicBoolean();
+        long start = System.nanoTime();
+
+        try (TaskScope scope = TaskScope.open(Duration.ofMillis(100))) {
+            Future<String> slow = scope.fork(() -> {
+                try {
+                    Thread.sleep(5_000);
+                } catch (InterruptedException e) {
+                    interrupted.set(true);
+                    throw e;
+                }
+                return "late";
+            });
+            assertThrows(DeadlineExceededException.class, () -> scope.join(slow));
+        }
+
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(2));
+        assertTrue(interrupted.get(), "close() returns only after the cancelled subtask has stopped");
+    }
+
+    @Test
+    void nestedScopesNeverOutliveTheirParentsDeadline() throws Exception {
+        try (TaskScope outer = TaskScope.open(Duration.ofSeconds(1))) {
+            Duration inSubtask = outer.join(outer.fork(() -> {
+                try (TaskScope inner = TaskScope.open(Duration.ofMinutes(1))) {
+                    return inner.remaining();
+                }
+            }));
+
+            assertNotNull(inSubtask);
+            assertTrue(inSubtask.compareTo(Duration.ofSeconds(1)) <= 0);
+        }
+    }
+
+    @Test
+    void closeRestoresTheEnclosingScope() {
+        assertNull(TaskScope.current());
+        try (TaskScope outer = TaskScope.open()) {
+            assertNull(outer.remaining());
+            try (TaskScope inner = TaskScope.open(Duration.ofSeconds(5))) {
+                assertSame(inner, TaskScope.current());
+            }
+            assertSame(outer, TaskScope.current());
+        }
+        assertNull(TaskScope.current());
+    }
+
+    @Test
+    void interruptingTheOwnerCancelsSubtasks() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        AtomicBoolean cancelled = new AtomicBoolean();
+        Thread owner = Thread.ofVirtual().start(() -> {
+            try (TaskScope scope = TaskScope.open()) {
+                Future<Void> slow = scope.fork(() -> {
+                    started.countDown();
+                    try {
+                        Thread.sleep(5_000);
+                    } catch (InterruptedException e) {
+                        cancelled.set(true);
+                    }
+                    return null;
+                });
+                assertThrows(CancellationException.class, () -> scope.join(slow));
+            }
+        });
+
+        assertTrue(started.await(2, TimeUnit.SECONDS));
+        owner.interrupt();
+        owner.join(2_000);
+
+        assertFalse(owner.isAlive());
+        assertTrue(cancelled.get());
+    }
+}
@@ -0,0 +1,105 @@
+package com.config;
+
+import com.client.CircuitBreaker;
+import com.client.GitHubClient;
+import com.client.RateLimitScheduler;
+import com.repo.GitHubRepo;
+import com.stub.GitHubStubServer;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RestTemplateConfigTest {
+
+    private static final int BURSTS = 10;
+    private static final int CONCURRENCY = 16;
+    private static final long HANDSHAKE_MILLIS = 200;
+
+    @Test
+    void pooledJdkTransportReusesConnectionsAcrossBursts() throws Exception {
+        try (GitHubStubServer stub = new GitHubStubServer().latencyMillis(5).handshakeMillis(HANDSHAKE_MILLIS)) {
+            Result simple = run(stub, restTemplate("simple", Duration.ofSeconds(5)));
+            stub.resetCounters();
+            Result jdk = run(stub, restTemplate("jdk", Duration.ofSeconds(5)));
+
+            assertTrue(jdk.connections() <= CONCURRENCY,
+                    "pooled transport should not open more sockets than concurrent requests");
+            assertTrue(jdk.connections() < simple.connections(),
+                    "pooled transport should perform fewer TCP handshakes than HttpURLConnection");
+            // reused sockets keep the handshake off the tail; half of it is slack for scheduler noise
+            assertTrue(jdk.p99Millis() < simple.p99Millis() - HANDSHAKE_MILLIS / 2.0,
+                    "pooled transport should have a lower p99 than HttpURLConnection: jdk "
+                            + jdk.p99Millis() + " ms, simple " + simple.p99Millis() + " ms");
+        }
+    }
+
+    @Test
+    void readTimeoutReleasesCallerOnHungUpstream() throws Exception {
+        try (GitHubStubServer stub = new GitHubStubServer().latencyMillis(5_000)) {
+            RestTemplate rt = restTemplate("jdk", Duration.ofMillis(200));
+
+            long start = System.nanoTime();
+            assertThrows(ResourceAccessException.class,
+                    () -> rt.getForObject(stub.baseUrl() + "/search/repositories?per_page=1", String.class));
+            assertTrue(System.nanoTime() - start < Duration.ofSeconds(2).toNanos());
+        }
+    }
+
+    @Test
+    void gzipResponsesAreDecoded() throws Exception {
+        try (GitHubStubServer stub = new GitHubStubServer()) {
+            GitHubClient client = new GitHubClient(restTemplate("jdk", Duration.ofSeconds(5)), stub.baseUrl());
+
+            List<GitHubRepo> repos = client.searchRepos("2024-01-01", "Java", 3);
+
+            assertEquals(3, repos.size());
+            assertEquals("o/r0", repos.get(0).full_name());
+        }
+    }
+
+    private static RestTemplate restTemplate(String transport, Duration readTimeout) {
+        RestTemplateConfig config = new RestTemplateConfig();
+        ReflectionTestUtils.setField(config, "transport", transport);
+        ReflectionTestUtils.setField(config, "connectTimeout", Duration.ofSeconds(2));
+        ReflectionTestUtils.setField(config, "readTimeout", readTimeout);
+        ReflectionTestUtils.setField(config, "http2", true);
+        ReflectionTestUtils.setField(config, "gzip", true);
+        return config.restTemplate(CircuitBreaker.disabled(), new RateLimitScheduler(10_000, Duration.ofMinutes(1), 0, Duration.ZERO));
+    }
+
+    private static Result run(GitHubStubServer stub, RestTemplate rt) throws Exception {
+        String uri = stub.baseUrl() + "/search/repositories?q=language:Java&per_page=10&page=1";
+        List<Long> latencies = new ArrayList<>();
+        try (ExecutorService pool = Executors.newFixedThreadPool(CONCURRENCY)) {
+            for (int burst = -1; burst < BURSTS; burst++) {
+                List<Future<Long>> futures = new ArrayList<>();
+                for (int i = 0; i < CONCURRENCY; i++) {
+                    futures.add(pool.submit(() -> {
+                        long t0 = System.nanoTime();
+                        rt.getForObject(uri, String.class);
+                        return System.nanoTime() - t0;
+                    }));
+                }
+                for (Future<Long> f : futures) {
+                    long nanos = f.get();
+                    if (burst >= 0) latencies.add(nanos); // burst -1 warms up the transport
+                }
+            }
+        }
+        latencies.sort(null);
+        long p99 = latencies.get((int) Math.ceil(latencies.size() * 0.99) - 1);
+        return new Result(stub.connections(), p99 / 1_000_000.0);
+    }
+
+    private record Result(int connections, double p99Millis) { }
+}
@@ -1,22 +1,42 @@
 package com.controller;
 
+import com.client.GitHubUnavailableException;
+import com.repo.RankingResult;
+import com.repo.RankingSpec;
 import com.repo.ScoreRepo;
+import com.service.BatchRankingService;
+import com.service.Ranking;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.service.ScoreOverrides;
 import com.service.ScoringService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.servlet.config.annotation.EnableWebMvc;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.startsWith;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -28,22 +48,23 @@ class ScoringControllerTest {
     @Mock
     private ScoringService scoringService;
 
-    @InjectMocks
-    private ScoringController controller;
+    @Mock
+    private BatchRankingService batchRankingService;
 
     @BeforeEach
     void setup() {
+        ScoringController controller = new ScoringController(scoringService, batchRankingService, 2, new ObjectMapper());
         mvc = MockMvcBuilders.standaloneSetup(controller).build();
     }
 
     @Test
     void popular_returns200_andJson() throws Exception {
-        when(scoringService.fetchAndScore("2024-01-01", "Java", 5)).thenReturn(
+        when(scoringService.ranking("2024-01-01", "Java", 5, ScoreOverrides.NONE)).thenReturn(Ranking.live(
                 List.of(
                         new ScoreRepo("a/b", "https://gh/ab", "Java", 10, 2, "2025-01-01T00:00:00Z", 42.0),
                         new ScoreRepo("c/d", "https://gh/cd", "Java", 5, 1, "2025-01-01T00:00:00Z", 21.0)
                 )
-        );
+        ));
 
         mvc.perform(get("/api/repos/popular")
                         .param("created_from", "2024-01-01")
@@ -55,4 +76,175 @@ class ScoringControllerTest {
                 .andExpect(jsonPath("$[0].fullName").value("a/b"))
                 .andExpect(jsonPath("$[0].language").value("Java"));
     }
+
+    @Test
+    void popularBatch_returnsResultPerSpec() throws Exception {
+        RankingSpec java = new RankingSpec("Java", "2024-01-01", 1);
+        RankingSpec go = new RankingSpec("Go", "2024-01-01", null);
+        when(batchRankingService.fetchAndScoreAll(List.of(java, go))).thenReturn(List.of(
+                RankingResult.stale(java, List.of(new ScoreRepo("a/b", "https://gh/ab", "Java", 10, 2, "2025-01-01T00:00:00Z", 42.0)), 120),
+                RankingResult.failed(go, "GitHub rate limit exhausted, retry after 30s")
+        ));
+
+        mvc.perform(post("/api/repos/popular/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                            [{"language": "Java", "created_from": "2024-01-01", "limit": 1},
+                             {"language": "Go", "created_from": "2024-01-01"}]
+                        """))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].spec.created_from").value("2024-01-01"))
+                .andExpect(jsonPath("$[0].repos[0].fullName").value("a/b"))
+                .andExpect(jsonPath("$[0].stale").value(true))
+                .andExpect(jsonPath("$[0].age").value(120))
+                .andExpect(jsonPath("$[0].error").doesNotExist())
+                .andExpect(jsonPath("$[1].repos").doesNotExist())
+                .andExpect(jsonPath("$[1].stale").doesNotExist())
+                .andExpect(jsonPath("$[1].error").value("GitHub rate limit exhausted, retry after 30s"));
+    }
+
+    @Test
+    void popularBatch_rejectsOversizedBatch() throws Exception {
+        mvc.perform(post("/api/repos/popular/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"language\": \"A\"}, {\"language\": \"B\"}, {\"language\": \"C\"}]"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void popular_defaultsToJsonForWildcardAccept() throws Exception {
+        when(scoringService.ranking("2024-01-01", "Java", 5, ScoreOverrides.NONE)).thenReturn(Ranking.live(List.of()));
+
+        mvc.perform(get("/api/repos/popular")
+                        .param("created_from", "2024-01-01")
+                        .param("language", "Java")
+                        .accept(MediaType.ALL))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+    }
+
+    @Test
+    void popular_answersAPeersRejectionUnchanged() throws Exception {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        when(scoringService.ranking("2024-01-01", "Java", 5, ScoreOverrides.NONE)).thenThrow(
+                HttpClientErrorException.create(HttpStatus.BAD_REQUEST, "Bad Request", headers,
+                        "{\"error\":\"bad\"}".getBytes(StandardCharsets.UTF_8), StandardCharsets.UTF_8));
+
+        mvc.perform(get("/api/repos/popular")
+                        .param("created_from", "2024-01-01")
+                        .param("language", "Java")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().json("{\"error\":\"bad\"}"));
+    }
+
+    @Test
+    void popular_passesWeightOverridesToTheService() throws Exception {
+        when(scoringService.ranking("2024-01-01", "Java", 5,
+                new ScoreOverrides(Map.of("stars", 1.0, "forks", 0.0), 7.0))).thenReturn(Ranking.live(
+                List.of(new ScoreRepo("a/b", "https://gh/ab", "Java", 10, 2, "2025-01-01T00:00:00Z", 2.4))));
+
+        mvc.perform(get("/api/repos/popular")
+                        .param("created_from", "2024-01-01")
+                        .param("language", "Java")
+                        .param("weights", "Stars:1, forks:0")
+                        .param("tau_days", "7"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].score").value(2.4));
+    }
+
+    @Test
+    void popular_marksStaleRankingsAndAnswers503WithoutOne() throws Exception {
+        when(scoringService.ranking("2024-01-01", "Java", 5, ScoreOverrides.NONE)).thenReturn(new Ranking(
+                List.of(new ScoreRepo("a/b", "https://gh/ab", "Java", 10, 2, "2025-01-01T00:00:00Z", 1.0)),
+                Instant.now().minusSeconds(120)));
+        when(scoringService.ranking("2024-01-01", "Go", 5, ScoreOverrides.NONE))
+                .thenThrow(new GitHubUnavailableException("GitHub circuit is open", 7));
+
+        mvc.perform(get("/api/repos/popular")
+                        .param("created_from", "2024-01-01")
+                        .param("language", "Java"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Warning", "110 - \"Response is Stale\""))
+                .andExpect(header().string("Age", startsWith("12")))
+                .andExpect(jsonPath("$[0].fullName").value("a/b"));
+        mvc.perform(get("/api/repos/popular")
+                        .param("created_from", "2024-01-01")
+                        .param("language", "Go"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "7"));
+    }
+
+    @Test
+    void popular_rejectsInvalidOverrides() throws Exception {
+        mvc.perform(get("/api/repos/popular")
+                        .param("created_from", "2024-01-01")
+                        .param("language", "Java")
+                        .param("weights", "watchers:1"))
+                .andExpect(status().isBadRequest());
+        mvc.perform(get("/api/repos/popular")
+                        .param("created_from", "2024-01-01")
+                        .param("language", "Java")
+                        .param("tau_days", "0"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void popular_streamsNdjsonLinesAndFinalRanking() throws Exception {
+        stubStream();
+
+        MvcResult started = mvc.perform(get("/api/repos/popular")
+                        .param("created_from", "2024-01-01")
+                        .param("language", "Java")
+                        .param("limit", "2")
+                        .param("ranked", "true")
+                        .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string("""
+                        {"type":"repo","repo":{"fullName":"c/d","url":"u","language":"Java","stars":1,"forks":0,"pushedAt":null,"score":1.0}}
+                        {"type":"repo","repo":{"fullName":"a/b","url":"u","language":"Java","stars":2,"forks":0,"pushedAt":null,"score":2.0}}
+                        {"type":"ranked","ranked":[{"fullName":"a/b","url":"u","language":"Java","stars":2,"forks":0,"pushedAt":null,"score":2.0}]}
+                        """));
+    }
+
+    @Test
+    void popular_streamsServerSentEvents() throws Exception {
+        stubStream();
+
+        MvcResult started = mvc.perform(get("/api/repos/popular")
+                        .param("created_from", "2024-01-01")
+                        .param("language", "Java")
+                        .param("limit", "2")
+                        .param("ranked", "true")
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(content().string(startsWith(
+                        "event: repo\ndata: {\"fullName\":\"c/d\"")))
+                .andExpect(content().string(containsString(
+                        "\n\nevent: ranked\ndata: [{\"fullName\":\"a/b\"")));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void stubStream() {
+        ScoreRepo low = new ScoreRepo("c/d", "u", "Java", 1, 0, null, 1.0);
+        ScoreRepo high = new ScoreRepo("a/b", "u", "Java", 2, 0, null, 2.0);
+        when(scoringService.streamAndScore(eq("2024-01-01"), eq("Java"), eq(2), eq(true), eq(ScoreOverrides.NONE), any()))
+                .thenAnswer(inv -> {
+            Consumer<List<ScoreRepo>> onPage = inv.getArgument(5);
+            onPage.accept(List.of(low));
+            onPage.accept(List.of(high));
+            return List.of(high);
+        });
+    }
 }
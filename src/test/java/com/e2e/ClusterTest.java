@@ -0,0 +1,94 @@
+package com.e2e;
+
+import com.app.ScoringApp;
+import com.service.PeerRouter;
+import com.service.RankingKey;
+import com.stub.GitHubStubServer;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs three instances on localhost as one cluster against a {@link GitHubStubServer} and
+ * checks that each search reaches GitHub once for the whole cluster, whichever instance
+ * is asked, and that an instance ranks locally when the owner of a key is down.
+ */
+class ClusterTest {
+
+    private static final int INSTANCES = 3;
+    private static final int KEYS = 12;
+
+    @Test
+    void eachSearchIsFetchedOncePerClusterAndFallsBackWhenTheOwnerIsDown() throws Exception {
+        HttpClient http = HttpClient.newHttpClient();
+        List<ConfigurableApplicationContext> nodes = new ArrayList<>();
+        try (GitHubStubServer stub = new GitHubStubServer()) {
+            List<Integer> ports = new ArrayList<>();
+            for (int i = 0; i < INSTANCES; i++) ports.add(freePort());
+            String peers = ports.stream().map(p -> "http://localhost:" + p).collect(Collectors.joining(","));
+            for (int port : ports) {
+                nodes.add(new SpringApplicationBuilder(ScoringApp.class).run(
+                        "--server.port=" + port,
+                        "--github.token=",
+                        "--github.base-url=" + stub.baseUrl(),
+                        "--github.rate-limit.initial-limit=1000000",
+                        "--hot.enabled=false",
+                        "--cluster.peers=" + peers,
+                        "--cluster.self=http://localhost:" + port));
+            }
+
+            for (int k = 0; k < KEYS; k++) {
+                assertEquals(200, popular(http, ports.get(0), k).statusCode());
+            }
+            int fetched = stub.requests();
+            assertTrue(fetched >= KEYS);
+
+            for (int i = 1; i < INSTANCES; i++) {
+                for (int k = 0; k < KEYS; k++) {
+                    HttpResponse<String> response = popular(http, ports.get(i), k);
+                    assertEquals(200, response.statusCode());
+                    assertTrue(response.body().contains("fullName"), response.body());
+                }
+            }
+            assertEquals(fetched, stub.requests(), "other instances should be answered by the owners' caches");
+
+            PeerRouter router = nodes.get(0).getBean(PeerRouter.class);
+            String downPeer = "http://localhost:" + ports.get(INSTANCES - 1);
+            int orphan = 0;
+            while (!downPeer.equals(router.owner(RankingKey.of("2024-01-01", "L" + orphan, 10)))) orphan++;
+            nodes.remove(INSTANCES - 1).close();
+
+            HttpResponse<String> fallback = popular(http, ports.get(0), orphan);
+            assertEquals(200, fallback.statusCode());
+            assertTrue(fallback.body().contains("fullName"), fallback.body());
+            assertTrue(stub.requests() > fetched, "the ranking should have been computed locally");
+        } finally {
+            nodes.forEach(ConfigurableApplicationContext::close);
+        }
+    }
+
+    private static HttpResponse<String> popular(HttpClient http, int port, int key) throws Exception {
+        URI uri = URI.create("http://localhost:" + port
+                + "/api/repos/popular?created_from=2024-01-01&limit=10&language=L" + key);
+        return http.send(HttpRequest.newBuilder(uri).header("Accept", "application/json").build(),
+                HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
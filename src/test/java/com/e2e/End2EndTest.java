@@ -5,6 +5,7 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.client.TestRestTemplate;
 import org.springframework.boot.test.web.server.LocalServerPort;
@@ -29,6 +30,7 @@ import static org.springframework.test.web.client.response.MockRestResponseCreat
         "github.token=",
         "github.base-url=https://api.github.com"
 })
+@AutoConfigureObservability
 class End2EndTest {
 
     @LocalServerPort
@@ -98,4 +100,29 @@ class End2EndTest {
 
         server.verify();
     }
+
+    @Test
+    void prometheusEndpointExposesSearchAndRequestLatencies() {
+        MockRestServiceServer server = MockRestServiceServer.bindTo(restTemplate)
+                .ignoreExpectOrder(true)
+                .build();
+        server.expect(once(), requestTo(containsString("language:Kotlin")))
+                .andRespond(withSuccess("""
+                    {"total_count": 1, "items": [{"full_name": "o/k", "html_url": "https://gh/k", "language": "Kotlin",
+                      "stargazers_count": 1, "forks_count": 0, "pushed_at": "2025-01-01T00:00:00Z", "archived": false}]}
+                """, MediaType.APPLICATION_JSON));
+
+        http.getForEntity("http://localhost:" + port
+                + "/api/repos/popular?created_from=2024-01-01&language=Kotlin&limit=1", String.class);
+        ResponseEntity<String> scrape = http.getForEntity("http://localhost:" + port + "/actuator/prometheus", String.class);
+
+        assertThat(scrape.getStatusCode().is2xxSuccessful()).isTrue();
+        assertThat(scrape.getBody())
+                .contains("github_search_seconds_bucket{candidate=\"date_language\"")
+                .contains("github_search_items_count")
+                .contains("scoring_rank_seconds_bucket")
+                .contains("http_server_requests_seconds_bucket")
+                .contains("uri=\"/api/repos/popular\"");
+        server.verify();
+    }
 }
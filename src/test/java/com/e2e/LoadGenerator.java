@@ -0,0 +1,114 @@
+package com.e2e;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.IntFunction;
+
+/**
+ * Open-loop load generator: sends GET requests at a fixed arrival rate, whether or not earlier
+ * ones have completed, and reports latency percentiles and throughput.
+ * <p>Latency is measured from the moment a request was scheduled to be sent, not from when
+ * it actually went out, so a server that falls behind shows up in the percentiles instead
+ * of silently lowering the offered load (coordinated omission).</p>
+ */
+public class LoadGenerator {
+
+    private final HttpClient http;
+    private final Duration timeout;
+
+    public LoadGenerator(HttpClient http, Duration timeout) {
+        this.http = http;
+        this.timeout = timeout;
+    }
+
+    /**
+     * Sends {@code rate} requests per second for {@code duration} and waits for all of them.
+     *
+     * @param uris the URI of the i-th request
+     */
+    public Report run(double rate, Duration duration, IntFunction<URI> uris) {
+        int count = (int) (rate * duration.toNanos() / 1e9);
+        long intervalNanos = (long) (1e9 / rate);
+        long[] latencies = new long[count];
+        AtomicInteger errors = new AtomicInteger();
+        List<CompletableFuture<Void>> futures = new ArrayList<>(count);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            long intended = start + i * intervalNanos;
+            long wait = intended - System.nanoTime();
+            if (wait > 0) LockSupport.parkNanos(wait);
+
+            int slot = i;
+            HttpRequest request = HttpRequest.newBuilder(uris.apply(i))
+                    .timeout(timeout)
+                    .header("Accept", "application/json")
+                    .build();
+            futures.add(http.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .handle((response, failure) -> {
+                        latencies[slot] = System.nanoTime() - intended;
+                        if (failure != null || response.statusCode() != 200) errors.incrementAndGet();
+                        return null;
+                    }));
+        }
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+        long elapsed = System.nanoTime() - start;
+
+        Arrays.sort(latencies);
+        return new Report(rate, count, errors.get(), count / (elapsed / 1e9),
+                percentileMillis(latencies, 0.50), percentileMillis(latencies, 0.99),
+                percentileMillis(latencies, 0.999), latencies[count - 1] / 1e6);
+    }
+
+    private static double percentileMillis(long[] sorted, double p) {
+        return sorted[Math.max(0, (int) Math.ceil(sorted.length * p) - 1)] / 1e6;
+    }
+
+    /**
+     * Outcome of one run at a fixed arrival rate.
+     *
+     * @param rate       offered requests per second
+     * @param requests   requests sent
+     * @param errors     requests that failed or answered anything but 200
+     * @param throughput completed requests per second, until the last one finished
+     */
+    public record Report(double rate, int requests, int errors, double throughput,
+                         double p50Millis, double p99Millis, double p999Millis, double maxMillis) {
+
+        @Override
+        public String toString() {
+            return String.format("%6.0f req/s offered: %6.0f req/s done, %d/%d errors, "
+                            + "p50 %.1f ms, p99 %.1f ms, p99.9 %.1f ms, max %.1f ms",
+                    rate, throughput, errors, requests, p50Millis, p99Millis, p999Millis, maxMillis);
+        }
+    }
+
+    /**
+     * Drives a running instance, e.g. one started against {@code GitHubStubServer.main}.
+     * Arguments: base URL of the app, comma-separated rates, seconds per rate.
+     */
+    public static void main(String[] args) {
+        String base = args.length > 0 ? args[0] : "http://localhost:8080";
+        String rates = args.length > 1 ? args[1] : "50,100,200";
+        Duration duration = Duration.ofSeconds(args.length > 2 ? Long.parseLong(args[2]) : 10);
+        try (ExecutorService threads = Executors.newVirtualThreadPerTaskExecutor()) {
+            LoadGenerator load = new LoadGenerator(HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1).executor(threads).build(),
+                    Duration.ofSeconds(30));
+            for (String rate : rates.split(",")) {
+                System.out.println(load.run(Double.parseDouble(rate.trim()), duration, PopularLoadTest.workload(base, 50)));
+            }
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.e2e;
+
+import com.app.ScoringApp;
+import com.stub.GitHubStubServer;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Measures {@code /popular} latency percentiles and throughput at fixed arrival rates, with
+ * the application running against a {@link GitHubStubServer} that adds jitter, injects
+ * errors and enforces a rate limit.
+ * <p>The defaults keep the run short enough for every build. For a benchmark, raise them
+ * with system properties, e.g.
+ * {@code mvn test -Dtest=PopularLoadTest -Dload.rates=100,500,1000 -Dload.duration=30s}.
+ * The stub's randomness and the request mix are seeded, so runs are comparable.</p>
+ */
+class PopularLoadTest {
+
+    private static final String RATES = System.getProperty("load.rates", "50,200");
+    private static final Duration DURATION = Duration.parse("PT" + System.getProperty("load.duration", "3s"));
+    private static final int KEYS = Integer.getInteger("load.keys", 50);
+    private static final long LATENCY_MILLIS = Long.getLong("load.stub.latency", 50);
+    private static final long JITTER_MILLIS = Long.getLong("load.stub.jitter", 50);
+    private static final double ERROR_RATE = Double.parseDouble(System.getProperty("load.stub.error-rate", "0.005"));
+
+    @Test
+    void popularKeepsUpWithFixedArrivalRates() throws Exception {
+        try (GitHubStubServer stub = new GitHubStubServer()
+                     .latencyMillis(LATENCY_MILLIS)
+                     .jitterMillis(JITTER_MILLIS)
+                     .errorRate(ERROR_RATE)
+                     .rateLimit(100_000, Duration.ofMinutes(1));
+             ExecutorService clientThreads = Executors.newVirtualThreadPerTaskExecutor();
+             ConfigurableApplicationContext ctx = new SpringApplicationBuilder(ScoringApp.class).run(
+                     "--server.port=0",
+                     "--github.token=",
+                     "--github.base-url=" + stub.baseUrl(),
+                     "--github.cache.ttl=" + System.getProperty("load.cache-ttl", "1s"),
+                     "--hot.enabled=false")) {
+            String base = "http://localhost:" + ctx.getEnvironment().getProperty("local.server.port");
+            LoadGenerator load = new LoadGenerator(HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .executor(clientThreads)
+                    .build(), Duration.ofSeconds(30));
+
+            load.run(20, Duration.ofSeconds(1), workload(base, KEYS));
+
+            List<LoadGenerator.Report> reports = new ArrayList<>();
+            for (String rate : RATES.split(",")) {
+                reports.add(load.run(Double.parseDouble(rate.trim()), DURATION, workload(base, KEYS)));
+            }
+
+            assertEquals(0, stub.rateLimited(), "the run should stay inside the stub's rate limit");
+            for (LoadGenerator.Report report : reports) {
+                assertTrue(report.errors() <= report.requests() * 0.05,
+                        "only requests hit by injected upstream errors should fail: " + report);
+                assertTrue(report.p50Millis() <= report.p99Millis() && report.p99Millis() <= report.p999Millis());
+                assertTrue(report.throughput() >= report.rate() * 0.5,
+                        "an open-loop run should complete about as fast as it offers load: " + report);
+            }
+        }
+    }
+
+    /**
+     * The request mix: {@code /popular} over {@code keys} distinct languages, skewed so that a
+     * few are requested far more often than the rest, and the same for every run.
+     */
+    static IntFunction<URI> workload(String base, int keys) {
+        return i -> {
+            double r = new SplittableRandom(i).nextDouble();
+            int key = (int) (keys * r * r);
+            return URI.create(base + "/api/repos/popular?created_from=2024-01-01&limit=10&language=L" + key);
+        };
+    }
+}
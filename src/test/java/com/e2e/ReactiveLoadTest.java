@@ -0,0 +1,118 @@
+package com.e2e;
+
+import com.app.ScoringApp;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.stub.GitHubStubServer;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the same burst of concurrent {@code /popular} requests against the servlet and the
+ * reactive variant of the application, both backed by a slow GitHub stub, and compares
+ * platform threads and throughput.
+ */
+class ReactiveLoadTest {
+
+    private static final int CONCURRENCY = 200;
+    private static final int ROUNDS = 3;
+    private static final long UPSTREAM_LATENCY_MILLIS = 100;
+    private static final double THROUGHPUT_TOLERANCE = 0.5;
+
+    @Test
+    void reactiveVariantServesSameLoadWithFarFewerThreads() throws Exception {
+        try (GitHubStubServer stub = new GitHubStubServer().latencyMillis(UPSTREAM_LATENCY_MILLIS);
+             ExecutorService clientThreads = Executors.newVirtualThreadPerTaskExecutor()) {
+            HttpClient http = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .executor(clientThreads)
+                    .build();
+
+            Result servlet = run("servlet", stub, http);
+            Result reactive = run("reactive", stub, http);
+
+            assertEquals(servlet.sample(), reactive.sample(), "both variants should rank identically");
+            assertTrue(reactive.peakThreads() < servlet.peakThreads(),
+                    "reactive variant should not need a thread per in-flight request: peak "
+                            + reactive.peakThreads() + " vs " + servlet.peakThreads() + " threads");
+            // throughput is CPU-bound on small machines, so allow for run-to-run noise
+            assertTrue(reactive.throughput() > servlet.throughput() * THROUGHPUT_TOLERANCE,
+                    "reactive variant should keep up with the servlet one: "
+                            + Math.round(reactive.throughput()) + " vs " + Math.round(servlet.throughput()) + " req/s");
+        }
+    }
+
+    private static Result run(String webType, GitHubStubServer stub, HttpClient http) throws Exception {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        try (ConfigurableApplicationContext ctx = new SpringApplicationBuilder(ScoringApp.class).run(
+                "--spring.main.web-application-type=" + webType,
+                "--server.port=0",
+                "--github.token=",
+                "--github.base-url=" + stub.baseUrl(),
+                "--github.rate-limit.initial-limit=1000000",
+                "--github.cache.max-entries=0",
+                "--hot.enabled=false")) {
+            String base = "http://localhost:" + ctx.getEnvironment().getProperty("local.server.port")
+                    + "/api/repos/popular?created_from=2024-01-01&limit=5&language=";
+
+            JsonNode sample = new ObjectMapper().readTree(get(http, base + "Java").join().body());
+            assertNdjsonEndsWithRanking(http, base + "Java&ranked=true");
+            burst(http, base, -1);
+
+            threads.resetPeakThreadCount();
+            long start = System.nanoTime();
+            for (int round = 0; round < ROUNDS; round++) {
+                burst(http, base, round);
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+            return new Result(threads.getPeakThreadCount(), ROUNDS * CONCURRENCY / seconds, sample);
+        }
+    }
+
+    private static void burst(HttpClient http, String base, int round) {
+        List<CompletableFuture<HttpResponse<String>>> futures = new ArrayList<>(CONCURRENCY);
+        for (int i = 0; i < CONCURRENCY; i++) {
+            // distinct languages so that single-flight cannot coalesce the servlet requests
+            futures.add(get(http, base + "L" + round + "x" + i));
+        }
+        for (CompletableFuture<HttpResponse<String>> f : futures) {
+            assertEquals(200, f.join().statusCode());
+        }
+    }
+
+    private static void assertNdjsonEndsWithRanking(HttpClient http, String uri) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(uri))
+                .header("Accept", "application/x-ndjson")
+                .build();
+        List<String> lines = http.send(request, HttpResponse.BodyHandlers.ofLines()).body().toList();
+        assertEquals(6, lines.size());
+        assertTrue(lines.get(0).contains("\"type\":\"repo\""));
+        assertTrue(lines.get(5).contains("\"type\":\"ranked\""));
+    }
+
+    private static CompletableFuture<HttpResponse<String>> get(HttpClient http, String uri) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(uri))
+                .timeout(Duration.ofSeconds(30))
+                .header("Accept", "application/json")
+                .build();
+        return http.sendAsync(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private record Result(int peakThreads, double throughput, JsonNode sample) { }
+}
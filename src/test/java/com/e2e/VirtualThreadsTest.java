@@ -0,0 +1,112 @@
+package com.e2e;
+
+import com.app.ScoringApp;
+import com.stub.GitHubStubServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the servlet variant on virtual threads with Tomcat's platform pool capped far below
+ * the offered concurrency, against a slow GitHub stub.
+ */
+@SpringBootTest(
+        classes = ScoringApp.class,
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "spring.threads.virtual.enabled=true",
+                "server.tomcat.threads.max=10",
+                "scoring.request-timeout=3s",
+                "github.token=",
+                "github.rate-limit.initial-limit=1000000",
+                "github.cache.max-entries=0",
+                "hot.enabled=false"
+        }
+)
+class VirtualThreadsTest {
+
+    private static final int CONCURRENCY = 100;
+
+    private static final GitHubStubServer STUB = startStub();
+
+    @LocalServerPort
+    int port;
+
+    HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+    @DynamicPropertySource
+    static void github(DynamicPropertyRegistry registry) {
+        registry.add("github.base-url", STUB::baseUrl);
+    }
+
+    @AfterAll
+    static void stopStub() {
+        STUB.close();
+    }
+
+    @Test
+    void requestsAreNotBoundByTheTomcatThreadPool() {
+        STUB.latencyMillis(300);
+        STUB.resetCounters();
+
+        List<CompletableFuture<HttpResponse<String>>> responses = new ArrayList<>();
+        for (int i = 0; i < CONCURRENCY; i++) {
+            // distinct languages so that single-flight cannot coalesce the requests
+            responses.add(get("L" + i));
+        }
+        for (CompletableFuture<HttpResponse<String>> r : responses) {
+            assertEquals(200, r.join().statusCode());
+        }
+
+        assertTrue(STUB.maxInFlight() > 10,
+                "with virtual threads more requests should reach GitHub at once than Tomcat has platform threads: "
+                        + STUB.maxInFlight());
+    }
+
+    @Test
+    void searchIsCancelledWhenTheRequestDeadlinePasses() {
+        STUB.latencyMillis(10_000);
+        try {
+            long start = System.nanoTime();
+            HttpResponse<String> response = get("Java").join();
+
+            assertEquals(504, response.statusCode());
+            assertTrue(System.nanoTime() - start < Duration.ofSeconds(6).toNanos(),
+                    "the request should end at its 3s deadline, not when GitHub answers");
+        } finally {
+            STUB.latencyMillis(0);
+        }
+    }
+
+    private CompletableFuture<HttpResponse<String>> get(String language) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port
+                        + "/api/repos/popular?created_from=2024-01-01&limit=5&language=" + language))
+                .timeout(Duration.ofSeconds(30))
+                .build();
+        return http.sendAsync(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static GitHubStubServer startStub() {
+        try {
+            return new GitHubStubServer();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.parser;
+
+import com.repo.CursorPage;
+import com.repo.GitHubRepo;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GraphQlSearchResponseParserTest {
+
+    @Test
+    void extractsScoredFieldsAndCursor() throws Exception {
+        String body = """
+        {
+          "data": {
+            "search": {
+              "repositoryCount": 4242,
+              "pageInfo": {"hasNextPage": true, "endCursor": "Y3Vyc29yOjI="},
+              "nodes": [
+                {
+                  "databaseId": 17,
+                  "nameWithOwner": "o/r1",
+                  "url": "https://gh/r1",
+                  "primaryLanguage": {"name": "Java"},
+                  "stargazerCount": 10,
+                  "forkCount": 2,
+                  "pushedAt": "2025-10-20T00:00:00Z",
+                  "isArchived": true
+                },
+                {},
+                {
+                  "nameWithOwner": "o/r2",
+                  "url": "https://gh/r2",
+                  "primaryLanguage": null,
+                  "stargazerCount": 5,
+                  "forkCount": 0,
+                  "pushedAt": null,
+                  "isArchived": false
+                }
+              ]
+            }
+          }
+        }
+        """;
+
+        CursorPage page = parse(body);
+
+        assertEquals(4242, page.page().totalCount());
+        assertEquals("Y3Vyc29yOjI=", page.endCursor());
+        assertEquals(2, page.page().items().size());
+        assertEquals(new GitHubRepo(17, "o/r1", "https://gh/r1", "Java", 10, 2, "2025-10-20T00:00:00Z", true),
+                page.page().items().get(0));
+        GitHubRepo second = page.page().items().get(1);
+        assertEquals("o/r2", second.full_name());
+        assertNull(second.language());
+        assertNull(second.pushed_at());
+    }
+
+    @Test
+    void lastPageHasNoCursor() throws Exception {
+        String body = """
+        {"data": {"search": {"repositoryCount": 1,
+          "pageInfo": {"hasNextPage": false, "endCursor": "Y3Vyc29yOjE="},
+          "nodes": [{"nameWithOwner": "o/r1", "stargazerCount": 1}]}}}
+        """;
+
+        CursorPage page = parse(body);
+
+        assertNull(page.endCursor());
+        assertEquals(1, page.page().items().size());
+    }
+
+    @Test
+    void errorsWithoutDataAreRaised() {
+        String body = """
+        {"errors": [{"type": "RATE_LIMITED", "message": "API rate limit exceeded"}, {"message": "second"}]}
+        """;
+
+        IOException e = assertThrows(IOException.class, () -> parse(body));
+        assertTrue(e.getMessage().contains("API rate limit exceeded"), e.getMessage());
+    }
+
+    @Test
+    void partialDataWinsOverErrors() throws Exception {
+        String body = """
+        {"errors": [{"message": "timeout on some nodes"}],
+         "data": {"search": {"repositoryCount": 1, "pageInfo": {"hasNextPage": false},
+           "nodes": [{"nameWithOwner": "o/r1"}]}}}
+        """;
+
+        assertEquals(1, parse(body).page().items().size());
+    }
+
+    private static CursorPage parse(String body) throws IOException {
+        return GraphQlSearchResponseParser.parse(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,65 @@
+package com.parser;
+
+import com.repo.GitHubRepo;
+import com.repo.SearchPage;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SearchResponseParserTest {
+
+    @Test
+    void extractsScoredFieldsAndSkipsNestedObjects() throws Exception {
+        String body = """
+        {
+          "total_count": 4242,
+          "incomplete_results": false,
+          "items": [
+            {
+              "id": 17,
+              "name": "r1",
+              "full_name": "o/r1",
+              "owner": {"login": "o", "id": 1, "html_url": "https://gh/o", "site_admin": false},
+              "html_url": "https://gh/r1",
+              "topics": ["a", "b"],
+              "license": {"key": "mit", "name": "MIT License"},
+              "language": "Java",
+              "stargazers_count": 10,
+              "forks_count": 2,
+              "pushed_at": "2025-10-20T00:00:00Z",
+              "archived": true,
+              "score": 1.0
+            },
+            {
+              "full_name": "o/r2",
+              "html_url": "https://gh/r2",
+              "language": null,
+              "license": null,
+              "pushed_at": null
+            }
+          ]
+        }
+        """;
+
+        SearchPage page = SearchResponseParser.parse(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(4242, page.totalCount());
+        assertEquals(2, page.items().size());
+        assertEquals(new GitHubRepo(17, "o/r1", "https://gh/r1", "Java", 10, 2, "2025-10-20T00:00:00Z", true),
+                page.items().get(0));
+        assertEquals(new GitHubRepo(0, "o/r2", "https://gh/r2", null, 0, 0, null, false),
+                page.items().get(1));
+    }
+
+    @Test
+    void missingItemsYieldsEmptyPage() throws Exception {
+        SearchPage page = SearchResponseParser.parse(
+                new ByteArrayInputStream("{\"message\": \"Validation Failed\"}".getBytes(StandardCharsets.UTF_8)));
+
+        assertTrue(page.items().isEmpty());
+        assertEquals(0, page.totalCount());
+    }
+}
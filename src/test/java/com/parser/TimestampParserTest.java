@@ -0,0 +1,36 @@
+package com.parser;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimestampParserTest {
+
+    @Test
+    void matchesInstantParseForGitHubTimestamps() {
+        Random rnd = new Random(1);
+        for (int i = 0; i < 100_000; i++) {
+            Instant t = Instant.ofEpochSecond(rnd.nextLong(0, 4_102_444_800L));
+            String iso = t.toString();
+            assertTrue(TimestampParser.isCompactUtc(iso), iso);
+            assertEquals(t.getEpochSecond(), TimestampParser.compactUtcEpochSeconds(iso), iso);
+        }
+        assertEquals(951_782_400L, TimestampParser.epochSeconds("2000-02-29T00:00:00Z"));
+    }
+
+    @Test
+    void otherFormatsFallBackToInstantParse() {
+        assertFalse(TimestampParser.isCompactUtc("2025-01-01T00:00:00.5Z"));
+        assertFalse(TimestampParser.isCompactUtc("2025-02-29T00:00:00Z"));
+        assertFalse(TimestampParser.isCompactUtc("2025-13-01T00:00:00Z"));
+        assertFalse(TimestampParser.isCompactUtc("2025-01-01 00:00:00Z"));
+
+        assertEquals(Instant.parse("2025-01-01T00:00:00.5Z").getEpochSecond(),
+                TimestampParser.epochSeconds("2025-01-01T00:00:00.5Z"));
+        assertThrows(DateTimeParseException.class, () -> TimestampParser.epochSeconds("2025-02-29T00:00:00Z"));
+    }
+}
@@ -0,0 +1,95 @@
+package com.service;
+
+import com.client.RateLimitExceededException;
+import com.repo.RankingResult;
+import com.repo.RankingSpec;
+import com.repo.ScoreRepo;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class BatchRankingServiceTest {
+
+    @Test
+    void distinctSpecsRunConcurrentlyAndDuplicatesOnce() {
+        ScoringService scoring = mock(ScoringService.class);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        when(scoring.ranking(anyString(), anyString(), anyInt(), eq(ScoreOverrides.NONE))).thenAnswer(inv -> {
+            peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+            Thread.sleep(200);
+            running.decrementAndGet();
+            return Ranking.live(List.of(new ScoreRepo("o/" + inv.getArgument(1), "", inv.getArgument(1), 1, 0, null, 1.0)));
+        });
+        BatchRankingService batch = new BatchRankingService(scoring, 8);
+
+        List<RankingSpec> specs = new ArrayList<>();
+        for (int i = 0; i < 20; i++) specs.add(new RankingSpec("Lang" + i, "2024-01-01", 5));
+        specs.add(new RankingSpec("lang3 ", "2024-01-01", 5));
+
+        long start = System.nanoTime();
+        List<RankingResult> results = batch.fetchAndScoreAll(specs);
+        Duration took = Duration.ofNanos(System.nanoTime() - start);
+
+        assertEquals(21, results.size());
+        assertEquals("o/Lang7", results.get(7).repos().get(0).fullName());
+        assertEquals(results.get(3).repos(), results.get(20).repos());
+        assertEquals(8, peak.get(), "fan-out is bounded by max-concurrency");
+        assertTrue(took.compareTo(Duration.ofMillis(1500)) < 0, "20 x 200ms at 8-way should take ~600ms, took " + took);
+        verify(scoring, times(20)).ranking(anyString(), anyString(), eq(5), eq(ScoreOverrides.NONE));
+    }
+
+    @Test
+    void failuresAndInvalidSpecsAreReportedPerSpec() {
+        ScoringService scoring = mock(ScoringService.class);
+        when(scoring.ranking("2024-01-01", "Java", 5, ScoreOverrides.NONE)).thenReturn(Ranking.live(List.of()));
+        when(scoring.ranking("2024-01-01", "Go", 5, ScoreOverrides.NONE)).thenThrow(new RateLimitExceededException("shed", 30));
+        BatchRankingService batch = new BatchRankingService(scoring, 4);
+
+        List<RankingResult> results = batch.fetchAndScoreAll(List.of(
+                new RankingSpec("Java", "2024-01-01", null),
+                new RankingSpec("Go", "2024-01-01", 5),
+                new RankingSpec(" ", "2024-01-01", 5),
+                new RankingSpec("Rust", "2024-01-01", 0)
+        ));
+
+        assertEquals(List.of(), results.get(0).repos());
+        assertNull(results.get(0).error());
+        assertNull(results.get(0).stale());
+        assertEquals("GitHub rate limit exhausted, retry after 30s", results.get(1).error());
+        assertEquals("language is required", results.get(2).error());
+        assertEquals("limit must be positive", results.get(3).error());
+        verifyNoMoreInteractions(ignoreStubs(scoring));
+    }
+
+    @Test
+    void staleRankingsAreMarkedWithTheirAge() {
+        ScoringService scoring = mock(ScoringService.class);
+        List<ScoreRepo> repos = List.of(new ScoreRepo("o/r", "", "Java", 1, 0, null, 1.0));
+        when(scoring.ranking("2024-01-01", "Java", 5, ScoreOverrides.NONE))
+                .thenReturn(new Ranking(repos, Instant.now().minusSeconds(600)));
+        when(scoring.ranking("2024-01-01", "Go", 5, ScoreOverrides.NONE)).thenReturn(Ranking.live(repos));
+        BatchRankingService batch = new BatchRankingService(scoring, 4);
+
+        List<RankingResult> results = batch.fetchAndScoreAll(List.of(
+                new RankingSpec("Java", "2024-01-01", 5),
+                new RankingSpec("Go", "2024-01-01", 5)
+        ));
+
+        assertEquals(repos, results.get(0).repos());
+        assertEquals(Boolean.TRUE, results.get(0).stale());
+        assertTrue(results.get(0).age() >= 600 && results.get(0).age() < 660, "age: " + results.get(0).age());
+        assertNull(results.get(1).stale());
+        assertNull(results.get(1).age());
+    }
+}
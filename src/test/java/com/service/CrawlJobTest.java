@@ -0,0 +1,54 @@
+package com.service;
+
+import com.client.RequestPriority;
+import com.client.ShardedCrawler;
+import com.repo.GitHubRepo;
+import com.store.SnapshotStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class CrawlJobTest {
+
+    @Test
+    void runOnceUpsertsEachCrawledWindowInTheBackground(@TempDir Path dir) throws Exception {
+        ShardedCrawler crawler = mock(ShardedCrawler.class);
+        LocalDate today = LocalDate.parse("2025-01-10");
+        when(crawler.crawl(eq("Java"), eq(today.minusDays(6)), eq(today), any())).thenAnswer(inv -> {
+            assertEquals(RequestPriority.BACKGROUND, RequestPriority.current());
+            Consumer<List<GitHubRepo>> onWindow = inv.getArgument(3);
+            onWindow.accept(List.of(new GitHubRepo(1, "o/a", "https://gh/a", "Java", 3, 1, "2025-01-09T00:00:00Z", false)));
+            onWindow.accept(List.of(new GitHubRepo(2, "o/b", "https://gh/b", "Java", 5, 0, "2025-01-04T00:00:00Z", false)));
+            return new ShardedCrawler.Result(2, 3, 2, 0, 0);
+        });
+        when(crawler.crawl(eq("Go"), any(), any(), any())).thenThrow(new IllegalStateException("boom"));
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        Clock clock = Clock.fixed(Instant.parse("2025-01-10T08:00:00Z"), ZoneOffset.UTC);
+
+        try (SnapshotStore store = SnapshotStore.open(dir)) {
+            CrawlJob job = new CrawlJob(crawler, store, registry, List.of(" Go", "Java "),
+                    Duration.ofDays(7), Duration.ofHours(24), clock);
+
+            job.runOnce();
+
+            assertEquals(2, store.size());
+            assertEquals(2.0, registry.get("github.crawl.repos").tag("language", "Java").counter().count());
+            assertEquals(2.0, registry.get("github.crawl.windows").tags("language", "Java", "outcome", "complete")
+                    .counter().count());
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.service;
+
+import com.repo.ScoreRepo;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HotRankingCacheTest {
+
+    private static final List<ScoreRepo> RANKING = List.of(new ScoreRepo("o/r", "", "Java", 1, 0, null, 1.0));
+
+    @Test
+    void mostRequestedKeysBecomeHotAndAreServedUntilStale() {
+        MutableClock clock = new MutableClock();
+        HotRankingCache cache = new HotRankingCache(1, 2, Duration.ofSeconds(60), clock);
+        RankingKey java = RankingKey.of("2024-01-01", "Java", 5);
+        RankingKey go = RankingKey.of("2024-01-01", "Go", 5);
+
+        for (int i = 0; i < 3; i++) cache.get(java);
+        cache.get(go);
+        cache.get(go);
+        cache.rotate();
+
+        assertEquals(List.of(java), cache.hotKeys());
+        assertEquals(java, cache.nextDue());
+
+        cache.put(java, RANKING);
+        assertNull(cache.nextDue());
+        assertEquals(RANKING, cache.get(RankingKey.of(" 2024-01-01", "java ", 5)));
+
+        clock.advance(Duration.ofSeconds(61));
+        assertEquals(java, cache.nextDue());
+        assertEquals(RANKING, cache.get(java));
+
+        clock.advance(Duration.ofSeconds(120));
+        assertNull(cache.get(java), "rankings not refreshed for three intervals are not served");
+    }
+
+    @Test
+    void keyThatRefreshedEmptyWaitsAnIntervalInsteadOfStarvingTheOthers() {
+        MutableClock clock = new MutableClock();
+        HotRankingCache cache = new HotRankingCache(2, 1, Duration.ofSeconds(60), clock);
+        RankingKey empty = RankingKey.of("2024-01-01", "Cobol", 5);
+        RankingKey java = RankingKey.of("2024-01-01", "Java", 5);
+
+        cache.get(empty);
+        cache.get(empty);
+        cache.get(java);
+        cache.rotate();
+
+        assertEquals(empty, cache.nextDue());
+        cache.attempted(empty);
+        assertEquals(java, cache.nextDue(), "a key without a ranking must not be picked again right away");
+        cache.attempted(java);
+        cache.put(java, RANKING);
+        assertNull(cache.nextDue());
+
+        clock.advance(Duration.ofSeconds(30));
+        assertNull(cache.nextDue());
+        clock.advance(Duration.ofSeconds(31));
+        assertEquals(empty, cache.nextDue(), "the empty key is retried after one interval");
+        assertNull(cache.get(empty));
+    }
+
+    @Test
+    void demandDecaysSoColdKeysLeaveTheHotSet() {
+        HotRankingCache cache = new HotRankingCache(4, 2, Duration.ofSeconds(60), new MutableClock());
+        RankingKey key = RankingKey.of("", "Rust", 10);
+
+        cache.get(key);
+        cache.get(key);
+        cache.get(key);
+        cache.rotate();
+        cache.put(key, RANKING);
+        assertEquals(List.of(key), cache.hotKeys());
+
+        cache.rotate();
+        assertEquals(List.of(), cache.hotKeys());
+        assertNull(cache.get(key));
+    }
+
+    @Test
+    void disabledCacheNeverAnswers() {
+        HotRankingCache cache = HotRankingCache.disabled();
+        RankingKey key = RankingKey.of("", "Java", 5);
+
+        cache.get(key);
+        cache.get(key);
+        cache.rotate();
+        cache.put(key, RANKING);
+
+        assertNull(cache.get(key));
+        assertNull(cache.nextDue());
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now = Instant.parse("2025-01-01T00:00:00Z");
+
+        void advance(Duration d) { now = now.plus(d); }
+
+        @Override public ZoneOffset getZone() { return ZoneOffset.UTC; }
+        @Override public Clock withZone(java.time.ZoneId zone) { return this; }
+        @Override public Instant instant() { return now; }
+    }
+}
@@ -0,0 +1,148 @@
+package com.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.client.ExpectedCount.once;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withBadRequest;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withServerError;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+class PeerRouterTest {
+
+    private static final List<String> PEERS = List.of("http://a:8080", "http://b:8080/", "http://c:8080");
+
+    @Test
+    void everyPeerAgreesOnOneOwnerAndKeysSpreadEvenly() {
+        List<PeerRouter> routers = PEERS.stream().map(self -> router(PEERS, self)).toList();
+        Map<String, Integer> owned = new HashMap<>();
+
+        for (int i = 0; i < 3000; i++) {
+            RankingKey key = RankingKey.of("2024-01-01", "lang" + i, 10);
+            String owner = null;
+            int local = 0;
+            for (int p = 0; p < routers.size(); p++) {
+                String o = routers.get(p).owner(key);
+                if (o == null) {
+                    local++;
+                    o = PEERS.get(p).replaceAll("/$", "");
+                }
+                if (owner == null) owner = o;
+                assertEquals(owner, o, "peers disagree on the owner of " + key);
+            }
+            assertEquals(1, local, "exactly one peer owns " + key);
+            owned.merge(owner, 1, Integer::sum);
+        }
+
+        assertEquals(3, owned.size());
+        owned.values().forEach(n -> assertTrue(n > 700 && n < 1300, "uneven spread: " + owned));
+    }
+
+    @Test
+    void addingAPeerOnlyMovesKeysToIt() {
+        PeerRouter three = router(PEERS, "http://a:8080");
+        List<String> four = List.of("http://a:8080", "http://b:8080", "http://c:8080", "http://d:8080");
+        PeerRouter grown = router(four, "http://a:8080");
+
+        int moved = 0;
+        for (int i = 0; i < 3000; i++) {
+            RankingKey key = RankingKey.of("2024-01-01", "lang" + i, 10);
+            String before = three.owner(key);
+            String after = grown.owner(key);
+            if (before == null ? after != null : !before.equals(after)) {
+                assertEquals("http://d:8080", after, "a key moved between existing peers");
+                moved++;
+            }
+        }
+        assertTrue(moved > 450 && moved < 1050, "about a quarter of the keys should move: " + moved);
+    }
+
+    @Test
+    void selfMustBeAPeerAndNoPeersMeansLocal() {
+        assertThrows(IllegalArgumentException.class, () -> router(PEERS, "http://z:8080"));
+
+        PeerRouter disabled = PeerRouter.disabled();
+        assertFalse(disabled.isEnabled());
+        assertNull(disabled.owner(RankingKey.of("2024-01-01", "java", 5)));
+        assertNull(disabled.forward("2024-01-01", "java", 5, ScoreOverrides.NONE));
+    }
+
+    @Test
+    void onlyUnreachableOrOverloadedOwnersAreSkipped() {
+        RestTemplate rt = new RestTemplate();
+        MockRestServiceServer server = MockRestServiceServer.bindTo(rt).build();
+        PeerRouter router = new PeerRouter(List.of("http://a:8080", "http://b:8080"), "http://a:8080", 128, rt,
+                Duration.ofMinutes(1));
+        int k = 0;
+        while (router.owner(RankingKey.of("2024-01-01", "lang" + k, 5)) == null) k++;
+        String language = "lang" + k;
+
+        server.expect(once(), requestTo(containsString("http://b:8080/api/repos/popular")))
+                .andExpect(header(PeerRouter.FORWARDED_HEADER, "http://a:8080"))
+                .andRespond(withBadRequest().body("{\"error\":\"bad limit\"}").contentType(MediaType.APPLICATION_JSON));
+        server.expect(once(), requestTo(containsString("http://b:8080")))
+                .andRespond(withServerError());
+        server.expect(once(), requestTo(containsString("http://b:8080")))
+                .andRespond(withSuccess("[]", MediaType.APPLICATION_JSON));
+        server.expect(once(), requestTo(containsString("http://b:8080")))
+                .andRespond(withStatus(HttpStatus.BAD_GATEWAY));
+
+        HttpClientErrorException rejected = assertThrows(HttpClientErrorException.class,
+                () -> router.forward("2024-01-01", language, 5, ScoreOverrides.NONE));
+        assertEquals(400, rejected.getStatusCode().value());
+        assertEquals("{\"error\":\"bad limit\"}", rejected.getResponseBodyAsString());
+        assertNull(router.forward("2024-01-01", language, 5, ScoreOverrides.NONE), "a 500 is ranked locally");
+        assertEquals(List.of(), router.forward("2024-01-01", language, 5, ScoreOverrides.NONE).repos(),
+                "neither the 400 nor the 500 marked the owner down");
+        assertNull(router.forward("2024-01-01", language, 5, ScoreOverrides.NONE));
+        assertNull(router.forward("2024-01-01", language, 5, ScoreOverrides.NONE), "a 502 skips the owner");
+        server.verify();
+    }
+
+    @Test
+    void staleAnswerWithAnUnreadableAgeIsStillServed() {
+        RestTemplate rt = new RestTemplate();
+        MockRestServiceServer server = MockRestServiceServer.bindTo(rt).build();
+        PeerRouter router = new PeerRouter(List.of("http://a:8080", "http://b:8080"), "http://a:8080", 128, rt,
+                Duration.ofMinutes(1));
+        int k = 0;
+        while (router.owner(RankingKey.of("2024-01-01", "lang" + k, 5)) == null) k++;
+        String language = "lang" + k;
+
+        HttpHeaders stale = new HttpHeaders();
+        stale.set(HttpHeaders.WARNING, "110 - \"Response is Stale\"");
+        stale.set(HttpHeaders.AGE, "soon");
+        server.expect(once(), requestTo(containsString("http://b:8080")))
+                .andRespond(withSuccess("[]", MediaType.APPLICATION_JSON).headers(stale));
+        stale.set(HttpHeaders.AGE, "90");
+        server.expect(once(), requestTo(containsString("http://b:8080")))
+                .andRespond(withSuccess("[]", MediaType.APPLICATION_JSON).headers(stale));
+
+        Ranking unreadable = router.forward("2024-01-01", language, 5, ScoreOverrides.NONE);
+        assertTrue(unreadable.isStale());
+        assertEquals(0, unreadable.ageSeconds(Instant.now()));
+        Ranking aged = router.forward("2024-01-01", language, 5, ScoreOverrides.NONE);
+        assertTrue(aged.ageSeconds(Instant.now()) >= 90);
+        server.verify();
+    }
+
+    private static PeerRouter router(List<String> peers, String self) {
+        return new PeerRouter(peers, self, 128, null, Duration.ofSeconds(5));
+    }
+}
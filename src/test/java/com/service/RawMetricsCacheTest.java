@@ -0,0 +1,76 @@
+package com.service;
+
+import com.repo.GitHubRepo;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RawMetricsCacheTest {
+
+    private static final List<GitHubRepo> TEN = IntStream.range(0, 10)
+            .mapToObj(i -> new GitHubRepo(i, "o/r" + i, "", "Java", 10 - i, 0, null, false))
+            .toList();
+
+    @Test
+    void answersSmallerLimitsWithAPrefixUntilExpiry() {
+        MutableClock clock = new MutableClock();
+        RawMetricsCache cache = new RawMetricsCache(Duration.ofMinutes(10), 8, clock);
+
+        cache.put("2024-01-01", "Java", 10, TEN);
+
+        assertEquals(TEN, cache.get(" 2024-01-01", "JAVA", 10));
+        assertEquals(TEN.subList(0, 3), cache.get("2024-01-01", "java", 3));
+        assertNull(cache.get("2024-01-01", "Java", 11));
+
+        clock.advance(Duration.ofMinutes(11));
+        assertNull(cache.get("2024-01-01", "Java", 3));
+
+        RawMetricsCache.Stats stats = cache.stats();
+        assertEquals(2, stats.hits());
+        assertEquals(2, stats.misses());
+    }
+
+    @Test
+    void smallerSearchDoesNotReplaceAFreshLargerOne() {
+        RawMetricsCache cache = new RawMetricsCache(Duration.ofMinutes(10), 8, new MutableClock());
+
+        cache.put("2024-01-01", "Java", 10, TEN);
+        cache.put("2024-01-01", "Java", 2, TEN.subList(0, 2));
+
+        assertEquals(TEN, cache.get("2024-01-01", "Java", 10));
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedAndCanBeDisabled() {
+        RawMetricsCache cache = new RawMetricsCache(Duration.ofMinutes(10), 2, new MutableClock());
+
+        cache.put("2024-01-01", "Java", 10, TEN);
+        cache.put("2024-01-01", "Go", 10, TEN);
+        cache.get("2024-01-01", "Java", 10);
+        cache.put("2024-01-01", "Rust", 10, TEN);
+
+        assertNotNull(cache.get("2024-01-01", "Java", 10));
+        assertNull(cache.get("2024-01-01", "Go", 10));
+
+        RawMetricsCache disabled = RawMetricsCache.disabled();
+        disabled.put("2024-01-01", "Java", 10, TEN);
+        assertNull(disabled.get("2024-01-01", "Java", 10));
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now = Instant.parse("2025-01-01T00:00:00Z");
+
+        void advance(Duration d) { now = now.plus(d); }
+
+        @Override public ZoneOffset getZone() { return ZoneOffset.UTC; }
+        @Override public Clock withZone(java.time.ZoneId zone) { return this; }
+        @Override public Instant instant() { return now; }
+    }
+}
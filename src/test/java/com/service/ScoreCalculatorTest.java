@@ -4,9 +4,13 @@ import com.repo.GitHubRepo;
 import org.junit.jupiter.api.Test;
 
 import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 import java.util.Map;
+import java.util.Random;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
 public class ScoreCalculatorTest {
 
@@ -36,9 +40,105 @@ public class ScoreCalculatorTest {
         assertTrue(scorer.score(r) > 0.0);
     }
 
+    @Test
+    void scoreBatchMatchesRecordScoring() {
+        final var scorer = ScoreCalculator.from(Map.of("stars", 0.7, "forks", 0.2, "recency", 0.1), 60);
+        final ScoringContext ctx = ScoringContext.at(Instant.parse("2025-06-02T12:34:56Z"));
+        final int n = 1_003;
+        final int[] stars = new int[n];
+        final int[] forks = new int[n];
+        final long[] pushed = new long[n];
+        final GitHubRepo[] repos = new GitHubRepo[n];
+        final Random rnd = new Random(11);
+        final Instant base = Instant.parse("2025-06-01T00:00:00Z");
+        for (int i = 0; i < n; i++) {
+            stars[i] = rnd.nextInt(400_000);
+            forks[i] = rnd.nextInt(50_000);
+            final Instant p = base.minusSeconds(rnd.nextInt(3 * 365 * 86_400));
+            pushed[i] = i % 97 == 0 ? ScoreCalculator.NO_PUSH : p.getEpochSecond();
+            repos[i] = new GitHubRepo("o/r" + i, "", "Java", stars[i], forks[i], i % 97 == 0 ? null : p.toString(), false);
+        }
+
+        final double[] out = new double[n];
+        scorer.scoreBatch(stars, forks, pushed, ctx.instant().getEpochSecond(), out);
+
+        for (int i = 0; i < n; i++) {
+            assertEquals(scorer.score(repos[i], ctx), out[i], "row " + i);
+        }
+    }
+
+    @Test
+    void vectorizedBatchAgreesWithScalarBatch() {
+        final var scalar = ScoreCalculator.from(Map.of("stars", 0.7, "forks", 0.2, "recency", 0.1), 60, new ScoreOptions(false, true, false));
+        final var simd = ScoreCalculator.from(Map.of("stars", 0.7, "forks", 0.2, "recency", 0.1), 60, new ScoreOptions(true, true, false));
+        assumeTrue(simd.isVectorized(), "the Vector API kernel is only built and loaded with -Pvector");
+        final int n = 4_099;
+        final int[] stars = new int[n];
+        final int[] forks = new int[n];
+        final long[] pushed = new long[n];
+        final Random rnd = new Random(5);
+        final long now = Instant.parse("2025-06-01T00:00:00Z").getEpochSecond();
+        for (int i = 0; i < n; i++) {
+            stars[i] = rnd.nextInt(400_000);
+            forks[i] = rnd.nextInt(50_000);
+            pushed[i] = i % 31 == 0 ? ScoreCalculator.NO_PUSH : now - rnd.nextInt(3 * 365 * 86_400);
+        }
+
+        final double[] expected = new double[n];
+        final double[] actual = new double[n];
+        scalar.scoreBatch(stars, forks, pushed, now, expected);
+        for (int round = 0; round < 50; round++) {
+            simd.scoreBatch(stars, forks, pushed, now, actual);
+        }
+
+        for (int i = 0; i < n; i++) {
+            assertEquals(expected[i], actual[i], 1e-12 * Math.max(1.0, Math.abs(expected[i])), "row " + i);
+        }
+    }
+
+    @Test
+    void fastPathsMatchInstantParseAndPerItemExp() {
+        final Map<String, Double> w = Map.of("stars",0.7,"forks",0.2,"recency",0.1);
+        final var plain = ScoreCalculator.from(w, 60, new ScoreOptions(false, false, false));
+        final var fast = ScoreCalculator.from(w, 60, new ScoreOptions(false, true, true));
+        final Random rnd = new Random(3);
+        final Instant now = Instant.parse("2025-06-01T10:15:30.123456789Z");
+        final ScoringContext ctx = ScoringContext.at(now);
+
+        for (int i = 0; i < 20_000; i++) {
+            final Instant pushed = now.minusSeconds(rnd.nextInt(12 * 365 * 86_400) - 30 * 86_400);
+            final String iso = i % 10 == 0 ? pushed.plusMillis(rnd.nextInt(1000)).toString() : pushed.toString();
+            final var r = new GitHubRepo("o/r", "", "Java", rnd.nextInt(100_000), rnd.nextInt(5_000), iso, false);
+
+            final long days = ChronoUnit.DAYS.between(Instant.parse(iso), now);
+            final double expected = 0.7 * Math.log1p(r.stargazers_count())
+                    + 0.2 * Math.log1p(r.forks_count())
+                    + 0.1 * Math.exp(-days / 60.0);
+
+            assertEquals(expected, plain.score(r, ctx), iso);
+            assertEquals(expected, fast.score(r, ctx), iso);
+        }
+    }
+
+    @Test
+    void withOverridesReplacesOnlyTheGivenSettings() {
+        final var base = ScoreCalculator.from(Map.of("stars",0.7,"forks",0.2,"recency",0.1), 60);
+        final var r = new GitHubRepo("o/a","", "Java",100,10, Instant.now().minus(30, ChronoUnit.DAYS).toString(), false);
+        final var ctx = ScoringContext.now();
+
+        final var starsOnly = base.withOverrides(new ScoreOverrides(Map.of("forks",0.0,"recency",0.0), null));
+        assertEquals(0.7 * Math.log1p(100), starsOnly.score(r, ctx), 1e-12);
+
+        final var fastDecay = base.withOverrides(new ScoreOverrides(Map.of(), 7.0));
+        final var slowDecay = ScoreCalculator.from(Map.of("stars",0.7,"forks",0.2,"recency",0.1), 7);
+        assertEquals(slowDecay.score(r, ctx), fastDecay.score(r, ctx), 1e-12);
+        assertTrue(base.score(r, ctx) > fastDecay.score(r, ctx));
+
+        assertTrue(base == base.withOverrides(ScoreOverrides.NONE));
+    }
+
     private GitHubRepo repoWithStars(final int stars) {
         return new GitHubRepo("o/r","", "Java", stars, 0,
                 java.time.Instant.now().toString(), false);
     }
-
 }
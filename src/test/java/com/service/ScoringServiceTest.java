@@ -1,16 +1,38 @@
 package com.service;
 
 import com.client.GitHubClient;
+import com.client.GitHubUnavailableException;
+import com.client.RateLimitExceededException;
+import com.client.RequestPriority;
 import com.repo.GitHubRepo;
 import com.repo.ScoreRepo;
+import com.store.SnapshotMode;
+import com.store.SnapshotStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
+import java.nio.file.Path;
+import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 class ScoringServiceTest {
@@ -24,13 +46,13 @@ class ScoringServiceTest {
 
         when(client.searchRepos("2024-01-01", "Java", 5)).thenReturn(
                 List.of(
-                        Map.of("full_name","a/low","html_url","https://gh/a","language","Java","stargazers_count", 3, "forks_count", 1, "pushed_at", Instant.now().toString(),"archived", false),
-                        Map.of("full_name","b/high","html_url","https://gh/b","language","Java","stargazers_count", 10,"forks_count", 4, "pushed_at", Instant.now().toString(),"archived", false),
-                        Map.of("full_name","c/mid","html_url","https://gh/c","language","Java","stargazers_count", 5, "forks_count", 0, "pushed_at", Instant.now().toString(),"archived", false)
+                        new GitHubRepo("a/low", "https://gh/a", "Java", 3, 1, Instant.now().toString(), false),
+                        new GitHubRepo("b/high", "https://gh/b", "Java", 10, 4, Instant.now().toString(), false),
+                        new GitHubRepo("c/mid", "https://gh/c", "Java", 5, 0, Instant.now().toString(), false)
                 )
         );
 
-        when(calculator.score((GitHubRepo) any())).thenAnswer(inv -> {
+        when(calculator.score(any(GitHubRepo.class), any(ScoringContext.class))).thenAnswer(inv -> {
             GitHubRepo r = inv.getArgument(0);
             double stars = r.stargazers_count();
             double forks = r.forks_count();
@@ -44,6 +66,215 @@ class ScoringServiceTest {
 
         verify(client, times(1)).searchRepos("2024-01-01", "Java", 5);
         verifyNoMoreInteractions(client);
-        verify(calculator, times(3)).score((GitHubRepo) any());
+        verify(calculator, times(3)).score(any(GitHubRepo.class), any(ScoringContext.class));
+    }
+
+    @Test
+    void serveModeRanksFromSnapshotWithoutCallingGitHub(@TempDir Path dir) throws Exception {
+        List<GitHubRepo> repos = List.of(
+                new GitHubRepo(1, "o/old", "https://gh/old", "Java", 900, 90, "2023-06-01T00:00:00Z", false),
+                new GitHubRepo(2, "o/low", "https://gh/low", "Java", 3, 1, "2025-01-01T00:00:00Z", false),
+                new GitHubRepo(3, "o/high", "https://gh/high", "Java", 500, 40, "2025-01-02T00:00:00Z", false),
+                new GitHubRepo(4, "o/go", "https://gh/go", "Go", 9_000, 900, "2025-01-02T00:00:00Z", false),
+                new GitHubRepo(5, "o/mid", "https://gh/mid", "Java", 50, 5, "2024-03-01T00:00:00Z", false)
+        );
+        GitHubClient client = mock(GitHubClient.class);
+        ScoreCalculator calculator = ScoreCalculator.from(Map.of("stars", 0.7, "forks", 0.2, "recency", 0.1), 60);
+
+        try (SnapshotStore store = SnapshotStore.open(dir)) {
+            store.upsert(repos);
+            ScoringService service = new ScoringService(client, calculator, new SimpleMeterRegistry(), store, SnapshotMode.SERVE,
+                    HotRankingCache.disabled(), RawMetricsCache.disabled(), null, PeerRouter.disabled());
+
+            List<ScoreRepo> out = service.fetchAndScore("2024-01-01", "java", 2);
+
+            assertEquals(List.of("o/high", "o/mid"), out.stream().map(ScoreRepo::fullName).toList());
+            assertEquals(calculator.score(repos.get(2)), out.get(0).score(), 1e-12);
+            verifyNoInteractions(client);
+        }
+    }
+
+    @Test
+    void heapIndexRanksLikeTheMappedSnapshot(@TempDir Path dir) throws Exception {
+        List<GitHubRepo> repos = new ArrayList<>();
+        for (int i = 1; i <= 3_000; i++) {
+            repos.add(new GitHubRepo(i, "o/r" + i, "https://github.com/o/r" + i, i % 3 == 0 ? "Go" : "Java",
+                    i % 97, i % 7, "2024-0" + (1 + i % 9) + "-01T00:00:00Z", false));
+        }
+        ScoreCalculator calculator = ScoreCalculator.from(Map.of(), 60);
+        GitHubClient client = mock(GitHubClient.class);
+
+        List<ScoreRepo> mapped;
+        try (SnapshotStore store = SnapshotStore.open(dir)) {
+            store.upsert(repos);
+            mapped = new ScoringService(client, calculator, new SimpleMeterRegistry(), store, SnapshotMode.SERVE,
+                    HotRankingCache.disabled(), RawMetricsCache.disabled(), null, PeerRouter.disabled()).fetchAndScore("2024-05-01", "java", 50);
+        }
+        try (SnapshotStore store = SnapshotStore.openWithHeapIndex(dir)) {
+            List<ScoreRepo> heap = new ScoringService(client, calculator, new SimpleMeterRegistry(), store, SnapshotMode.SERVE,
+                    HotRankingCache.disabled(), RawMetricsCache.disabled(), null, PeerRouter.disabled()).fetchAndScore("2024-05-01", "java", 50);
+
+            assertEquals(50, heap.size());
+            assertEquals(mapped.stream().map(ScoreRepo::fullName).toList(), heap.stream().map(ScoreRepo::fullName).toList());
+        }
+        verifyNoInteractions(client);
+    }
+
+    @Test
+    void recordModeUpsertsFetchedRepos(@TempDir Path dir) throws Exception {
+        GitHubClient client = mock(GitHubClient.class);
+        when(client.searchRepos("2024-01-01", "Java", 5)).thenReturn(List.of(
+                new GitHubRepo(7, "o/a", "https://gh/a", "Java", 3, 1, "2025-01-01T00:00:00Z", false)));
+        ScoreCalculator calculator = ScoreCalculator.from(Map.of(), 60);
+
+        try (SnapshotStore store = SnapshotStore.open(dir)) {
+            ScoringService service = new ScoringService(client, calculator, new SimpleMeterRegistry(), store, SnapshotMode.RECORD,
+                    HotRankingCache.disabled(), RawMetricsCache.disabled(), null, PeerRouter.disabled());
+
+            service.fetchAndScore("2024-01-01", "Java", 5);
+
+            assertEquals(1, store.size());
+            assertEquals("o/a", store.read(view -> view.repo(0).full_name()));
+        }
+    }
+
+    @Test
+    void hotKeysAreServedFromTheRefreshedRanking() {
+        GitHubClient client = mock(GitHubClient.class);
+        when(client.searchRepos("2024-01-01", "java", 5)).thenReturn(List.of(
+                new GitHubRepo(1, "o/a", "https://gh/a", "Java", 3, 1, "2025-01-01T00:00:00Z", false)));
+        HotRankingCache hot = new HotRankingCache(10, 1, Duration.ofMinutes(1));
+        ScoringService service = new ScoringService(client, ScoreCalculator.from(Map.of(), 60),
+                new SimpleMeterRegistry(), SnapshotStore.disabled(), SnapshotMode.OFF, hot, RawMetricsCache.disabled(), null, PeerRouter.disabled());
+        HotRankingRefresher refresher = new HotRankingRefresher(service, hot, Duration.ofMinutes(1), false);
+
+        service.fetchAndScore("2024-01-01", "Java", 5);
+        refresher.tick();
+        List<ScoreRepo> served = service.fetchAndScore("2024-01-01", "JAVA", 5);
+
+        assertEquals("o/a", served.get(0).fullName());
+        verify(client, times(1)).searchRepos("2024-01-01", "Java", 5);
+        verify(client, times(1)).searchRepos("2024-01-01", "java", 5);
+    }
+
+    @Test
+    void interactiveRequestsDoNotJoinAShedBackgroundRefresh() throws Exception {
+        GitHubClient client = mock(GitHubClient.class);
+        CountDownLatch backgroundStarted = new CountDownLatch(1);
+        CountDownLatch interactiveDone = new CountDownLatch(1);
+        when(client.searchRepos("2024-01-01", "java", 5)).thenAnswer(inv -> {
+            if (RequestPriority.current() == RequestPriority.INTERACTIVE) {
+                return List.of(new GitHubRepo(1, "o/a", "https://gh/a", "Java", 3, 1, "2025-01-01T00:00:00Z", false));
+            }
+            backgroundStarted.countDown();
+            interactiveDone.await(5, TimeUnit.SECONDS);
+            throw new RateLimitExceededException("shed", 60);
+        });
+        ScoringService service = new ScoringService(client, ScoreCalculator.from(Map.of(), 60));
+
+        CompletableFuture<List<ScoreRepo>> refresh = CompletableFuture.supplyAsync(() -> RequestPriority.callAs(
+                RequestPriority.BACKGROUND, () -> service.refresh(RankingKey.of("2024-01-01", "java", 5))));
+        assertTrue(backgroundStarted.await(5, TimeUnit.SECONDS));
+        List<ScoreRepo> served = service.fetchAndScore("2024-01-01", "java", 5);
+        interactiveDone.countDown();
+
+        assertEquals("o/a", served.get(0).fullName());
+        ExecutionException shed = assertThrows(ExecutionException.class, refresh::get);
+        assertTrue(shed.getCause() instanceof RateLimitExceededException);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void streamAndScoreEmitsScoredPagesAndFinalRanking() {
+        GitHubClient client = mock(GitHubClient.class);
+        when(client.streamRepos(eq("2024-01-01"), eq("Java"), eq(3), any())).thenAnswer(inv -> {
+            Consumer<List<GitHubRepo>> onPage = inv.getArgument(3);
+            onPage.accept(List.of(
+                    new GitHubRepo("o/a", "https://gh/a", "Java", 5, 0, null, false),
+                    new GitHubRepo("o/b", "https://gh/b", "Java", 50, 0, null, false)));
+            onPage.accept(List.of(new GitHubRepo("o/c", "https://gh/c", "Java", 500, 0, null, false)));
+            return 3;
+        });
+        ScoringService service = new ScoringService(client, ScoreCalculator.from(Map.of("stars", 1.0), 60));
+
+        List<List<String>> pages = new ArrayList<>();
+        List<ScoreRepo> ranked = service.streamAndScore("2024-01-01", "Java", 3, true,
+                page -> pages.add(page.stream().map(ScoreRepo::fullName).toList()));
+
+        assertEquals(List.of(List.of("o/a", "o/b"), List.of("o/c")), pages);
+        assertEquals(List.of("o/c", "o/b", "o/a"), ranked.stream().map(ScoreRepo::fullName).toList());
+        assertEquals(List.of(), service.streamAndScore("2024-01-01", "Java", 3, false, page -> { }));
+    }
+
+    @Test
+    void overridesRescoreCachedMetricsWithoutCallingGitHubAgain() {
+        GitHubClient client = mock(GitHubClient.class);
+        when(client.searchRepos("2024-01-01", "Java", 10)).thenReturn(List.of(
+                new GitHubRepo(1, "o/starred", "https://gh/s", "Java", 1_000, 1, null, false),
+                new GitHubRepo(2, "o/forked", "https://gh/f", "Java", 10, 5_000, null, false)));
+        ScoringService service = new ScoringService(client,
+                ScoreCalculator.from(Map.of("stars", 1.0, "forks", 0.0, "recency", 0.0), 60),
+                new SimpleMeterRegistry(), SnapshotStore.disabled(), SnapshotMode.OFF,
+                HotRankingCache.disabled(), new RawMetricsCache(Duration.ofMinutes(10), 8), null, PeerRouter.disabled());
+
+        assertEquals("o/starred", service.fetchAndScore("2024-01-01", "Java", 10).get(0).fullName());
+
+        List<ScoreRepo> forks = service.fetchAndScore("2024-01-01", "java", 10,
+                ScoreOverrides.parse("stars:0,forks:1", null));
+        List<ScoreRepo> top1 = service.fetchAndScore("2024-01-01", "Java", 1,
+                ScoreOverrides.parse("stars:0,forks:1", null));
+
+        assertEquals(List.of("o/forked", "o/starred"), forks.stream().map(ScoreRepo::fullName).toList());
+        assertEquals(Math.log1p(5_000), forks.get(0).score(), 1e-12);
+        assertEquals(List.of("o/starred"), top1.stream().map(ScoreRepo::fullName).toList(),
+                "a limit of 1 rescores the first search result only, as a fresh search would");
+        verify(client, times(1)).searchRepos("2024-01-01", "Java", 10);
+        verifyNoMoreInteractions(client);
+    }
+
+    @Test
+    void overridesFetchOnceWhenTheSearchIsNotCached() {
+        GitHubClient client = mock(GitHubClient.class);
+        when(client.searchRepos("2024-01-01", "Java", 5)).thenReturn(List.of(
+                new GitHubRepo(1, "o/a", "https://gh/a", "Java", 3, 1, null, false)));
+        ScoringService service = new ScoringService(client, ScoreCalculator.from(Map.of(), 60),
+                new SimpleMeterRegistry(), SnapshotStore.disabled(), SnapshotMode.OFF,
+                HotRankingCache.disabled(), new RawMetricsCache(Duration.ofMinutes(10), 8), null, PeerRouter.disabled());
+
+        service.fetchAndScore("2024-01-01", "Java", 5, ScoreOverrides.parse(null, 7.0));
+        service.fetchAndScore("2024-01-01", "Java", 5, ScoreOverrides.parse(null, 30.0));
+
+        verify(client, times(1)).searchRepos("2024-01-01", "Java", 5);
+    }
+
+    @Test
+    void unavailableGitHubFallsBackToTheLastGoodResultAndRefreshesItLater() {
+        GitHubClient client = mock(GitHubClient.class);
+        GitHubRepo a = new GitHubRepo(1, "o/a", "https://gh/a", "Java", 3, 1, null, false);
+        GitHubRepo b = new GitHubRepo(2, "o/b", "https://gh/b", "Java", 9, 1, null, false);
+        AtomicBoolean down = new AtomicBoolean();
+        when(client.searchRepos(eq("2024-01-01"), anyString(), anyInt())).thenAnswer(inv -> {
+            if (down.get()) throw new GitHubUnavailableException("GitHub circuit is open", 30);
+            return List.of(a, b);
+        });
+        RawMetricsCache rawMetrics = new RawMetricsCache(Duration.ofMinutes(10), 8);
+        ScoringService service = new ScoringService(client, ScoreCalculator.from(Map.of(), 60),
+                new SimpleMeterRegistry(), SnapshotStore.disabled(), SnapshotMode.OFF,
+                HotRankingCache.disabled(), rawMetrics, null, PeerRouter.disabled());
+
+        assertFalse(service.ranking("2024-01-01", "Java", 5, ScoreOverrides.NONE).isStale());
+        down.set(true);
+        Ranking stale = service.ranking("2024-01-01", "java", 1, ScoreOverrides.NONE);
+
+        assertTrue(stale.isStale());
+        assertEquals(List.of("o/a"), stale.repos().stream().map(ScoreRepo::fullName).toList(),
+                "the prefix of the stored search is ranked, as a fresh search of that limit would be");
+        assertThrows(GitHubUnavailableException.class, () -> service.fetchAndScore("2024-01-01", "Go", 5));
+        assertThrows(GitHubUnavailableException.class, service::refreshStale);
+
+        down.set(false);
+        assertEquals(1, service.refreshStale());
+        assertEquals(0, service.refreshStale());
+        verify(client, times(2)).searchRepos("2024-01-01", "java", 5);
     }
 }
@@ -0,0 +1,87 @@
+package com.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+
+    private static final int CALLERS = 32;
+
+    @Test
+    void concurrentCallersShareOneExecution() throws Exception {
+        SingleFlight<String, String> flight = new SingleFlight<>();
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        try (ExecutorService pool = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < CALLERS; i++) {
+                results.add(pool.submit(() -> flight.execute("java", () -> {
+                    loads.incrementAndGet();
+                    await(release);
+                    return "ranked";
+                })));
+            }
+            waitUntilInFlight(flight);
+            Thread.sleep(100);
+            release.countDown();
+
+            for (Future<String> f : results) {
+                assertEquals("ranked", f.get(5, TimeUnit.SECONDS));
+            }
+        }
+
+        assertEquals(1, loads.get());
+        assertEquals(0, flight.inFlight());
+    }
+
+    @Test
+    void failureIsPropagatedToAllWaitersAndCleanedUp() throws Exception {
+        SingleFlight<String, String> flight = new SingleFlight<>();
+        CountDownLatch release = new CountDownLatch(1);
+        IllegalStateException boom = new IllegalStateException("upstream down");
+
+        try (ExecutorService pool = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                results.add(pool.submit(() -> flight.execute("java", () -> {
+                    await(release);
+                    throw boom;
+                })));
+            }
+            waitUntilInFlight(flight);
+            release.countDown();
+
+            for (Future<String> f : results) {
+                ExecutionException ex = assertThrows(ExecutionException.class, () -> f.get(5, TimeUnit.SECONDS));
+                assertSame(boom, ex.getCause());
+            }
+        }
+
+        assertEquals(0, flight.inFlight());
+        assertEquals("retry", flight.execute("java", () -> "retry"));
+    }
+
+    private static void waitUntilInFlight(SingleFlight<?, ?> flight) throws InterruptedException {
+        while (flight.inFlight() == 0) Thread.sleep(1);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
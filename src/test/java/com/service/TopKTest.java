@@ -0,0 +1,57 @@
+package com.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TopKTest {
+
+    @Test
+    void matchesStableDescendingSortIncludingTies() {
+        Random rnd = new Random(42);
+        List<double[]> input = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            input.add(new double[]{rnd.nextInt(200), i});
+        }
+
+        for (int k : new int[]{1, 7, 100, 5_000, 6_000}) {
+            TopK<Integer> top = new TopK<>(k);
+            for (double[] e : input) top.offer(e[0], (int) e[1]);
+
+            List<Integer> expected = input.stream()
+                    .sorted(Comparator.comparingDouble((double[] e) -> e[0]).reversed())
+                    .limit(k)
+                    .map(e -> (int) e[1])
+                    .toList();
+
+            assertEquals(expected, top.drainSorted(), "k=" + k);
+            assertEquals(0, top.size());
+        }
+    }
+
+    @Test
+    void acceptsReflectsCurrentThreshold() {
+        TopK<String> top = new TopK<>(2);
+        top.offer(5.0, "a");
+        top.offer(3.0, "b");
+
+        assertFalse(top.accepts(3.0), "ties with the worst retained item lose to the earlier arrival");
+        assertTrue(top.accepts(3.5));
+        assertFalse(top.offer(1.0, "c"));
+        assertTrue(top.offer(4.0, "d"));
+        assertEquals(List.of("a", "d"), top.drainSorted());
+    }
+
+    @Test
+    void zeroCapacityRetainsNothing() {
+        TopK<String> top = new TopK<>(0);
+        assertFalse(top.accepts(1.0));
+        assertFalse(top.offer(1.0, "a"));
+        assertTrue(top.drainSorted().isEmpty());
+    }
+}
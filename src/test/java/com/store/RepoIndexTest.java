@@ -0,0 +1,83 @@
+package com.store;
+
+import com.parser.TimestampParser;
+import com.repo.GitHubRepo;
+import com.service.ScoreCalculator;
+import com.service.ScoringContext;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RepoIndexTest {
+
+    private static final long NOW = Instant.parse("2025-06-01T00:00:00Z").getEpochSecond();
+    private final ScoreCalculator calculator = ScoreCalculator.from(Map.of("stars", 0.6, "forks", 0.3, "recency", 0.1), 30);
+
+    @Test
+    void topMatchesAFullSortOfTheFilteredRepos() {
+        String[] languages = {"Java", "Go", "Rust", null};
+        SplittableRandom rnd = new SplittableRandom(3);
+        List<GitHubRepo> repos = new ArrayList<>();
+        for (int i = 1; i <= 20_000; i++) {
+            String pushed = rnd.nextInt(10) == 0 ? null
+                    : Instant.ofEpochSecond(NOW - rnd.nextLong(400 * 86_400L)).toString();
+            // few distinct star and fork counts, so that ties are frequent
+            repos.add(new GitHubRepo(i, "o/r" + i, "https://github.com/o/r" + i, languages[rnd.nextInt(4)],
+                    rnd.nextInt(50), rnd.nextInt(5), pushed, rnd.nextInt(20) == 0));
+        }
+        RepoIndex index = new RepoIndex();
+        assertEquals(repos.size(), index.upsert(repos));
+
+        long minPushed = NOW - 90 * 86_400L;
+        List<GitHubRepo> expected = repos.stream()
+                .filter(r -> "Java".equals(r.language()))
+                .filter(r -> r.pushed_at() != null && TimestampParser.epochSeconds(r.pushed_at()) >= minPushed)
+                .sorted(Comparator.comparingDouble((GitHubRepo r) -> calculator.score(r, context())).reversed())
+                .limit(25)
+                .toList();
+
+        List<RepoIndex.Scored> top = index.top("JAVA", minPushed, 25, calculator, NOW);
+
+        assertEquals(expected, top.stream().map(RepoIndex.Scored::repo).toList());
+        assertEquals(calculator.score(expected.get(0), context()), top.get(0).score(), 1e-12);
+        assertEquals(repos.size(), index.top("", Long.MIN_VALUE, 30_000, calculator, NOW).size());
+        assertTrue(index.top("Cobol", Long.MIN_VALUE, 10, calculator, NOW).isEmpty());
+    }
+
+    @Test
+    void upsertsMoveRowsBetweenLanguagesAndKeepUrls() {
+        RepoIndex index = new RepoIndex();
+        index.upsert(List.of(
+                new GitHubRepo(1, "o/a", "https://github.com/o/a", "Java", 10, 1, "2025-05-01T00:00:00Z", false),
+                new GitHubRepo(2, "o/b", "https://mirror.example/o/b", "Go", 20, 2, null, true),
+                new GitHubRepo(3, "o/c", "https://github.com/o/c", "Java", 30, 3, "2025-05-01T00:00:00Z", false),
+                new GitHubRepo("o/no-id", "https://github.com/o/no-id", "Java", 1, 0, null, false)));
+
+        GitHubRepo moved = new GitHubRepo(1, "o/renamed", "https://github.com/o/renamed", "Go", 11, 1,
+                "2025-05-02T00:00:00Z", true);
+        assertEquals(1, index.upsert(List.of(moved)));
+
+        assertEquals(3, index.size());
+        assertEquals(List.of("o/c"), names(index.top("java", Long.MIN_VALUE, 10, calculator, NOW)));
+        List<RepoIndex.Scored> go = index.top("go", Long.MIN_VALUE, 10, calculator, NOW);
+        assertEquals(List.of("o/b", "o/renamed"), names(go));
+        assertEquals(new GitHubRepo(2, "o/b", "https://mirror.example/o/b", "Go", 20, 2, null, true), go.get(0).repo());
+        assertEquals(moved, go.get(1).repo());
+        assertEquals(index.languageId("GO"), index.languageId("go"));
+    }
+
+    private static List<String> names(List<RepoIndex.Scored> ranked) {
+        return ranked.stream().map(s -> s.repo().full_name()).toList();
+    }
+
+    private static ScoringContext context() {
+        return ScoringContext.at(Instant.ofEpochSecond(NOW));
+    }
+}
@@ -0,0 +1,102 @@
+package com.store;
+
+import com.repo.GitHubRepo;
+import com.service.ScoreCalculator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SnapshotStoreTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void upsertedRowsSurviveReopen() throws Exception {
+        GitHubRepo a = new GitHubRepo(11, "o/a", "https://gh/a", "Java", 120, 7, "2025-01-01T00:00:00Z", false);
+        GitHubRepo b = new GitHubRepo(12, "o/ß", "https://gh/b", null, 3, 0, null, true);
+
+        try (SnapshotStore store = SnapshotStore.open(dir)) {
+            assertEquals(2, store.upsert(List.of(a, b)));
+        }
+
+        try (SnapshotStore store = SnapshotStore.open(dir)) {
+            assertEquals(2, store.size());
+            assertEquals(0, store.languageId("java"));
+            store.read(view -> {
+                assertEquals(a, view.repo(0));
+                assertEquals(b, view.repo(1));
+                assertEquals(ScoreCalculator.NO_PUSH, view.pushedAt(1));
+                assertEquals(SnapshotStore.NO_LANGUAGE, view.languageId(1));
+                return null;
+            });
+        }
+    }
+
+    @Test
+    void knownIdIsUpdatedInPlace() throws Exception {
+        try (SnapshotStore store = SnapshotStore.open(dir)) {
+            store.upsert(List.of(new GitHubRepo(5, "o/old", "https://gh/old", "Go", 1, 1, "2024-01-01T00:00:00Z", false)));
+            GitHubRepo renamed = new GitHubRepo(5, "o/new", "https://gh/new", "Go", 50, 4, "2025-02-01T00:00:00Z", true);
+            store.upsert(List.of(renamed));
+
+            assertEquals(1, store.size());
+            assertEquals(renamed, store.read(view -> view.repo(0)));
+        }
+    }
+
+    @Test
+    void columnsGrowAndReposWithoutIdAreSkipped() throws Exception {
+        List<GitHubRepo> repos = new ArrayList<>();
+        for (int i = 1; i <= 5_000; i++) {
+            repos.add(new GitHubRepo(i, "o/r" + i, "https://gh/r" + i, i % 2 == 0 ? "Java" : "Rust", i, 0,
+                    "2025-01-01T00:00:00Z", false));
+        }
+        repos.add(new GitHubRepo("o/no-id", "https://gh/x", "Java", 1, 0, null, false));
+
+        try (SnapshotStore store = SnapshotStore.open(dir)) {
+            assertEquals(5_000, store.upsert(repos));
+            assertEquals(5_000, store.size());
+            assertEquals("o/r4321", store.read(view -> view.repo(4_320).full_name()));
+        }
+    }
+
+    @Test
+    void heapIndexIsLoadedOnOpenAndFollowsUpserts() throws Exception {
+        ScoreCalculator calculator = ScoreCalculator.from(Map.of(), 60);
+        long now = Instant.parse("2025-02-01T00:00:00Z").getEpochSecond();
+        GitHubRepo a = new GitHubRepo(1, "o/a", "https://github.com/o/a", "Java", 10, 1, "2025-01-01T00:00:00Z", false);
+        GitHubRepo b = new GitHubRepo(2, "o/b", "https://gh/b", "Java", 99, 9, "2025-01-01T00:00:00Z", true);
+        try (SnapshotStore store = SnapshotStore.open(dir)) {
+            store.upsert(List.of(a));
+            assertNull(store.heapIndex());
+        }
+
+        try (SnapshotStore store = SnapshotStore.openWithHeapIndex(dir)) {
+            RepoIndex index = store.heapIndex();
+            assertEquals(List.of(a), index.top("java", Long.MIN_VALUE, 5, calculator, now).stream()
+                    .map(RepoIndex.Scored::repo).toList());
+
+            store.upsert(List.of(b));
+
+            assertEquals(2, index.size());
+            assertEquals(List.of(b, a), index.top("java", Long.MIN_VALUE, 5, calculator, now).stream()
+                    .map(RepoIndex.Scored::repo).toList());
+        }
+    }
+
+    @Test
+    void disabledStoreIgnoresWrites() {
+        SnapshotStore store = SnapshotStore.disabled();
+
+        assertEquals(0, store.upsert(List.of(new GitHubRepo(1, "o/a", "u", "Java", 1, 1, null, false))));
+        assertEquals(0, store.size());
+    }
+}
@@ -0,0 +1,348 @@
+package com.stub;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Local stand-in for GitHub's {@code /search/repositories} endpoint and the GraphQL
+ * {@code search} query, built on the JDK {@link HttpServer}. Serves generated search pages
+ * with GitHub's item fields, paginated up to the total count and the 1000-result cap, and
+ * counts requests and distinct client connections.
+ * <p>Each response waits a fixed latency plus a uniformly random jitter. A configurable
+ * share of requests fails with {@code 502 Bad Gateway}, and with a rate limit set every
+ * response carries GitHub's {@code X-RateLimit-*} headers and requests beyond the limit
+ * get GitHub's {@code 403}. Randomness is seeded, so a run is repeatable.</p>
+ * <p>{@link #main} runs the stub standalone, for pointing the application's
+ * {@code github.base-url} at it.</p>
+ */
+public class GitHubStubServer implements AutoCloseable {
+
+    private static final int MAX_RESULTS = 1000;
+    private static final Pattern GRAPHQL_FIRST = Pattern.compile("\"first\"\\s*:\\s*(\\d+)");
+    private static final Pattern GRAPHQL_AFTER = Pattern.compile("\"after\"\\s*:\\s*\"cursor:(\\d+)\"");
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Set<String> connections = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger requests = new AtomicInteger();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private final AtomicInteger errors = new AtomicInteger();
+    private final AtomicInteger rateLimited = new AtomicInteger();
+    private final Random random = new Random(42);
+    private volatile long latencyMillis;
+    private volatile long jitterMillis;
+    private volatile long handshakeMillis;
+    private volatile double errorRate;
+    private volatile int totalCount = MAX_RESULTS;
+    private volatile int rateLimit;
+    private volatile long rateWindowMillis;
+    private long windowStartMillis;
+    private int windowUsed;
+
+    /**
+     * Starts the stub on an ephemeral localhost port.
+     *
+     * @throws IOException if the server socket cannot be bound
+     */
+    public GitHubStubServer() throws IOException {
+        this(0);
+    }
+
+    /**
+     * Starts the stub on the given localhost port.
+     *
+     * @param port port to bind, or 0 for an ephemeral one
+     * @throws IOException if the server socket cannot be bound
+     */
+    public GitHubStubServer(int port) throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 1024);
+        server.createContext("/search/repositories", exchange -> handle(exchange, this::restPage));
+        server.createContext("/graphql", exchange -> handle(exchange, this::graphqlPage));
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    public String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    public GitHubStubServer latencyMillis(long latencyMillis) {
+        this.latencyMillis = latencyMillis;
+        return this;
+    }
+
+    /** Adds up to {@code jitterMillis} of uniformly random latency to each response. */
+    public GitHubStubServer jitterMillis(long jitterMillis) {
+        this.jitterMillis = jitterMillis;
+        return this;
+    }
+
+    /** Adds this latency to the first request on each new client socket, like a TLS handshake. */
+    public GitHubStubServer handshakeMillis(long handshakeMillis) {
+        this.handshakeMillis = handshakeMillis;
+        return this;
+    }
+
+    /** Answers this share of requests, between 0 and 1, with {@code 502 Bad Gateway}. */
+    public GitHubStubServer errorRate(double errorRate) {
+        this.errorRate = errorRate;
+        return this;
+    }
+
+    /** Number of matching repositories reported; pages stop there or at 1000 items. */
+    public GitHubStubServer totalCount(int totalCount) {
+        this.totalCount = totalCount;
+        return this;
+    }
+
+    /**
+     * Allows {@code limit} requests per fixed window, reporting the budget in
+     * {@code X-RateLimit-*} headers and answering {@code 403} once it is used up.
+     */
+    public GitHubStubServer rateLimit(int limit, Duration window) {
+        synchronized (this) {
+            this.rateLimit = limit;
+            this.rateWindowMillis = window.toMillis();
+            this.windowStartMillis = System.currentTimeMillis();
+            this.windowUsed = 0;
+        }
+        return this;
+    }
+
+    public int requests() {
+        return requests.get();
+    }
+
+    /** Requests answered with an injected {@code 502}. */
+    public int errors() {
+        return errors.get();
+    }
+
+    /** Requests refused with {@code 403} because the rate limit was used up. */
+    public int rateLimited() {
+        return rateLimited.get();
+    }
+
+    /** Number of distinct client sockets that sent at least one request. */
+    public int connections() {
+        return connections.size();
+    }
+
+    /** Highest number of requests the stub was serving at the same time. */
+    public int maxInFlight() {
+        return maxInFlight.get();
+    }
+
+    public void resetCounters() {
+        requests.set(0);
+        connections.clear();
+        maxInFlight.set(0);
+        errors.set(0);
+        rateLimited.set(0);
+    }
+
+    private void handle(HttpExchange exchange, Function<HttpExchange, String> page) throws IOException {
+        requests.incrementAndGet();
+        boolean newConnection = connections.add(exchange.getRemoteAddress().toString());
+        maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+        try {
+            if (newConnection && handshakeMillis > 0) pause(handshakeMillis);
+            respond(exchange, page);
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    private void respond(HttpExchange exchange, Function<HttpExchange, String> page) throws IOException {
+        long jitter;
+        boolean fail;
+        synchronized (random) {
+            jitter = jitterMillis > 0 ? (long) (random.nextDouble() * (jitterMillis + 1)) : 0;
+            fail = errorRate > 0 && random.nextDouble() < errorRate;
+        }
+        if (latencyMillis + jitter > 0) pause(latencyMillis + jitter);
+
+        if (!takeRateLimitToken(exchange)) {
+            rateLimited.incrementAndGet();
+            send(exchange, 403, "{\"message\": \"API rate limit exceeded\"}");
+            return;
+        }
+        if (fail) {
+            errors.incrementAndGet();
+            send(exchange, 502, "{\"message\": \"Server Error\"}");
+            return;
+        }
+        send(exchange, 200, page.apply(exchange));
+    }
+
+    private static void pause(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /** Counts the request against the rate limit, if any, and sets the rate-limit headers. */
+    private synchronized boolean takeRateLimitToken(HttpExchange exchange) {
+        if (rateLimit <= 0) return true;
+        long now = System.currentTimeMillis();
+        if (now - windowStartMillis >= rateWindowMillis) {
+            windowStartMillis = now;
+            windowUsed = 0;
+        }
+        boolean allowed = windowUsed < rateLimit;
+        if (allowed) windowUsed++;
+        exchange.getResponseHeaders().set("X-RateLimit-Limit", String.valueOf(rateLimit));
+        exchange.getResponseHeaders().set("X-RateLimit-Remaining", String.valueOf(rateLimit - windowUsed));
+        exchange.getResponseHeaders().set("X-RateLimit-Used", String.valueOf(windowUsed));
+        exchange.getResponseHeaders().set("X-RateLimit-Reset",
+                String.valueOf(Math.ceilDiv(windowStartMillis + rateWindowMillis, 1000)));
+        exchange.getResponseHeaders().set("X-RateLimit-Resource", "search");
+        return allowed;
+    }
+
+    private static void send(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        String acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+        if (acceptEncoding != null && acceptEncoding.contains("gzip")) {
+            ByteArrayOutputStream buf = new ByteArrayOutputStream();
+            try (GZIPOutputStream gz = new GZIPOutputStream(buf)) {
+                gz.write(body);
+            }
+            body = buf.toByteArray();
+            exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+        }
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private String restPage(HttpExchange exchange) {
+        return page(totalCount, parseInt(exchange, "per_page", 30), parseInt(exchange, "page", 1));
+    }
+
+    private static String page(int totalCount, int perPage, int page) {
+        int end = Math.min(Math.min(totalCount, MAX_RESULTS), page * perPage);
+        StringBuilder b = new StringBuilder("{\"total_count\": ").append(totalCount)
+                .append(", \"incomplete_results\": false, \"items\": [");
+        for (int rank = (page - 1) * perPage; rank < end; rank++) {
+            if (rank > (page - 1) * perPage) b.append(',');
+            b.append("{\"id\": ").append(rank)
+                    .append(", \"node_id\": \"R_kgDO").append(rank).append('"')
+                    .append(", \"name\": \"r").append(rank).append('"')
+                    .append(", \"full_name\": \"o/r").append(rank).append('"')
+                    .append(", \"private\": false")
+                    .append(", \"owner\": {\"login\": \"o\", \"id\": 1, \"type\": \"Organization\"")
+                    .append(", \"avatar_url\": \"https://avatars.githubusercontent.com/u/1?v=4\"")
+                    .append(", \"html_url\": \"https://github.com/o\", \"site_admin\": false}")
+                    .append(", \"html_url\": \"https://github.com/o/r").append(rank).append('"')
+                    .append(", \"description\": \"Generated repository number ").append(rank)
+                    .append(" with a description about as long as a typical one on GitHub.\"")
+                    .append(", \"fork\": false")
+                    .append(", \"url\": \"https://api.github.com/repos/o/r").append(rank).append('"')
+                    .append(", \"created_at\": \"2020-01-01T00:00:00Z\"")
+                    .append(", \"updated_at\": \"2025-01-01T00:00:00Z\"")
+                    .append(", \"pushed_at\": \"2025-01-01T00:00:00Z\"")
+                    .append(", \"homepage\": null, \"size\": ").append(1_000 + rank)
+                    .append(", \"stargazers_count\": ").append(100_000 - rank)
+                    .append(", \"watchers_count\": ").append(100_000 - rank)
+                    .append(", \"language\": \"Java\"")
+                    .append(", \"forks_count\": ").append(1_000 - rank % 1_000)
+                    .append(", \"open_issues_count\": ").append(rank % 50)
+                    .append(", \"license\": {\"key\": \"mit\", \"name\": \"MIT License\", \"spdx_id\": \"MIT\"}")
+                    .append(", \"topics\": [\"java\", \"library\", \"generated\"]")
+                    .append(", \"visibility\": \"public\", \"default_branch\": \"main\"")
+                    .append(", \"archived\": false, \"score\": 1.0}");
+        }
+        return b.append("]}").toString();
+    }
+
+    /** Answers the GraphQL search query with cursors of the form {@code cursor:<offset>}. */
+    private String graphqlPage(HttpExchange exchange) {
+        String request;
+        try {
+            request = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        Matcher first = GRAPHQL_FIRST.matcher(request);
+        Matcher after = GRAPHQL_AFTER.matcher(request);
+        int size = first.find() ? Integer.parseInt(first.group(1)) : 10;
+        int offset = after.find() ? Integer.parseInt(after.group(1)) : 0;
+        int available = Math.min(totalCount, MAX_RESULTS);
+        int end = Math.min(available, offset + size);
+
+        StringBuilder b = new StringBuilder("{\"data\": {\"search\": {\"repositoryCount\": ").append(totalCount)
+                .append(", \"pageInfo\": {\"hasNextPage\": ").append(end < available)
+                .append(", \"endCursor\": \"cursor:").append(end).append("\"}, \"nodes\": [");
+        for (int rank = offset; rank < end; rank++) {
+            if (rank > offset) b.append(',');
+            b.append("{\"databaseId\": ").append(rank)
+                    .append(", \"nameWithOwner\": \"o/r").append(rank).append('"')
+                    .append(", \"url\": \"https://github.com/o/r").append(rank).append('"')
+                    .append(", \"primaryLanguage\": {\"name\": \"Java\"}")
+                    .append(", \"stargazerCount\": ").append(100_000 - rank)
+                    .append(", \"forkCount\": ").append(1_000 - rank % 1_000)
+                    .append(", \"pushedAt\": \"2025-01-01T00:00:00Z\"")
+                    .append(", \"isArchived\": false}");
+        }
+        return b.append("]}}}").toString();
+    }
+
+    private static int parseInt(HttpExchange exchange, String name, int fallback) {
+        String query = exchange.getRequestURI().getRawQuery();
+        if (query == null) return fallback;
+        for (String part : query.split("&")) {
+            if (part.startsWith(name + "=")) {
+                return Integer.parseInt(part.substring(name.length() + 1));
+            }
+        }
+        return fallback;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    /**
+     * Runs the stub until the process is stopped, e.g. for
+     * {@code --github.base-url=http://127.0.0.1:8089}.
+     * Arguments: port, latency ms, jitter ms, error rate, rate limit per minute (0 for none).
+     */
+    public static void main(String[] args) throws Exception {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 8089;
+        GitHubStubServer stub = new GitHubStubServer(port)
+                .latencyMillis(args.length > 1 ? Long.parseLong(args[1]) : 100)
+                .jitterMillis(args.length > 2 ? Long.parseLong(args[2]) : 50)
+                .errorRate(args.length > 3 ? Double.parseDouble(args[3]) : 0);
+        int perMinute = args.length > 4 ? Integer.parseInt(args[4]) : 0;
+        if (perMinute > 0) stub.rateLimit(perMinute, Duration.ofMinutes(1));
+        System.out.println("GitHub stub listening on " + stub.baseUrl());
+        new CountDownLatch(1).await();
+    }
+}
@@ -0,0 +1,48 @@
+package com.stub;
+
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GitHubStubServerTest {
+
+    private final HttpClient http = HttpClient.newHttpClient();
+
+    @Test
+    void pagesStopAtTotalCountAndReportTheRateLimit() throws Exception {
+        try (GitHubStubServer stub = new GitHubStubServer().totalCount(25).rateLimit(2, Duration.ofMinutes(1))) {
+            HttpResponse<String> last = get(stub, "?per_page=10&page=3");
+            assertEquals(200, last.statusCode());
+            assertTrue(last.body().contains("\"full_name\": \"o/r24\""));
+            assertFalse(last.body().contains("o/r25"));
+            assertEquals("2", last.headers().firstValue("X-RateLimit-Limit").orElseThrow());
+            assertEquals("1", last.headers().firstValue("X-RateLimit-Remaining").orElseThrow());
+
+            assertEquals(200, get(stub, "?per_page=10&page=4").statusCode());
+            HttpResponse<String> limited = get(stub, "?per_page=10&page=1");
+            assertEquals(403, limited.statusCode());
+            assertEquals("0", limited.headers().firstValue("X-RateLimit-Remaining").orElseThrow());
+            assertEquals(1, stub.rateLimited());
+        }
+    }
+
+    @Test
+    void injectsErrorsAtTheConfiguredRate() throws Exception {
+        try (GitHubStubServer stub = new GitHubStubServer().errorRate(0.5)) {
+            for (int i = 0; i < 100; i++) get(stub, "?per_page=1");
+
+            assertTrue(stub.errors() > 30 && stub.errors() < 70, "errors: " + stub.errors());
+        }
+    }
+
+    private HttpResponse<String> get(GitHubStubServer stub, String query) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(stub.baseUrl() + "/search/repositories" + query)).build();
+        return http.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+}
@@ -0,0 +1,64 @@
+package com.service;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * SIMD implementation of {@link ScoreCalculator#scoreBatch} on the incubating Vector API.
+ * <p>Compiled only by the {@code vector} Maven profile, and loaded by {@link ScoreCalculator}
+ * only once it has confirmed that the {@code jdk.incubator.vector} module is present.</p>
+ */
+final class VectorScoreKernel implements ScoreKernel {
+
+    private static final VectorSpecies<Double> DOUBLES = DoubleVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Integer> INTS =
+            VectorSpecies.of(int.class, VectorShape.forBitSize(DOUBLES.vectorBitSize() / 2));
+
+    /**
+     * Scores {@code n} repositories lane-parallel.
+     *
+     * @param stars     star counts
+     * @param forks     fork counts
+     * @param daysInOut ages in days on entry, scores on return
+     * @param n         number of repositories
+     * @param wStars    weight for stars
+     * @param wForks    weight for forks
+     * @param wRecency  weight for recency
+     * @param tauDays   time decay constant (in days)
+     */
+    @Override
+    public void score(
+            final int[] stars,
+            final int[] forks,
+            final double[] daysInOut,
+            final int n,
+            final double wStars,
+            final double wForks,
+            final double wRecency,
+            final double tauDays
+    ) {
+        final int bound = DOUBLES.loopBound(n);
+        int i = 0;
+        for (; i < bound; i += DOUBLES.length()) {
+            final DoubleVector s = ((DoubleVector) IntVector.fromArray(INTS, stars, i)
+                    .convertShape(VectorOperators.I2D, DOUBLES, 0))
+                    .lanewise(VectorOperators.LOG1P);
+            final DoubleVector f = ((DoubleVector) IntVector.fromArray(INTS, forks, i)
+                    .convertShape(VectorOperators.I2D, DOUBLES, 0))
+                    .lanewise(VectorOperators.LOG1P);
+            final DoubleVector r = DoubleVector.fromArray(DOUBLES, daysInOut, i)
+                    .neg()
+                    .div(tauDays)
+                    .lanewise(VectorOperators.EXP);
+            s.mul(wStars).add(f.mul(wForks)).add(r.mul(wRecency)).intoArray(daysInOut, i);
+        }
+        for (; i < n; i++) {
+            daysInOut[i] = wStars * Math.log1p(stars[i])
+                    + wForks * Math.log1p(forks[i])
+                    + wRecency * Math.exp(-daysInOut[i] / tauDays);
+        }
+    }
+}